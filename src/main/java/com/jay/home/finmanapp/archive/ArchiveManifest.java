@@ -0,0 +1,56 @@
+package com.jay.home.finmanapp.archive;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The list of a user's archive segments, stored as {@code manifest.json} next to them.
+ *
+ * A month is only part of the archive once its segment is in the manifest, so the manifest is
+ * rewritten, atomically, after the segment file it refers to is complete.
+ *
+ * @param segments The segments, in month order
+ */
+public record ArchiveManifest(List<Segment> segments) {
+
+    /**
+     * One month of archived transactions.
+     *
+     * @param month The month, as {@code yyyy-MM}
+     * @param file The name of the segment file, relative to the user's archive directory
+     * @param rows The number of transactions in the segment
+     * @param firstDate The date of the earliest transaction
+     * @param lastDate The date of the latest transaction
+     */
+    public record Segment(String month, String file, int rows, LocalDateTime firstDate, LocalDateTime lastDate) {
+
+        public YearMonth yearMonth() {
+            return YearMonth.parse(month);
+        }
+
+        /**
+         * @return Whether the segment may hold transactions within the inclusive range
+         */
+        public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+            return !firstDate.isAfter(to) && !lastDate.isBefore(from);
+        }
+    }
+
+    public static ArchiveManifest empty() {
+        return new ArchiveManifest(List.of());
+    }
+
+    /**
+     * @return A manifest with the segment of a month added or replaced
+     */
+    public ArchiveManifest with(Segment segment) {
+        List<Segment> updated = new ArrayList<>(segments);
+        updated.removeIf(existing -> existing.month().equals(segment.month()));
+        updated.add(segment);
+        updated.sort(Comparator.comparing(Segment::month));
+        return new ArchiveManifest(List.copyOf(updated));
+    }
+}
@@ -0,0 +1,36 @@
+package com.jay.home.finmanapp.archive;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A transaction as stored in an archive segment.
+ *
+ * Holds the columns of the transactions table by ID rather than as entities. Amounts are in
+ * cents and dates keep microsecond precision, the precision of a database timestamp.
+ *
+ * @param id The transaction's ID in the transactions table, kept so that archived and live rows can be deduplicated
+ * @param accountId The ID of the account of the transaction
+ * @param transactionId The external transaction identifier
+ * @param description The description of the transaction
+ * @param amountCents The amount in cents, negative for outflows
+ * @param date The date and time of the transaction
+ * @param categoryId The ID of the category, or {@code null} when uncategorized
+ * @param manualEntry Whether the transaction was entered manually
+ */
+public record ArchivedTransaction(long id, long accountId, String transactionId, String description,
+                                  long amountCents, LocalDateTime date, Long categoryId, boolean manualEntry) {
+
+    public BigDecimal amount() {
+        return BigDecimal.valueOf(amountCents, 2);
+    }
+
+    /**
+     * Converts an amount to cents.
+     *
+     * @throws ArithmeticException If the amount has a fraction of a cent, which cannot be archived exactly
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0).longValueExact();
+    }
+}
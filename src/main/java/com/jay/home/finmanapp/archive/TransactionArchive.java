@@ -0,0 +1,219 @@
+package com.jay.home.finmanapp.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jay.home.finmanapp.model.Account;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cold storage of old transactions, as one {@link TransactionSegment} file per user and month
+ * under {@code app.archive.directory}:
+ * <pre>
+ * user-42/manifest.json
+ * user-42/2022-03.seg
+ * user-42/2022-04.seg
+ * </pre>
+ * The directory is shared by every instance of the application. Manifests are kept in memory
+ * and read again when the file's modification time or identity changes, as it does when another
+ * instance archives a month, so a query costs one file-status call. Adding a segment holds an
+ * exclusive file lock on the user's {@code manifest.lock} while it reads, updates and writes the
+ * manifest, so instances archiving the same user cannot drop each other's segments. Segments are
+ * memory-mapped when read, leaving the caching of their pages to the operating system.
+ */
+@Component
+public class TransactionArchive {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionArchive.class);
+    private static final String MANIFEST = "manifest.json";
+    private static final String LOCK = "manifest.lock";
+
+    /**
+     * A manifest as read from its file, with what identifies that version of the file.
+     */
+    private record CachedManifest(ArchiveManifest manifest, Object fileKey, long modifiedMillis) {
+
+        boolean isCurrent(BasicFileAttributes attributes) {
+            return attributes != null
+                    ? Objects.equals(fileKey, attributes.fileKey())
+                            && modifiedMillis == attributes.lastModifiedTime().toMillis()
+                    : modifiedMillis == -1;
+        }
+    }
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, CachedManifest> manifests = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TransactionArchive(@Value("${app.archive.directory:data/archive}") Path directory,
+                              ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return The user's manifest, empty if nothing of the user is archived
+     */
+    public ArchiveManifest manifest(Long userId) {
+        BasicFileAttributes attributes = manifestAttributes(userId);
+        CachedManifest cached = manifests.get(userId);
+        if (cached == null || !cached.isCurrent(attributes)) {
+            cached = loadManifest(userId, attributes);
+            manifests.put(userId, cached);
+        }
+        return cached.manifest();
+    }
+
+    /**
+     * Finds the archived transactions of accounts within an inclusive date range.
+     *
+     * @return The transactions, in date order per user
+     */
+    public List<ArchivedTransaction> find(Collection<Account> accounts, LocalDateTime start, LocalDateTime end) {
+        List<ArchivedTransaction> found = new ArrayList<>();
+        accountIdsByUser(accounts).forEach((userId, accountIds) -> {
+            for (ArchiveManifest.Segment segment : manifest(userId).segments()) {
+                if (segment.overlaps(start, end)) {
+                    found.addAll(open(userId, segment).read(start, end, accountIds));
+                }
+            }
+        });
+        return found;
+    }
+
+    /**
+     * Finds the archived transactions of a user within an inclusive date range.
+     *
+     * @return The transactions, in date order
+     */
+    public List<ArchivedTransaction> find(Long userId, LocalDateTime start, LocalDateTime end) {
+        List<ArchivedTransaction> found = new ArrayList<>();
+        for (ArchiveManifest.Segment segment : manifest(userId).segments()) {
+            if (segment.overlaps(start, end)) {
+                found.addAll(open(userId, segment).read(start, end, null));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Adds transactions to the segment of a month, creating it if needed, and then to the
+     * manifest. A transaction already in the segment with the same account and external ID
+     * is replaced, so archiving the same rows twice is harmless.
+     *
+     * @return The segment as recorded in the manifest
+     */
+    public synchronized ArchiveManifest.Segment archive(Long userId, YearMonth month,
+                                                        List<ArchivedTransaction> transactions) throws IOException {
+        Path userDirectory = userDirectory(userId);
+        Files.createDirectories(userDirectory);
+        try (FileChannel channel = FileChannel.open(userDirectory.resolve(LOCK),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = channel.lock()) {
+            // Read under the lock: the cached copy may predate another instance's segments
+            ArchiveManifest manifest = loadManifest(userId, manifestAttributes(userId)).manifest();
+            Map<String, ArchivedTransaction> merged = new LinkedHashMap<>();
+            for (ArchiveManifest.Segment existing : manifest.segments()) {
+                if (existing.yearMonth().equals(month)) {
+                    open(userId, existing).readAll().forEach(transaction -> merged.put(key(transaction), transaction));
+                }
+            }
+            transactions.forEach(transaction -> merged.put(key(transaction), transaction));
+            List<ArchivedTransaction> rows = new ArrayList<>(merged.values());
+
+            String file = month + ".seg";
+            TransactionSegment.write(rows, userDirectory.resolve(file));
+
+            LocalDateTime first = rows.stream().map(ArchivedTransaction::date).min(LocalDateTime::compareTo).orElseThrow();
+            LocalDateTime last = rows.stream().map(ArchivedTransaction::date).max(LocalDateTime::compareTo).orElseThrow();
+            ArchiveManifest.Segment segment = new ArchiveManifest.Segment(month.toString(), file, rows.size(), first, last);
+            writeManifest(userDirectory, manifest.with(segment));
+            manifests.remove(userId);
+            return segment;
+        }
+    }
+
+    private TransactionSegment open(Long userId, ArchiveManifest.Segment segment) {
+        try {
+            return TransactionSegment.open(userDirectory(userId).resolve(segment.file()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read archive segment " + segment.file() + " of user " + userId, e);
+        }
+    }
+
+    /**
+     * @return The attributes of the user's manifest file, or null if it does not exist
+     */
+    private BasicFileAttributes manifestAttributes(Long userId) {
+        try {
+            return Files.readAttributes(userDirectory(userId).resolve(MANIFEST), BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read archive manifest of user " + userId, e);
+        }
+    }
+
+    private CachedManifest loadManifest(Long userId, BasicFileAttributes attributes) {
+        if (attributes == null) {
+            return new CachedManifest(ArchiveManifest.empty(), null, -1);
+        }
+        try {
+            ArchiveManifest manifest = objectMapper.readValue(
+                    userDirectory(userId).resolve(MANIFEST).toFile(), ArchiveManifest.class);
+            logger.debug("Loaded archive manifest of user {} with {} segments", userId, manifest.segments().size());
+            return new CachedManifest(manifest, attributes.fileKey(), attributes.lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read archive manifest of user " + userId, e);
+        }
+    }
+
+    private void writeManifest(Path userDirectory, ArchiveManifest manifest) throws IOException {
+        Path temporary = userDirectory.resolve(MANIFEST + ".tmp");
+        objectMapper.writeValue(temporary.toFile(), manifest);
+        Files.move(temporary, userDirectory.resolve(MANIFEST),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path userDirectory(Long userId) {
+        return directory.resolve("user-" + userId);
+    }
+
+    private static String key(ArchivedTransaction transaction) {
+        return transaction.accountId() + ":" + transaction.transactionId();
+    }
+
+    private static Map<Long, Set<Long>> accountIdsByUser(Collection<Account> accounts) {
+        Map<Long, Set<Long>> accountIds = new LinkedHashMap<>();
+        for (Account account : accounts) {
+            if (account.getUser() != null) {
+                accountIds.computeIfAbsent(account.getUser().getId(), id -> new HashSet<>()).add(account.getId());
+            }
+        }
+        return accountIds;
+    }
+}
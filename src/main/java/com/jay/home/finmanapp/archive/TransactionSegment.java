@@ -0,0 +1,337 @@
+package com.jay.home.finmanapp.archive;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A read-only, column-oriented file of archived transactions, typically one month of one user.
+ *
+ * Rows are sorted by date and each column is stored contiguously with an encoding suited to it:
+ * dates as variable-length deltas in microseconds, IDs as zigzag deltas, amounts in cents as
+ * zigzag varints, category IDs as varints, and descriptions through a dictionary of the distinct
+ * values, since the same merchants come back month after month. Those encodings make a segment
+ * several times smaller than its rows in the database while staying cheap to decode straight
+ * from a memory-mapped file, and a query only decodes the columns it needs: aggregates read
+ * dates, accounts, amounts and categories, never the strings.
+ *
+ * Layout: magic, version, row count, the byte length of each of the {@value #COLUMNS} columns,
+ * then the columns in the order date, ID, account, amount, category, description, external ID
+ * and manual-entry bitmap.
+ */
+public final class TransactionSegment {
+    private static final int MAGIC = 0x464D5453; // "FMTS"
+    private static final short VERSION = 1;
+    private static final int COLUMNS = 8;
+    private static final int HEADER_SIZE = 4 + 2 + 4 + 4 * COLUMNS;
+
+    private static final int DATE = 0;
+    private static final int ID = 1;
+    private static final int ACCOUNT = 2;
+    private static final int AMOUNT = 3;
+    private static final int CATEGORY = 4;
+    private static final int DESCRIPTION = 5;
+    private static final int TRANSACTION_ID = 6;
+    private static final int MANUAL = 7;
+
+    private final ByteBuffer buffer;
+    private final int rows;
+    private final int[] offsets = new int[COLUMNS];
+
+    private TransactionSegment(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a transaction segment");
+        }
+        if (buffer.getShort(4) != VERSION) {
+            throw new IOException("Unsupported transaction segment version " + buffer.getShort(4));
+        }
+        this.rows = buffer.getInt(6);
+        int offset = HEADER_SIZE;
+        for (int column = 0; column < COLUMNS; column++) {
+            offsets[column] = offset;
+            offset += buffer.getInt(10 + 4 * column);
+        }
+        if (offset > buffer.limit()) {
+            throw new IOException("Truncated transaction segment");
+        }
+    }
+
+    /**
+     * Maps a segment file into memory. The mapping stays valid after the file is replaced or
+     * deleted, so a segment being read is never affected by archival.
+     */
+    public static TransactionSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new TransactionSegment(buffer);
+        }
+    }
+
+    static TransactionSegment wrap(byte[] bytes) throws IOException {
+        return new TransactionSegment(ByteBuffer.wrap(bytes));
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * Reads every row of the segment, in date order.
+     */
+    public List<ArchivedTransaction> readAll() {
+        return read(null, null, null);
+    }
+
+    /**
+     * Reads the rows within an inclusive date range, in date order.
+     *
+     * @param from First date included, or {@code null} for no lower bound
+     * @param to Last date included, or {@code null} for no upper bound
+     * @param accountIds The accounts to include, or {@code null} for all
+     */
+    public List<ArchivedTransaction> read(LocalDateTime from, LocalDateTime to, Set<Long> accountIds) {
+        long[] dates = dates();
+        int first = from == null ? 0 : lowerBound(dates, toMicros(from));
+        int last = to == null ? rows : upperBound(dates, toMicros(to));
+        List<ArchivedTransaction> result = new ArrayList<>();
+        if (first >= last) {
+            return result;
+        }
+
+        Cursor ids = cursor(ID);
+        Cursor accounts = cursor(ACCOUNT);
+        Cursor amounts = cursor(AMOUNT);
+        Cursor categories = cursor(CATEGORY);
+        Cursor descriptions = cursor(DESCRIPTION);
+        String[] dictionary = new String[(int) descriptions.varint()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = descriptions.string();
+        }
+        Cursor transactionIds = cursor(TRANSACTION_ID);
+        int manual = offsets[MANUAL];
+
+        long id = 0;
+        for (int row = 0; row < last; row++) {
+            id += unzigzag(ids.varint());
+            long accountId = accounts.varint();
+            long amount = unzigzag(amounts.varint());
+            long category = categories.varint();
+            int description = (int) descriptions.varint();
+            if (row < first) {
+                transactionIds.skipString();
+                continue;
+            }
+            String transactionId = transactionIds.string();
+            if (accountIds != null && !accountIds.contains(accountId)) {
+                continue;
+            }
+            boolean manualEntry = (buffer.get(manual + row / 8) & (1 << (row % 8))) != 0;
+            result.add(new ArchivedTransaction(id, accountId, transactionId, dictionary[description], amount,
+                    fromMicros(dates[row]), category == 0 ? null : category - 1, manualEntry));
+        }
+        return result;
+    }
+
+    private long[] dates() {
+        long[] dates = new long[rows];
+        Cursor cursor = cursor(DATE);
+        long date = 0;
+        for (int row = 0; row < rows; row++) {
+            date += row == 0 ? unzigzag(cursor.varint()) : cursor.varint();
+            dates[row] = date;
+        }
+        return dates;
+    }
+
+    private Cursor cursor(int column) {
+        return new Cursor(offsets[column]);
+    }
+
+    /**
+     * Writes rows as a segment. The rows are sorted by date and then ID first.
+     */
+    public static void write(List<ArchivedTransaction> transactions, OutputStream output) throws IOException {
+        List<ArchivedTransaction> sorted = new ArrayList<>(transactions);
+        sorted.sort(Comparator.comparing(ArchivedTransaction::date).thenComparingLong(ArchivedTransaction::id));
+
+        ByteArrayOutputStream[] columns = new ByteArrayOutputStream[COLUMNS];
+        for (int column = 0; column < COLUMNS; column++) {
+            columns[column] = new ByteArrayOutputStream();
+        }
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> dictionaryValues = new ArrayList<>();
+        ByteArrayOutputStream descriptionIndexes = new ByteArrayOutputStream();
+        byte[] manual = new byte[(sorted.size() + 7) / 8];
+
+        long previousDate = 0;
+        long previousId = 0;
+        for (int row = 0; row < sorted.size(); row++) {
+            ArchivedTransaction transaction = sorted.get(row);
+            long date = toMicros(transaction.date());
+            putVarint(columns[DATE], row == 0 ? zigzag(date) : date - previousDate);
+            previousDate = date;
+            putVarint(columns[ID], zigzag(transaction.id() - previousId));
+            previousId = transaction.id();
+            putVarint(columns[ACCOUNT], transaction.accountId());
+            putVarint(columns[AMOUNT], zigzag(transaction.amountCents()));
+            putVarint(columns[CATEGORY], transaction.categoryId() == null ? 0 : transaction.categoryId() + 1);
+            Integer index = dictionary.get(transaction.description());
+            if (index == null) {
+                index = dictionaryValues.size();
+                dictionary.put(transaction.description(), index);
+                dictionaryValues.add(transaction.description());
+            }
+            putVarint(descriptionIndexes, index);
+            putString(columns[TRANSACTION_ID], transaction.transactionId());
+            if (transaction.manualEntry()) {
+                manual[row / 8] |= (byte) (1 << (row % 8));
+            }
+        }
+        putVarint(columns[DESCRIPTION], dictionaryValues.size());
+        for (String value : dictionaryValues) {
+            putString(columns[DESCRIPTION], value);
+        }
+        descriptionIndexes.writeTo(columns[DESCRIPTION]);
+        columns[MANUAL].write(manual);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putShort(VERSION)
+                .putInt(sorted.size());
+        for (ByteArrayOutputStream column : columns) {
+            header.putInt(column.size());
+        }
+        output.write(header.array());
+        for (ByteArrayOutputStream column : columns) {
+            column.writeTo(output);
+        }
+    }
+
+    /**
+     * Writes rows as a segment file, replacing it atomically if it exists.
+     */
+    public static void write(List<ArchivedTransaction> transactions, Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream output = Files.newOutputStream(temporary)) {
+            write(transactions, output);
+        }
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static long toMicros(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + date.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static int lowerBound(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBound(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void putVarint(ByteArrayOutputStream output, long value) {
+        while ((value & ~0x7FL) != 0) {
+            output.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.write((int) value);
+    }
+
+    private static void putString(ByteArrayOutputStream output, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putVarint(output, bytes.length);
+        output.writeBytes(bytes);
+    }
+
+    /**
+     * Sequential reader of one column.
+     */
+    private final class Cursor {
+        private int position;
+
+        private Cursor(int position) {
+            this.position = position;
+        }
+
+        long varint() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(position++);
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        String string() {
+            int length = (int) varint();
+            byte[] bytes = new byte[length];
+            buffer.get(position, bytes);
+            position += length;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        void skipString() {
+            int length = (int) varint();
+            position += length;
+        }
+    }
+}
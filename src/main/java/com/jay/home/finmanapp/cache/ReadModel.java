@@ -0,0 +1,32 @@
+package com.jay.home.finmanapp.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method whose result is a per-user read model that may be cached.
+ *
+ * The first argument must identify the owning user, either as a {@code User} or as a
+ * {@code Long} user ID. Entries are keyed by that user's current data version, so any
+ * write that bumps the version (see {@code DataVersionService}) makes every cached view
+ * of that user unreachable the moment the write commits.
+ *
+ * Cached results are shared between callers and must not be modified. Annotated methods
+ * should therefore return immutable values, DTOs or plain maps rather than JPA entities,
+ * which cannot be used outside the session that loaded them.
+ *
+ * @see ReadModelCacheInterceptor
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadModel {
+
+    /**
+     * Name of the cache region, used in the key and as the metric tag.
+     */
+    String value();
+}
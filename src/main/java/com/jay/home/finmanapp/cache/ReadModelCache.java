@@ -0,0 +1,92 @@
+package com.jay.home.finmanapp.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Two-tier store behind the {@link ReadModel} cache.
+ *
+ * The local tier is always present (bounded and expiring, see {@code ReadModelCacheConfig}).
+ * The optional shared tier is any {@link CacheManager}, for example one backed by Redis,
+ * and lets nodes reuse each other's results. Both tiers are plain Spring caches, so the
+ * backing implementation can be swapped without touching the services.
+ */
+public class ReadModelCache {
+    private final CacheManager localCacheManager;
+    private final CacheManager sharedCacheManager;
+
+    /**
+     * @param localCacheManager In-process cache manager
+     * @param sharedCacheManager Shared cache manager, or null to run with the local tier only
+     */
+    public ReadModelCache(CacheManager localCacheManager, CacheManager sharedCacheManager) {
+        this.localCacheManager = localCacheManager;
+        this.sharedCacheManager = sharedCacheManager;
+    }
+
+    /**
+     * Looks up an entry, consulting the shared tier on a local miss and copying
+     * shared hits into the local tier.
+     *
+     * @param region Cache region name
+     * @param key Entry key
+     * @return The cached value, or null on a miss
+     */
+    public Object get(String region, String key) {
+        Cache local = localCacheManager.getCache(region);
+        Cache.ValueWrapper hit = local != null ? local.get(key) : null;
+        if (hit != null) {
+            return hit.get();
+        }
+        Cache shared = sharedCache(region);
+        hit = shared != null ? shared.get(key) : null;
+        if (hit != null && hit.get() != null) {
+            if (local != null) {
+                local.put(key, hit.get());
+            }
+            return hit.get();
+        }
+        return null;
+    }
+
+    /**
+     * Stores an entry in both tiers. Null values are not cached.
+     */
+    public void put(String region, String key, Object value) {
+        if (value == null) {
+            return;
+        }
+        Cache local = localCacheManager.getCache(region);
+        if (local != null) {
+            local.put(key, value);
+        }
+        Cache shared = sharedCache(region);
+        if (shared != null) {
+            shared.put(key, value);
+        }
+    }
+
+    /**
+     * Drops every entry of every region. Used for writes to data shared by all users,
+     * such as categories, which the per-user data version does not cover.
+     */
+    public void clear() {
+        clear(localCacheManager);
+        if (sharedCacheManager != null) {
+            clear(sharedCacheManager);
+        }
+    }
+
+    private Cache sharedCache(String region) {
+        return sharedCacheManager != null ? sharedCacheManager.getCache(region) : null;
+    }
+
+    private static void clear(CacheManager cacheManager) {
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
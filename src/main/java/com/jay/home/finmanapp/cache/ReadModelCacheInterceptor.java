@@ -0,0 +1,100 @@
+package com.jay.home.finmanapp.cache;
+
+import com.jay.home.finmanapp.model.User;
+import com.jay.home.finmanapp.service.DataVersionService;
+import com.jay.home.finmanapp.util.InvocationKeys;
+import io.micrometer.core.instrument.Metrics;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Method interceptor that serves {@link ReadModel} methods from the {@link ReadModelCache}.
+ *
+ * Keys have the form {@code region|userId|dataVersion|epochDay|arg1,arg2,...}. The data
+ * version is read from the database on every call, so a write committed on any node
+ * invalidates the affected entries immediately, without explicit eviction. The current date
+ * is part of the key because active budgets, due bills and spending windows move with the
+ * calendar. Superseded entries are never read again and age out of the cache.
+ *
+ * Calls made inside a read-write transaction bypass the cache. Such a transaction may already
+ * have bumped the version and changed data that could still be rolled back.
+ *
+ * Hits and misses are counted in {@code finmanapp.readmodel.hits} and
+ * {@code finmanapp.readmodel.misses}, tagged with the region.
+ */
+public class ReadModelCacheInterceptor implements MethodInterceptor {
+
+    static final String HIT_METRIC = "finmanapp.readmodel.hits";
+    static final String MISS_METRIC = "finmanapp.readmodel.misses";
+
+    private final ReadModelCache cache;
+    private final DataVersionService dataVersionService;
+
+    public ReadModelCacheInterceptor(ReadModelCache cache, DataVersionService dataVersionService) {
+        this.cache = cache;
+        this.dataVersionService = dataVersionService;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object[] args = invocation.getArguments();
+        Long userId = args.length > 0 ? ownerId(args[0]) : null;
+        if (userId == null || inReadWriteTransaction()) {
+            return invocation.proceed();
+        }
+
+        Optional<Long> version = dataVersionService.currentVersion(userId);
+        if (version.isEmpty()) {
+            return invocation.proceed();
+        }
+
+        String region = AnnotationUtils.findAnnotation(invocation.getMethod(), ReadModel.class).value();
+        String key = buildKey(region, userId, version.get(), LocalDate.now(), args);
+
+        Object cached = cache.get(region, key);
+        if (cached != null) {
+            Metrics.counter(HIT_METRIC, "region", region).increment();
+            return cached;
+        }
+
+        Metrics.counter(MISS_METRIC, "region", region).increment();
+        Object result = invocation.proceed();
+        cache.put(region, key, result);
+        return result;
+    }
+
+    static String buildKey(String region, Long userId, long version, LocalDate today, Object[] args) {
+        StringBuilder key = new StringBuilder(region)
+                .append('|').append(userId)
+                .append('|').append(version)
+                .append('|').append(today.toEpochDay())
+                .append('|');
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                key.append(',');
+            }
+            InvocationKeys.appendArgument(key, args[i]);
+        }
+        return key.toString();
+    }
+
+    private static Long ownerId(Object arg) {
+        if (arg instanceof User user) {
+            return user.getId();
+        }
+        if (arg instanceof Long userId) {
+            return userId;
+        }
+        return null;
+    }
+
+    private static boolean inReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
@@ -0,0 +1,76 @@
+package com.jay.home.finmanapp.cache;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Statistics of a user's daily outflows over a range of past days, per category and over all
+ * categories, kept separately for weekdays and weekend days. Built by
+ * {@link TransactionColumns#spendingRates}; days without any outflow count as zero.
+ *
+ * Instances are immutable and safe to share between threads.
+ */
+public final class SpendingRates {
+
+    /**
+     * Mean and variance, in cents, of the outflow of one day.
+     */
+    public record DailyRate(double weekdayMean, double weekdayVariance, double weekendMean, double weekendVariance) {
+        public static final DailyRate ZERO = new DailyRate(0, 0, 0, 0);
+
+        /**
+         * @return The mean outflow of a day of the given kind
+         */
+        public double mean(boolean weekend) {
+            return weekend ? weekendMean : weekdayMean;
+        }
+
+        /**
+         * @return The variance of the outflow of a day of the given kind
+         */
+        public double variance(boolean weekend) {
+            return weekend ? weekendVariance : weekdayVariance;
+        }
+    }
+
+    private final LocalDate until;
+    private final int days;
+    private final Map<Long, DailyRate> byCategory;
+    private final DailyRate all;
+
+    SpendingRates(LocalDate until, int days, Map<Long, DailyRate> byCategory, DailyRate all) {
+        this.until = until;
+        this.days = days;
+        this.byCategory = byCategory;
+        this.all = all;
+    }
+
+    /**
+     * @return The last day of the history the statistics were computed over
+     */
+    public LocalDate until() {
+        return until;
+    }
+
+    /**
+     * @return The number of days of history, 0 if the user had no transactions yet
+     */
+    public int days() {
+        return days;
+    }
+
+    /**
+     * @param categoryId A category ID, {@code null} for uncategorized outflows
+     * @return The daily outflow of the category, zero if it had none
+     */
+    public DailyRate category(Long categoryId) {
+        return byCategory.getOrDefault(categoryId, DailyRate.ZERO);
+    }
+
+    /**
+     * @return The daily outflow over all categories, uncategorized included
+     */
+    public DailyRate all() {
+        return all;
+    }
+}
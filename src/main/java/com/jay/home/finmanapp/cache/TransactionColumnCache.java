@@ -0,0 +1,176 @@
+package com.jay.home.finmanapp.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jay.home.finmanapp.archive.ArchivedTransaction;
+import com.jay.home.finmanapp.archive.TransactionArchive;
+import com.jay.home.finmanapp.model.Account;
+import com.jay.home.finmanapp.repository.TransactionRepositoryCustom;
+import com.jay.home.finmanapp.service.DataVersionService;
+import com.jay.home.finmanapp.util.Money;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Cache of the recent transaction history of active users as {@link TransactionColumns}.
+ *
+ * An entry holds every transaction of a user, archived ones included, from the first day of
+ * the month {@code app.transaction-cache.months} months ago. Months are counted on the
+ * injected {@link Clock}, which callers also compute their windows with. Entries are
+ * weighed by their size and evicted, least recently used first, once their total exceeds
+ * {@code app.transaction-cache.max-size}, or when unused for {@code app.transaction-cache.ttl}.
+ *
+ * Like the read-model cache, an entry is tagged with the user's data version, which every
+ * transaction write path bumps; a version read from the database on each call therefore
+ * invalidates entries after a write committed on any node. Requests for older dates, and calls
+ * inside a read-write transaction, are served from columns loaded for the call only.
+ *
+ * Loads and hits are counted in {@code finmanapp.transaction-columns.requests}, tagged with
+ * the result.
+ */
+@Component
+public class TransactionColumnCache {
+    static final String REQUESTS_METRIC = "finmanapp.transaction-columns.requests";
+
+    private static final String LOAD_SQL = "SELECT t.date, t.amount, t.account_id, t.category_id, t.transaction_id "
+            + "FROM transactions t JOIN accounts a ON a.id = t.account_id WHERE a.user_id = ? AND t.date >= ?";
+
+    private record Entry(long version, TransactionColumns columns) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionArchive transactionArchive;
+    private final DataVersionService dataVersionService;
+    private final Clock clock;
+    private final int months;
+    private final Cache<Long, Entry> cache;
+
+    @Autowired
+    public TransactionColumnCache(JdbcTemplate jdbcTemplate, TransactionArchive transactionArchive,
+                                  DataVersionService dataVersionService, Clock clock,
+                                  @Value("${app.transaction-cache.months:13}") int months,
+                                  @Value("${app.transaction-cache.max-size:64MB}") DataSize maxSize,
+                                  @Value("${app.transaction-cache.ttl:30m}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionArchive = transactionArchive;
+        this.dataVersionService = dataVersionService;
+        this.clock = clock;
+        this.months = months;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Long userId, Entry entry) -> (int) Math.min(entry.columns().sizeInBytes(), Integer.MAX_VALUE))
+                .expireAfterAccess(ttl)
+                .build();
+    }
+
+    /**
+     * Gets a user's transactions from a date on.
+     *
+     * @param userId The ID of the user
+     * @param start The earliest date that will be queried
+     * @return Columns covering every transaction of the user from {@code start} on
+     */
+    public TransactionColumns get(Long userId, LocalDateTime start) {
+        LocalDateTime cachedFrom = LocalDate.now(clock).withDayOfMonth(1).minusMonths(months).atStartOfDay();
+        Optional<Long> version = dataVersionService.currentVersion(userId);
+        if (start.isBefore(cachedFrom) || version.isEmpty() || inReadWriteTransaction()) {
+            Metrics.counter(REQUESTS_METRIC, "result", "uncached").increment();
+            return load(userId, start);
+        }
+
+        Entry entry = cache.getIfPresent(userId);
+        if (entry != null && entry.version() == version.get() && entry.columns().covers(start)) {
+            Metrics.counter(REQUESTS_METRIC, "result", "hit").increment();
+            return entry.columns();
+        }
+        Metrics.counter(REQUESTS_METRIC, "result", "miss").increment();
+        TransactionColumns columns = load(userId, cachedFrom);
+        cache.put(userId, new Entry(version.get(), columns));
+        return columns;
+    }
+
+    /**
+     * Sums outflows per category and window over the cached columns of the accounts' owners.
+     *
+     * @return Outflow totals in cents keyed by category ID, {@code null} for uncategorized, one entry per window
+     * @see TransactionColumns#sumOutflowCentsByCategoryAndWindow
+     */
+    public Map<Long, long[]> sumOutflowCentsByCategoryAndWindow(List<Account> accounts,
+                                                               List<TransactionRepositoryCustom.Window> windows) {
+        Map<Long, long[]> totals = new HashMap<>();
+        if (accounts == null || accounts.isEmpty() || windows == null || windows.isEmpty()) {
+            return totals;
+        }
+        LocalDateTime start = windows.stream().map(TransactionRepositoryCustom.Window::start)
+                .min(LocalDateTime::compareTo).orElseThrow();
+        accountIdsByUser(accounts).forEach((userId, accountIds) -> {
+            TransactionColumns columns = get(userId, start);
+            columns.sumOutflowCentsByCategoryAndWindow(columns.accountMask(accountIds), windows)
+                    .forEach((category, perWindow) -> totals.merge(category, perWindow, (a, b) -> {
+                        long[] sum = new long[a.length];
+                        for (int i = 0; i < a.length; i++) {
+                            sum[i] = Money.add(a[i], b[i]);
+                        }
+                        return sum;
+                    }));
+        });
+        return totals;
+    }
+
+    /**
+     * Loads a user's transactions from a date on, from the database and the archive.
+     * An archived transaction still in the database, which happens while it is being
+     * archived, is only counted once.
+     */
+    TransactionColumns load(Long userId, LocalDateTime from) {
+        TransactionColumns.Builder builder = new TransactionColumns.Builder(from);
+        List<ArchivedTransaction> archived = transactionArchive.find(userId, from, LocalDateTime.MAX);
+        Set<String> live = new HashSet<>();
+        jdbcTemplate.query(LOAD_SQL, resultSet -> {
+            long accountId = resultSet.getLong("account_id");
+            builder.add(resultSet.getTimestamp("date").toLocalDateTime(), resultSet.getBigDecimal("amount"),
+                    accountId, resultSet.getObject("category_id", Long.class));
+            if (!archived.isEmpty()) {
+                live.add(accountId + ":" + resultSet.getString("transaction_id"));
+            }
+        }, userId, Timestamp.valueOf(from));
+        for (ArchivedTransaction transaction : archived) {
+            if (!live.contains(transaction.accountId() + ":" + transaction.transactionId())) {
+                builder.add(TransactionColumns.toMicros(transaction.date()), transaction.amountCents(),
+                        transaction.accountId(), transaction.categoryId());
+            }
+        }
+        return builder.build();
+    }
+
+    private static boolean inReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static Map<Long, Set<Long>> accountIdsByUser(List<Account> accounts) {
+        return accounts.stream()
+                .filter(account -> account.getUser() != null)
+                .collect(Collectors.groupingBy(account -> account.getUser().getId(), LinkedHashMap::new,
+                        Collectors.mapping(Account::getId, Collectors.toSet())));
+    }
+}
@@ -0,0 +1,402 @@
+package com.jay.home.finmanapp.cache;
+
+import com.jay.home.finmanapp.repository.TransactionRepositoryCustom;
+import com.jay.home.finmanapp.util.Money;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A user's transactions from a given date on, held as parallel primitive arrays sorted by date.
+ *
+ * Each transaction takes 24 bytes: its date in microseconds since the epoch, its amount in
+ * cents (see {@link Money}), and the ordinals of its account and category in two small
+ * dictionaries. Aggregates are plain overflow-checked loops over these arrays, with a date
+ * range found by binary search and no object allocated per transaction, instead of
+ * materializing {@code Transaction} entities with {@code BigDecimal} amounts and
+ * {@code LocalDateTime} dates.
+ *
+ * Instances are immutable and safe to share between threads.
+ */
+public final class TransactionColumns {
+    /**
+     * Category ordinal of uncategorized transactions.
+     */
+    static final int UNCATEGORIZED = 0;
+    private static final long MICROS_PER_DAY = 86_400_000_000L;
+    private static final int BYTES_PER_ROW = Long.BYTES * 2 + Integer.BYTES * 2;
+
+    private final LocalDateTime from;
+    private final long[] dates;
+    private final long[] cents;
+    private final int[] accounts;
+    private final int[] categories;
+    private final long[] accountIds;
+    private final Long[] categoryIds;
+
+    private TransactionColumns(LocalDateTime from, long[] dates, long[] cents, int[] accounts, int[] categories,
+                               long[] accountIds, Long[] categoryIds) {
+        this.from = from;
+        this.dates = dates;
+        this.cents = cents;
+        this.accounts = accounts;
+        this.categories = categories;
+        this.accountIds = accountIds;
+        this.categoryIds = categoryIds;
+    }
+
+    /**
+     * @return Whether every transaction at or after a date is held
+     */
+    public boolean covers(LocalDateTime start) {
+        return !start.isBefore(from);
+    }
+
+    public int size() {
+        return dates.length;
+    }
+
+    /**
+     * @return Approximate heap size of the arrays, the weight of the instance in the cache
+     */
+    public long sizeInBytes() {
+        return (long) dates.length * BYTES_PER_ROW + (long) accountIds.length * Long.BYTES
+                + (long) categoryIds.length * 16;
+    }
+
+    /**
+     * Selects accounts for the aggregates.
+     *
+     * @param ids The IDs of the accounts to include
+     * @return A mask indexed by account ordinal
+     */
+    public boolean[] accountMask(Collection<Long> ids) {
+        boolean[] mask = new boolean[accountIds.length];
+        for (int i = 0; i < accountIds.length; i++) {
+            mask[i] = ids.contains(accountIds[i]);
+        }
+        return mask;
+    }
+
+    /**
+     * Sums outflows (transactions with a negative amount) per category for several windows.
+     * Totals are positive, one per window in the order the windows were given, and only
+     * categories with an outflow in one of the windows are present.
+     *
+     * @param accountMask The accounts to include, see {@link #accountMask}
+     * @param windows The windows, each of which must be {@link #covers covered}
+     * @return Outflow totals keyed by category ID, {@code null} for uncategorized, one entry per window
+     */
+    public Map<Long, BigDecimal[]> sumOutflowsByCategoryAndWindow(boolean[] accountMask,
+                                                                  List<TransactionRepositoryCustom.Window> windows) {
+        Map<Long, BigDecimal[]> result = new HashMap<>();
+        sumOutflowCentsByCategoryAndWindow(accountMask, windows).forEach((categoryId, totals) -> {
+            BigDecimal[] perWindow = new BigDecimal[totals.length];
+            for (int w = 0; w < perWindow.length; w++) {
+                perWindow[w] = Money.toDecimal(totals[w]);
+            }
+            result.put(categoryId, perWindow);
+        });
+        return result;
+    }
+
+    /**
+     * Sums outflows per category for several windows, as
+     * {@link #sumOutflowsByCategoryAndWindow} but in cents.
+     *
+     * @return Outflow totals in cents keyed by category ID, {@code null} for uncategorized, one entry per window
+     */
+    public Map<Long, long[]> sumOutflowCentsByCategoryAndWindow(boolean[] accountMask,
+                                                               List<TransactionRepositoryCustom.Window> windows) {
+        long[][] totals = new long[categoryIds.length][];
+        for (int w = 0; w < windows.size(); w++) {
+            int first = lowerBound(toMicros(windows.get(w).start()));
+            int last = upperBound(toMicros(windows.get(w).end()));
+            for (int row = first; row < last; row++) {
+                if (cents[row] < 0 && accountMask[accounts[row]]) {
+                    long[] categoryTotals = totals[categories[row]];
+                    if (categoryTotals == null) {
+                        categoryTotals = totals[categories[row]] = new long[windows.size()];
+                    }
+                    categoryTotals[w] = Money.subtract(categoryTotals[w], cents[row]);
+                }
+            }
+        }
+
+        Map<Long, long[]> result = new HashMap<>();
+        for (int category = 0; category < totals.length; category++) {
+            if (totals[category] != null) {
+                result.put(categoryIds[category], totals[category]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sums outflows per period. Periods start on the given dates and each runs until the next
+     * one starts; the last one ends with the day {@code end}.
+     *
+     * @param accountMask The accounts to include, see {@link #accountMask}
+     * @param categoryId The category to include, or {@code null} for all categories
+     * @param periodStarts First day of each period, ascending
+     * @param end Last day included
+     * @return Total outflow in cents per period, as positive amounts
+     */
+    public long[] sumOutflowsByPeriod(boolean[] accountMask, Long categoryId, List<LocalDate> periodStarts,
+                                      LocalDate end) {
+        long[] totals = new long[periodStarts.size()];
+        int category = categoryId == null ? -1 : categoryOrdinal(categoryId);
+        if (periodStarts.isEmpty() || (categoryId != null && category < 0)) {
+            return totals;
+        }
+        long[] boundaries = new long[periodStarts.size() + 1];
+        for (int i = 0; i < periodStarts.size(); i++) {
+            boundaries[i] = periodStarts.get(i).toEpochDay() * MICROS_PER_DAY;
+        }
+        boundaries[periodStarts.size()] = (end.toEpochDay() + 1) * MICROS_PER_DAY;
+
+        int period = 0;
+        int last = lowerBound(boundaries[boundaries.length - 1]);
+        for (int row = lowerBound(boundaries[0]); row < last; row++) {
+            while (dates[row] >= boundaries[period + 1]) {
+                period++;
+            }
+            if (cents[row] < 0 && accountMask[accounts[row]] && (category < 0 || categories[row] == category)) {
+                totals[period] = Money.subtract(totals[period], cents[row]);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Sums inflows and outflows over an inclusive range of days.
+     *
+     * @param accountMask The accounts to include, see {@link #accountMask}
+     * @return Inflows in cents, outflows in cents as a positive amount, and the number of transactions
+     */
+    public long[] sumFlows(boolean[] accountMask, LocalDate start, LocalDate end) {
+        long inflow = 0;
+        long outflow = 0;
+        long count = 0;
+        int last = lowerBound((end.toEpochDay() + 1) * MICROS_PER_DAY);
+        for (int row = lowerBound(start.toEpochDay() * MICROS_PER_DAY); row < last; row++) {
+            if (accountMask[accounts[row]]) {
+                if (cents[row] >= 0) {
+                    inflow = Money.add(inflow, cents[row]);
+                } else {
+                    outflow = Money.subtract(outflow, cents[row]);
+                }
+                count++;
+            }
+        }
+        return new long[] {inflow, outflow, count};
+    }
+
+    /**
+     * Sums outflows per category over an inclusive range of days.
+     *
+     * @param accountMask The accounts to include, see {@link #accountMask}
+     * @return Outflow in cents, as a positive amount, keyed by category ID ({@code null} for uncategorized),
+     *         for the categories with outflows, largest first
+     */
+    public Map<Long, Long> sumOutflowsByCategory(boolean[] accountMask, LocalDate start, LocalDate end) {
+        long[] totals = new long[categoryIds.length];
+        int last = lowerBound((end.toEpochDay() + 1) * MICROS_PER_DAY);
+        for (int row = lowerBound(start.toEpochDay() * MICROS_PER_DAY); row < last; row++) {
+            if (cents[row] < 0 && accountMask[accounts[row]]) {
+                totals[categories[row]] = Money.subtract(totals[categories[row]], cents[row]);
+            }
+        }
+
+        Integer[] order = new Integer[totals.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(totals[b], totals[a]));
+        Map<Long, Long> result = new LinkedHashMap<>();
+        for (int category : order) {
+            if (totals[category] > 0) {
+                result.put(categoryIds[category], totals[category]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the statistics of daily outflows over an inclusive range of days, per category
+     * and over all categories. The range starts no earlier than the day of the first
+     * transaction held, so a user's first weeks do not count as days without spending.
+     *
+     * @param accountMask The accounts to include, see {@link #accountMask}
+     * @param from First day of the history, which must be {@link #covers covered}
+     * @param to Last day of the history
+     * @return The statistics
+     */
+    public SpendingRates spendingRates(boolean[] accountMask, LocalDate from, LocalDate to) {
+        long firstDay = from.toEpochDay();
+        if (dates.length > 0) {
+            firstDay = Math.max(firstDay, Math.floorDiv(dates[0], MICROS_PER_DAY));
+        }
+        int days = (int) Math.max(0, to.toEpochDay() - firstDay + 1);
+        long[][] daily = new long[categoryIds.length + 1][days];
+        int all = categoryIds.length;
+        int last = lowerBound((to.toEpochDay() + 1) * MICROS_PER_DAY);
+        for (int row = lowerBound(firstDay * MICROS_PER_DAY); row < last; row++) {
+            if (cents[row] < 0 && accountMask[accounts[row]]) {
+                int day = (int) (Math.floorDiv(dates[row], MICROS_PER_DAY) - firstDay);
+                daily[categories[row]][day] = Money.subtract(daily[categories[row]][day], cents[row]);
+                daily[all][day] = Money.subtract(daily[all][day], cents[row]);
+            }
+        }
+
+        boolean[] weekend = new boolean[days];
+        for (int day = 0; day < days; day++) {
+            DayOfWeek dayOfWeek = LocalDate.ofEpochDay(firstDay + day).getDayOfWeek();
+            weekend[day] = dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+        }
+        Map<Long, SpendingRates.DailyRate> byCategory = new HashMap<>();
+        for (int category = 0; category < categoryIds.length; category++) {
+            byCategory.put(categoryIds[category], dailyRate(daily[category], weekend));
+        }
+        return new SpendingRates(to, days, byCategory, dailyRate(daily[all], weekend));
+    }
+
+    private static SpendingRates.DailyRate dailyRate(long[] daily, boolean[] weekend) {
+        double[] sum = new double[2];
+        double[] squares = new double[2];
+        int[] count = new int[2];
+        for (int day = 0; day < daily.length; day++) {
+            int kind = weekend[day] ? 1 : 0;
+            sum[kind] += daily[day];
+            squares[kind] += (double) daily[day] * daily[day];
+            count[kind]++;
+        }
+        double[] mean = new double[2];
+        double[] variance = new double[2];
+        for (int kind = 0; kind < 2; kind++) {
+            if (count[kind] > 0) {
+                mean[kind] = sum[kind] / count[kind];
+                variance[kind] = Math.max(0, squares[kind] / count[kind] - mean[kind] * mean[kind]);
+            }
+        }
+        return new SpendingRates.DailyRate(mean[0], variance[0], mean[1], variance[1]);
+    }
+
+    private int categoryOrdinal(Long categoryId) {
+        for (int i = 1; i < categoryIds.length; i++) {
+            if (categoryId.equals(categoryIds[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = dates.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (dates[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int upperBound(long key) {
+        int low = 0;
+        int high = dates.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (dates[middle] <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    static long toMicros(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + date.getNano() / 1_000;
+    }
+
+    /**
+     * Collects transactions in any order and builds the sorted columns.
+     */
+    public static final class Builder {
+        private final LocalDateTime from;
+        private long[] dates = new long[64];
+        private long[] cents = new long[64];
+        private int[] accounts = new int[64];
+        private int[] categories = new int[64];
+        private final Map<Long, Integer> accountOrdinals = new LinkedHashMap<>();
+        private final Map<Long, Integer> categoryOrdinals = new LinkedHashMap<>();
+        private int size;
+
+        /**
+         * @param from The date from which on every transaction of the user will be added
+         */
+        public Builder(LocalDateTime from) {
+            this.from = from;
+            categoryOrdinals.put(null, UNCATEGORIZED);
+        }
+
+        public Builder add(LocalDateTime date, BigDecimal amount, long accountId, Long categoryId) {
+            return add(toMicros(date), Money.toCents(amount), accountId, categoryId);
+        }
+
+        public Builder add(long dateMicros, long amountCents, long accountId, Long categoryId) {
+            if (size == dates.length) {
+                int capacity = size * 2;
+                dates = Arrays.copyOf(dates, capacity);
+                cents = Arrays.copyOf(cents, capacity);
+                accounts = Arrays.copyOf(accounts, capacity);
+                categories = Arrays.copyOf(categories, capacity);
+            }
+            dates[size] = dateMicros;
+            cents[size] = amountCents;
+            accounts[size] = accountOrdinals.computeIfAbsent(accountId, id -> accountOrdinals.size());
+            categories[size] = categoryOrdinals.computeIfAbsent(categoryId, id -> categoryOrdinals.size());
+            size++;
+            return this;
+        }
+
+        public TransactionColumns build() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(dates[a], dates[b]));
+
+            long[] sortedDates = new long[size];
+            long[] sortedCents = new long[size];
+            int[] sortedAccounts = new int[size];
+            int[] sortedCategories = new int[size];
+            for (int i = 0; i < size; i++) {
+                int row = order[i];
+                sortedDates[i] = dates[row];
+                sortedCents[i] = cents[row];
+                sortedAccounts[i] = accounts[row];
+                sortedCategories[i] = categories[row];
+            }
+            long[] accountIds = new long[accountOrdinals.size()];
+            accountOrdinals.forEach((id, ordinal) -> accountIds[ordinal] = id);
+            Long[] categoryIds = new Long[categoryOrdinals.size()];
+            categoryOrdinals.forEach((id, ordinal) -> categoryIds[ordinal] = id);
+            return new TransactionColumns(from, sortedDates, sortedCents, sortedAccounts, sortedCategories,
+                    accountIds, categoryIds);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.jay.home.finmanapp.concurrent;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method whose identical concurrent invocations should be coalesced.
+ *
+ * While one call for a given user, operation and argument list is in flight, any
+ * duplicate call (a second browser tab, a frontend retry) waits for and shares the
+ * result of the first instead of running the same expensive work again. Nothing is
+ * cached: once the leading call completes, the next call executes normally.
+ *
+ * Methods may return a plain value, {@code void} or a {@code CompletableFuture}.
+ * Entity arguments are keyed by their ID, so callers holding different instances of
+ * the same user or account are still recognised as duplicates.
+ *
+ * @see SingleFlightInterceptor
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SingleFlight {
+
+    /**
+     * Name of the operation, used in the coalescing key and as the metric tag.
+     * Defaults to {@code ClassName.methodName}.
+     */
+    String value() default "";
+}
@@ -0,0 +1,87 @@
+package com.jay.home.finmanapp.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Generic single-flight facility that lets concurrent callers of the same key share
+ * one in-flight {@link CompletableFuture}.
+ *
+ * The first caller for a key (the leader) runs the supplied action on its own thread.
+ * Callers arriving before the leader's future completes receive that same future
+ * instead of starting the action again. The key is released just before the result
+ * is published, so a call arriving after completion always starts a fresh execution.
+ */
+public class SingleFlightGroup {
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Listener notified about each call, used to report metrics without tying this
+     * class to a particular metrics library.
+     */
+    public interface Listener {
+        void onExecuted(String key);
+        void onCoalesced(String key);
+    }
+
+    private final Listener listener;
+
+    public SingleFlightGroup() {
+        this(null);
+    }
+
+    public SingleFlightGroup(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Runs the action for the given key, or joins the execution already in flight.
+     *
+     * @param key The coalescing key
+     * @param action Starts the work; invoked only by the leading caller
+     * @return A future shared by every caller that joined this execution
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> execute(String key, Supplier<? extends CompletionStage<T>> action) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            if (listener != null) {
+                listener.onCoalesced(key);
+            }
+            return (CompletableFuture<T>) existing;
+        }
+
+        if (listener != null) {
+            listener.onExecuted(key);
+        }
+
+        CompletionStage<T> stage;
+        try {
+            stage = action.get();
+        } catch (Throwable t) {
+            stage = CompletableFuture.failedFuture(t);
+        }
+
+        stage.whenComplete((result, error) -> {
+            inFlight.remove(key, flight);
+            if (error != null) {
+                flight.completeExceptionally(error);
+            } else {
+                flight.complete(result);
+            }
+        });
+        return (CompletableFuture<T>) flight;
+    }
+
+    /**
+     * @return The number of keys currently executing
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
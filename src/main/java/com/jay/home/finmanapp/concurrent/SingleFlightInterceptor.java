@@ -0,0 +1,106 @@
+package com.jay.home.finmanapp.concurrent;
+
+import com.jay.home.finmanapp.util.InvocationKeys;
+import io.micrometer.core.instrument.Metrics;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Method interceptor that applies {@link SingleFlight} semantics to annotated methods.
+ *
+ * Calls are keyed by the authenticated principal, the operation name and the method
+ * arguments. Synchronous methods block duplicate callers until the leader returns;
+ * methods returning a {@link CompletableFuture} hand duplicate callers the shared
+ * future directly.
+ *
+ * Every coalesced call increments the {@code finmanapp.singleflight.coalesced} counter,
+ * tagged with the operation name.
+ */
+public class SingleFlightInterceptor implements MethodInterceptor {
+
+    static final String COALESCED_METRIC = "finmanapp.singleflight.coalesced";
+    static final String EXECUTED_METRIC = "finmanapp.singleflight.executed";
+
+    private final SingleFlightGroup group = new SingleFlightGroup(new SingleFlightGroup.Listener() {
+        @Override
+        public void onExecuted(String key) {
+            Metrics.counter(EXECUTED_METRIC, "operation", operationOf(key)).increment();
+        }
+
+        @Override
+        public void onCoalesced(String key) {
+            Metrics.counter(COALESCED_METRIC, "operation", operationOf(key)).increment();
+        }
+    });
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        String key = buildKey(operationName(method), invocation.getArguments());
+
+        if (CompletionStage.class.isAssignableFrom(method.getReturnType())) {
+            return group.execute(key, () -> {
+                try {
+                    return (CompletionStage<Object>) invocation.proceed();
+                } catch (Throwable t) {
+                    return CompletableFuture.failedFuture(t);
+                }
+            });
+        }
+
+        CompletableFuture<Object> flight = group.execute(key, () -> {
+            try {
+                return CompletableFuture.completedFuture(invocation.proceed());
+            } catch (Throwable t) {
+                return CompletableFuture.failedFuture(t);
+            }
+        });
+
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        }
+    }
+
+    private String operationName(Method method) {
+        SingleFlight annotation = AnnotationUtils.findAnnotation(method, SingleFlight.class);
+        if (annotation != null && !annotation.value().isEmpty()) {
+            return annotation.value();
+        }
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+
+    /**
+     * Builds the coalescing key in the form {@code operation|principal|arg1,arg2,...}.
+     */
+    static String buildKey(String operation, Object[] args) {
+        StringBuilder key = new StringBuilder(operation).append('|').append(currentPrincipal()).append('|');
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                key.append(',');
+            }
+            InvocationKeys.appendArgument(key, args[i]);
+        }
+        return key.toString();
+    }
+
+    private static String operationOf(String key) {
+        int separator = key.indexOf('|');
+        return separator >= 0 ? key.substring(0, separator) : key;
+    }
+
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "anonymous";
+    }
+}
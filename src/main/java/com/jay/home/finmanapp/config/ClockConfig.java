@@ -0,0 +1,19 @@
+package com.jay.home.finmanapp.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+/**
+ * Provides the clock that date-dependent services, such as budget periods, read the current
+ * time from, so tests can fix it.
+ */
+@Configuration
+public class ClockConfig {
+
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
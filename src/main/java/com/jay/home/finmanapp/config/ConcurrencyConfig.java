@@ -0,0 +1,87 @@
+package com.jay.home.finmanapp.config;
+
+import com.jay.home.finmanapp.jfr.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration for executors used to fan out independent reads within a single request,
+ * and for the pool that isolates CPU-bound password hashing.
+ *
+ * Request handling, scheduled jobs and {@code @Async} methods run on virtual threads when
+ * {@code spring.threads.virtual.enabled} is set; Spring Boot then configures Tomcat and the
+ * task executor and scheduler itself.
+ */
+@Configuration
+public class ConcurrencyConfig {
+
+    /**
+     * Executor that runs each submitted task on its own virtual thread.
+     *
+     * Tasks are mostly blocked on JDBC, so virtual threads keep the fan-out cheap. The
+     * submitting thread's security context is propagated to every task.
+     *
+     * @return Virtual-thread-per-task executor for dashboard sections
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService dashboardExecutor() {
+        return new DelegatingSecurityContextExecutorService(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Bounded platform-thread pool for password hashing, used by the application's password encoder.
+     *
+     * Sized to the CPU count by default, since hashing never blocks. Tasks beyond the queue
+     * capacity are rejected immediately rather than piling up behind a login storm.
+     *
+     * @param threads Number of hashing threads; 0 uses one per available processor
+     * @param queueCapacity Hashing tasks that may wait for a thread
+     * @param meterRegistry Registry for the pool metrics, if metrics are enabled
+     * @return Fixed-size executor with a bounded queue
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor passwordHashingExecutor(
+            @Value("${app.security.password-hashing.threads:0}") int threads,
+            @Value("${app.security.password-hashing.queue-capacity:32}") int queueCapacity,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hash-");
+        threadFactory.setDaemon(true);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        meterRegistry.ifAvailable(registry ->
+                new ExecutorServiceMetrics(executor, "passwordHashing", Tags.empty()).bindTo(registry));
+        return executor;
+    }
+
+    /**
+     * Publishes virtual threads that block while pinned to their carrier thread as metrics.
+     * The dashboard executor always uses virtual threads, so the monitor runs in both modes.
+     *
+     * @param meterRegistry Registry to publish the metrics to
+     * @param threshold Shortest pinning that is reported
+     * @return Monitor reading {@code jdk.VirtualThreadPinned} events from a JFR stream
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.virtual-threads.pinning-monitor.enabled", havingValue = "true", matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${app.virtual-threads.pinned-threshold:20ms}") Duration threshold) {
+        return new VirtualThreadPinningMonitor(meterRegistry, threshold);
+    }
+}
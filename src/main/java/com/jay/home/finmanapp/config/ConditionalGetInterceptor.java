@@ -0,0 +1,84 @@
+package com.jay.home.finmanapp.config;
+
+import com.jay.home.finmanapp.service.DataVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Enumeration;
+import java.util.Optional;
+
+/**
+ * Interceptor answering conditional GET requests from the per-user data version.
+ *
+ * Runs before the controller, so an unchanged resource costs a single lookup of the
+ * user's version instead of the full read. Matching requests get {@code 304 Not Modified};
+ * all others proceed with the current ETag already set on the response. Because the version
+ * is read before the controller loads any data, a response is never tagged with a version
+ * newer than the data it contains.
+ *
+ * @see DataVersionService
+ */
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+    private final DataVersionService dataVersionService;
+
+    public ConditionalGetInterceptor(DataVersionService dataVersionService) {
+        this.dataVersionService = dataVersionService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !(authentication.getPrincipal() instanceof String email)) {
+            return true;
+        }
+
+        Optional<String> etag = dataVersionService.currentETag(email);
+        if (etag.isEmpty()) {
+            return true;
+        }
+
+        response.setHeader(HttpHeaders.ETAG, etag.get());
+        // Let the browser keep the response but revalidate it on every use
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        if (matches(request.getHeaders(HttpHeaders.IF_NONE_MATCH), etag.get())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Weak comparison as required for If-None-Match: the W/ prefix is ignored on both sides.
+     */
+    private static boolean matches(Enumeration<String> ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = stripWeakPrefix(etag);
+        while (ifNoneMatch.hasMoreElements()) {
+            for (String candidate : ifNoneMatch.nextElement().split(",")) {
+                String trimmed = candidate.trim();
+                if (trimmed.equals("*") || stripWeakPrefix(trimmed).equals(opaqueTag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeakPrefix(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
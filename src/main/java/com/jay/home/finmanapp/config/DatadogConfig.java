@@ -1,16 +1,17 @@
 package com.jay.home.finmanapp.config;
 
+import com.jay.home.finmanapp.tracing.TracedMethodPointcut;
+import com.jay.home.finmanapp.tracing.TracingInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.aop.aspectj.AspectJExpressionPointcut;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
 import io.opentracing.Tracer;
 import io.opentracing.util.GlobalTracer;
-import io.opentracing.Span;
-import org.springframework.aop.MethodBeforeAdvice;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
-import java.lang.reflect.Method;
+import java.util.List;
 
 /**
  * Configuration class for APM integration.
@@ -30,68 +31,22 @@ public class DatadogConfig implements WebMvcConfigurer {
     }
     
     /**
-     * Configures automatic tracing for all controller methods
-     * using AspectJ pointcut expressions.
-     * 
-     * @return DefaultPointcutAdvisor for controller method tracing
+     * Configures automatic tracing for controller and service methods.
+     *
+     * Only packages listed in {@code app.tracing.packages} are traced, and calls without an
+     * active parent span start a trace with probability {@code app.tracing.sample-rate}.
+     * When {@code app.tracing.enabled} is false no advisor is registered, so the methods
+     * run without any tracing overhead.
+     *
+     * @param tracer the tracer to create spans with
+     * @return DefaultPointcutAdvisor for method tracing
      */
     @Bean
-    public DefaultPointcutAdvisor controllerTracing() {
-        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
-        // This expression will match all methods in controller classes
-        pointcut.setExpression("execution(* com.jay.home.finmanapp.controller..*.*(..))");
-        
-        return new DefaultPointcutAdvisor(pointcut, new TracingMethodAdvice("controller"));
-    }
-    
-    /**
-     * Configures automatic tracing for all service methods
-     * using AspectJ pointcut expressions.
-     * 
-     * @return DefaultPointcutAdvisor for service method tracing
-     */
-    @Bean
-    public DefaultPointcutAdvisor serviceTracing() {
-        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
-        // This expression will match all methods in service classes
-        pointcut.setExpression("execution(* com.jay.home.finmanapp.service..*.*(..))");
-        
-        return new DefaultPointcutAdvisor(pointcut, new TracingMethodAdvice("service"));
-    }
-    
-    /**
-     * Class to handle method interception for tracing.
-     */
-    private static class TracingMethodAdvice implements MethodBeforeAdvice {
-        private final String componentType;
-        
-        public TracingMethodAdvice(String componentType) {
-            this.componentType = componentType;
-        }
-        
-        @Override
-        public void before(Method method, Object[] args, Object target) {
-            String className = target.getClass().getSimpleName();
-            String methodName = method.getName();
-            String operationName = componentType + "." + className + "." + methodName;
-            
-            // Start a span for this method
-            Tracer tracer = GlobalTracer.get();
-            Span span = tracer.buildSpan(operationName).start();
-            
-            // Add tags
-            span.setTag("component", componentType);
-            span.setTag("class", className);
-            span.setTag("method", methodName);
-            
-            // Manually finish the span when the method completes
-            // Note: This is simplified and may need more work for a production environment
-            // to ensure spans are properly closed
-            try {
-                // In a real implementation, you would need to finish this span after the method completes
-            } finally {
-                // In a real implementation, you would call span.finish() here
-            }
-        }
+    @ConditionalOnProperty(name = "app.tracing.enabled", havingValue = "true", matchIfMissing = true)
+    public DefaultPointcutAdvisor methodTracing(
+            Tracer tracer,
+            @Value("${app.tracing.sample-rate:1.0}") double sampleRate,
+            @Value("${app.tracing.packages:com.jay.home.finmanapp.controller,com.jay.home.finmanapp.service}") List<String> packages) {
+        return new DefaultPointcutAdvisor(new TracedMethodPointcut(packages), new TracingInterceptor(tracer, sampleRate));
     }
-}
\ No newline at end of file
+}
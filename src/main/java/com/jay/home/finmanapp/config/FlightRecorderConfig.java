@@ -0,0 +1,32 @@
+package com.jay.home.finmanapp.config;
+
+import com.jay.home.finmanapp.jfr.FlightRecordingEndpoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration for on-demand Flight Recorder recordings.
+ * The endpoint is served on the management port, behind the credentials of
+ * {@link SecurityConfig#flightRecordingFilterChain}.
+ */
+@Configuration
+public class FlightRecorderConfig {
+
+    /**
+     * @param settings JDK recording settings, "default" (about 1% overhead) or "profile"
+     * @param maxDuration Longest a recording may run
+     * @param maxSize Most recording data kept on disk
+     * @return Management endpoint for starting, stopping and downloading recordings
+     */
+    @Bean
+    public FlightRecordingEndpoint flightRecordingEndpoint(
+            @Value("${app.flight-recorder.settings:profile}") String settings,
+            @Value("${app.flight-recorder.max-duration:30m}") Duration maxDuration,
+            @Value("${app.flight-recorder.max-size:250MB}") DataSize maxSize) {
+        return new FlightRecordingEndpoint(settings, maxDuration, maxSize);
+    }
+}
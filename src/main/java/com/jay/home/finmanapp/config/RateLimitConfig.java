@@ -0,0 +1,72 @@
+package com.jay.home.finmanapp.config;
+
+import com.jay.home.finmanapp.ratelimit.EndpointClass;
+import com.jay.home.finmanapp.ratelimit.LocalRateLimitBackend;
+import com.jay.home.finmanapp.ratelimit.RateLimitBackend;
+import com.jay.home.finmanapp.ratelimit.RateLimitFilter;
+import com.jay.home.finmanapp.ratelimit.RateLimitSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration for rate limiting the expensive endpoints.
+ *
+ * Limits are set per {@link EndpointClass} under {@code app.rate-limit.<class>.*}, e.g.
+ * {@code app.rate-limit.ai.capacity}. Buckets are kept in memory unless a
+ * {@link RateLimitBackend} bean is registered, in which case that backend is used and the
+ * limits are shared by every node using it. Concurrency limits always apply per node.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * The rate limit filter, added to the security filter chain by {@link SecurityConfig}.
+     *
+     * @param environment Source of the per-class settings
+     * @param sharedBackend Optional backend shared across nodes
+     * @return RateLimitFilter for the configured endpoint classes
+     */
+    @Bean
+    public RateLimitFilter rateLimitFilter(Environment environment, ObjectProvider<RateLimitBackend> sharedBackend) {
+        Binder binder = Binder.get(environment);
+        Map<EndpointClass, RateLimitSettings> settings = new EnumMap<>(EndpointClass.class);
+        Duration longestPeriod = Duration.ZERO;
+        if (enabled) {
+            for (EndpointClass endpointClass : EndpointClass.values()) {
+                RateLimitSettings limits = binder.bind("app.rate-limit." + endpointClass.propertyName(),
+                        Bindable.of(RateLimitSettings.class)).orElseGet(RateLimitSettings::new);
+                settings.put(endpointClass, limits);
+                longestPeriod = longestPeriod.compareTo(limits.getPeriod()) < 0 ? limits.getPeriod() : longestPeriod;
+            }
+        }
+        Duration idleTimeout = longestPeriod;
+        RateLimitBackend backend = sharedBackend.getIfAvailable(
+                () -> new LocalRateLimitBackend(idleTimeout, 100_000));
+        return new RateLimitFilter(backend, settings);
+    }
+
+    /**
+     * Keeps the filter out of the servlet filter chain; it only runs inside the security filter chain.
+     *
+     * @return Disabled registration for the rate limit filter
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
@@ -0,0 +1,76 @@
+package com.jay.home.finmanapp.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jay.home.finmanapp.cache.ReadModel;
+import com.jay.home.finmanapp.cache.ReadModelCache;
+import com.jay.home.finmanapp.cache.ReadModelCacheInterceptor;
+import com.jay.home.finmanapp.service.DataVersionService;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the per-user read-model cache.
+ * Applies {@link ReadModelCacheInterceptor} to every method annotated with {@link ReadModel}.
+ *
+ * The local tier is a bounded, expiring Caffeine cache. To add a shared tier, for example
+ * Redis through spring-boot-starter-data-redis, register a {@code CacheManager} bean named
+ * {@code sharedReadModelCacheManager}; it is picked up automatically.
+ */
+@Configuration
+public class ReadModelCacheConfig {
+
+    @Value("${app.read-model-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${app.read-model-cache.ttl:10m}")
+    private Duration ttl;
+
+    /**
+     * Two-tier cache store.
+     *
+     * @param sharedCacheManager Optional shared cache manager
+     * @return ReadModelCache backed by a local Caffeine tier
+     */
+    @Bean
+    public ReadModelCache readModelCache(
+            @Qualifier("sharedReadModelCacheManager") ObjectProvider<CacheManager> sharedCacheManager) {
+        CaffeineCacheManager localCacheManager = new CaffeineCacheManager();
+        localCacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl));
+        localCacheManager.setAllowNullValues(false);
+        return new ReadModelCache(localCacheManager, sharedCacheManager.getIfAvailable());
+    }
+
+    /**
+     * Advisor for {@link ReadModel} methods.
+     *
+     * The data version service is injected lazily: advisors are created before regular
+     * beans are proxied, and an eager reference would leave it without its transaction proxy.
+     *
+     * Ordered after the single-flight advisor, so duplicate concurrent misses are still
+     * coalesced, and ahead of the transaction advisor, so hits never open a transaction.
+     *
+     * @return DefaultPointcutAdvisor for read-model methods
+     */
+    @Bean
+    public DefaultPointcutAdvisor readModelCacheAdvisor(ReadModelCache readModelCache,
+                                                        @Lazy DataVersionService dataVersionService) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(ReadModel.class),
+                new ReadModelCacheInterceptor(readModelCache, dataVersionService));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 200);
+        return advisor;
+    }
+}
@@ -1,10 +1,17 @@
 package com.jay.home.finmanapp.config;
 
+import com.jay.home.finmanapp.datasource.Workload;
+import com.jay.home.finmanapp.datasource.WorkloadType;
 import com.jay.home.finmanapp.service.BillService;
+import com.jay.home.finmanapp.service.BudgetEvaluationQueue;
 import com.jay.home.finmanapp.service.BudgetService;
+import com.jay.home.finmanapp.service.TransactionArchiveService;
+import com.jay.home.finmanapp.service.TransactionPartitionService;
 import com.jay.home.finmanapp.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 
 @Configuration
@@ -12,23 +19,50 @@ public class SchedulingConfig {
     private final UserService userService;
     private final BudgetService budgetService;
     private final BillService billService;
+    private final TransactionPartitionService transactionPartitionService;
+    private final TransactionArchiveService transactionArchiveService;
+    private final BudgetEvaluationQueue budgetEvaluationQueue;
 
     @Autowired
-    public SchedulingConfig(UserService userService, BudgetService budgetService, BillService billService) {
+    public SchedulingConfig(UserService userService, BudgetService budgetService, BillService billService,
+                            TransactionPartitionService transactionPartitionService,
+                            TransactionArchiveService transactionArchiveService,
+                            BudgetEvaluationQueue budgetEvaluationQueue) {
         this.userService = userService;
         this.budgetService = budgetService;
         this.billService = billService;
+        this.transactionPartitionService = transactionPartitionService;
+        this.transactionArchiveService = transactionArchiveService;
+        this.budgetEvaluationQueue = budgetEvaluationQueue;
     }
 
-    @Scheduled(cron = "0 0 * * * *") // Run every hour
+    @Scheduled(fixedDelayString = "${app.budget-evaluation.delay:5s}")
+    @Workload(WorkloadType.BATCH)
+    public void evaluateChangedBudgets() {
+        budgetEvaluationQueue.evaluatePending();
+    }
+
+    @Scheduled(cron = "0 0 * * * *") // Reconcile every hour: periods that rolled over, events lost with a node
     public void checkBudgetThresholds() {
-        userService.getAllUsers().forEach(user -> budgetService.checkBudgetThresholds(user));
+        budgetEvaluationQueue.enqueue(budgetService.getUserIdsWithActiveBudgets());
     }
     
     @Scheduled(cron = "0 0 0 1 * *") // Run at midnight on the first day of each month
+    @Workload(WorkloadType.BATCH)
     public void resetMonthlyBills() {
         userService.getAllUsers().forEach(user -> {
             billService.resetMonthlyBills(user.getId());
         });
     }
-}
\ No newline at end of file
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 30 2 * * *") // Run at startup and daily at 2:30
+    public void createTransactionPartitions() {
+        transactionPartitionService.createUpcomingPartitions();
+    }
+
+    @Scheduled(cron = "0 30 3 * * *") // Run daily at 3:30
+    public void archiveTransactions() {
+        transactionArchiveService.archiveClosedMonths();
+    }
+}
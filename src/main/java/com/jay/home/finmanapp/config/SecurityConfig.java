@@ -1,25 +1,39 @@
 package com.jay.home.finmanapp.config;
 
+import com.jay.home.finmanapp.jfr.FlightRecordingEndpoint;
+import com.jay.home.finmanapp.ratelimit.RateLimitFilter;
 import com.jay.home.finmanapp.security.JwtAuthenticationEntryPoint;
 import com.jay.home.finmanapp.security.JwtFilter;
+import com.jay.home.finmanapp.security.OffloadingPasswordEncoder;
 import com.jay.home.finmanapp.service.CustomUserDetailsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Configuration class for Spring Security settings.
@@ -71,13 +85,21 @@ public class SecurityConfig {
     
     /**
      * Creates the password encoder for secure password storage.
-     * Uses BCrypt hashing algorithm for password encryption.
+     * Uses BCrypt hashing algorithm for password encryption, run on the dedicated
+     * password hashing pool so logins cannot starve request threads of CPU.
+     * Hashes with a lower cost than the configured strength are upgraded on login.
      * 
+     * @param passwordHashingExecutor Bounded pool the hashing runs on
+     * @param strength BCrypt cost factor for new hashes
+     * @param maxWait Longest time a request waits for the pool before it is rejected
      * @return BCrypt password encoder
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Qualifier("passwordHashingExecutor") ExecutorService passwordHashingExecutor,
+            @Value("${app.security.bcrypt-strength:10}") int strength,
+            @Value("${app.security.password-hashing.max-wait:5s}") Duration maxWait) {
+        return new OffloadingPasswordEncoder(new BCryptPasswordEncoder(strength), passwordHashingExecutor, maxWait);
     }
     
     /**
@@ -112,12 +134,54 @@ public class SecurityConfig {
         ));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        // Lets the frontend read when to retry a rate-limited request
+        configuration.setExposedHeaders(Arrays.asList("Retry-After"));
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
     }
     
+    /**
+     * Configures the security filter chain of the Flight Recorder endpoint, checked before the main chain.
+     * Recordings reveal the inner workings of the application, so the endpoint takes HTTP Basic
+     * credentials of its own, whatever address the management port is bound to, and is closed
+     * entirely while no password is configured.
+     *
+     * @param http HttpSecurity to configure
+     * @param username Name of the management user
+     * @param password Password of the management user; blank disables the endpoint
+     * @return Configured security filter chain
+     * @throws Exception if there's an issue configuring security
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain flightRecordingFilterChain(
+            HttpSecurity http,
+            @Value("${app.management.username:ops}") String username,
+            @Value("${app.management.password:}") String password) throws Exception {
+        http
+            .securityMatcher(EndpointRequest.to(FlightRecordingEndpoint.class))
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .httpBasic(Customizer.withDefaults());
+        if (password.isBlank()) {
+            http.authorizeHttpRequests(authz -> authz.anyRequest().denyAll());
+        } else {
+            PasswordEncoder encoder = new BCryptPasswordEncoder();
+            DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+            provider.setPasswordEncoder(encoder);
+            provider.setUserDetailsService(new InMemoryUserDetailsManager(User.withUsername(username)
+                    .password(encoder.encode(password))
+                    .roles("MANAGEMENT")
+                    .build()));
+            http
+                .authenticationManager(new ProviderManager(provider))
+                .authorizeHttpRequests(authz -> authz.anyRequest().hasRole("MANAGEMENT"));
+        }
+        return http.build();
+    }
+
     /**
      * Configures the main security filter chain.
      * This method sets up the security rules for the application, including:
@@ -126,15 +190,18 @@ public class SecurityConfig {
      * - Authentication requirements for different endpoints
      * - Session management
      * - JWT filter integration
+     * - Rate limiting of the expensive endpoints
      * - Exception handling
      * 
      * @param http HttpSecurity to configure
      * @param jwtFilter The JWT authentication filter to use
+     * @param rateLimitFilter The rate limit filter, which needs the user authenticated by the JWT filter
      * @return Configured security filter chain
      * @throws Exception if there's an issue configuring security
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtFilter jwtFilter) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtFilter jwtFilter,
+                                                   RateLimitFilter rateLimitFilter) throws Exception {
         http
             // Disable CSRF protection as we're using JWT tokens
             .csrf(csrf -> csrf.disable())
@@ -149,6 +216,7 @@ public class SecurityConfig {
                 .requestMatchers("/h2-console/**").permitAll() // For H2 console access
                 .requestMatchers("/error").permitAll() // Error endpoint
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll() // Swagger endpoints
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll() // Management port
                 // NOTE: The following line allows all API endpoints without authentication
                 // This is for development convenience and should be removed in production
                 .requestMatchers("/api/**").permitAll()
@@ -158,6 +226,8 @@ public class SecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             // Add JWT filter before the standard authentication filter
             .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+            // Limit expensive endpoints per user (or per address, when anonymous) once the user is known
+            .addFilterAfter(rateLimitFilter, JwtFilter.class)
             // Disable frame options for H2 console access
             .headers(headers -> headers.frameOptions().disable());
         
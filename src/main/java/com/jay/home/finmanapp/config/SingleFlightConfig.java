@@ -0,0 +1,34 @@
+package com.jay.home.finmanapp.config;
+
+import com.jay.home.finmanapp.concurrent.SingleFlight;
+import com.jay.home.finmanapp.concurrent.SingleFlightInterceptor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Configuration for coalescing identical concurrent service calls.
+ * Applies {@link SingleFlightInterceptor} to every method annotated with {@link SingleFlight}.
+ */
+@Configuration
+public class SingleFlightConfig {
+
+    /**
+     * Advisor for {@link SingleFlight} methods.
+     *
+     * Ordered ahead of the transaction advisor so that duplicate callers wait without
+     * opening a transaction or holding a pooled connection.
+     *
+     * @return DefaultPointcutAdvisor for single-flight methods
+     */
+    @Bean
+    public DefaultPointcutAdvisor singleFlightAdvisor() {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(SingleFlight.class),
+                new SingleFlightInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return advisor;
+    }
+}
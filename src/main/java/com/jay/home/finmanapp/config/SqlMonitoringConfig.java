@@ -0,0 +1,68 @@
+package com.jay.home.finmanapp.config;
+
+import com.jay.home.finmanapp.sql.SqlStatementCounter;
+import com.jay.home.finmanapp.sql.SqlStatementFilter;
+import com.jay.home.finmanapp.sql.StatementGuardListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration for counting the SQL statements executed per HTTP request.
+ *
+ * The application data source is wrapped in a datasource-proxy that reports every statement
+ * to {@link SqlStatementCounter}. Wrapping the data source rather than hooking into Hibernate
+ * also counts statements issued through JdbcTemplate, and measures their execution time.
+ * The same proxy applies the per-request statement timeout and cancellation of
+ * {@link StatementGuardListener}.
+ */
+@Configuration
+public class SqlMonitoringConfig {
+
+    /**
+     * Wraps every data source bean in a counting and guarding proxy.
+     * Static, so the post-processor is registered before the data source is created.
+     *
+     * @return BeanPostProcessor that proxies data sources
+     */
+    @Bean
+    public static BeanPostProcessor sqlStatementCountingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(new SqlStatementCounter())
+                            .listener(new StatementGuardListener())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Filter that opens a statement count for each request.
+     * Registered first, so statements run by the security filters are included.
+     *
+     * @param statementBudget Statements a request may execute before a warning is logged
+     * @param exposeHeaders Whether to return the count in response headers
+     * @return FilterRegistrationBean for the statement filter
+     */
+    @Bean
+    public FilterRegistrationBean<SqlStatementFilter> sqlStatementFilter(
+            @Value("${app.sql.statement-budget:25}") int statementBudget,
+            @Value("${app.sql.expose-headers:false}") boolean exposeHeaders) {
+        FilterRegistrationBean<SqlStatementFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatementFilter(statementBudget, exposeHeaders));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
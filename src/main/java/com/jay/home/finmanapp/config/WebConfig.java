@@ -1,21 +1,60 @@
 package com.jay.home.finmanapp.config;
 
+import com.jay.home.finmanapp.service.DataVersionService;
+import com.jay.home.finmanapp.sql.QueryScopeInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.time.Duration;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Value("${app.sql.statement-timeout:10s}")
+    private Duration statementTimeout;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
                 .allowedOrigins("*")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS")
                 .allowedHeaders("*")
-                .exposedHeaders("Authorization");
+                .exposedHeaders("Authorization", "ETag", "X-SQL-Statement-Count", "X-SQL-Time-Ms", "Retry-After");
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // First, so the version lookups of the conditional GET interceptor are covered too
+        registry.addInterceptor(queryScopeInterceptor())
+                .addPathPatterns("/api/**");
+        registry.addInterceptor(new ConditionalGetInterceptor(dataVersionService))
+                .addPathPatterns("/api/bills/**", "/api/budgets/**", "/api/accounts/**", "/api/transactions/**")
+                // GET endpoint that writes, and import progress, which changes without a version bump
+                .excludePathPatterns("/api/transactions/sync", "/api/transactions/import/**");
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(queryScopeInterceptor());
+    }
+
+    /**
+     * Applies statement timeouts to API requests and cancels the statements of abandoned async requests.
+     * Registered both as handler interceptor and as callable interceptor.
+     */
+    @Bean
+    public QueryScopeInterceptor queryScopeInterceptor() {
+        return new QueryScopeInterceptor((int) statementTimeout.toSeconds());
     }
     
     @Bean
@@ -0,0 +1,83 @@
+package com.jay.home.finmanapp.config;
+
+import com.jay.home.finmanapp.datasource.Workload;
+import com.jay.home.finmanapp.datasource.WorkloadInterceptor;
+import com.jay.home.finmanapp.datasource.WorkloadRoutingDataSource;
+import com.jay.home.finmanapp.datasource.WorkloadType;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration for separate connection pools per {@link WorkloadType}.
+ *
+ * Every pool connects with the {@code spring.datasource.*} settings and starts from the shared
+ * {@code spring.datasource.hikari.*} settings; {@code app.datasource.pools.<workload>.*}
+ * overrides them per pool, e.g. {@code app.datasource.pools.batch.maximum-pool-size}. Pools are
+ * named {@code finmanapp-<workload>}, which is the {@code pool} tag of their
+ * {@code hikaricp.connections.*} metrics.
+ */
+@Configuration
+public class WorkloadDataSourceConfig {
+
+    /**
+     * The application's data source, routing each connection request to the current workload's pool.
+     *
+     * @param properties Connection settings shared by all pools
+     * @param environment Source of the per-pool settings
+     * @param meterRegistry Registry for the pool metrics, if metrics are enabled
+     * @return Routing data source over one Hikari pool per workload
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        Binder binder = Binder.get(environment);
+        Map<Object, Object> pools = new HashMap<>();
+        for (WorkloadType workload : WorkloadType.values()) {
+            HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+            binder.bind("app.datasource.pools." + workload.poolName(), Bindable.ofInstance(pool));
+            pool.setPoolName("finmanapp-" + workload.poolName());
+            meterRegistry.ifAvailable(pool::setMetricRegistry);
+            pools.put(workload, pool);
+        }
+
+        WorkloadRoutingDataSource dataSource = new WorkloadRoutingDataSource();
+        dataSource.setTargetDataSources(pools);
+        dataSource.setDefaultTargetDataSource(pools.get(WorkloadType.INTERACTIVE));
+        return dataSource;
+    }
+
+    /**
+     * Advisor for {@link Workload} methods and classes.
+     *
+     * Must run ahead of the transaction advisor, since the pool is chosen when the
+     * transaction obtains its connection.
+     *
+     * @return DefaultPointcutAdvisor for workload-routed methods
+     */
+    @Bean
+    public DefaultPointcutAdvisor workloadAdvisor() {
+        ComposablePointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(Workload.class, true))
+                .union(AnnotationMatchingPointcut.forMethodAnnotation(Workload.class));
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new WorkloadInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 300);
+        return advisor;
+    }
+}
@@ -2,14 +2,15 @@ package com.jay.home.finmanapp.controller;
 
 import com.jay.home.finmanapp.model.User;
 import com.jay.home.finmanapp.security.JwtUtils;
+import com.jay.home.finmanapp.security.PasswordHashingRejectedException;
 import com.jay.home.finmanapp.service.UserService;
 import com.jay.home.finmanapp.service.DemoDataService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,15 +25,12 @@ public class AuthController {
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
     private final UserService userService;
-    private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
     private final DemoDataService demoDataService;
 
     @Autowired
-    public AuthController(UserService userService, PasswordEncoder passwordEncoder, 
-                          JwtUtils jwtUtils, DemoDataService demoDataService) {
+    public AuthController(UserService userService, JwtUtils jwtUtils, DemoDataService demoDataService) {
         this.userService = userService;
-        this.passwordEncoder = passwordEncoder;
         this.jwtUtils = jwtUtils;
         this.demoDataService = demoDataService;
     }
@@ -45,7 +43,7 @@ public class AuthController {
         try {
             User user = userService.getUserByEmail(email);
             
-            if (passwordEncoder.matches(password, user.getPassword())) {
+            if (userService.verifyPassword(user, password)) {
                 String token = jwtUtils.generateToken(email);
                 logger.debug("Generated token for user {}: {}", email, token);
                 
@@ -78,6 +76,11 @@ public class AuthController {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body(Map.of("message", "Invalid credentials"));
             }
+        } catch (PasswordHashingRejectedException e) {
+            logger.warn("Login rejected for user {}: {}", email, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("message", "Too many logins in progress, please retry"));
         } catch (Exception e) {
             logger.error("Login failed for user {}: {}", email, e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -122,6 +125,11 @@ public class AuthController {
             
             logger.debug("User successfully registered: {}", user.getEmail());
             return new ResponseEntity<>(response, HttpStatus.CREATED);
+        } catch (PasswordHashingRejectedException e) {
+            logger.warn("Registration rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("message", "Too many registrations in progress, please retry"));
         } catch (Exception e) {
             logger.error("Registration failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
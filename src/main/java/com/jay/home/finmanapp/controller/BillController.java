@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * REST controller for managing bills in the financial management application.
@@ -128,8 +129,7 @@ public class BillController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         
-        List<Bill> bills = billService.getUserBills(userId);
-        List<BillDTO> billDTOs = billMapper.toDTOList(bills);
+        List<BillDTO> billDTOs = billService.getBillSummaries(userId);
         return new ResponseEntity<>(billDTOs, HttpStatus.OK);
     }
     
@@ -158,16 +158,13 @@ public class BillController {
             @PathVariable Long billId) {
         
         User user = userService.getUserByEmail(userEmail);
-        Bill bill = billService.getBillById(billId);
         
-        // Check if the bill exists and belongs to the authenticated user
-        if (bill == null) {
+        // Existence and ownership are checked in one query; another user's bill is reported as not found
+        Optional<Bill> userBill = billService.findUserBill(billId, user.getId());
+        if (userBill.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        
-        if (!bill.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
+        Bill bill = userBill.get();
         
         // Convert to DTO to avoid circular references
         BillDTO billDTO = billMapper.toDTO(bill);
@@ -249,18 +246,14 @@ public class BillController {
             @RequestBody Bill billDetails) {
         
         User user = userService.getUserByEmail(userEmail);
-        Bill existingBill = billService.getBillById(billId);
         
-        // Check if the bill exists and belongs to the authenticated user
-        if (existingBill == null) {
+        // Fetched and authorized in one query; another user's bill is reported as not found
+        Optional<Bill> userBill = billService.findUserBill(billId, user.getId());
+        if (userBill.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         
-        if (!existingBill.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-        
-        Bill updatedBill = billService.updateBill(billId, billDetails);
+        Bill updatedBill = billService.updateBill(userBill.get(), billDetails);
         
         // Convert to DTO to avoid circular references
         BillDTO updatedBillDTO = billMapper.toDTO(updatedBill);
@@ -274,18 +267,14 @@ public class BillController {
             @PathVariable Long billId) {
         
         User user = userService.getUserByEmail(userEmail);
-        Bill bill = billService.getBillById(billId);
         
-        // Check if the bill exists and belongs to the authenticated user
-        if (bill == null) {
+        // Fetched and authorized in one query; another user's bill is reported as not found
+        Optional<Bill> userBill = billService.findUserBill(billId, user.getId());
+        if (userBill.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         
-        if (!bill.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-        
-        billService.deleteBill(billId);
+        billService.deleteBill(userBill.get());
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
@@ -302,8 +291,8 @@ public class BillController {
      * @param userEmail Email of the authenticated user (injected by Spring Security)
      * @param billId ID of the bill to mark as paid
      * @return ResponseEntity with HTTP status 200 (OK) if successful,
-     *         status 404 (Not Found) if the bill doesn't exist, or
-     *         status 403 (Forbidden) if the bill doesn't belong to the authenticated user
+     *         or status 404 (Not Found) if the bill doesn't exist or doesn't belong to the
+     *         authenticated user
      */
     @PatchMapping("/{billId}/pay")
     public ResponseEntity<Void> markBillAsPaid(
@@ -311,18 +300,14 @@ public class BillController {
             @PathVariable Long billId) {
         
         User user = userService.getUserByEmail(userEmail);
-        Bill bill = billService.getBillById(billId);
         
-        // Check if the bill exists and belongs to the authenticated user
-        if (bill == null) {
+        // Fetched and authorized in one query; another user's bill is reported as not found
+        Optional<Bill> userBill = billService.findUserBill(billId, user.getId());
+        if (userBill.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         
-        if (!bill.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-        
-        billService.markBillAsPaid(billId);
+        billService.markBillAsPaid(userBill.get());
         return new ResponseEntity<>(HttpStatus.OK);
     }
     
@@ -332,18 +317,14 @@ public class BillController {
             @PathVariable Long billId) {
         
         User user = userService.getUserByEmail(userEmail);
-        Bill bill = billService.getBillById(billId);
         
-        // Check if the bill exists and belongs to the authenticated user
-        if (bill == null) {
+        // Fetched and authorized in one query; another user's bill is reported as not found
+        Optional<Bill> userBill = billService.findUserBill(billId, user.getId());
+        if (userBill.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         
-        if (!bill.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-        }
-        
-        billService.markBillAsUnpaid(billId);
+        billService.markBillAsUnpaid(userBill.get());
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
@@ -395,6 +376,22 @@ public class BillController {
         return new ResponseEntity<>(billsByCategory, HttpStatus.OK);
     }
     
+    @GetMapping("/by-category/simple")
+    public ResponseEntity<Map<String, List<BillDTO>>> getBillsByCategorySimple(
+            @AuthenticationPrincipal String userEmail,
+            @RequestParam Long userId) {
+        
+        User user = userService.getUserByEmail(userEmail);
+        
+        // Check if the authenticated user is requesting their own bills
+        if (!user.getId().equals(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        
+        Map<String, List<BillDTO>> billsByCategory = billService.getBillSummariesByCategory(userId);
+        return new ResponseEntity<>(billsByCategory, HttpStatus.OK);
+    }
+    
     @GetMapping("/upcoming")
     public ResponseEntity<List<Bill>> getUpcomingBills(
             @AuthenticationPrincipal String userEmail,
@@ -1,8 +1,10 @@
 package com.jay.home.finmanapp.controller;
 
+import com.jay.home.finmanapp.model.Account;
 import com.jay.home.finmanapp.model.Budget;
 import com.jay.home.finmanapp.model.Category;
 import com.jay.home.finmanapp.model.User;
+import com.jay.home.finmanapp.service.AccountService;
 import com.jay.home.finmanapp.service.BudgetService;
 import com.jay.home.finmanapp.service.CategoryService;
 import com.jay.home.finmanapp.service.UserService;
@@ -17,6 +19,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/budgets")
@@ -25,12 +28,15 @@ public class BudgetController {
     private final BudgetService budgetService;
     private final UserService userService;
     private final CategoryService categoryService;
+    private final AccountService accountService;
 
     @Autowired
-    public BudgetController(BudgetService budgetService, UserService userService, CategoryService categoryService) {
+    public BudgetController(BudgetService budgetService, UserService userService, CategoryService categoryService,
+                            AccountService accountService) {
         this.budgetService = budgetService;
         this.userService = userService;
         this.categoryService = categoryService;
+        this.accountService = accountService;
     }
 
     @GetMapping
@@ -73,12 +79,12 @@ public class BudgetController {
             @AuthenticationPrincipal String userEmail,
             @PathVariable Long id) {
         User user = userService.getUserByEmail(userEmail);
-        Budget budget = budgetService.getBudgetById(id);
-
-        // Verify the budget belongs to the authenticated user
-        if (!budget.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        // Fetched and authorized in one query; another user's budget is reported as not found
+        Optional<Budget> userBudget = budgetService.findUserBudget(id, user);
+        if (userBudget.isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
+        Budget budget = userBudget.get();
 
         return ResponseEntity.ok(budget);
     }
@@ -89,12 +95,12 @@ public class BudgetController {
             @PathVariable Long id,
             @Valid @RequestBody Map<String, Object> request) {
         User user = userService.getUserByEmail(userEmail);
-        Budget budget = budgetService.getBudgetById(id);
-
-        // Verify the budget belongs to the authenticated user
-        if (!budget.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        // Fetched and authorized in one query; another user's budget is reported as not found
+        Optional<Budget> userBudget = budgetService.findUserBudget(id, user);
+        if (userBudget.isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
+        Budget budget = userBudget.get();
 
         // Update fields if provided
         if (request.containsKey("name")) {
@@ -136,14 +142,13 @@ public class BudgetController {
             @AuthenticationPrincipal String userEmail,
             @PathVariable Long id) {
         User user = userService.getUserByEmail(userEmail);
-        Budget budget = budgetService.getBudgetById(id);
-
-        // Verify the budget belongs to the authenticated user
-        if (!budget.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        // Fetched and authorized in one query; another user's budget is reported as not found
+        Optional<Budget> userBudget = budgetService.findUserBudget(id, user);
+        if (userBudget.isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
 
-        budgetService.deleteBudget(id);
+        budgetService.deleteBudget(userBudget.get());
         return ResponseEntity.ok().build();
     }
 
@@ -152,38 +157,27 @@ public class BudgetController {
             @AuthenticationPrincipal String userEmail,
             @PathVariable Long id) {
         User user = userService.getUserByEmail(userEmail);
-        Budget budget = budgetService.getBudgetById(id);
-
-        // Verify the budget belongs to the authenticated user
-        if (!budget.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        // Fetched and authorized in one query; another user's budget is reported as not found
+        Optional<Budget> userBudget = budgetService.findUserBudget(id, user);
+        if (userBudget.isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
+        Budget budget = userBudget.get();
 
-        // Get current spending or default to zero if null
-        BigDecimal currentSpending = budgetService.getCurrentSpending(budget, user.getAccounts().stream().toList());
-        if (currentSpending == null) {
-            currentSpending = BigDecimal.ZERO;
-        }
-        
-        // Calculate percentage and remaining amount
-        BigDecimal percentage = BigDecimal.ZERO;
-        if (budget.getAmount() != null && budget.getAmount().compareTo(BigDecimal.ZERO) > 0) {
-            percentage = currentSpending.divide(budget.getAmount(), 2, BigDecimal.ROUND_HALF_UP)
-                .multiply(BigDecimal.valueOf(100));
-        }
-        
-        BigDecimal remaining = budget.getAmount() != null ? 
-            budget.getAmount().subtract(currentSpending) : BigDecimal.ZERO;
-
-        Map<String, Object> response = Map.of(
-                "budgetId", budget.getId(),
-                "budgetName", budget.getName(),
-                "budgetAmount", budget.getAmount(),
-                "currentSpending", currentSpending,
-                "percentageUsed", percentage,
-                "remaining", remaining
-        );
+        List<Account> accounts = accountService.getUserAccounts(user);
+        Map<String, Object> response = budgetService.getSpendingSummaries(List.of(budget), accounts).get(0);
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Returns spend, percentage used and remaining amount for all of the user's active budgets.
+     * All budgets are evaluated with one grouped query instead of one request per budget.
+     */
+    @GetMapping("/spending")
+    public ResponseEntity<List<Map<String, Object>>> getActiveBudgetSpending(
+            @AuthenticationPrincipal String userEmail) {
+        User user = userService.getUserByEmail(userEmail);
+        return ResponseEntity.ok(budgetService.getActiveSpendingSummaries(user));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.jay.home.finmanapp.controller;
+
+import com.jay.home.finmanapp.model.User;
+import com.jay.home.finmanapp.service.DashboardService;
+import com.jay.home.finmanapp.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * REST controller for the combined dashboard view.
+ *
+ * Replaces the separate account, balance, budget, spending, bill, insight and notification
+ * calls the dashboard page used to make. The user is resolved once and the individual reads
+ * run concurrently under a shared deadline; see {@link DashboardService}.
+ *
+ * All endpoints are under the base path /api/dashboard.
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+    private final DashboardService dashboardService;
+    private final UserService userService;
+
+    @Autowired
+    public DashboardController(DashboardService dashboardService, UserService userService) {
+        this.dashboardService = dashboardService;
+        this.userService = userService;
+    }
+
+    /**
+     * Returns the dashboard for the authenticated user.
+     *
+     * @param userEmail Email of the authenticated user (injected by Spring Security)
+     * @return ResponseEntity containing the dashboard payload with HTTP status 200 (OK),
+     *         including {@code partial=true} when some sections missed the deadline,
+     *         or status 401 (Unauthorized) if no user is authenticated
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getDashboard(@AuthenticationPrincipal String userEmail) {
+        if (userEmail == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        User user = userService.getUserByEmail(userEmail);
+        return ResponseEntity.ok(dashboardService.getDashboard(user));
+    }
+}
@@ -0,0 +1,103 @@
+package com.jay.home.finmanapp.controller;
+
+import com.jay.home.finmanapp.export.ExportDataset;
+import com.jay.home.finmanapp.export.ExportFormat;
+import com.jay.home.finmanapp.model.User;
+import com.jay.home.finmanapp.service.ExportService;
+import com.jay.home.finmanapp.service.UserService;
+import com.jay.home.finmanapp.sql.StatementTimeout;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * REST controller for exporting a user's full financial history.
+ *
+ * The export is written to the response while the rows are read, so it starts downloading at
+ * once and needs no more memory for a user with millions of transactions than for a new one.
+ * The handler runs synchronously rather than as an async result, so the async request timeout
+ * does not cut long exports short, and its statements have no timeout; an export ends when
+ * the client goes away and the next write fails. CSV and NDJSON are gzip-encoded for clients
+ * that accept it.
+ */
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ExportService exportService;
+    private final UserService userService;
+
+    @Autowired
+    public ExportController(ExportService exportService, UserService userService) {
+        this.exportService = exportService;
+        this.userService = userService;
+    }
+
+    /**
+     * Exports the user's accounts, transactions, bills, budgets and notifications.
+     *
+     * @param format {@code zip} (default; every dataset as CSV and NDJSON), {@code ndjson} (every dataset)
+     *               or {@code csv} (the dataset named by {@code dataset})
+     * @param dataset Dataset exported as CSV, {@code transactions} by default
+     */
+    @GetMapping
+    @StatementTimeout(0)
+    public void export(
+            @AuthenticationPrincipal String userEmail,
+            @RequestParam(defaultValue = "zip") String format,
+            @RequestParam(defaultValue = "transactions") String dataset,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat;
+        ExportDataset exportDataset;
+        try {
+            exportFormat = ExportFormat.of(format);
+            exportDataset = ExportDataset.of(dataset);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        User user = userService.getUserByEmail(userEmail);
+
+        String fileName = "finmanapp-" + (exportFormat == ExportFormat.CSV ? exportDataset.fileName() : "export")
+                + "-" + LocalDate.now() + "." + exportFormat.extension();
+        response.setContentType(exportFormat.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName).build().toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+
+        // A zip archive is already compressed
+        boolean gzip = exportFormat != ExportFormat.ZIP && acceptEncoding != null && acceptEncoding.contains("gzip");
+        if (exportFormat != ExportFormat.ZIP) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        OutputStream output = new BufferedOutputStream(response.getOutputStream(), BUFFER_SIZE);
+        if (gzip) {
+            GZIPOutputStream compressed = new GZIPOutputStream(output, BUFFER_SIZE);
+            exportService.export(user.getId(), exportFormat, exportDataset, compressed);
+            compressed.finish();
+        } else {
+            exportService.export(user.getId(), exportFormat, exportDataset, output);
+        }
+        output.flush();
+    }
+}
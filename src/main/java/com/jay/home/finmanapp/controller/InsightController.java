@@ -4,7 +4,10 @@ import com.jay.home.finmanapp.model.Account;
 import com.jay.home.finmanapp.model.Category;
 import com.jay.home.finmanapp.model.User;
 import com.jay.home.finmanapp.service.*;
+import com.jay.home.finmanapp.sql.StatementTimeout;
+import com.jay.home.finmanapp.util.DateRanges;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -13,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/api/insights")
@@ -24,6 +28,9 @@ public class InsightController {
     private final CategoryService categoryService;
     private final AIService aiService;
 
+    @Value("${app.query.max-date-range-days:731}")
+    private int maxDateRangeDays;
+
     @Autowired
     public InsightController(
             InsightService insightService,
@@ -44,24 +51,33 @@ public class InsightController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
 
+        DateRanges.requireValid(startDate, endDate, maxDateRangeDays);
         User user = userService.getUserByEmail(userEmail);
         List<Account> accounts = accountService.getUserAccounts(user);
         List<Map<String, Object>> categorySpending = insightService.getSpendingByCategory(accounts, startDate, endDate);
         return ResponseEntity.ok(categorySpending);
     }
 
+    /**
+     * Spending per period in a date range. Runs asynchronously, so its statements are cancelled
+     * when the request times out or the client goes away.
+     */
     @GetMapping("/spending-trend")
-    public ResponseEntity<List<Map<String, Object>>> getSpendingTrend(
+    @StatementTimeout(15)
+    public Callable<ResponseEntity<List<Map<String, Object>>>> getSpendingTrend(
             @AuthenticationPrincipal String userEmail,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(required = false) String period) { // daily, weekly, monthly
 
-        User user = userService.getUserByEmail(userEmail);
-        List<Account> accounts = accountService.getUserAccounts(user);
-        String timePeriod = period != null ? period.toUpperCase() : "MONTHLY";
-        List<Map<String, Object>> spendingTrend = insightService.getSpendingTrend(accounts, startDate, endDate, timePeriod);
-        return ResponseEntity.ok(spendingTrend);
+        DateRanges.requireValid(startDate, endDate, maxDateRangeDays);
+        return () -> {
+            User user = userService.getUserByEmail(userEmail);
+            List<Account> accounts = accountService.getUserAccounts(user);
+            String timePeriod = period != null ? period.toUpperCase() : "MONTHLY";
+            List<Map<String, Object>> spendingTrend = insightService.getSpendingTrend(accounts, startDate, endDate, timePeriod);
+            return ResponseEntity.ok(spendingTrend);
+        };
     }
 
     @GetMapping("/category-trend/{categoryId}")
@@ -72,6 +88,7 @@ public class InsightController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(required = false) String period) { // daily, weekly, monthly
 
+        DateRanges.requireValid(startDate, endDate, maxDateRangeDays);
         User user = userService.getUserByEmail(userEmail);
         List<Account> accounts = accountService.getUserAccounts(user);
         Category category = categoryService.getCategoryById(categoryId);
@@ -91,6 +108,7 @@ public class InsightController {
         User user = userService.getUserByEmail(userEmail);
         LocalDate start = startDate != null ? startDate : LocalDate.now().minusMonths(3);
         LocalDate end = endDate != null ? endDate : LocalDate.now();
+        DateRanges.requireValid(start, end, maxDateRangeDays);
 
         List<Map<String, Object>> budgetPerformance = insightService.getBudgetPerformance(user, start, end);
         return ResponseEntity.ok(budgetPerformance);
@@ -131,6 +149,7 @@ public class InsightController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(defaultValue = "10") int limit) {
 
+        DateRanges.requireValid(startDate, endDate, maxDateRangeDays);
         User user = userService.getUserByEmail(userEmail);
         List<Account> accounts = accountService.getUserAccounts(user);
         List<Map<String, Object>> topMerchants = insightService.getTopMerchants(accounts, startDate, endDate, limit);
@@ -1,26 +1,37 @@
 package com.jay.home.finmanapp.controller;
 
+import com.jay.home.finmanapp.importer.ImportFormat;
+import com.jay.home.finmanapp.importer.ImportProgress;
 import com.jay.home.finmanapp.model.Account;
 import com.jay.home.finmanapp.model.Category;
 import com.jay.home.finmanapp.model.Transaction;
 import com.jay.home.finmanapp.model.User;
 import com.jay.home.finmanapp.service.AccountService;
 import com.jay.home.finmanapp.service.CategoryService;
+import com.jay.home.finmanapp.service.TransactionImportService;
 import com.jay.home.finmanapp.service.TransactionService;
 import com.jay.home.finmanapp.service.UserService;
 import com.jay.home.finmanapp.service.LoggingService;
+import com.jay.home.finmanapp.sql.StatementTimeout;
+import com.jay.home.finmanapp.util.DateRanges;
 import com.jay.home.finmanapp.util.TracingUtil;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import io.opentracing.Span;
 import io.opentracing.util.GlobalTracer;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -28,37 +39,65 @@ import java.time.LocalTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionController {
     private final TransactionService transactionService;
+    private final TransactionImportService transactionImportService;
     private final UserService userService;
     private final AccountService accountService;
     private final CategoryService categoryService;
     private final LoggingService loggingService;
 
+    @Value("${app.query.max-date-range-days:731}")
+    private int maxDateRangeDays;
+
     @Autowired
     public TransactionController(
             TransactionService transactionService,
+            TransactionImportService transactionImportService,
             UserService userService,
             AccountService accountService,
             CategoryService categoryService) {
         this.transactionService = transactionService;
+        this.transactionImportService = transactionImportService;
         this.userService = userService;
         this.accountService = accountService;
         this.categoryService = categoryService;
-        this.loggingService = new LoggingService(TransactionController.class);
+        this.loggingService = LoggingService.forClass(TransactionController.class);
     }
 
+    /**
+     * Lists the user's transactions in a date range, by default the last month.
+     * Runs asynchronously, so its statements are cancelled when the request times out or the
+     * client goes away; the range is capped by {@code app.query.max-date-range-days}.
+     */
     @GetMapping
-    public ResponseEntity<List<Transaction>> getUserTransactions(
+    @StatementTimeout(15)
+    public Callable<ResponseEntity<List<Transaction>>> getUserTransactions(
             @AuthenticationPrincipal String userEmail,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) Long accountId) {
 
+        LocalDateTime startDateTime = startDate != null ?
+                LocalDateTime.of(startDate, LocalTime.MIN) :
+                LocalDateTime.of(LocalDate.now().minusMonths(1), LocalTime.MIN);
+        LocalDateTime endDateTime = endDate != null ?
+                LocalDateTime.of(endDate, LocalTime.MAX) :
+                LocalDateTime.now();
+        DateRanges.requireValid(startDateTime.toLocalDate(), endDateTime.toLocalDate(), maxDateRangeDays);
+
+        return () -> listTransactions(userEmail, startDate, endDate, categoryId, accountId, startDateTime, endDateTime);
+    }
+
+    private ResponseEntity<List<Transaction>> listTransactions(String userEmail, LocalDate startDate, LocalDate endDate,
+                                                               Long categoryId, Long accountId,
+                                                               LocalDateTime startDateTime, LocalDateTime endDateTime) {
         Span span = TracingUtil.startSpan("transaction.list");
         try {
             loggingService.info("Retrieving transactions for user: {}, startDate: {}, endDate: {}, categoryId: {}, accountId: {}",
@@ -95,14 +134,6 @@ public class TransactionController {
                 span.setTag("category.name", category.getName());
             }
 
-            LocalDateTime startDateTime = startDate != null ?
-                    LocalDateTime.of(startDate, LocalTime.MIN) :
-                    LocalDateTime.of(LocalDate.now().minusMonths(1), LocalTime.MIN);
-
-            LocalDateTime endDateTime = endDate != null ?
-                    LocalDateTime.of(endDate, LocalTime.MAX) :
-                    LocalDateTime.now();
-
             List<Transaction> transactions;
             if (category != null) {
                 loggingService.debug("Retrieving transactions with category filter: {}", category.getName());
@@ -169,12 +200,12 @@ public class TransactionController {
             @Valid @RequestBody Map<String, Object> request) {
 
         User user = userService.getUserByEmail(userEmail);
-        Transaction transaction = transactionService.getTransactionById(id);
-
-        // Verify transaction belongs to user's account
-        if (!transaction.getAccount().getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        // Fetched and authorized in one query; another user's transaction is reported as not found
+        Optional<Transaction> userTransaction = transactionService.findUserTransaction(id, user.getId());
+        if (userTransaction.isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
+        Transaction transaction = userTransaction.get();
 
         // Only allow updating manual transactions
         if (!transaction.isManualEntry()) {
@@ -211,19 +242,19 @@ public class TransactionController {
             @PathVariable Long id) {
 
         User user = userService.getUserByEmail(userEmail);
-        Transaction transaction = transactionService.getTransactionById(id);
-
-        // Verify transaction belongs to user's account
-        if (!transaction.getAccount().getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        // Fetched and authorized in one query; another user's transaction is reported as not found
+        Optional<Transaction> userTransaction = transactionService.findUserTransaction(id, user.getId());
+        if (userTransaction.isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
+        Transaction transaction = userTransaction.get();
 
         // Only allow deleting manual transactions
         if (!transaction.isManualEntry()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
 
-        transactionService.deleteTransaction(id);
+        transactionService.deleteTransaction(transaction);
         return ResponseEntity.ok().build();
     }
 
@@ -234,12 +265,12 @@ public class TransactionController {
             @RequestBody Map<String, Long> request) {
 
         User user = userService.getUserByEmail(userEmail);
-        Transaction transaction = transactionService.getTransactionById(id);
-
-        // Verify transaction belongs to user's account
-        if (!transaction.getAccount().getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        // Fetched and authorized in one query; another user's transaction is reported as not found
+        Optional<Transaction> userTransaction = transactionService.findUserTransaction(id, user.getId());
+        if (userTransaction.isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
+        Transaction transaction = userTransaction.get();
 
         Category category = categoryService.getCategoryById(request.get("categoryId"));
         transaction.setCategory(category);
@@ -291,4 +322,68 @@ public class TransactionController {
             span.finish();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Imports a CSV, OFX or QFX file uploaded as the {@code file} part of a multipart request.
+     * The container spools the part to disk, and the file is parsed and written as a stream.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportProgress> importTransactions(
+            @AuthenticationPrincipal String userEmail,
+            @RequestParam Long accountId,
+            @RequestParam(required = false) String format,
+            @RequestPart("file") MultipartFile file) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            return importFile(userEmail, accountId, format, file.getOriginalFilename(), input);
+        }
+    }
+
+    /**
+     * Imports a CSV, OFX or QFX file sent as the request body, read straight from the connection.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ofx", "application/vnd.intu.qfx",
+            MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ImportProgress> importTransactionStream(
+            @AuthenticationPrincipal String userEmail,
+            @RequestParam Long accountId,
+            @RequestParam String format,
+            InputStream body) throws IOException {
+        return importFile(userEmail, accountId, format, null, body);
+    }
+
+    /**
+     * Reports the progress of the user's running import, or the outcome of the last one.
+     */
+    @GetMapping("/import/progress")
+    public ResponseEntity<ImportProgress> getImportProgress(@AuthenticationPrincipal String userEmail) {
+        User user = userService.getUserByEmail(userEmail);
+        return ResponseEntity.of(transactionImportService.getLatestImport(user.getId()));
+    }
+
+    private ResponseEntity<ImportProgress> importFile(String userEmail, Long accountId, String format,
+                                                      String filename, InputStream input) throws IOException {
+        ImportFormat importFormat;
+        try {
+            importFormat = ImportFormat.of(format, filename);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        User user = userService.getUserByEmail(userEmail);
+        // Fetched and authorized in one query; another user's account is reported as not found
+        Optional<Account> userAccount = accountService.findUserAccount(accountId, user.getId());
+        if (userAccount.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Account account = userAccount.get();
+
+        ImportProgress progress;
+        try {
+            progress = transactionImportService.importTransactions(account, importFormat, input);
+        } catch (IOException e) {
+            // The progress endpoint reports what was imported before the failure
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        return ResponseEntity.ok(progress);
+    }
+}
@@ -0,0 +1,25 @@
+package com.jay.home.finmanapp.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Routes the database work of a method to the connection pool of the given workload.
+ *
+ * Applies to every transaction started while the method runs, including those of the
+ * repositories and services it calls. A transaction that is already open keeps its connection,
+ * so the annotation belongs on the outermost method of a job rather than on methods that join
+ * a caller's transaction. On a class, it applies to all of its public methods.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Workload {
+    /**
+     * @return The workload whose pool serves the method
+     */
+    WorkloadType value();
+}
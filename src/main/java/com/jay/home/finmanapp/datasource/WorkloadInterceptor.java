@@ -0,0 +1,51 @@
+package com.jay.home.finmanapp.datasource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interceptor that runs {@link Workload} methods with their workload set on the current thread,
+ * so {@link WorkloadRoutingDataSource} serves their transactions from that workload's pool.
+ * The previous workload is restored when the method returns.
+ */
+public class WorkloadInterceptor implements MethodInterceptor {
+
+    private final Map<Method, WorkloadType> workloads = new ConcurrentHashMap<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Class<?> targetClass = invocation.getThis() != null
+                ? AopUtils.getTargetClass(invocation.getThis())
+                : invocation.getMethod().getDeclaringClass();
+        WorkloadType workload = workloads.computeIfAbsent(invocation.getMethod(),
+                method -> resolve(method, targetClass));
+        if (workload == null) {
+            return invocation.proceed();
+        }
+
+        WorkloadType previous = WorkloadRoutingDataSource.setCurrentWorkload(workload);
+        try {
+            return invocation.proceed();
+        } finally {
+            WorkloadRoutingDataSource.setCurrentWorkload(previous);
+        }
+    }
+
+    /**
+     * The method's own annotation wins over the one on its class.
+     */
+    private static WorkloadType resolve(Method method, Class<?> targetClass) {
+        Workload workload = AnnotatedElementUtils.findMergedAnnotation(
+                AopUtils.getMostSpecificMethod(method, targetClass), Workload.class);
+        if (workload == null) {
+            workload = AnnotatedElementUtils.findMergedAnnotation(targetClass, Workload.class);
+        }
+        return workload != null ? workload.value() : null;
+    }
+}
@@ -0,0 +1,60 @@
+package com.jay.home.finmanapp.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Data source that hands out connections from the pool of the current thread's workload.
+ *
+ * The workload is set by {@link WorkloadInterceptor} for methods annotated with {@link Workload};
+ * everything else is {@link WorkloadType#INTERACTIVE}. The pool is chosen when a connection is
+ * requested, which for JPA is when a transaction begins.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final ThreadLocal<WorkloadType> CURRENT = new ThreadLocal<>();
+
+    /**
+     * @return The workload of the current thread
+     */
+    public static WorkloadType currentWorkload() {
+        WorkloadType workload = CURRENT.get();
+        return workload != null ? workload : WorkloadType.INTERACTIVE;
+    }
+
+    /**
+     * Sets the workload of the current thread.
+     *
+     * @param workload The new workload, or null for the default
+     * @return The previous workload, or null, to be restored afterwards
+     */
+    static WorkloadType setCurrentWorkload(WorkloadType workload) {
+        WorkloadType previous = CURRENT.get();
+        if (workload != null) {
+            CURRENT.set(workload);
+        } else {
+            CURRENT.remove();
+        }
+        return previous;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentWorkload();
+    }
+
+    /**
+     * Closes the pools when the application shuts down.
+     */
+    @Override
+    public void close() throws IOException {
+        for (DataSource pool : getResolvedDataSources().values()) {
+            if (pool instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.jay.home.finmanapp.datasource;
+
+/**
+ * Kinds of database work, each served by its own connection pool.
+ */
+public enum WorkloadType {
+    /**
+     * Requests a user is waiting for: login, CRUD and dashboard reads. The default.
+     */
+    INTERACTIVE,
+
+    /**
+     * Scheduled jobs and bulk writes, such as the budget threshold sweep and demo data initialization.
+     */
+    BATCH,
+
+    /**
+     * Long-running aggregations over transaction history.
+     */
+    ANALYTICS,
+
+    /**
+     * Streamed data exports, which hold a connection for as long as a possibly slow client takes
+     * to download the whole history, so they get a pool of their own instead of starving batch jobs.
+     */
+    EXPORT;
+
+    /**
+     * @return Name of the pool serving this workload, as used in the configuration and metrics
+     */
+    public String poolName() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,14 @@
+package com.jay.home.finmanapp.event;
+
+/**
+ * Application event published when transactions of a user are added, changed or deleted, once
+ * per write (a manual entry, a sync or an import), not once per transaction.
+ *
+ * Published inside the writer's transaction, if any; listeners that read the changed data
+ * should handle it after commit with {@code @TransactionalEventListener}.
+ *
+ * @param userId The ID of the user who owns the transactions
+ * @param count The number of transactions written
+ */
+public record TransactionsChangedEvent(Long userId, long count) {
+}
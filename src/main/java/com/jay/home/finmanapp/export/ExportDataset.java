@@ -0,0 +1,65 @@
+package com.jay.home.finmanapp.export;
+
+import java.util.Locale;
+
+/**
+ * The tables of a user's financial history included in an export, with the query that reads
+ * each one. Every query takes the user ID as its only parameter and selects the columns in
+ * export order; secrets such as access tokens are left out.
+ */
+public enum ExportDataset {
+    ACCOUNTS("accounts",
+            "SELECT a.id, a.name, a.type, a.balance, a.institution_name, a.last_synced "
+                    + "FROM accounts a WHERE a.user_id = ? ORDER BY a.id"),
+    TRANSACTIONS("transactions",
+            "SELECT t.id, t.account_id, t.transaction_id, t.date, t.description, t.amount, "
+                    + "c.name AS category, t.is_manual_entry "
+                    + "FROM transactions t JOIN accounts a ON a.id = t.account_id "
+                    + "LEFT JOIN categories c ON c.id = t.category_id "
+                    + "WHERE a.user_id = ? ORDER BY t.date, t.id"),
+    BILLS("bills",
+            "SELECT b.id, b.name, b.amount, b.due_day, b.is_paid, b.is_recurring, b.recurring_period, "
+                    + "b.auto_pay, b.description, c.name AS category "
+                    + "FROM bills b LEFT JOIN categories c ON c.id = b.category_id "
+                    + "WHERE b.user_id = ? ORDER BY b.id"),
+    BUDGETS("budgets",
+            "SELECT b.id, b.name, b.amount, c.name AS category, b.period, b.start_date, b.end_date, "
+                    + "b.warning_threshold "
+                    + "FROM budgets b LEFT JOIN categories c ON c.id = b.category_id "
+                    + "WHERE b.user_id = ? ORDER BY b.id"),
+    NOTIFICATIONS("notifications",
+            "SELECT n.id, n.budget_id, n.message, n.sent_at, n.is_read "
+                    + "FROM notifications n WHERE n.user_id = ? ORDER BY n.id");
+
+    private final String fileName;
+    private final String sql;
+
+    ExportDataset(String fileName, String sql) {
+        this.fileName = fileName;
+        this.sql = sql;
+    }
+
+    /**
+     * @return Name of the dataset in file names and NDJSON rows
+     */
+    public String fileName() {
+        return fileName;
+    }
+
+    public String sql() {
+        return sql;
+    }
+
+    /**
+     * @param name Dataset name, ignoring case
+     * @return The dataset
+     * @throws IllegalArgumentException If the name is not a dataset
+     */
+    public static ExportDataset of(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown export dataset: " + name);
+        }
+    }
+}
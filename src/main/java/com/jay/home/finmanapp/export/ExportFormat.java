@@ -0,0 +1,50 @@
+package com.jay.home.finmanapp.export;
+
+import java.util.Locale;
+
+/**
+ * Output formats of the data export.
+ */
+public enum ExportFormat {
+    /**
+     * One dataset as comma separated values with a header row.
+     */
+    CSV("text/csv", "csv"),
+    /**
+     * All datasets as newline-delimited JSON, one object per row tagged with its dataset.
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /**
+     * A zip archive holding each dataset as both CSV and NDJSON.
+     */
+    ZIP("application/zip", "zip");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * @param name Format name, ignoring case
+     * @return The format
+     * @throws IllegalArgumentException If the name is not a format
+     */
+    public static ExportFormat of(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + name);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.jay.home.finmanapp.export;
+
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Locale;
+
+/**
+ * Column names and values of export rows, normalized across JDBC drivers.
+ */
+public final class ExportValues {
+
+    private ExportValues() {
+    }
+
+    /**
+     * @return The lower-case column labels of the result set
+     */
+    public static String[] columnNames(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        String[] names = new String[metaData.getColumnCount()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = metaData.getColumnLabel(i + 1).toLowerCase(Locale.ROOT);
+        }
+        return names;
+    }
+
+    /**
+     * @return The value of a column as a String, Number, Boolean, java.time date or null
+     */
+    public static Object value(ResultSet resultSet, int column) throws SQLException {
+        Object value = resultSet.getObject(column);
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        if (value instanceof Date date) {
+            return date.toLocalDate();
+        }
+        if (value instanceof Clob) {
+            return resultSet.getString(column);
+        }
+        return value;
+    }
+
+    /**
+     * Reads the values of the current row into an array with one element per column.
+     */
+    public static void values(ResultSet resultSet, Object[] values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = value(resultSet, i + 1);
+        }
+    }
+}
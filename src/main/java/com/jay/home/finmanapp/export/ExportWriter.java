@@ -0,0 +1,30 @@
+package com.jay.home.finmanapp.export;
+
+import java.io.IOException;
+
+/**
+ * Writes the rows of export datasets to an output stream as they are read.
+ * A writer never closes the stream, so several writers can take turns on one zip stream.
+ */
+public interface ExportWriter {
+
+    /**
+     * Starts a dataset; called before its first row, even when it has none.
+     *
+     * @param dataset The dataset
+     * @param columns The lower-case column names, in export order
+     */
+    void begin(ExportDataset dataset, String[] columns) throws IOException;
+
+    /**
+     * Writes a row. The array is only valid during the call and may be reused for the next row.
+     *
+     * @param values The values, one per column, as normalized by {@link ExportValues#value}
+     */
+    void row(Object[] values) throws IOException;
+
+    /**
+     * Ends the current dataset and flushes what is buffered to the stream.
+     */
+    void end() throws IOException;
+}
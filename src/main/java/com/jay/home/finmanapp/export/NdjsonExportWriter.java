@@ -0,0 +1,62 @@
+package com.jay.home.finmanapp.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+
+/**
+ * Writes datasets as newline-delimited JSON: one object per row, whose {@code dataset} field
+ * names the dataset it belongs to. Dates are ISO-8601 strings, amounts JSON numbers.
+ */
+public class NdjsonExportWriter implements ExportWriter {
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private final JsonGenerator generator;
+    private String dataset;
+    private String[] names;
+
+    public NdjsonExportWriter(OutputStream output) throws IOException {
+        this.generator = JSON_FACTORY.createGenerator(output);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void begin(ExportDataset dataset, String[] columns) {
+        this.dataset = dataset.fileName();
+        this.names = columns;
+    }
+
+    @Override
+    public void row(Object[] values) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("dataset", dataset);
+        for (int i = 0; i < names.length; i++) {
+            generator.writeFieldName(names[i]);
+            Object value = values[i];
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof BigDecimal decimal) {
+                generator.writeNumber(decimal);
+            } else if (value instanceof Long || value instanceof Integer || value instanceof Short) {
+                generator.writeNumber(((Number) value).longValue());
+            } else if (value instanceof Boolean bool) {
+                generator.writeBoolean(bool);
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void end() throws IOException {
+        generator.flush();
+    }
+}
@@ -0,0 +1,233 @@
+package com.jay.home.finmanapp.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads transactions from a CSV file with a header row (RFC 4180 quoting, comma separated).
+ *
+ * Columns are matched by header name, ignoring case, spaces and punctuation:
+ * <ul>
+ *   <li>date: {@code Date}, {@code Transaction Date}, {@code Posted Date} or {@code Posting Date}</li>
+ *   <li>amount: {@code Amount}, or separate {@code Debit} and {@code Credit} columns</li>
+ *   <li>description: {@code Description}, {@code Name}, {@code Payee}, {@code Merchant} or {@code Memo}</li>
+ *   <li>optional ID: {@code Transaction ID}, {@code ID}, {@code FITID} or {@code Reference}</li>
+ *   <li>optional category: {@code Category}</li>
+ * </ul>
+ * Dates may be ISO ({@code 2024-03-31}, with or without a time), {@code 03/31/2024} or
+ * {@code 2024/03/31}. Amounts may carry a currency symbol, thousands separators or accounting
+ * parentheses for negatives.
+ */
+public class CsvTransactionReader implements TransactionReader {
+    /**
+     * Longest record accepted; guards the heap against a file with an unterminated quote.
+     */
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("M/d/yyyy"),
+            DateTimeFormatter.ofPattern("yyyy/M/d"),
+            DateTimeFormatter.ofPattern("M/d/yy"));
+
+    private final BufferedReader reader;
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+    private long row;
+    private boolean headerRead;
+    private int dateColumn = -1;
+    private int amountColumn = -1;
+    private int debitColumn = -1;
+    private int creditColumn = -1;
+    private int descriptionColumn = -1;
+    private int idColumn = -1;
+    private int categoryColumn = -1;
+    private DateTimeFormatter dateFormat = DATE_FORMATS.get(0);
+
+    public CsvTransactionReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    @Override
+    public ImportedTransaction next() throws IOException {
+        if (!headerRead) {
+            readHeader();
+        }
+        while (readRecord()) {
+            row++;
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            return toTransaction();
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        headerRead = true;
+        if (!readRecord()) {
+            throw new IOException("CSV file is empty");
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            String name = fields.get(i).replace("\uFEFF", "").toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+            switch (name) {
+                case "date", "transactiondate", "posteddate", "postingdate" -> dateColumn = first(dateColumn, i);
+                case "amount" -> amountColumn = first(amountColumn, i);
+                case "debit" -> debitColumn = first(debitColumn, i);
+                case "credit" -> creditColumn = first(creditColumn, i);
+                case "description", "name", "payee", "merchant", "memo" ->
+                        descriptionColumn = first(descriptionColumn, i);
+                case "transactionid", "id", "fitid", "reference", "referencenumber" -> idColumn = first(idColumn, i);
+                case "category" -> categoryColumn = first(categoryColumn, i);
+                default -> { }
+            }
+        }
+        if (dateColumn < 0 || descriptionColumn < 0 || (amountColumn < 0 && debitColumn < 0 && creditColumn < 0)) {
+            throw new IOException("CSV header must name a date, a description and an amount (or debit/credit) column");
+        }
+    }
+
+    private static int first(int current, int index) {
+        return current >= 0 ? current : index;
+    }
+
+    private ImportedTransaction toTransaction() {
+        LocalDateTime date = parseDate(column(dateColumn));
+        BigDecimal amount;
+        if (amountColumn >= 0) {
+            amount = parseAmount(column(amountColumn));
+        } else {
+            BigDecimal debit = parseAmount(column(debitColumn));
+            BigDecimal credit = parseAmount(column(creditColumn));
+            amount = debit == null && credit == null ? null
+                    : (credit != null ? credit.abs() : BigDecimal.ZERO)
+                            .subtract(debit != null ? debit.abs() : BigDecimal.ZERO);
+        }
+        if (amount == null) {
+            throw new InvalidImportRowException(row, "amount is missing");
+        }
+        String description = column(descriptionColumn);
+        if (description.isEmpty()) {
+            throw new InvalidImportRowException(row, "description is missing");
+        }
+        String id = column(idColumn);
+        if (id.isEmpty()) {
+            id = ImportedTransaction.deriveId("csv", date, amount, description);
+        }
+        String category = column(categoryColumn);
+        return new ImportedTransaction(id, date, amount, description, category.isEmpty() ? null : category);
+    }
+
+    private String column(int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index).trim() : "";
+    }
+
+    private LocalDateTime parseDate(String value) {
+        if (value.isEmpty()) {
+            throw new InvalidImportRowException(row, "date is missing");
+        }
+        if (value.length() > 10 && value.charAt(4) == '-') {
+            try {
+                return LocalDateTime.parse(value.replace(' ', 'T'));
+            } catch (DateTimeParseException e) {
+                // Not a date-time; try the date formats
+            }
+        }
+        try {
+            return LocalDate.parse(value, dateFormat).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            // Formats are consistent within a file, so remember the one that matches
+            for (DateTimeFormatter format : DATE_FORMATS) {
+                try {
+                    LocalDate date = LocalDate.parse(value, format);
+                    dateFormat = format;
+                    return date.atStartOfDay();
+                } catch (DateTimeParseException ignored) {
+                    // Try the next format
+                }
+            }
+        }
+        throw new InvalidImportRowException(row, "unrecognised date '" + value + "'");
+    }
+
+    private BigDecimal parseAmount(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        boolean negative = value.startsWith("(") && value.endsWith(")");
+        String digits = value.replaceAll("[^0-9.+-]", "");
+        try {
+            BigDecimal amount = new BigDecimal(digits);
+            return negative ? amount.abs().negate() : amount;
+        } catch (NumberFormatException e) {
+            throw new InvalidImportRowException(row, "unrecognised amount '" + value + "'");
+        }
+    }
+
+    /**
+     * Reads the fields of the next record into {@link #fields}; quoted fields may span lines.
+     *
+     * @return false at the end of the file
+     */
+    private boolean readRecord() throws IOException {
+        fields.clear();
+        field.setLength(0);
+        int length = 0;
+        boolean quoted = false;
+        int c = reader.read();
+        if (c < 0) {
+            return false;
+        }
+        while (c >= 0) {
+            if (++length > MAX_RECORD_LENGTH) {
+                throw new IOException("CSV record after row " + row + " exceeds " + MAX_RECORD_LENGTH + " characters");
+            }
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return true;
+    }
+}
@@ -0,0 +1,46 @@
+package com.jay.home.finmanapp.importer;
+
+import java.io.Reader;
+import java.util.Locale;
+
+/**
+ * File formats accepted by the transaction import.
+ */
+public enum ImportFormat {
+    CSV,
+    OFX,
+    /**
+     * Quicken's variant of OFX; parsed exactly like OFX.
+     */
+    QFX;
+
+    /**
+     * Resolves the format from an explicit parameter, falling back to the file name extension.
+     *
+     * @param format Format parameter of the request, may be null
+     * @param filename Name of the uploaded file, may be null
+     * @return The format
+     * @throws IllegalArgumentException If neither names a supported format
+     */
+    public static ImportFormat of(String format, String filename) {
+        String name = format;
+        if ((name == null || name.isBlank()) && filename != null && filename.lastIndexOf('.') >= 0) {
+            name = filename.substring(filename.lastIndexOf('.') + 1);
+        }
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Import format is required (csv, ofx or qfx)");
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported import format: " + name);
+        }
+    }
+
+    /**
+     * Opens a reader of this format over a character stream.
+     */
+    public TransactionReader open(Reader reader) {
+        return this == CSV ? new CsvTransactionReader(reader) : new OfxTransactionReader(reader);
+    }
+}
@@ -0,0 +1,121 @@
+package com.jay.home.finmanapp.importer;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progress and outcome of one transaction import.
+ *
+ * Updated by the importing thread only and read by progress requests, so the counters are
+ * volatile rather than atomic. Only the first {@link #MAX_ERRORS} row errors are kept.
+ */
+public class ImportProgress {
+    public enum State { RUNNING, COMPLETED, FAILED }
+
+    static final int MAX_ERRORS = 20;
+
+    private final Long accountId;
+    private final ImportFormat format;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final List<String> errors = new ArrayList<>();
+    private volatile State state = State.RUNNING;
+    private volatile LocalDateTime finishedAt;
+    private volatile String failure;
+    private volatile long rowsRead;
+    private volatile long inserted;
+    private volatile long duplicates;
+    private volatile long rejected;
+
+    public ImportProgress(Long accountId, ImportFormat format) {
+        this.accountId = accountId;
+        this.format = format;
+    }
+
+    public void rowRead() {
+        rowsRead++;
+    }
+
+    public void rowRejected(String error) {
+        rowsRead++;
+        rejected++;
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+
+    public void duplicateSkipped() {
+        duplicates++;
+    }
+
+    public void batchWritten(int rows, int insertedRows) {
+        inserted += insertedRows;
+        duplicates += rows - insertedRows;
+    }
+
+    public void completed() {
+        finishedAt = LocalDateTime.now();
+        state = State.COMPLETED;
+    }
+
+    public void failed(String reason) {
+        failure = reason;
+        finishedAt = LocalDateTime.now();
+        state = State.FAILED;
+    }
+
+    @JsonIgnore
+    public boolean isRunning() {
+        return state == State.RUNNING;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public ImportFormat getFormat() {
+        return format;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<String> getErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.jay.home.finmanapp.importer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+/**
+ * One transaction read from an import file.
+ *
+ * @param transactionId Identifier of the transaction at the institution, or one derived from its contents
+ * @param date Date the transaction was posted
+ * @param amount Amount; negative for expenses
+ * @param description Payee or memo
+ * @param category Category name given in the file, or null
+ */
+public record ImportedTransaction(String transactionId, LocalDateTime date, BigDecimal amount,
+                                  String description, String category) {
+
+    /**
+     * Derives a transaction ID for a file that has none, from the date, amount and description.
+     * Importing the same file again yields the same IDs; two identical rows on the same date
+     * are taken to be the same transaction.
+     */
+    static String deriveId(String prefix, LocalDateTime date, BigDecimal amount, String description) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String key = date + "|" + amount.stripTrailingZeros().toPlainString() + "|" + description;
+            byte[] hash = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+            return prefix + "-" + HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.jay.home.finmanapp.importer;
+
+/**
+ * Thrown by a {@link TransactionReader} for a row it cannot use. The reader has already moved
+ * past the row, so reading can continue with the next one.
+ */
+public class InvalidImportRowException extends RuntimeException {
+
+    public InvalidImportRowException(long row, String message) {
+        super("Row " + row + ": " + message);
+    }
+}
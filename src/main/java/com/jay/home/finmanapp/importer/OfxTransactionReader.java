@@ -0,0 +1,150 @@
+package com.jay.home.finmanapp.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads the statement transactions ({@code <STMTTRN>} aggregates) of an OFX or QFX file.
+ *
+ * Handles both OFX 1.x, an SGML dialect whose leaf elements have no end tags, and the XML of
+ * OFX 2.x. The file is scanned tag by tag rather than parsed into a document, so only the
+ * fields of the current transaction are held in memory. Of each transaction it uses
+ * {@code FITID}, {@code DTPOSTED}, {@code TRNAMT} and {@code NAME} (or {@code MEMO} when there
+ * is no name); everything outside the transactions, such as the headers and balances, is skipped.
+ */
+public class OfxTransactionReader implements TransactionReader {
+    /**
+     * Longest tag or element value accepted; guards the heap against a malformed file.
+     */
+    static final int MAX_TOKEN_LENGTH = 4 * 1024;
+
+    private final BufferedReader reader;
+    private final StringBuilder token = new StringBuilder();
+    private final Map<String, String> fields = new HashMap<>();
+    private long row;
+    private boolean inTransaction;
+    private boolean structureSeen;
+
+    public OfxTransactionReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    @Override
+    public ImportedTransaction next() throws IOException {
+        int c = reader.read();
+        while (c >= 0) {
+            if (c != '<') {
+                c = reader.read();
+                continue;
+            }
+            String tag = readUntil('>').trim().toUpperCase(Locale.ROOT);
+            structureSeen = true;
+            if (tag.equals("STMTTRN")) {
+                inTransaction = true;
+                fields.clear();
+                c = reader.read();
+            } else if (tag.equals("/STMTTRN")) {
+                inTransaction = false;
+                row++;
+                return toTransaction();
+            } else if (inTransaction && !tag.startsWith("/") && !tag.endsWith("/")) {
+                // Element value: the text up to the next tag, which is the end tag in XML
+                String value = readUntil('<');
+                fields.put(tag, decode(value.trim()));
+                c = '<';
+                continue;
+            } else {
+                c = reader.read();
+            }
+        }
+        if (!structureSeen) {
+            throw new IOException("File contains no OFX markup");
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private ImportedTransaction toTransaction() {
+        String amountValue = fields.get("TRNAMT");
+        if (amountValue == null || amountValue.isEmpty()) {
+            throw new InvalidImportRowException(row, "TRNAMT is missing");
+        }
+        BigDecimal amount;
+        try {
+            // Some institutions write a decimal comma
+            amount = new BigDecimal(amountValue.replace(',', '.'));
+        } catch (NumberFormatException e) {
+            throw new InvalidImportRowException(row, "unrecognised TRNAMT '" + amountValue + "'");
+        }
+        LocalDateTime date = parseDate(fields.get("DTPOSTED"));
+        String description = fields.getOrDefault("NAME", "");
+        if (description.isEmpty()) {
+            description = fields.getOrDefault("MEMO", "");
+        }
+        if (description.isEmpty()) {
+            throw new InvalidImportRowException(row, "NAME and MEMO are missing");
+        }
+        String id = fields.get("FITID");
+        if (id == null || id.isEmpty()) {
+            id = ImportedTransaction.deriveId("ofx", date, amount, description);
+        }
+        return new ImportedTransaction(id, date, amount, description, null);
+    }
+
+    /**
+     * Parses an OFX date, {@code YYYYMMDD[HHMMSS[.XXX]][[offset:TZ]]}; the time zone is ignored
+     * like everywhere else in the application, which stores local date-times.
+     */
+    private LocalDateTime parseDate(String value) {
+        if (value == null || value.length() < 8) {
+            throw new InvalidImportRowException(row, "DTPOSTED is missing");
+        }
+        try {
+            LocalDate date = LocalDate.of(Integer.parseInt(value.substring(0, 4)),
+                    Integer.parseInt(value.substring(4, 6)), Integer.parseInt(value.substring(6, 8)));
+            if (value.length() >= 14 && Character.isDigit(value.charAt(8))) {
+                return date.atTime(Integer.parseInt(value.substring(8, 10)),
+                        Integer.parseInt(value.substring(10, 12)), Integer.parseInt(value.substring(12, 14)));
+            }
+            return date.atStartOfDay();
+        } catch (NumberFormatException | DateTimeException e) {
+            throw new InvalidImportRowException(row, "unrecognised DTPOSTED '" + value + "'");
+        }
+    }
+
+    private static String decode(String value) {
+        if (value.indexOf('&') < 0) {
+            return value;
+        }
+        return value.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&nbsp;", " ").replace("&amp;", "&");
+    }
+
+    /**
+     * Reads up to the given character, which is consumed but not returned.
+     */
+    private String readUntil(char end) throws IOException {
+        token.setLength(0);
+        int c;
+        while ((c = reader.read()) >= 0 && c != end) {
+            if (token.length() >= MAX_TOKEN_LENGTH) {
+                throw new IOException("OFX element after transaction " + row + " exceeds "
+                        + MAX_TOKEN_LENGTH + " characters");
+            }
+            token.append((char) c);
+        }
+        return token.toString();
+    }
+}
@@ -0,0 +1,20 @@
+package com.jay.home.finmanapp.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads the transactions of an import file one at a time, holding only the current row in
+ * memory, so files of any size can be imported with a fixed amount of heap.
+ */
+public interface TransactionReader extends Closeable {
+
+    /**
+     * Reads the next transaction.
+     *
+     * @return The transaction, or null at the end of the file
+     * @throws InvalidImportRowException If the row is malformed; the next call continues after it
+     * @throws IOException If the file cannot be read or its structure is not of this format
+     */
+    ImportedTransaction next() throws IOException;
+}
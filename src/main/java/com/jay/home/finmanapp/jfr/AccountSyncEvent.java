@@ -0,0 +1,25 @@
+package com.jay.home.finmanapp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for refreshing one linked account from Plaid.
+ */
+@Name("com.jay.home.finmanapp.AccountSync")
+@Label("Account Sync")
+@Description("Refresh of a linked account's balance from Plaid")
+@Category({"FinManApp", "Account"})
+@StackTrace(false)
+public class AccountSyncEvent extends Event {
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Account Id")
+    public long accountId;
+}
@@ -0,0 +1,28 @@
+package com.jay.home.finmanapp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for resetting a user's paid recurring bills at the start of a cycle.
+ */
+@Name("com.jay.home.finmanapp.BillReset")
+@Label("Monthly Bill Reset")
+@Description("Reset of a user's paid recurring bills to unpaid")
+@Category({"FinManApp", "Bill"})
+@StackTrace(false)
+public class BillResetEvent extends Event {
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Paid Bills")
+    public int paidBills;
+
+    @Label("Bills Reset")
+    public int resetBills;
+}
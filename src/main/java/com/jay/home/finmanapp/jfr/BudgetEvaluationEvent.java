@@ -0,0 +1,31 @@
+package com.jay.home.finmanapp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for evaluating one user's active budgets against their warning thresholds.
+ */
+@Name("com.jay.home.finmanapp.BudgetEvaluation")
+@Label("Budget Threshold Evaluation")
+@Description("Evaluation of a user's active budgets against their warning thresholds")
+@Category({"FinManApp", "Budget"})
+@StackTrace(false)
+public class BudgetEvaluationEvent extends Event {
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Budgets Evaluated")
+    public int budgets;
+
+    @Label("Warnings Sent")
+    public int warnings;
+
+    @Label("Forecast Warnings Sent")
+    public int forecastWarnings;
+}
@@ -0,0 +1,37 @@
+package com.jay.home.finmanapp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for populating a user with demo data.
+ */
+@Name("com.jay.home.finmanapp.DemoDataInitialization")
+@Label("Demo Data Initialization")
+@Description("Creation of demo accounts, transactions, budgets and bills for a user")
+@Category({"FinManApp", "Demo"})
+@StackTrace(false)
+public class DemoDataEvent extends Event {
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Accounts")
+    public int accounts;
+
+    @Label("Transactions")
+    public int transactions;
+
+    @Label("Budgets")
+    public int budgets;
+
+    @Label("Bills")
+    public int bills;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,162 @@
+package com.jay.home.finmanapp.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Management endpoint for taking Flight Recorder recordings of the running application.
+ *
+ * <ul>
+ *   <li>{@code POST /actuator/flightrecording} starts a recording, optionally with a
+ *       {@code durationSeconds} body field</li>
+ *   <li>{@code GET /actuator/flightrecording} returns the state of the recording</li>
+ *   <li>{@code GET /actuator/flightrecording/recording.jfr} downloads what has been recorded so far</li>
+ *   <li>{@code DELETE /actuator/flightrecording} stops the recording; it can still be downloaded</li>
+ * </ul>
+ *
+ * Recordings are bounded in duration and size, so one that is never stopped cannot fill the
+ * disk. Only one recording exists at a time; starting a new one discards the previous one.
+ * The application's own events ({@code com.jay.home.finmanapp.*}) are always enabled. Events
+ * that record the environment, system properties or command line are always disabled, as
+ * those carry the database password, JWT secret and API keys.
+ */
+@Endpoint(id = "flightrecording")
+public class FlightRecordingEndpoint {
+    static final String FILE_NAME = "recording.jfr";
+
+    private static final List<Class<? extends jdk.jfr.Event>> APPLICATION_EVENTS = List.of(
+            BudgetEvaluationEvent.class, AccountSyncEvent.class, LlmCallEvent.class,
+            BillResetEvent.class, DemoDataEvent.class);
+    static final List<String> SECRET_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+
+    private final String settings;
+    private final Duration maxDuration;
+    private final DataSize maxSize;
+
+    private Recording recording;
+    private Path dumpFile;
+
+    /**
+     * @param settings Name of the JDK settings to record with, "default" or "profile"
+     * @param maxDuration Longest a recording may run before it stops by itself
+     * @param maxSize Most recording data kept on disk; older data is discarded first
+     */
+    public FlightRecordingEndpoint(String settings, Duration maxDuration, DataSize maxSize) {
+        this.settings = settings;
+        this.maxDuration = maxDuration;
+        this.maxSize = maxSize;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        return describe();
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> start(@Nullable Long durationSeconds)
+            throws IOException, ParseException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(describe(), HttpStatus.CONFLICT.value());
+        }
+        discard();
+
+        Duration duration = maxDuration;
+        if (durationSeconds != null && durationSeconds > 0 && durationSeconds < maxDuration.toSeconds()) {
+            duration = Duration.ofSeconds(durationSeconds);
+        }
+        recording = new Recording(Configuration.getConfiguration(settings));
+        for (Class<? extends jdk.jfr.Event> event : APPLICATION_EVENTS) {
+            recording.enable(event);
+        }
+        for (String event : SECRET_EVENTS) {
+            recording.disable(event);
+        }
+        recording.setName("finmanapp");
+        recording.setToDisk(true);
+        recording.setMaxSize(maxSize.toBytes());
+        recording.setDuration(duration);
+        recording.start();
+        return new WebEndpointResponse<>(describe(), WebEndpointResponse.STATUS_OK);
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        return describe();
+    }
+
+    /**
+     * @param file Must be {@value #FILE_NAME}
+     * @return The recorded data, or null (404) if nothing has been recorded
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized Resource download(@Selector String file) throws IOException {
+        if (!FILE_NAME.equals(file) || recording == null
+                || (recording.getState() != RecordingState.RUNNING && recording.getState() != RecordingState.STOPPED)) {
+            return null;
+        }
+        if (dumpFile != null) {
+            Files.deleteIfExists(dumpFile);
+        }
+        dumpFile = Files.createTempFile("finmanapp-", ".jfr");
+        recording.dump(dumpFile);
+        return new FileSystemResource(dumpFile);
+    }
+
+    /**
+     * Discards the recording and its data. Called when the application shuts down.
+     */
+    public synchronized void close() throws IOException {
+        discard();
+    }
+
+    private void discard() throws IOException {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        if (dumpFile != null) {
+            Files.deleteIfExists(dumpFile);
+            dumpFile = null;
+        }
+    }
+
+    private Map<String, Object> describe() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("state", recording.getState().name());
+        status.put("settings", settings);
+        status.put("startTime", recording.getStartTime());
+        status.put("duration", recording.getDuration());
+        status.put("maxSize", recording.getMaxSize());
+        status.put("size", recording.getSize());
+        return status;
+    }
+}
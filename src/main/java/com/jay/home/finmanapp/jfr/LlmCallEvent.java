@@ -0,0 +1,38 @@
+package com.jay.home.finmanapp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one call to the language model.
+ */
+@Name("com.jay.home.finmanapp.LlmCall")
+@Label("LLM Call")
+@Description("Call to the language model API, including prompt and response sizes")
+@Category({"FinManApp", "AI"})
+@StackTrace(false)
+public class LlmCallEvent extends Event {
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Transactions In Prompt")
+    public int transactions;
+
+    @Label("Prompt Characters")
+    public int promptLength;
+
+    @Label("Response Characters")
+    public int responseLength;
+
+    @Label("Fallback")
+    @Description("Whether the model was unavailable and the canned response was returned")
+    public boolean fallback;
+}
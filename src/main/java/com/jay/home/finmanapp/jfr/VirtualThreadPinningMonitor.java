@@ -0,0 +1,126 @@
+package com.jay.home.finmanapp.jfr;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread, using the JDK's
+ * {@code jdk.VirtualThreadPinned} Flight Recorder event.
+ *
+ * A virtual thread is pinned when it blocks inside a {@code synchronized} block or a native
+ * frame; while pinned it holds one of the few carrier threads, so a pinned JDBC or HTTP call
+ * can stall unrelated requests. Every pinning longer than the threshold increments
+ * {@code finmanapp.virtualthreads.pinned} and records its duration. Both are tagged with the
+ * innermost application frame, so the responsible code shows up in the metrics directly;
+ * the full stack is logged once per frame.
+ */
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.jay.home.finmanapp.";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Set<String> reportedFrames = ConcurrentHashMap.newKeySet();
+
+    private volatile RecordingStream stream;
+
+    /**
+     * @param meterRegistry Registry to publish the pinning metrics to
+     * @param threshold Shortest pinning that is reported
+     */
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (stream != null) {
+            return;
+        }
+        RecordingStream recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        stream = recordingStream;
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    void onPinned(RecordedEvent event) {
+        String frame = describeFrame(event.getStackTrace());
+        counters.computeIfAbsent(frame, key -> Counter.builder("finmanapp.virtualthreads.pinned")
+                        .description("Virtual threads pinned to their carrier for longer than the threshold")
+                        .tag("frame", key)
+                        .register(meterRegistry))
+                .increment();
+        timers.computeIfAbsent(frame, key -> Timer.builder("finmanapp.virtualthreads.pinned.duration")
+                        .description("Time virtual threads spent pinned to their carrier")
+                        .tag("frame", key)
+                        .register(meterRegistry))
+                .record(event.getDuration());
+
+        if (reportedFrames.add(frame)) {
+            logger.warn("Virtual thread pinned for {} ms at {}{}", event.getDuration().toMillis(), frame,
+                    event.getStackTrace() != null ? formatStack(event.getStackTrace()) : "");
+        }
+    }
+
+    /**
+     * The innermost application frame, which is the code that can be changed to avoid the pinning.
+     * Falls back to the innermost frame when no application code is on the stack.
+     */
+    static String describeFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE)) {
+                return format(frame);
+            }
+        }
+        return format(stackTrace.getFrames().get(0));
+    }
+
+    private static String format(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.substring(type.lastIndexOf('.') + 1) + "." + frame.getMethod().getName();
+    }
+
+    private static String formatStack(RecordedStackTrace stackTrace) {
+        StringBuilder stack = new StringBuilder();
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            stack.append(System.lineSeparator()).append("\tat ")
+                    .append(frame.getMethod().getType().getName()).append('.')
+                    .append(frame.getMethod().getName()).append(':').append(frame.getLineNumber());
+        }
+        return stack.toString();
+    }
+}
@@ -1,5 +1,6 @@
 package com.jay.home.finmanapp.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -8,6 +9,7 @@ import lombok.AllArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 /**
  * Entity class representing a budget allocation in the application.
@@ -65,7 +67,8 @@ public class Budget {
 
     /**
      * Time period for which the budget applies.
-     * Common values: DAILY, WEEKLY, MONTHLY, ANNUALLY.
+     * DAILY, WEEKLY, MONTHLY, QUARTERLY and ANNUALLY recur over calendar periods; any other
+     * value covers the start and end dates once (see {@link com.jay.home.finmanapp.util.BudgetPeriods}).
      */
     @Column(nullable = false)
     private String period;
@@ -90,4 +93,22 @@ public class Budget {
      */
     @Column(nullable = false)
     private BigDecimal warningThreshold;
+
+    /**
+     * When the user was last warned about this budget, so that a threshold crossing is
+     * reported once per budget period however often the budget is evaluated.
+     * Only changed through {@link com.jay.home.finmanapp.repository.BudgetRepository#markWarned}.
+     */
+    @JsonIgnore
+    @Column(updatable = false)
+    private LocalDateTime lastWarningAt;
+
+    /**
+     * When the user was last warned that this budget is forecast to overrun, so that an early
+     * warning is sent once per budget period.
+     * Only changed through {@link com.jay.home.finmanapp.repository.BudgetRepository#markForecastWarned}.
+     */
+    @JsonIgnore
+    @Column(updatable = false)
+    private LocalDateTime lastForecastWarningAt;
 }
\ No newline at end of file
@@ -18,9 +18,19 @@ import java.time.LocalDateTime;
  * from financial institutions or manually entered by users.
  * 
  * Transactions are linked to accounts and categories for organization and analysis.
+ *
+ * On PostgreSQL the table is partitioned by month on {@code date} (migration V7), so queries
+ * that restrict the date only read the partitions of the months concerned.
+ *
+ * No unique constraint is declared: a partitioned table can only enforce uniqueness that includes
+ * the partition key, which V7 does with the {@code (account_id, transaction_id, date)} unique
+ * index, and declaring it here would have {@code ddl-auto=update} try to recreate it on every
+ * start. Duplicate imports are skipped by the import's own {@code NOT EXISTS} check instead, and
+ * on PostgreSQL by {@code ON CONFLICT} on that index (see {@code TransactionImportService}).
  */
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions",
+        indexes = @Index(name = "idx_transactions_account_date", columnList = "account_id, date"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -43,7 +53,9 @@ public class Transaction {
 
     /**
      * External transaction identifier from the financial data provider.
-     * Used to prevent duplicate imports when syncing with external services.
+     * Unique per account, which the statement import checks before inserting (see the class
+     * comment); used to prevent duplicate imports when syncing with external services or
+     * importing statement files.
      */
     @Column(nullable = false)
     private String transactionId;
@@ -9,6 +9,7 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.util.HashSet;
@@ -87,6 +88,17 @@ public class User {
     @Column(nullable = false)
     private Boolean isDemo = false;
 
+    /**
+     * Counter incremented on every write to this user's bills, budgets, accounts or
+     * transactions. Used to build ETags for conditional GET requests.
+     * Only changed through {@link com.jay.home.finmanapp.repository.UserRepository#incrementDataVersion},
+     * so saving a stale User entity can never move it backwards.
+     */
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private Long dataVersion = 0L;
+
     /**
      * Set of financial accounts associated with this user.
      * Each user can have multiple accounts (checking, savings, etc.).
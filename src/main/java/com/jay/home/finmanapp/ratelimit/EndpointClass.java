@@ -0,0 +1,66 @@
+package com.jay.home.finmanapp.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The groups of expensive endpoints that are rate limited together.
+ *
+ * Each class has its own buckets and concurrency limit, configured under
+ * {@code app.rate-limit.<property name>}. Requests to other endpoints are not limited.
+ */
+public enum EndpointClass {
+    /**
+     * Password checks and account creation, which are CPU-bound (BCrypt).
+     */
+    LOGIN("login", "/api/auth/login", "/api/auth/register", "/api/auth/demo-login"),
+    /**
+     * Account and transaction synchronization with Plaid, which writes in bulk.
+     */
+    SYNC("sync", "/api/transactions/sync", "/api/accounts/{accountId}/sync"),
+    /**
+     * Calls to the language model server.
+     */
+    AI("ai", "/api/insights/ai/**"),
+    /**
+     * Full data exports, which stream a user's whole history and hold a connection meanwhile.
+     */
+    EXPORT("export", "/api/export");
+
+    private final String propertyName;
+    private final List<PathPattern> patterns;
+
+    EndpointClass(String propertyName, String... patterns) {
+        this.propertyName = propertyName;
+        this.patterns = Arrays.stream(patterns).map(PathPatternParser.defaultInstance::parse).toList();
+    }
+
+    /**
+     * @return Name of the class in configuration properties and metric tags
+     */
+    public String propertyName() {
+        return propertyName;
+    }
+
+    /**
+     * @param request The incoming request
+     * @return The class of the requested endpoint, or null if it is not rate limited
+     */
+    public static EndpointClass of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        PathContainer container = PathContainer.parsePath(path);
+        for (EndpointClass endpointClass : values()) {
+            for (PathPattern pattern : endpointClass.patterns) {
+                if (pattern.matches(container)) {
+                    return endpointClass;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,59 @@
+package com.jay.home.finmanapp.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory {@link RateLimitBackend}, limiting each node independently.
+ *
+ * Buckets use the generic cell rate algorithm (GCRA): instead of a token count, a bucket stores
+ * the theoretical arrival time of the next request, a single long that is updated with
+ * compare-and-set. A request is admitted if that time is at most one period ahead of now,
+ * which allows a burst of {@code capacity} requests and then one per {@code period / capacity}.
+ * No lock is taken and no refill task runs. Buckets idle for longer than {@code idleTimeout}
+ * have refilled completely and are dropped.
+ */
+public class LocalRateLimitBackend implements RateLimitBackend {
+    private final Cache<String, AtomicLong> buckets;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param idleTimeout Time after which an unused bucket is dropped; at least the longest period
+     * @param maximumSize Maximum number of buckets kept
+     */
+    public LocalRateLimitBackend(Duration idleTimeout, long maximumSize) {
+        this(idleTimeout, maximumSize, System::nanoTime);
+    }
+
+    LocalRateLimitBackend(Duration idleTimeout, long maximumSize, LongSupplier nanoClock) {
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .maximumSize(maximumSize)
+                .build();
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public Duration tryConsume(String key, long capacity, Duration period) {
+        long periodNanos = period.toNanos();
+        long interval = periodNanos / capacity;
+        long now = nanoClock.getAsLong();
+        // A new bucket is full: its next request is due now
+        AtomicLong theoreticalArrival = buckets.get(key, k -> new AtomicLong(now));
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + interval;
+            long ahead = next - now;
+            if (ahead > periodNanos) {
+                return Duration.ofNanos(ahead - periodNanos);
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.jay.home.finmanapp.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Store of the per-client token buckets.
+ *
+ * The default, {@link LocalRateLimitBackend}, keeps the buckets in memory, so each node limits
+ * on its own. To share the limits across nodes, register a bean of this type, for example one
+ * running the same GCRA update as a Redis script; it is picked up automatically.
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Takes one token from a bucket, creating the bucket full if it does not exist yet.
+     * Must be atomic per key.
+     *
+     * @param key Bucket key, made of the endpoint class and the client
+     * @param capacity Tokens the bucket holds when full
+     * @param period Time in which an empty bucket refills completely
+     * @return {@link Duration#ZERO} if a token was taken, otherwise how long to wait until one is available
+     */
+    Duration tryConsume(String key, long capacity, Duration period);
+}
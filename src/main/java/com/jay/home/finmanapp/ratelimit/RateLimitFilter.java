@@ -0,0 +1,111 @@
+package com.jay.home.finmanapp.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Filter limiting the request rate and concurrency of the expensive {@link EndpointClass}es.
+ *
+ * Runs in the security filter chain right after {@code JwtFilter}, so authenticated requests
+ * are limited per user and anonymous ones (such as login) per client address. Behind a proxy
+ * that address is the proxy's unless {@code server.forward-headers-strategy} takes it from
+ * {@code X-Forwarded-For}, as the production profile does. A request first
+ * takes a token from its client's bucket in the {@link RateLimitBackend}, then one of the
+ * endpoint class's concurrency permits, which is held while the request is handled. Either
+ * limit rejects with {@code 429 Too Many Requests} and a {@code Retry-After} header, and is
+ * counted in {@code finmanapp.ratelimit.rejected}, tagged with the endpoint class and reason.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final RateLimitBackend backend;
+    private final Map<EndpointClass, RateLimitSettings> settings;
+    private final Map<EndpointClass, Semaphore> permits = new EnumMap<>(EndpointClass.class);
+
+    /**
+     * @param backend Store of the per-client buckets
+     * @param settings Limits per endpoint class; classes without settings are not limited
+     */
+    public RateLimitFilter(RateLimitBackend backend, Map<EndpointClass, RateLimitSettings> settings) {
+        this.backend = backend;
+        this.settings = new EnumMap<>(settings);
+        this.settings.forEach((endpointClass, limits) ->
+                permits.put(endpointClass, new Semaphore(limits.getMaxConcurrent())));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.of(request);
+        RateLimitSettings limits = endpointClass != null ? settings.get(endpointClass) : null;
+        if (limits == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = endpointClass.propertyName() + ":" + client(request);
+        Duration wait = backend.tryConsume(key, limits.getCapacity(), limits.getPeriod());
+        if (!wait.isZero()) {
+            reject(request, response, endpointClass, "rate", wait);
+            return;
+        }
+
+        Semaphore semaphore = permits.get(endpointClass);
+        if (!semaphore.tryAcquire()) {
+            // Running requests finish within seconds; there is no better estimate
+            reject(request, response, endpointClass, "concurrency", Duration.ofSeconds(1));
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    private static String client(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletRequest request, HttpServletResponse response,
+                               EndpointClass endpointClass, String reason, Duration wait) throws IOException {
+        Metrics.counter("finmanapp.ratelimit.rejected",
+                "endpoint", endpointClass.propertyName(), "reason", reason).increment();
+
+        // Retry-After takes whole seconds; round up so a retry is never early
+        long retryAfter = Math.max(1, (wait.toMillis() + 999) / 1000);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+        body.put("message", "Too many requests, retry in " + retryAfter + " s");
+        body.put("path", request.getServletPath());
+        MAPPER.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,40 @@
+package com.jay.home.finmanapp.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Limits of one {@link EndpointClass}, bound from {@code app.rate-limit.<class>.*}.
+ *
+ * Each client may send {@code capacity} requests per {@code period}, all at once or spread out;
+ * used capacity comes back evenly over the period. Independently of the client, at most
+ * {@code maxConcurrent} requests of the class run at the same time on a node.
+ */
+public class RateLimitSettings {
+    private long capacity = 10;
+    private Duration period = Duration.ofMinutes(1);
+    private int maxConcurrent = 4;
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(long capacity) {
+        this.capacity = capacity;
+    }
+
+    public Duration getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(Duration period) {
+        this.period = period;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+}
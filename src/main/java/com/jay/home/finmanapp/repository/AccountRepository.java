@@ -8,12 +8,20 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
     List<Account> findByUser(User user);
     List<Account> findByUserAndType(User user, String type);
 
+    /**
+     * @param id The ID of the account
+     * @param userId The ID of the user who must own the account
+     * @return The account, or empty if it does not exist or belongs to another user
+     */
+    Optional<Account> findByIdAndUserId(Long id, Long userId);
+
     @Query("SELECT SUM(a.balance) FROM Account a WHERE a.user = ?1 AND a.type = 'CHECKING' OR a.type = 'SAVINGS'")
     BigDecimal getTotalCashBalance(User user);
 }
\ No newline at end of file
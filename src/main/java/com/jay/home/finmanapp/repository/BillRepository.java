@@ -6,7 +6,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Bill entity operations.
@@ -38,6 +40,17 @@ public interface BillRepository extends JpaRepository<Bill, Long> {
      */
     List<Bill> findByUser(com.jay.home.finmanapp.model.User user);
     
+    /**
+     * Finds a bill only if it belongs to the given user.
+     * Ownership is checked in the same query, so a bill of another user is indistinguishable
+     * from one that does not exist.
+     *
+     * @param id The ID of the bill
+     * @param userId The ID of the user who must own the bill
+     * @return The bill, or empty if it does not exist or belongs to another user
+     */
+    Optional<Bill> findByIdAndUserId(Long id, Long userId);
+    
     /**
      * Finds bills for a user filtered by payment status.
      *
@@ -63,10 +76,10 @@ public interface BillRepository extends JpaRepository<Bill, Long> {
      * Uses a JPQL query with SUM aggregate function.
      *
      * @param userId The ID of the user whose unpaid bills to sum
-     * @return The total amount of unpaid bills, or null if there are no unpaid bills
+     * @return The exact total amount of unpaid bills, or null if there are no unpaid bills
      */
     @Query("SELECT SUM(b.amount) FROM Bill b WHERE b.user.id = :userId AND b.isPaid = false")
-    Double getTotalUnpaidBillsAmount(@Param("userId") Long userId);
+    BigDecimal getTotalUnpaidBillsAmount(@Param("userId") Long userId);
     
     /**
      * Finds bills for a user that belong to a specific category.
@@ -84,10 +97,10 @@ public interface BillRepository extends JpaRepository<Bill, Long> {
      * This represents the user's fixed monthly expenses.
      *
      * @param userId The ID of the user whose recurring bills to sum
-     * @return The total amount of recurring bills, or null if there are no recurring bills
+     * @return The exact total amount of recurring bills, or null if there are no recurring bills
      */
     @Query("SELECT SUM(b.amount) FROM Bill b WHERE b.user.id = :userId AND b.isRecurring = true")
-    Double getMonthlyRecurringBillsAmount(@Param("userId") Long userId);
+    BigDecimal getMonthlyRecurringBillsAmount(@Param("userId") Long userId);
     
     /**
      * Counts the number of paid bills for a specific user.
@@ -4,16 +4,59 @@ import com.jay.home.finmanapp.model.Budget;
 import com.jay.home.finmanapp.model.Category;
 import com.jay.home.finmanapp.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
     List<Budget> findByUser(User user);
+    Optional<Budget> findByIdAndUserId(Long id, Long userId);
     List<Budget> findByUserAndCategory(User user, Category category);
     List<Budget> findByUserAndPeriod(User user, String period);
     List<Budget> findByUserAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
             User user, LocalDate currentDate, LocalDate currentDate2);
+
+    /**
+     * Finds the users with at least one budget active on a day.
+     *
+     * @param date The day
+     * @return The IDs of the users
+     */
+    @Query("SELECT DISTINCT b.user.id FROM Budget b WHERE b.startDate <= :date AND b.endDate >= :date")
+    List<Long> findUserIdsWithActiveBudgets(@Param("date") LocalDate date);
+
+    /**
+     * Records a warning about a budget unless one was already recorded in its current period.
+     * The check and the update are one statement, so concurrent evaluations of the same budget,
+     * on one node or several, warn once.
+     *
+     * @param id The ID of the budget
+     * @param periodStart Start of the budget's current period
+     * @param now The time of the warning
+     * @return 1 if the warning was recorded and should be sent, 0 if the period was already warned about
+     */
+    @Modifying
+    @Query("UPDATE Budget b SET b.lastWarningAt = :now WHERE b.id = :id "
+            + "AND (b.lastWarningAt IS NULL OR b.lastWarningAt < :periodStart)")
+    int markWarned(@Param("id") Long id, @Param("periodStart") LocalDateTime periodStart,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Records an early warning about a budget forecast to overrun, as {@link #markWarned} does
+     * for threshold warnings.
+     *
+     * @return 1 if the warning was recorded and should be sent, 0 if the period was already warned about
+     */
+    @Modifying
+    @Query("UPDATE Budget b SET b.lastForecastWarningAt = :now WHERE b.id = :id "
+            + "AND (b.lastForecastWarningAt IS NULL OR b.lastForecastWarningAt < :periodStart)")
+    int markForecastWarned(@Param("id") Long id, @Param("periodStart") LocalDateTime periodStart,
+                           @Param("now") LocalDateTime now);
 }
\ No newline at end of file
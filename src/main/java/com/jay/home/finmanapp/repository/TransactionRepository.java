@@ -5,21 +5,27 @@ import com.jay.home.finmanapp.model.Category;
 import com.jay.home.finmanapp.model.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionRepositoryCustom {
     List<Transaction> findByAccount(Account account);
     List<Transaction> findByAccountIn(List<Account> accounts);
     List<Transaction> findByAccountInAndDateBetween(
             List<Account> accounts, LocalDateTime startDate, LocalDateTime endDate);
     List<Transaction> findByAccountInAndCategory(List<Account> accounts, Category category);
-
-    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.account IN ?1 AND t.category = ?2 AND t.date BETWEEN ?3 AND ?4")
-    BigDecimal getSumByAccountsAndCategoryAndDateBetween(
+    List<Transaction> findByAccountInAndCategoryAndDateBetween(
             List<Account> accounts, Category category, LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Finds a transaction only if it is on one of the user's accounts, so that ownership is checked
+     * in the same query. The account is fetched with it; the user row is never read.
+     */
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.account a WHERE t.id = :id AND a.user.id = :userId")
+    Optional<Transaction> findByIdAndAccountUserId(@Param("id") Long id, @Param("userId") Long userId);
 }
\ No newline at end of file
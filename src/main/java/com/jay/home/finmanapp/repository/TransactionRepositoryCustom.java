@@ -0,0 +1,21 @@
+package com.jay.home.finmanapp.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Custom query fragment for {@link TransactionRepository}.
+ *
+ * Holds the types of the transaction aggregates. The aggregates themselves are computed over
+ * the cached columns of {@code TransactionColumnCache}, archived transactions included.
+ */
+public interface TransactionRepositoryCustom {
+
+    /**
+     * An inclusive date-time window to aggregate spending over.
+     *
+     * @param start First instant included in the window
+     * @param end Last instant included in the window
+     */
+    record Window(LocalDateTime start, LocalDateTime end) {
+    }
+}
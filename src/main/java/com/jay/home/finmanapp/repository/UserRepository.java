@@ -2,7 +2,11 @@ package com.jay.home.finmanapp.repository;
 
 import com.jay.home.finmanapp.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -49,4 +53,62 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return An Optional containing the demo user if found, or empty if no demo user exists
      */
     Optional<User> findByIsDemo(Boolean isDemo);
-}
\ No newline at end of file
+
+    /**
+     * Increments the data version of a user.
+     *
+     * Runs as a single atomic UPDATE so concurrent writers on different nodes never
+     * lose an increment.
+     *
+     * @param userId The ID of the user whose data changed
+     * @return The number of updated rows (0 if the user does not exist)
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.dataVersion = u.dataVersion + 1 WHERE u.id = :userId")
+    int incrementDataVersion(@Param("userId") Long userId);
+
+    /**
+     * Replaces a user's password hash, unless it changed since it was read.
+     *
+     * Only the password column is written, so a concurrent change to the user's other columns
+     * is not overwritten, and a password changed in the meantime is kept. Runs in a transaction
+     * of its own, since callers hash outside of any transaction.
+     *
+     * @param userId The ID of the user
+     * @param oldPassword The hash that was read
+     * @param newPassword The hash replacing it
+     * @return The number of updated rows (0 if the hash changed in the meantime)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.id = :userId AND u.password = :oldPassword")
+    int replacePassword(@Param("userId") Long userId, @Param("oldPassword") String oldPassword,
+                        @Param("newPassword") String newPassword);
+
+    /**
+     * Reads only the ID and data version of a user, without loading the entity.
+     *
+     * @param email The email address of the user
+     * @return An Optional containing the version stamp, or empty if no user exists with that email
+     */
+    @Query("SELECT u.id AS id, u.dataVersion AS dataVersion FROM User u WHERE u.email = :email")
+    Optional<DataVersion> findDataVersionByEmail(@Param("email") String email);
+
+    /**
+     * Reads only the data version of a user, without loading the entity.
+     *
+     * @param userId The ID of the user
+     * @return An Optional containing the data version, or empty if the user does not exist
+     */
+    @Query("SELECT u.dataVersion FROM User u WHERE u.id = :userId")
+    Optional<Long> findDataVersionById(@Param("userId") Long userId);
+
+    /**
+     * Projection holding the values needed to build a user's ETag.
+     */
+    interface DataVersion {
+        Long getId();
+
+        Long getDataVersion();
+    }
+}
@@ -0,0 +1,80 @@
+package com.jay.home.finmanapp.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Password encoder that runs the hashing of another encoder on a dedicated executor.
+ *
+ * BCrypt is deliberately CPU-bound. Run on request threads, a burst of logins occupies every
+ * core and starves the rest of the API; on a bounded pool sized to the cores, hashing can use
+ * at most that pool's share of the CPU. The calling thread waits for the result, but without
+ * using CPU. When the pool's queue is full, or a task waits longer than {@code maxWait}, a
+ * {@link PasswordHashingRejectedException} is thrown at once instead of queueing further.
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final ExecutorService executor;
+    private final long maxWaitNanos;
+
+    /**
+     * @param delegate Encoder doing the actual hashing
+     * @param executor Bounded executor to hash on; it must reject tasks when its queue is full
+     * @param maxWait Longest time a caller waits for a hashing result, including queueing
+     */
+    public OffloadingPasswordEncoder(PasswordEncoder delegate, ExecutorService executor, Duration maxWait) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return offload(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return offload(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Compares the hash parameters only, so it runs on the calling thread.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T offload(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingRejectedException("Password hashing queue is full");
+        }
+        try {
+            return future.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new PasswordHashingRejectedException("Password hashing timed out");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.jay.home.finmanapp.security;
+
+/**
+ * Thrown when a password cannot be hashed or verified because the hashing pool is saturated.
+ * The request should be answered with {@code 503 Service Unavailable} and retried later.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
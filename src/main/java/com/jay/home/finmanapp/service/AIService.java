@@ -1,8 +1,11 @@
 package com.jay.home.finmanapp.service;
 
+import com.jay.home.finmanapp.concurrent.SingleFlight;
+import com.jay.home.finmanapp.jfr.LlmCallEvent;
 import com.jay.home.finmanapp.model.Budget;
 import com.jay.home.finmanapp.model.Transaction;
 import com.jay.home.finmanapp.model.User;
+import com.jay.home.finmanapp.util.Money;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -10,6 +13,7 @@ import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -36,6 +40,7 @@ public class AIService {
      * @param user The user to generate insights for
      * @return A map containing the generated insights
      */
+    @SingleFlight("ai.financialInsights")
     public Map<String, Object> generateFinancialInsights(User user) {
         List<Transaction> recentTransactions = new ArrayList<>();
         try {
@@ -46,7 +51,7 @@ public class AIService {
         }
         
         String prompt = buildInsightPrompt(user, recentTransactions);
-        String aiResponse = callLlama3Api(prompt);
+        String aiResponse = callLlama3Api(user, "financialInsights", recentTransactions.size(), prompt);
         
         Map<String, Object> result = new HashMap<>();
         result.put("insights", aiResponse);
@@ -58,12 +63,13 @@ public class AIService {
      * @param user The user to generate budget suggestions for
      * @return A map containing the suggested budgets
      */
+    @SingleFlight("ai.budgetSuggestions")
     public Map<String, Object> generateBudgetSuggestions(User user) {
         List<Transaction> transactions = transactionService.getRecentTransactionsForUser(user, 90);
         List<Budget> existingBudgets = budgetService.getBudgetsByUser(user);
         
         String prompt = buildBudgetPrompt(user, transactions, existingBudgets);
-        String aiResponse = callLlama3Api(prompt);
+        String aiResponse = callLlama3Api(user, "budgetSuggestions", transactions.size(), prompt);
         
         Map<String, Object> result = new HashMap<>();
         result.put("suggestions", aiResponse);
@@ -75,11 +81,12 @@ public class AIService {
      * @param user The user to analyze spending habits for
      * @return A map containing the spending habit analysis
      */
+    @SingleFlight("ai.spendingHabits")
     public Map<String, Object> analyzeSpendingHabits(User user) {
         List<Transaction> transactions = transactionService.getRecentTransactionsForUser(user, 60);
         
         String prompt = buildSpendingHabitsPrompt(user, transactions);
-        String aiResponse = callLlama3Api(prompt);
+        String aiResponse = callLlama3Api(user, "spendingHabits", transactions.size(), prompt);
         
         Map<String, Object> result = new HashMap<>();
         result.put("analysis", aiResponse);
@@ -88,11 +95,41 @@ public class AIService {
     }
 
     /**
-     * Call the LLaMA 3 API with a prompt
+     * Call the LLaMA 3 API with a prompt, falling back to a canned response when it is unavailable.
+     * Every call is recorded as a Flight Recorder event.
+     * @param user The user the prompt was built for
+     * @param operation Name of the calling operation
+     * @param transactions Number of transactions included in the prompt
      * @param prompt The prompt to send to the LLaMA 3 model
      * @return The model's response
      */
-    private String callLlama3Api(String prompt) {
+    private String callLlama3Api(User user, String operation, int transactions, String prompt) {
+        LlmCallEvent event = new LlmCallEvent();
+        event.begin();
+        String response = requestCompletion(prompt);
+        boolean fallback = response == null;
+        if (fallback) {
+            response = generateFallbackResponse(prompt);
+        }
+
+        if (event.shouldCommit()) {
+            event.userId = user.getId() != null ? user.getId() : 0;
+            event.operation = operation;
+            event.transactions = transactions;
+            event.promptLength = prompt.length();
+            event.responseLength = response.length();
+            event.fallback = fallback;
+            event.commit();
+        }
+        return response;
+    }
+
+    /**
+     * Send a prompt to the LLaMA 3 API
+     * @param prompt The prompt to send to the LLaMA 3 model
+     * @return The model's response, or null if the API is unavailable
+     */
+    private String requestCompletion(String prompt) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         
@@ -113,9 +150,9 @@ public class AIService {
             if (response != null && response.containsKey("response")) {
                 return (String) response.get("response");
             }
-            return generateFallbackResponse(prompt);
+            return null;
         } catch (Exception e) {
-            return generateFallbackResponse(prompt);
+            return null;
         }
     }
     
@@ -194,18 +231,18 @@ public class AIService {
                   .append(": $").append(budget.getAmount()).append("\n");
         }
         
-        // Summarize transactions by category
-        Map<String, Double> categoryTotals = new HashMap<>();
+        // Summarize transactions by category, in cents; one mutable total per category rather than a boxed value per transaction
+        Map<String, long[]> categoryTotals = new HashMap<>();
         for (Transaction transaction : transactions) {
-            String category = transaction.getCategory().getName();
-            categoryTotals.put(category, 
-                categoryTotals.getOrDefault(category, 0.0) + transaction.getAmount().doubleValue());
+            String category = transaction.getCategory() != null ? transaction.getCategory().getName() : "Uncategorized";
+            long[] total = categoryTotals.computeIfAbsent(category, c -> new long[1]);
+            total[0] = Money.add(total[0], Money.toCents(transaction.getAmount()));
         }
         
         prompt.append("\nRecent 3-Month Spending by Category:\n");
-        for (Map.Entry<String, Double> entry : categoryTotals.entrySet()) {
+        for (Map.Entry<String, long[]> entry : categoryTotals.entrySet()) {
             prompt.append("- ").append(entry.getKey())
-                  .append(": $").append(String.format("%.2f", entry.getValue() / 3)) // Monthly average
+                  .append(": $").append(Money.toDecimal(Money.divide(entry.getValue()[0], 3, RoundingMode.HALF_UP))) // Monthly average
                   .append(" per month\n");
         }
         
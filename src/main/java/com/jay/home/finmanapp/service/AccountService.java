@@ -1,5 +1,7 @@
 package com.jay.home.finmanapp.service;
 
+import com.jay.home.finmanapp.concurrent.SingleFlight;
+import com.jay.home.finmanapp.jfr.AccountSyncEvent;
 import com.jay.home.finmanapp.model.Account;
 import com.jay.home.finmanapp.model.User;
 import com.jay.home.finmanapp.repository.AccountRepository;
@@ -10,16 +12,20 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class AccountService {
     private final AccountRepository accountRepository;
     private final PlaidService plaidService;
+    private final DataVersionService dataVersionService;
 
     @Autowired
-    public AccountService(AccountRepository accountRepository, PlaidService plaidService) {
+    public AccountService(AccountRepository accountRepository, PlaidService plaidService,
+                          DataVersionService dataVersionService) {
         this.accountRepository = accountRepository;
         this.plaidService = plaidService;
+        this.dataVersionService = dataVersionService;
     }
 
     @Transactional(readOnly = true)
@@ -33,6 +39,21 @@ public class AccountService {
                 .orElseThrow(() -> new RuntimeException("Account not found with id: " + id));
     }
 
+    /**
+     * Retrieves an account only if it belongs to the user.
+     *
+     * Existence and ownership are checked in one query, so callers cannot tell an account of
+     * another user apart from one that does not exist.
+     *
+     * @param id The ID of the account
+     * @param userId The ID of the user who must own the account
+     * @return The account, or empty if it does not exist or belongs to another user
+     */
+    @Transactional(readOnly = true)
+    public Optional<Account> findUserAccount(Long id, Long userId) {
+        return accountRepository.findByIdAndUserId(id, userId);
+    }
+
     @Transactional(readOnly = true)
     public BigDecimal getTotalCashBalance(User user) {
         return accountRepository.getTotalCashBalance(user);
@@ -58,14 +79,26 @@ public class AccountService {
         account.setInstitutionName(institutionName);
         account.setLastSynced(LocalDateTime.now());
 
-        return accountRepository.save(account);
+        Account savedAccount = accountRepository.save(account);
+        dataVersionService.bump(user.getId());
+        return savedAccount;
     }
 
+    @SingleFlight("account.sync")
     @Transactional
     public void syncAccount(Account account) {
+        AccountSyncEvent event = new AccountSyncEvent();
+        event.begin();
         var updatedDetails = plaidService.getAccountDetails(account.getAccessToken());
         account.setBalance(updatedDetails.getBalance());
         account.setLastSynced(LocalDateTime.now());
         accountRepository.save(account);
+        dataVersionService.bump(account.getUser().getId());
+
+        if (event.shouldCommit()) {
+            event.userId = account.getUser().getId();
+            event.accountId = account.getId();
+            event.commit();
+        }
     }
 }
\ No newline at end of file
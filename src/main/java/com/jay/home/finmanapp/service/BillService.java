@@ -1,20 +1,29 @@
 package com.jay.home.finmanapp.service;
 
+import com.jay.home.finmanapp.cache.ReadModel;
+import com.jay.home.finmanapp.dto.BillDTO;
+import com.jay.home.finmanapp.jfr.BillResetEvent;
+import com.jay.home.finmanapp.mapper.BillMapper;
 import com.jay.home.finmanapp.model.Bill;
 import com.jay.home.finmanapp.model.Category;
 import com.jay.home.finmanapp.model.User;
 import com.jay.home.finmanapp.repository.BillRepository;
 import com.jay.home.finmanapp.repository.CategoryRepository;
 import com.jay.home.finmanapp.repository.UserRepository;
+import com.jay.home.finmanapp.util.Money;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -34,6 +43,8 @@ public class BillService {
     private final BillRepository billRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
+    private final DataVersionService dataVersionService;
+    private final BillMapper billMapper;
 
     /**
      * Constructs a new BillService with the required repositories.
@@ -41,12 +52,18 @@ public class BillService {
      * @param billRepository Repository for bill data access
      * @param userRepository Repository for user data access
      * @param categoryRepository Repository for category data access
+     * @param dataVersionService Service tracking the per-user data version
+     * @param billMapper Mapper used to build the cached bill read models
      */
     @Autowired
-    public BillService(BillRepository billRepository, UserRepository userRepository, CategoryRepository categoryRepository) {
+    public BillService(BillRepository billRepository, UserRepository userRepository,
+                       CategoryRepository categoryRepository, DataVersionService dataVersionService,
+                       BillMapper billMapper) {
         this.billRepository = billRepository;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
+        this.dataVersionService = dataVersionService;
+        this.billMapper = billMapper;
     }
 
     /**
@@ -60,11 +77,14 @@ public class BillService {
      * @return The created bill with its generated ID
      * @throws RuntimeException if the specified user doesn't exist
      */
+    @Transactional
     public Bill createBill(Bill bill, Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         bill.setUser(user);
-        return billRepository.save(bill);
+        Bill savedBill = billRepository.save(bill);
+        dataVersionService.bump(userId);
+        return savedBill;
     }
 
     /**
@@ -80,6 +100,20 @@ public class BillService {
         return billRepository.findByUserId(userId);
     }
 
+    /**
+     * Retrieves all bills for a specific user as DTOs.
+     *
+     * The result is a cached read model and is returned as an unmodifiable list.
+     *
+     * @param userId The ID of the user whose bills are being retrieved
+     * @return An unmodifiable list of bill DTOs associated with the user
+     */
+    @ReadModel("bills.summaries")
+    @Transactional(readOnly = true)
+    public List<BillDTO> getBillSummaries(Long userId) {
+        return List.copyOf(billMapper.toDTOList(billRepository.findByUserId(userId)));
+    }
+
     /**
      * Retrieves bills that are due today for a specific user.
      * 
@@ -94,10 +128,11 @@ public class BillService {
         return billRepository.findDueBills(userId, currentDay);
     }
 
-    public Bill updateBill(Long billId, Bill billDetails) {
-        Bill bill = billRepository.findById(billId)
-                .orElseThrow(() -> new RuntimeException("Bill not found"));
-        
+    /**
+     * Updates a bill already authorized by {@link #findUserBill}, without fetching it again.
+     */
+    @Transactional
+    public Bill updateBill(Bill bill, Bill billDetails) {
         bill.setName(billDetails.getName());
         bill.setAmount(billDetails.getAmount());
         bill.setDueDay(billDetails.getDueDay());
@@ -105,25 +140,38 @@ public class BillService {
         bill.setRecurring(billDetails.isRecurring());
         bill.setCategory(billDetails.getCategory());
         
-        return billRepository.save(bill);
+        Bill savedBill = billRepository.save(bill);
+        dataVersionService.bump(bill.getUser().getId());
+        return savedBill;
     }
     
-    public void deleteBill(Long billId) {
-        billRepository.deleteById(billId);
+    /**
+     * Deletes a bill already authorized by {@link #findUserBill}.
+     */
+    @Transactional
+    public void deleteBill(Bill bill) {
+        billRepository.delete(bill);
+        dataVersionService.bump(bill.getUser().getId());
     }
     
-    public void markBillAsPaid(Long billId) {
-        Bill bill = billRepository.findById(billId)
-                .orElseThrow(() -> new RuntimeException("Bill not found"));
+    /**
+     * Marks a bill already authorized by {@link #findUserBill} as paid.
+     */
+    @Transactional
+    public void markBillAsPaid(Bill bill) {
         bill.setPaid(true);
         billRepository.save(bill);
+        dataVersionService.bump(bill.getUser().getId());
     }
     
-    public void markBillAsUnpaid(Long billId) {
-        Bill bill = billRepository.findById(billId)
-                .orElseThrow(() -> new RuntimeException("Bill not found"));
+    /**
+     * Marks a bill already authorized by {@link #findUserBill} as unpaid.
+     */
+    @Transactional
+    public void markBillAsUnpaid(Bill bill) {
         bill.setPaid(false);
         billRepository.save(bill);
+        dataVersionService.bump(bill.getUser().getId());
     }
     
     public Bill getBillById(Long billId) {
@@ -131,6 +179,20 @@ public class BillService {
                 .orElseThrow(() -> new RuntimeException("Bill not found"));
     }
     
+    /**
+     * Retrieves a bill only if it belongs to the user.
+     * 
+     * Existence and ownership are checked in one query, so callers cannot tell a bill of
+     * another user apart from one that does not exist.
+     *
+     * @param billId The ID of the bill
+     * @param userId The ID of the user who must own the bill
+     * @return The bill, or empty if it does not exist or belongs to another user
+     */
+    public Optional<Bill> findUserBill(Long billId, Long userId) {
+        return billRepository.findByIdAndUserId(billId, userId);
+    }
+    
     public List<Bill> getUserBillsByCategory(Long userId, Long categoryId) {
         return billRepository.findByUserIdAndCategoryId(userId, categoryId);
     }
@@ -147,6 +209,7 @@ public class BillService {
      * @return The remaining income amount after accounting for unpaid bills
      * @throws RuntimeException if the specified user doesn't exist
      */
+    @ReadModel("bills.remainingIncome")
     public BigDecimal getRemainingIncome(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -156,12 +219,12 @@ public class BillService {
             return BigDecimal.ZERO;
         }
         
-        Double unpaidBillsAmount = billRepository.getTotalUnpaidBillsAmount(userId);
+        BigDecimal unpaidBillsAmount = billRepository.getTotalUnpaidBillsAmount(userId);
         if (unpaidBillsAmount == null) {
             return monthlyIncome;
         }
         
-        return monthlyIncome.subtract(BigDecimal.valueOf(unpaidBillsAmount));
+        return Money.toDecimal(Money.subtract(Money.toCents(monthlyIncome), Money.toCents(unpaidBillsAmount)));
     }
     
     /**
@@ -173,14 +236,27 @@ public class BillService {
      *
      * @param userId The ID of the user whose bills should be reset
      */
+    @Transactional
     public void resetMonthlyBills(Long userId) {
+        BillResetEvent event = new BillResetEvent();
+        event.begin();
         List<Bill> bills = billRepository.findByUserIdAndIsPaid(userId, true);
         for (Bill bill : bills) {
             if (bill.isRecurring()) {
                 bill.setPaid(false);
                 billRepository.save(bill);
+                event.resetBills++;
             }
         }
+        if (event.resetBills > 0) {
+            dataVersionService.bump(userId);
+        }
+
+        if (event.shouldCommit()) {
+            event.userId = userId;
+            event.paidBills = bills.size();
+            event.commit();
+        }
     }
     
     public Map<String, List<Bill>> getBillsByCategory(Long userId) {
@@ -208,6 +284,34 @@ public class BillService {
         
         return billsByCategory;
     }
+
+    /**
+     * Groups a user's bills by category name as DTOs.
+     *
+     * Same grouping as {@link #getBillsByCategory(Long)}, including an empty list for
+     * every category without bills and an "Uncategorized" group. The result is a cached
+     * read model and is returned unmodifiable.
+     *
+     * @param userId The ID of the user whose bills are being grouped
+     * @return An unmodifiable map of category names to bill DTOs
+     */
+    @ReadModel("bills.byCategory")
+    @Transactional(readOnly = true)
+    public Map<String, List<BillDTO>> getBillSummariesByCategory(Long userId) {
+        Map<String, List<BillDTO>> billsByCategory = new LinkedHashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            billsByCategory.put(category.getName(), new ArrayList<>());
+        }
+        billsByCategory.put("Uncategorized", new ArrayList<>());
+
+        for (BillDTO bill : billMapper.toDTOList(billRepository.findByUserId(userId))) {
+            String categoryName = bill.getCategoryName() != null ? bill.getCategoryName() : "Uncategorized";
+            billsByCategory.computeIfAbsent(categoryName, k -> new ArrayList<>()).add(bill);
+        }
+
+        billsByCategory.replaceAll((name, bills) -> List.copyOf(bills));
+        return Collections.unmodifiableMap(billsByCategory);
+    }
     
     /**
      * Retrieves unpaid bills that are due within a specified number of days.
@@ -245,12 +349,14 @@ public class BillService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Calculates the total amount of a user's recurring bills, summed by the database.
+     *
+     * @param userId The ID of the user whose recurring bills to sum
+     * @return The total, with a scale of 2; zero if the user has no recurring bills
+     */
+    @ReadModel("bills.monthlyTotal")
     public BigDecimal getMonthlyBillsTotal(Long userId) {
-        List<Bill> userBills = billRepository.findByUserId(userId);
-        BigDecimal total = userBills.stream()
-                .filter(Bill::isRecurring)
-                .map(Bill::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        return total;
+        return Money.toDecimal(Money.toCents(billRepository.getMonthlyRecurringBillsAmount(userId)));
     }
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.jay.home.finmanapp.service;
+
+import com.jay.home.finmanapp.event.TransactionsChangedEvent;
+import com.jay.home.finmanapp.model.User;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Queue of users whose budgets need to be evaluated against their warning thresholds.
+ *
+ * Users are queued when their transactions change, after the change commits, and by the
+ * hourly reconciliation. The queue is a set, so any number of changes to a user's transactions
+ * before the next {@link #evaluatePending()}, such as the hundreds of rows of a sync, lead to a
+ * single evaluation. Evaluations run on the scheduler thread, every few seconds, instead of on
+ * the thread that wrote the transactions.
+ *
+ * Events and evaluations are counted in {@code finmanapp.budget-evaluation.events} and
+ * {@code finmanapp.budget-evaluation.users}.
+ */
+@Service
+public class BudgetEvaluationQueue {
+    private static final Logger logger = LoggerFactory.getLogger(BudgetEvaluationQueue.class);
+
+    private final UserService userService;
+    private final BudgetService budgetService;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public BudgetEvaluationQueue(UserService userService, BudgetService budgetService) {
+        this.userService = userService;
+        this.budgetService = budgetService;
+    }
+
+    /**
+     * Queues the owner of changed transactions, once the change is committed. Writes outside
+     * a transaction are queued immediately.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        Metrics.counter("finmanapp.budget-evaluation.events").increment();
+        enqueue(List.of(event.userId()));
+    }
+
+    /**
+     * Queues users for evaluation; users already queued are evaluated once.
+     *
+     * @param userIds The IDs of the users; null IDs are ignored
+     */
+    public void enqueue(Collection<Long> userIds) {
+        for (Long userId : userIds) {
+            if (userId != null) {
+                pending.add(userId);
+            }
+        }
+    }
+
+    /**
+     * @return The number of users waiting for an evaluation
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * Evaluates the budgets of every queued user. A user queued again while being evaluated
+     * is evaluated again on the next call; a failed evaluation is logged and not retried
+     * until the user is queued again.
+     *
+     * @return The number of users evaluated
+     */
+    public int evaluatePending() {
+        List<Long> userIds = new ArrayList<>(pending);
+        int evaluated = 0;
+        for (Long userId : userIds) {
+            pending.remove(userId);
+            try {
+                User user = userService.getUserById(userId);
+                budgetService.checkBudgetThresholds(user);
+                evaluated++;
+            } catch (RuntimeException e) {
+                logger.warn("Budget evaluation of user {} failed: {}", userId, e.getMessage());
+            }
+        }
+        Metrics.counter("finmanapp.budget-evaluation.users").increment(evaluated);
+        return evaluated;
+    }
+}
@@ -0,0 +1,179 @@
+package com.jay.home.finmanapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jay.home.finmanapp.cache.SpendingRates;
+import com.jay.home.finmanapp.cache.TransactionColumnCache;
+import com.jay.home.finmanapp.cache.TransactionColumns;
+import com.jay.home.finmanapp.model.Account;
+import com.jay.home.finmanapp.model.Budget;
+import com.jay.home.finmanapp.util.BudgetPeriods;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Forecasts the spending of budgets at the end of their current period.
+ *
+ * A user's daily outflow statistics (see {@link SpendingRates}), over the
+ * {@code app.budget-forecast.history-days} days before today, are computed once per data
+ * version and day and kept in memory, so a forecast is a constant number of operations per
+ * budget. The remaining days of the period are expected to cost the historical mean of their
+ * kind, weekday or weekend, scaled by the pace of the period so far: the ratio of the spending
+ * to its historical expectation, shrunk towards 1 by {@value #PRIOR_DAYS} days of history so the
+ * first days of a period do not swing the forecast. The band is the 80% interval of the sum of
+ * the remaining days, taken as independent.
+ *
+ * Statistics loads and hits are counted in {@code finmanapp.budget-forecast.rates}, tagged with
+ * the result.
+ */
+@Service
+public class BudgetForecastService {
+    static final String RATES_METRIC = "finmanapp.budget-forecast.rates";
+    static final int PRIOR_DAYS = 7;
+    private static final double Z_80 = 1.2816;
+    private static final double SECONDS_PER_DAY = 86_400.0;
+
+    /**
+     * Forecast of a budget's spending at the end of its current period, in cents.
+     *
+     * @param periodEnd Last day of the period
+     * @param projectedCents Expected spending
+     * @param lowCents Lower bound of the band, never below the spending so far
+     * @param highCents Upper bound of the band
+     */
+    public record Forecast(LocalDate periodEnd, long projectedCents, long lowCents, long highCents) {
+    }
+
+    private record Entry(long version, SpendingRates rates) {
+    }
+
+    private final TransactionColumnCache transactionColumnCache;
+    private final DataVersionService dataVersionService;
+    private final int historyDays;
+    private final Cache<Long, Entry> cache;
+
+    @Autowired
+    public BudgetForecastService(TransactionColumnCache transactionColumnCache,
+                                 DataVersionService dataVersionService,
+                                 @Value("${app.budget-forecast.history-days:91}") int historyDays) {
+        this.transactionColumnCache = transactionColumnCache;
+        this.dataVersionService = dataVersionService;
+        this.historyDays = historyDays;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+    }
+
+    /**
+     * Gets the daily outflow statistics of a user up to yesterday.
+     *
+     * @param userId The ID of the user
+     * @param accounts The user's accounts
+     * @param today The current day
+     * @return The statistics, computed at most once per data version and day
+     */
+    public SpendingRates getSpendingRates(Long userId, List<Account> accounts, LocalDate today) {
+        LocalDate until = today.minusDays(1);
+        Optional<Long> version = dataVersionService.currentVersion(userId);
+        Entry entry = cache.getIfPresent(userId);
+        if (entry != null && version.isPresent() && entry.version() == version.get()
+                && entry.rates().until().equals(until)) {
+            Metrics.counter(RATES_METRIC, "result", "hit").increment();
+            return entry.rates();
+        }
+        Metrics.counter(RATES_METRIC, "result", "miss").increment();
+        LocalDate from = today.minusDays(historyDays);
+        TransactionColumns columns = transactionColumnCache.get(userId, from.atStartOfDay());
+        SpendingRates rates = columns.spendingRates(
+                columns.accountMask(accounts.stream().map(Account::getId).toList()), from, until);
+        version.ifPresent(v -> cache.put(userId, new Entry(v, rates)));
+        return rates;
+    }
+
+    /**
+     * Forecasts a budget's spending at the end of its current period.
+     *
+     * @param budget The budget
+     * @param spentCents The spending of the current period so far, see {@link BudgetService#getCurrentSpending}
+     * @param rates The daily outflow statistics of the budget's owner
+     * @param now The current time
+     * @return The forecast, or {@code null} if the current period has no end in sight
+     */
+    public Forecast forecast(Budget budget, long spentCents, SpendingRates rates, LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+        LocalDate end = BudgetPeriods.currentEnd(budget, today);
+        LocalDate start = BudgetPeriods.current(budget, now).start().toLocalDate();
+        if (end == null || end.isBefore(today) || start.isAfter(today)) {
+            return null;
+        }
+        SpendingRates.DailyRate rate = budget.getCategory() != null
+                ? rates.category(budget.getCategory().getId()) : rates.all();
+
+        // Today counts as elapsed for the part of it that has passed
+        double todayElapsed = now.toLocalTime().toSecondOfDay() / SECONDS_PER_DAY;
+        boolean todayWeekend = isWeekend(today);
+        long elapsedDays = today.toEpochDay() - start.toEpochDay();
+        long elapsedWeekend = weekendDays(start, today);
+        long restDays = end.toEpochDay() - today.toEpochDay();
+        long restWeekend = weekendDays(today.plusDays(1), end.plusDays(1));
+
+        double expectedSoFar = (elapsedDays - elapsedWeekend) * rate.weekdayMean()
+                + elapsedWeekend * rate.weekendMean() + todayElapsed * rate.mean(todayWeekend);
+        double expectedRest = (restDays - restWeekend) * rate.weekdayMean()
+                + restWeekend * rate.weekendMean() + (1 - todayElapsed) * rate.mean(todayWeekend);
+        double varianceRest = (restDays - restWeekend) * rate.weekdayVariance()
+                + restWeekend * rate.weekendVariance() + (1 - todayElapsed) * rate.variance(todayWeekend);
+
+        double projected;
+        double spread;
+        if (expectedSoFar + expectedRest > 0) {
+            double prior = PRIOR_DAYS * (5 * rate.weekdayMean() + 2 * rate.weekendMean()) / 7;
+            double pace = (spentCents + prior) / (expectedSoFar + prior);
+            projected = spentCents + pace * expectedRest;
+            spread = Z_80 * pace * Math.sqrt(varianceRest);
+        } else {
+            // No history to go by: extrapolate the period's own daily pace, with no confidence in it
+            double elapsed = elapsedDays + todayElapsed;
+            double pace = elapsed > 0 ? spentCents / elapsed : 0;
+            projected = spentCents + pace * (restDays + 1 - todayElapsed);
+            spread = projected - spentCents;
+        }
+        return new Forecast(end, Math.round(projected),
+                Math.max(spentCents, Math.round(projected - spread)), Math.round(projected + spread));
+    }
+
+    /**
+     * Counts the Saturdays and Sundays in a range of days without iterating over it.
+     *
+     * @param from First day of the range
+     * @param to Day after the last day of the range
+     */
+    static long weekendDays(LocalDate from, LocalDate to) {
+        long days = to.toEpochDay() - from.toEpochDay();
+        if (days <= 0) {
+            return 0;
+        }
+        long weekend = days / 7 * 2;
+        int first = from.getDayOfWeek().getValue();
+        for (int i = 0; i < days % 7; i++) {
+            if ((first - 1 + i) % 7 + 1 >= DayOfWeek.SATURDAY.getValue()) {
+                weekend++;
+            }
+        }
+        return weekend;
+    }
+
+    private static boolean isWeekend(LocalDate date) {
+        return date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+    }
+}
@@ -1,35 +1,63 @@
 package com.jay.home.finmanapp.service;
 
+import com.jay.home.finmanapp.cache.ReadModel;
+import com.jay.home.finmanapp.cache.SpendingRates;
+import com.jay.home.finmanapp.cache.TransactionColumnCache;
+import com.jay.home.finmanapp.jfr.BudgetEvaluationEvent;
 import com.jay.home.finmanapp.model.Account;
 import com.jay.home.finmanapp.model.Budget;
 import com.jay.home.finmanapp.model.Category;
 import com.jay.home.finmanapp.model.User;
+import com.jay.home.finmanapp.repository.AccountRepository;
 import com.jay.home.finmanapp.repository.BudgetRepository;
-import com.jay.home.finmanapp.repository.TransactionRepository;
+import com.jay.home.finmanapp.repository.TransactionRepositoryCustom;
+import com.jay.home.finmanapp.util.BudgetPeriods;
+import com.jay.home.finmanapp.util.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class BudgetService {
+    private static final Logger logger = LoggerFactory.getLogger(BudgetService.class);
+
     private final BudgetRepository budgetRepository;
-    private final TransactionRepository transactionRepository;
     private final NotificationService notificationService;
+    private final DataVersionService dataVersionService;
+    private final AccountRepository accountRepository;
+    private final TransactionColumnCache transactionColumnCache;
+    private final BudgetForecastService budgetForecastService;
+    private final Clock clock;
 
     @Autowired
     public BudgetService(
             BudgetRepository budgetRepository,
-            TransactionRepository transactionRepository,
-            NotificationService notificationService) {
+            NotificationService notificationService,
+            DataVersionService dataVersionService,
+            AccountRepository accountRepository,
+            TransactionColumnCache transactionColumnCache,
+            BudgetForecastService budgetForecastService,
+            Clock clock) {
         this.budgetRepository = budgetRepository;
-        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
         this.notificationService = notificationService;
+        this.dataVersionService = dataVersionService;
+        this.transactionColumnCache = transactionColumnCache;
+        this.budgetForecastService = budgetForecastService;
+        this.clock = clock;
     }
 
     @Transactional
@@ -45,7 +73,9 @@ public class BudgetService {
         budget.setEndDate(endDate);
         budget.setWarningThreshold(warningThreshold);
 
-        return budgetRepository.save(budget);
+        Budget savedBudget = budgetRepository.save(budget);
+        dataVersionService.bump(user.getId());
+        return savedBudget;
     }
 
     @Transactional(readOnly = true)
@@ -63,7 +93,7 @@ public class BudgetService {
 
     @Transactional(readOnly = true)
     public List<Budget> getActiveBudgets(User user) {
-        LocalDate today = LocalDate.now();
+        LocalDate today = LocalDate.now(clock);
         return budgetRepository.findByUserAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
                 user, today, today);
     }
@@ -74,14 +104,31 @@ public class BudgetService {
                 .orElseThrow(() -> new RuntimeException("Budget not found with id: " + id));
     }
 
+    /**
+     * Gets a budget only if it belongs to the user.
+     *
+     * @param id The budget ID
+     * @param user The user who must own the budget
+     * @return The budget, or empty if it does not exist or belongs to another user
+     */
+    public Optional<Budget> findUserBudget(Long id, User user) {
+        return budgetRepository.findByIdAndUserId(id, user.getId());
+    }
+
     @Transactional
     public Budget updateBudget(Budget budget) {
-        return budgetRepository.save(budget);
+        Budget savedBudget = budgetRepository.save(budget);
+        dataVersionService.bump(budget.getUser().getId());
+        return savedBudget;
     }
 
+    /**
+     * Deletes a budget already authorized by {@link #findUserBudget}.
+     */
     @Transactional
-    public void deleteBudget(Long id) {
-        budgetRepository.deleteById(id);
+    public void deleteBudget(Budget budget) {
+        budgetRepository.delete(budget);
+        dataVersionService.bump(budget.getUser().getId());
     }
 
     /**
@@ -93,57 +140,217 @@ public class BudgetService {
      */
     @Transactional(readOnly = true)
     public BigDecimal getCurrentSpending(Budget budget, List<Account> accounts) {
-        // Early return if budget or accounts are invalid
-        if (budget == null || budget.getCategory() == null || accounts == null || accounts.isEmpty()) {
+        if (budget == null) {
             return BigDecimal.ZERO;
         }
-        
-        LocalDateTime startDateTime;
-        LocalDateTime endDateTime = LocalDateTime.now();
+        return getCurrentSpending(List.of(budget), accounts).getOrDefault(budget.getId(), BigDecimal.ZERO);
+    }
+
+    /**
+     * Gets the current spending for several budgets in one pass over the cached transactions.
+     * 
+     * Each budget's current period window (see {@link BudgetPeriods#current}) is computed
+     * against a single reading of the injected clock, the distinct windows are aggregated per
+     * category over the owner's transaction columns (see {@link TransactionColumnCache}), and
+     * each budget then picks its (category, window) total. Spending is the sum of outflows (negative transaction
+     * amounts) reported as a positive number. A budget without a category covers spending
+     * across all categories, including uncategorized transactions.
+     * 
+     * @param budgets The budgets to check spending for
+     * @param accounts List of accounts to check transactions from
+     * @return Current spending keyed by budget ID; budgets without spending map to zero
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, BigDecimal> getCurrentSpending(List<Budget> budgets, List<Account> accounts) {
+        Map<Long, BigDecimal> spending = new HashMap<>();
+        getCurrentSpendingCents(budgets, accounts)
+                .forEach((budgetId, cents) -> spending.put(budgetId, Money.toDecimal(cents)));
+        return spending;
+    }
+
+    /**
+     * Gets the current spending for several budgets, as {@link #getCurrentSpending(List, List)}
+     * but in cents.
+     */
+    private Map<Long, Long> getCurrentSpendingCents(List<Budget> budgets, List<Account> accounts) {
+        Map<Long, Long> spending = new HashMap<>();
+        if (budgets == null || budgets.isEmpty()) {
+            return spending;
+        }
+        budgets.forEach(budget -> spending.put(budget.getId(), 0L));
+        if (accounts == null || accounts.isEmpty()) {
+            return spending;
+        }
 
         try {
-            switch (budget.getPeriod()) {
-                case "DAILY":
-                    startDateTime = LocalDateTime.of(LocalDate.now(), LocalTime.MIDNIGHT);
-                    break;
-                case "WEEKLY":
-                    startDateTime = LocalDateTime.of(LocalDate.now().minusDays(LocalDate.now().getDayOfWeek().getValue() - 1), LocalTime.MIDNIGHT);
-                    break;
-                case "MONTHLY":
-                    startDateTime = LocalDateTime.of(LocalDate.now().withDayOfMonth(1), LocalTime.MIDNIGHT);
-                    break;
-                default:
-                    // Fallback to budget start/end dates
-                    if (budget.getStartDate() == null) {
-                        // If no start date, default to 30 days ago
-                        startDateTime = LocalDateTime.now().minusDays(30);
-                    } else {
-                        startDateTime = LocalDateTime.of(budget.getStartDate(), LocalTime.MIDNIGHT);
+            LocalDateTime now = LocalDateTime.now(clock);
+            List<TransactionRepositoryCustom.Window> windows = new ArrayList<>();
+            Map<TransactionRepositoryCustom.Window, Integer> windowIndex = new HashMap<>();
+            Map<Long, Integer> budgetWindow = new HashMap<>();
+            for (Budget budget : budgets) {
+                TransactionRepositoryCustom.Window window = BudgetPeriods.current(budget, now);
+                Integer index = windowIndex.computeIfAbsent(window, w -> {
+                    windows.add(w);
+                    return windows.size() - 1;
+                });
+                budgetWindow.put(budget.getId(), index);
+            }
+
+            // Archived transactions included; computed in memory over the user's cached columns
+            Map<Long, long[]> totals = transactionColumnCache.sumOutflowCentsByCategoryAndWindow(accounts, windows);
+
+            for (Budget budget : budgets) {
+                int index = budgetWindow.get(budget.getId());
+                long total = 0;
+                if (budget.getCategory() != null) {
+                    long[] categoryTotals = totals.get(budget.getCategory().getId());
+                    if (categoryTotals != null) {
+                        total = categoryTotals[index];
                     }
-                    
-                    if (budget.getEndDate() != null) {
-                        endDateTime = LocalDateTime.of(budget.getEndDate(), LocalTime.MAX);
+                } else {
+                    for (long[] categoryTotals : totals.values()) {
+                        total = Money.add(total, categoryTotals[index]);
                     }
+                }
+                spending.put(budget.getId(), total);
             }
-            
-            BigDecimal result = transactionRepository.getSumByAccountsAndCategoryAndDateBetween(
-                    accounts, budget.getCategory(), startDateTime, endDateTime);
-            
-            // Return zero instead of null
-            return result != null ? result : BigDecimal.ZERO;
-            
         } catch (Exception e) {
             // Log the error but don't crash
-            System.err.println("Error calculating budget spending: " + e.getMessage());
-            e.printStackTrace();
-            return BigDecimal.ZERO;
+            logger.warn("Could not calculate the spending of {} budgets", budgets.size(), e);
         }
+        return spending;
     }
 
+    /**
+     * Forecasts the end-of-period spending of several budgets, see {@link BudgetForecastService}.
+     * The owners' spending statistics are fetched once per owner, then each forecast takes
+     * constant time.
+     *
+     * @param spending Current spending in cents keyed by budget ID
+     * @return Forecasts keyed by budget ID; budgets whose period has no end, or that could not be
+     *         forecast, are left out
+     */
+    private Map<Long, BudgetForecastService.Forecast> getForecasts(List<Budget> budgets, List<Account> accounts,
+                                                                  Map<Long, Long> spending, LocalDateTime now) {
+        Map<Long, BudgetForecastService.Forecast> forecasts = new HashMap<>();
+        if (accounts == null || accounts.isEmpty()) {
+            return forecasts;
+        }
+        Map<Long, SpendingRates> rates = new HashMap<>();
+        for (Budget budget : budgets) {
+            if (budget.getUser() == null) {
+                continue;
+            }
+            try {
+                Long userId = budget.getUser().getId();
+                SpendingRates userRates = rates.computeIfAbsent(userId, id -> budgetForecastService.getSpendingRates(id,
+                        accounts.stream().filter(account -> id.equals(account.getUser().getId())).toList(),
+                        now.toLocalDate()));
+                BudgetForecastService.Forecast forecast = budgetForecastService.forecast(
+                        budget, spending.getOrDefault(budget.getId(), 0L), userRates, now);
+                if (forecast != null) {
+                    forecasts.put(budget.getId(), forecast);
+                }
+            } catch (RuntimeException e) {
+                // The budget is summarized and evaluated without a forecast; the others keep theirs
+                logger.warn("Could not forecast the spending of budget {}", budget.getId(), e);
+            }
+        }
+        return forecasts;
+    }
+
+    /**
+     * Builds the spending summaries of all of a user's active budgets.
+     * The result is a cached read model and is returned unmodifiable.
+     *
+     * @param user The user whose active budgets to summarize
+     * @return One unmodifiable summary map per active budget
+     */
+    @ReadModel("budgets.spending")
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getActiveSpendingSummaries(User user) {
+        List<Map<String, Object>> summaries = getSpendingSummaries(
+                getActiveBudgets(user), accountRepository.findByUser(user));
+        return summaries.stream()
+                .map(Collections::unmodifiableMap)
+                .toList();
+    }
+
+    /**
+     * Builds the spending summary (spend, percentage used and remaining amount) for each budget,
+     * with the forecast spending at the end of the current period and its 80% band, which are
+     * {@code null} for a custom period without an end date.
+     * Used by the batch spending endpoint and the dashboard.
+     * 
+     * @param budgets The budgets to summarize
+     * @param accounts List of accounts to check transactions from
+     * @return One summary map per budget, in the order of the given budgets
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getSpendingSummaries(List<Budget> budgets, List<Account> accounts) {
+        Map<Long, Long> spending = getCurrentSpendingCents(budgets, accounts);
+        Map<Long, BudgetForecastService.Forecast> forecasts = getForecasts(budgets, accounts, spending,
+                LocalDateTime.now(clock));
+        List<Map<String, Object>> summaries = new ArrayList<>();
+        for (Budget budget : budgets) {
+            long currentSpending = spending.getOrDefault(budget.getId(), 0L);
+            long amount = Money.toCents(budget.getAmount());
+
+            BigDecimal percentage = Money.percentage(currentSpending, amount);
+            BigDecimal remaining = budget.getAmount() != null
+                    ? Money.toDecimal(Money.subtract(amount, currentSpending)) : BigDecimal.ZERO;
+
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("budgetId", budget.getId());
+            summary.put("budgetName", budget.getName());
+            summary.put("budgetAmount", budget.getAmount());
+            summary.put("categoryId", budget.getCategory() != null ? budget.getCategory().getId() : null);
+            summary.put("period", budget.getPeriod());
+            summary.put("currentSpending", Money.toDecimal(currentSpending));
+            summary.put("percentageUsed", percentage);
+            summary.put("remaining", remaining);
+            BudgetForecastService.Forecast forecast = forecasts.get(budget.getId());
+            summary.put("periodEnd", forecast != null ? forecast.periodEnd() : null);
+            summary.put("projectedSpending", forecast != null ? Money.toDecimal(forecast.projectedCents()) : null);
+            summary.put("projectedPercentage", forecast != null ? Money.percentage(forecast.projectedCents(), amount) : null);
+            summary.put("projectedLow", forecast != null ? Money.toDecimal(forecast.lowCents()) : null);
+            summary.put("projectedHigh", forecast != null ? Money.toDecimal(forecast.highCents()) : null);
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+
+    /**
+     * Finds the users whose budgets the hourly reconciliation re-evaluates.
+     *
+     * @return The IDs of the users with at least one active budget
+     */
+    @Transactional(readOnly = true)
+    public List<Long> getUserIdsWithActiveBudgets() {
+        return budgetRepository.findUserIdsWithActiveBudgets(LocalDate.now(clock));
+    }
+
+    /**
+     * Evaluates a user's active budgets against their warning thresholds, and warns the user
+     * about each budget whose spending has reached its threshold. A budget still below its
+     * threshold is warned about early when even the low end of its forecast (see
+     * {@link BudgetForecastService}) exceeds its amount. Each kind of warning is sent once per
+     * period (see {@link BudgetRepository#markWarned} and {@link BudgetRepository#markForecastWarned}),
+     * so evaluating a budget again, after every change to the user's transactions and in the
+     * hourly reconciliation, is harmless.
+     *
+     * @param user The user whose budgets to evaluate
+     */
     @Transactional
     public void checkBudgetThresholds(User user) {
+        BudgetEvaluationEvent event = new BudgetEvaluationEvent();
+        event.begin();
+        LocalDateTime now = LocalDateTime.now(clock);
         List<Budget> activeBudgets = getActiveBudgets(user);
-        List<Account> userAccounts = user.getAccounts().stream().toList();
+        List<Account> userAccounts = accountRepository.findByUser(user);
+
+        Map<Long, Long> spending = getCurrentSpendingCents(activeBudgets, userAccounts);
+        Map<Long, BudgetForecastService.Forecast> forecasts = getForecasts(activeBudgets, userAccounts, spending, now);
 
         for (Budget budget : activeBudgets) {
             try {
@@ -153,24 +360,38 @@ public class BudgetService {
                     continue;
                 }
                 
-                BigDecimal currentSpending = getCurrentSpending(budget, userAccounts);
-                // Handle null spending
-                if (currentSpending == null) {
-                    currentSpending = BigDecimal.ZERO;
-                }
-                
-                // Calculate percentage safely
-                BigDecimal budgetPercentage = currentSpending.divide(budget.getAmount(), 2, BigDecimal.ROUND_HALF_UP);
-                BigDecimal warningThreshold = budget.getWarningThreshold().divide(BigDecimal.valueOf(100), 2, BigDecimal.ROUND_HALF_UP);
-                
-                if (budgetPercentage.compareTo(warningThreshold) >= 0) {
-                    notificationService.sendBudgetWarning(user, budget, currentSpending, budgetPercentage);
+                long currentSpending = spending.getOrDefault(budget.getId(), 0L);
+                long amount = Money.toCents(budget.getAmount());
+                LocalDateTime periodStart = BudgetPeriods.current(budget, now).start();
+
+                // Both in basis points: the threshold is a percentage with two decimals, i.e. hundredths of a percent
+                long budgetBasisPoints = Money.basisPoints(currentSpending, amount);
+                long warningThreshold = Money.toCents(budget.getWarningThreshold());
+                BudgetForecastService.Forecast forecast = forecasts.get(budget.getId());
+
+                if (budgetBasisPoints >= warningThreshold) {
+                    if (budgetRepository.markWarned(budget.getId(), periodStart, now) == 1) {
+                        notificationService.sendBudgetWarning(user, budget, Money.toDecimal(currentSpending),
+                                BigDecimal.valueOf(budgetBasisPoints, 4));
+                        event.warnings++;
+                    }
+                } else if (forecast != null && forecast.lowCents() > amount
+                        && budgetRepository.markForecastWarned(budget.getId(), periodStart, now) == 1) {
+                    notificationService.sendBudgetForecastWarning(user, budget, Money.toDecimal(forecast.projectedCents()),
+                            BigDecimal.valueOf(Money.basisPoints(forecast.projectedCents(), amount), 4),
+                            forecast.periodEnd());
+                    event.forecastWarnings++;
                 }
             } catch (Exception e) {
                 // Log but don't crash the entire notification process
-                System.err.println("Error checking budget threshold for budget ID " + budget.getId() + ": " + e.getMessage());
-                e.printStackTrace();
+                logger.warn("Could not check the thresholds of budget {}", budget.getId(), e);
             }
         }
+
+        if (event.shouldCommit()) {
+            event.userId = user.getId();
+            event.budgets = activeBudgets.size();
+            event.commit();
+        }
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.jay.home.finmanapp.service;
 
+import com.jay.home.finmanapp.cache.ReadModelCache;
 import com.jay.home.finmanapp.model.Category;
 import com.jay.home.finmanapp.repository.CategoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,10 +11,12 @@ import java.util.List;
 @Service
 public class CategoryService {
     private final CategoryRepository categoryRepository;
+    private final ReadModelCache readModelCache;
 
     @Autowired
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, ReadModelCache readModelCache) {
         this.categoryRepository = categoryRepository;
+        this.readModelCache = readModelCache;
     }
 
     public List<Category> getAllCategories() {
@@ -26,7 +29,10 @@ public class CategoryService {
     }
 
     public Category createCategory(Category category) {
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        // Categories are shared by all users, so no per-user data version covers them
+        readModelCache.clear();
+        return savedCategory;
     }
     
     public Category updateCategory(Long id, Category categoryDetails) {
@@ -40,7 +46,9 @@ public class CategoryService {
             category.setIconUrl(categoryDetails.getIconUrl());
         }
         
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        readModelCache.clear();
+        return savedCategory;
     }
 
     public void deleteCategory(Long id) {
@@ -48,5 +56,6 @@ public class CategoryService {
                 .orElseThrow(() -> new RuntimeException("Category not found"));
 
         categoryRepository.delete(category);
+        readModelCache.clear();
     }
 }
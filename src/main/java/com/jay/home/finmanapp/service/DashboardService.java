@@ -0,0 +1,249 @@
+package com.jay.home.finmanapp.service;
+
+import com.jay.home.finmanapp.mapper.BillMapper;
+import com.jay.home.finmanapp.model.Account;
+import com.jay.home.finmanapp.model.Bill;
+import com.jay.home.finmanapp.model.Budget;
+import com.jay.home.finmanapp.model.User;
+import com.jay.home.finmanapp.sql.QueryScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Service that assembles the dashboard payload in a single request.
+ *
+ * The dashboard combines several independent reads (accounts, cash balance, active budgets
+ * and their spending, upcoming bills, bills vs. income and unread notifications). Each read
+ * runs concurrently on a virtual thread inside its own read-only transaction, and all reads
+ * share one deadline. Sections that miss the deadline or fail are left out of the payload and
+ * listed under {@code timedOut} / {@code failed}, so the client still gets a partial dashboard.
+ * Section threads inherit the request's {@link QueryScope}, through which the statements of
+ * late sections are cancelled once the deadline has passed, releasing their connections. A late
+ * section that is between two statements at that moment still runs its next one, bounded by the
+ * scope's statement timeout.
+ *
+ * Each section maps its entities to plain maps or DTOs before its transaction ends, because
+ * lazy associations cannot be initialized from the request thread afterwards.
+ */
+@Service
+public class DashboardService {
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+    /**
+     * Reason reported for the statements of sections that missed the deadline.
+     */
+    static final String DEADLINE_EXCEEDED = "dashboard_deadline";
+
+    private final AccountService accountService;
+    private final BudgetService budgetService;
+    private final BillService billService;
+    private final InsightService insightService;
+    private final NotificationService notificationService;
+    private final BillMapper billMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService executor;
+
+    /**
+     * Total time budget for all sections, measured from the start of the request.
+     */
+    @Value("${app.dashboard.deadline-ms:2000}")
+    private long deadlineMs;
+
+    /**
+     * Maximum number of sections of one request reading from the database at the same time.
+     * Keeps a single dashboard request from occupying the whole connection pool.
+     */
+    @Value("${app.dashboard.max-parallel-reads:3}")
+    private int maxParallelReads;
+
+    /**
+     * Look-ahead window, in days, for the upcoming bills section.
+     */
+    @Value("${app.dashboard.upcoming-bill-days:30}")
+    private int upcomingBillDays;
+
+    @Autowired
+    public DashboardService(
+            AccountService accountService,
+            BudgetService budgetService,
+            BillService billService,
+            InsightService insightService,
+            NotificationService notificationService,
+            BillMapper billMapper,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("dashboardExecutor") ExecutorService executor) {
+        this.accountService = accountService;
+        this.budgetService = budgetService;
+        this.billService = billService;
+        this.insightService = insightService;
+        this.notificationService = notificationService;
+        this.billMapper = billMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executor = executor;
+    }
+
+    /**
+     * Builds the dashboard for an already resolved user.
+     *
+     * @param user The authenticated user
+     * @return The combined dashboard payload, possibly partial
+     */
+    public Map<String, Object> getDashboard(User user) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        Semaphore permits = new Semaphore(maxParallelReads);
+
+        CompletableFuture<List<Account>> accounts = section(permits, deadline,
+                () -> accountService.getUserAccounts(user));
+        CompletableFuture<List<Budget>> activeBudgets = section(permits, deadline,
+                () -> budgetService.getActiveBudgets(user));
+
+        Map<String, CompletableFuture<?>> sections = new LinkedHashMap<>();
+        sections.put("accounts", accounts.thenApply(this::toAccountSummaries));
+        sections.put("totalCash", section(permits, deadline,
+                () -> accountService.getTotalCashBalance(user)));
+        sections.put("activeBudgets", activeBudgets.thenApply(this::toBudgetSummaries));
+        sections.put("budgetSpending", accounts.thenCombineAsync(activeBudgets,
+                (userAccounts, budgets) -> withPermit(permits, deadline,
+                        () -> readOnly(() -> budgetService.getSpendingSummaries(budgets, userAccounts))),
+                executor));
+        sections.put("upcomingBills", section(permits, deadline,
+                () -> billMapper.toDTOList(billService.getUpcomingBills(user.getId(), upcomingBillDays))));
+        sections.put("billsVsIncome", section(permits, deadline,
+                () -> billsVsIncome(user.getId())));
+        sections.put("unreadNotifications", section(permits, deadline,
+                () -> notificationService.countUnreadNotifications(user)));
+
+        Map<String, Object> dashboard = new LinkedHashMap<>();
+        List<String> timedOut = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+
+        for (Map.Entry<String, CompletableFuture<?>> entry : sections.entrySet()) {
+            String name = entry.getKey();
+            CompletableFuture<?> future = entry.getValue();
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                dashboard.put(name, future.get(remaining, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                // Keeps dependent stages from starting; the running supplier is not interrupted
+                future.cancel(false);
+                timedOut.add(name);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof TimeoutException) {
+                    timedOut.add(name);
+                } else {
+                    logger.warn("Dashboard section {} failed for user {}: {}", name, user.getId(), cause.getMessage());
+                    failed.add(name);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.add(name);
+            }
+        }
+
+        if (!timedOut.isEmpty()) {
+            // Every section that has not finished by now is late, so all statements still running are theirs
+            QueryScope scope = QueryScope.current();
+            int cancelled = scope != null ? scope.cancel(DEADLINE_EXCEEDED) : 0;
+            logger.warn("Dashboard for user {} exceeded its {} ms deadline in sections {}, cancelled {} statement(s)",
+                    user.getId(), deadlineMs, timedOut, cancelled);
+        }
+
+        dashboard.put("partial", !timedOut.isEmpty() || !failed.isEmpty());
+        dashboard.put("timedOut", timedOut);
+        dashboard.put("failed", failed);
+        return dashboard;
+    }
+
+    /**
+     * Starts a section on the executor, inside a read-only transaction and bounded by
+     * the per-request permit limit and the shared deadline.
+     */
+    private <T> CompletableFuture<T> section(Semaphore permits, long deadline, Supplier<T> read) {
+        return CompletableFuture.supplyAsync(() -> withPermit(permits, deadline, () -> readOnly(read)), executor);
+    }
+
+    private <T> T withPermit(Semaphore permits, long deadline, Supplier<T> read) {
+        try {
+            if (!permits.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                throw new CompletionException(new TimeoutException("Dashboard deadline exceeded"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        try {
+            return read.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private <T> T readOnly(Supplier<T> read) {
+        return readOnlyTransaction.execute(status -> read.get());
+    }
+
+    private Map<String, Object> billsVsIncome(Long userId) {
+        Map<String, Object> insight = new HashMap<>(insightService.getBillsVsIncomeInsight(userId));
+        Object upcoming = insight.get("upcomingBills");
+        if (upcoming instanceof List<?> bills) {
+            insight.put("upcomingBills", billMapper.toDTOList(bills.stream()
+                    .map(Bill.class::cast)
+                    .toList()));
+        }
+        return insight;
+    }
+
+    private List<Map<String, Object>> toAccountSummaries(List<Account> accounts) {
+        List<Map<String, Object>> summaries = new ArrayList<>();
+        for (Account account : accounts) {
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("id", account.getId());
+            summary.put("name", account.getName());
+            summary.put("type", account.getType());
+            summary.put("balance", account.getBalance());
+            summary.put("institutionName", account.getInstitutionName());
+            summary.put("lastSynced", account.getLastSynced());
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+
+    private List<Map<String, Object>> toBudgetSummaries(List<Budget> budgets) {
+        List<Map<String, Object>> summaries = new ArrayList<>();
+        for (Budget budget : budgets) {
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("id", budget.getId());
+            summary.put("name", budget.getName());
+            summary.put("amount", budget.getAmount());
+            summary.put("period", budget.getPeriod());
+            summary.put("startDate", budget.getStartDate());
+            summary.put("endDate", budget.getEndDate());
+            summary.put("warningThreshold", budget.getWarningThreshold());
+            // The category proxy still carries its ID without being initialized
+            summary.put("categoryId", budget.getCategory() != null ? budget.getCategory().getId() : null);
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+}
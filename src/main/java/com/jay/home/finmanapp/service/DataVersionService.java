@@ -0,0 +1,69 @@
+package com.jay.home.finmanapp.service;
+
+import com.jay.home.finmanapp.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Service that maintains the per-user data version behind conditional GET requests.
+ *
+ * Every write path that changes a user's bills, budgets, accounts or transactions calls
+ * {@link #bump(Long)}. The version lives in the users table, so all application nodes see
+ * the same value. When called inside the writer's transaction the increment commits
+ * atomically with the change it describes; readers therefore never see a new version
+ * together with old data.
+ */
+@Service
+public class DataVersionService {
+    private final UserRepository userRepository;
+
+    @Autowired
+    public DataVersionService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Marks the data of a user as changed.
+     *
+     * @param userId The ID of the user whose data changed; ignored if null
+     */
+    @Transactional
+    public void bump(Long userId) {
+        if (userId != null) {
+            userRepository.incrementDataVersion(userId);
+        }
+    }
+
+    /**
+     * Reads the current data version of a user.
+     *
+     * @param userId The ID of the user
+     * @return An Optional containing the version, or empty if the user does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> currentVersion(Long userId) {
+        return userRepository.findDataVersionById(userId);
+    }
+
+    /**
+     * Builds the current weak ETag for a user.
+     *
+     * The tag combines the user ID (so a browser cache shared by several users never
+     * answers for the wrong one), the data version and the current date, because budget
+     * windows, due bills and upcoming bills all move with the calendar even when no data
+     * has been written.
+     *
+     * @param email Email of the authenticated user
+     * @return An Optional containing the ETag, or empty if the user does not exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> currentETag(String email) {
+        return userRepository.findDataVersionByEmail(email)
+                .map(version -> "W/\"" + version.getId() + "-" + version.getDataVersion()
+                        + "-" + LocalDate.now().toEpochDay() + "\"");
+    }
+}
@@ -1,5 +1,8 @@
 package com.jay.home.finmanapp.service;
 
+import com.jay.home.finmanapp.datasource.Workload;
+import com.jay.home.finmanapp.datasource.WorkloadType;
+import com.jay.home.finmanapp.jfr.DemoDataEvent;
 import com.jay.home.finmanapp.model.*;
 import com.jay.home.finmanapp.repository.*;
 import org.slf4j.Logger;
@@ -30,6 +33,7 @@ public class DemoDataService {
     private final TransactionRepository transactionRepository;
     private final BudgetRepository budgetRepository;
     private final BillRepository billRepository;
+    private final DataVersionService dataVersionService;
     
     @Autowired
     public DemoDataService(
@@ -38,13 +42,15 @@ public class DemoDataService {
             CategoryRepository categoryRepository,
             TransactionRepository transactionRepository,
             BudgetRepository budgetRepository,
-            BillRepository billRepository) {
+            BillRepository billRepository,
+            DataVersionService dataVersionService) {
         this.userService = userService;
         this.accountRepository = accountRepository;
         this.categoryRepository = categoryRepository;
         this.transactionRepository = transactionRepository;
         this.budgetRepository = budgetRepository;
         this.billRepository = billRepository;
+        this.dataVersionService = dataVersionService;
     }
     
     /**
@@ -56,6 +62,8 @@ public class DemoDataService {
      */
     @Transactional
     public boolean initializeDemoData(User user) {
+        DemoDataEvent event = new DemoDataEvent();
+        event.begin();
         try {
             logger.info("Initializing demo data for user: {}", user.getEmail());
             
@@ -64,21 +72,30 @@ public class DemoDataService {
             
             // Create demo accounts
             List<Account> accounts = createDemoAccounts(user);
+            event.accounts = accounts.size();
             
             // Create demo transactions
-            createDemoTransactions(user, accounts, categories);
+            event.transactions = createDemoTransactions(user, accounts, categories);
             
             // Create demo budgets
-            createDemoBudgets(user, categories);
+            event.budgets = createDemoBudgets(user, categories);
             
             // Create demo bills
-            createDemoBills(user);
+            event.bills = createDemoBills(user);
+            
+            dataVersionService.bump(user.getId());
             
             logger.info("Demo data initialization completed successfully");
+            event.succeeded = true;
             return true;
         } catch (Exception e) {
             logger.error("Error initializing demo data: {}", e.getMessage(), e);
             return false;
+        } finally {
+            if (event.shouldCommit()) {
+                event.userId = user.getId() != null ? user.getId() : 0;
+                event.commit();
+            }
         }
     }
     
@@ -176,8 +193,9 @@ public class DemoDataService {
      * @param user The user to create transactions for
      * @param accounts The user's accounts
      * @param categories Map of category names to Category objects
+     * @return Number of transactions created
      */
-    private void createDemoTransactions(User user, List<Account> accounts, Map<String, Category> categories) {
+    private int createDemoTransactions(User user, List<Account> accounts, Map<String, Category> categories) {
         // First clear any existing transactions
         for (Account account : accounts) {
             List<Transaction> existingTransactions = transactionRepository.findByAccount(account);
@@ -371,6 +389,7 @@ public class DemoDataService {
         // Save all transactions
         transactionRepository.saveAll(transactions);
         logger.info("Created {} demo transactions", transactions.size());
+        return transactions.size();
     }
     
     /**
@@ -378,8 +397,9 @@ public class DemoDataService {
      * 
      * @param user The user to create budgets for
      * @param categories Map of category names to Category objects
+     * @return Number of budgets created
      */
-    private void createDemoBudgets(User user, Map<String, Category> categories) {
+    private int createDemoBudgets(User user, Map<String, Category> categories) {
         // Clear any existing budgets
         List<Budget> existingBudgets = budgetRepository.findByUser(user);
         if (!existingBudgets.isEmpty()) {
@@ -427,14 +447,16 @@ public class DemoDataService {
         // Save all budgets
         budgetRepository.saveAll(budgets);
         logger.info("Created {} demo budgets", budgets.size());
+        return budgets.size();
     }
     
     /**
      * Create demo bills for the user.
      * 
      * @param user The user to create bills for
+     * @return Number of bills created
      */
-    private void createDemoBills(User user) {
+    private int createDemoBills(User user) {
         // Clear any existing bills
         List<Bill> existingBills = billRepository.findByUser(user);
         if (!existingBills.isEmpty()) {
@@ -479,6 +501,7 @@ public class DemoDataService {
         // Save all bills
         billRepository.saveAll(bills);
         logger.info("Created {} demo bills", bills.size());
+        return bills.size();
     }
     
     /**
@@ -487,6 +510,7 @@ public class DemoDataService {
      * @return true if successful, false otherwise
      */
     @Transactional(propagation = org.springframework.transaction.annotation.Propagation.REQUIRES_NEW)
+    @Workload(WorkloadType.BATCH)
     public boolean initializeDemoUserData() {
         try {
             // First try to directly create/ensure demo user via JDBC (most reliable method)
@@ -0,0 +1,249 @@
+package com.jay.home.finmanapp.service;
+
+import com.jay.home.finmanapp.archive.ArchiveManifest;
+import com.jay.home.finmanapp.archive.ArchivedTransaction;
+import com.jay.home.finmanapp.archive.TransactionArchive;
+import com.jay.home.finmanapp.datasource.Workload;
+import com.jay.home.finmanapp.datasource.WorkloadType;
+import com.jay.home.finmanapp.export.CsvExportWriter;
+import com.jay.home.finmanapp.export.ExportDataset;
+import com.jay.home.finmanapp.export.ExportFormat;
+import com.jay.home.finmanapp.export.ExportValues;
+import com.jay.home.finmanapp.export.ExportWriter;
+import com.jay.home.finmanapp.export.NdjsonExportWriter;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Service that exports a user's financial history.
+ *
+ * Each dataset is read through a forward-only JDBC cursor with a fixed fetch size
+ * ({@code app.export.fetch-size}) inside a read-only transaction, which PostgreSQL needs to
+ * fetch in chunks rather than materialize the whole result, and every row is written to the
+ * output stream as soon as it is read. Memory use therefore does not depend on the number of
+ * rows. The zip format queries each dataset twice, once per file in the archive, because zip
+ * entries must be written one after the other.
+ *
+ * The transactions dataset covers the full history: the archived months of the user (see
+ * {@link TransactionArchive}) are merged into the live rows in date order, reading one month
+ * of the archive at a time. A row that is both archived and live, as happens while its month
+ * is being archived, is written once.
+ *
+ * Each export holds one connection of the export pool while it streams, so that pool is sized
+ * to {@code app.rate-limit.export.max-concurrent}.
+ */
+@Service
+public class ExportService {
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    // Column positions in ExportDataset.TRANSACTIONS
+    private static final int TRANSACTION_ID_COLUMN = 0;
+    private static final int TRANSACTION_DATE_COLUMN = 3;
+
+    private final TransactionArchive transactionArchive;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public ExportService(TransactionArchive transactionArchive, DataSource dataSource,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.transactionArchive = transactionArchive;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Writes an export to a stream, which is flushed but not closed.
+     *
+     * @param userId The ID of the user whose data is exported
+     * @param format The output format
+     * @param dataset The dataset to export in the CSV format; the other formats include all datasets
+     * @param output The stream to write to
+     * @return The number of rows written
+     * @throws IOException If the stream cannot be written, typically because the client went away
+     */
+    @Workload(WorkloadType.EXPORT)
+    public long export(Long userId, ExportFormat format, ExportDataset dataset, OutputStream output)
+            throws IOException {
+        long started = System.nanoTime();
+        long rows = 0;
+        switch (format) {
+            case CSV -> rows = write(userId, dataset, new CsvExportWriter(output));
+            case NDJSON -> {
+                NdjsonExportWriter writer = new NdjsonExportWriter(output);
+                for (ExportDataset each : ExportDataset.values()) {
+                    rows += write(userId, each, writer);
+                }
+            }
+            case ZIP -> {
+                ZipOutputStream zip = new ZipOutputStream(output);
+                for (ExportDataset each : ExportDataset.values()) {
+                    zip.putNextEntry(new ZipEntry(each.fileName() + ".csv"));
+                    rows += write(userId, each, new CsvExportWriter(zip));
+                    zip.closeEntry();
+                    zip.putNextEntry(new ZipEntry(each.fileName() + ".ndjson"));
+                    write(userId, each, new NdjsonExportWriter(zip));
+                    zip.closeEntry();
+                }
+                zip.finish();
+            }
+        }
+        output.flush();
+
+        Metrics.counter("finmanapp.export.rows", "format", format.name().toLowerCase(Locale.ROOT)).increment(rows);
+        logger.info("Exported {} rows as {} for user {} in {} ms", rows, format, userId,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return rows;
+    }
+
+    private long write(Long userId, ExportDataset dataset, ExportWriter writer) throws IOException {
+        try {
+            Long rows = transactionTemplate.execute(status -> {
+                ArchivedRows archived = dataset == ExportDataset.TRANSACTIONS ? archivedRows(userId, writer) : null;
+                return jdbcTemplate.query(dataset.sql(), resultSet -> {
+                    try {
+                        long count = 0;
+                        String[] columns = ExportValues.columnNames(resultSet);
+                        Object[] values = new Object[columns.length];
+                        writer.begin(dataset, columns);
+                        while (resultSet.next()) {
+                            ExportValues.values(resultSet, values);
+                            if (archived != null) {
+                                count += archived.writeBefore((LocalDateTime) values[TRANSACTION_DATE_COLUMN]);
+                                if (archived.contains(((Number) values[TRANSACTION_ID_COLUMN]).longValue())) {
+                                    continue;
+                                }
+                            }
+                            writer.row(values);
+                            count++;
+                        }
+                        if (archived != null) {
+                            count += archived.writeBefore(null);
+                        }
+                        writer.end();
+                        return count;
+                    } catch (IOException e) {
+                        // Ends the query, which closes the cursor and releases the connection
+                        throw new UncheckedIOException(e);
+                    }
+                }, userId);
+            });
+            return rows != null ? rows : 0;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * @return The user's archived transactions to merge, or {@code null} if nothing is archived
+     */
+    private ArchivedRows archivedRows(Long userId, ExportWriter writer) {
+        List<ArchiveManifest.Segment> segments = transactionArchive.manifest(userId).segments();
+        if (segments.isEmpty()) {
+            return null;
+        }
+        // Read before the live cursor is opened, and few enough to hold
+        Map<Long, String> categoryNames = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM categories",
+                (RowCallbackHandler) resultSet -> categoryNames.put(resultSet.getLong(1), resultSet.getString(2)));
+        return new ArchivedRows(userId, segments, categoryNames, writer);
+    }
+
+    /**
+     * The archived transactions of a user, written month by month between the live rows.
+     * Only the month being merged is held in memory.
+     */
+    private final class ArchivedRows {
+        private final Long userId;
+        private final Iterator<ArchiveManifest.Segment> segments;
+        private final Map<Long, String> categoryNames;
+        private final ExportWriter writer;
+        private final Object[] values = new Object[8];
+        private ArchiveManifest.Segment upcoming;
+        private List<ArchivedTransaction> month = List.of();
+        private Set<Long> monthIds = Set.of();
+        private int next;
+
+        ArchivedRows(Long userId, List<ArchiveManifest.Segment> segments, Map<Long, String> categoryNames,
+                     ExportWriter writer) {
+            this.userId = userId;
+            this.segments = segments.iterator();
+            this.categoryNames = categoryNames;
+            this.writer = writer;
+            this.upcoming = this.segments.next();
+        }
+
+        /**
+         * Writes the archived rows dated before a live row, loading the next month once its
+         * first row is due. A live row that is also archived therefore finds its month loaded.
+         *
+         * @param date The date of the live row, or {@code null} to write all remaining rows
+         * @return The number of rows written
+         */
+        long writeBefore(LocalDateTime date) throws IOException {
+            long written = 0;
+            while (true) {
+                while (next < month.size() && (date == null || month.get(next).date().isBefore(date))) {
+                    writer.row(toValues(month.get(next++)));
+                    written++;
+                }
+                if (next < month.size() || upcoming == null
+                        || (date != null && upcoming.firstDate().isAfter(date))) {
+                    return written;
+                }
+                month = transactionArchive.find(userId, upcoming.firstDate(), upcoming.lastDate());
+                monthIds = new HashSet<>();
+                month.forEach(transaction -> monthIds.add(transaction.id()));
+                next = 0;
+                upcoming = segments.hasNext() ? segments.next() : null;
+            }
+        }
+
+        /**
+         * @return Whether a live row belongs to the month being merged, so it is written from the archive
+         */
+        boolean contains(long id) {
+            return monthIds.contains(id);
+        }
+
+        // In the column order of ExportDataset.TRANSACTIONS
+        private Object[] toValues(ArchivedTransaction transaction) {
+            values[0] = transaction.id();
+            values[1] = transaction.accountId();
+            values[2] = transaction.transactionId();
+            values[3] = transaction.date();
+            values[4] = transaction.description();
+            values[5] = transaction.amount();
+            values[6] = transaction.categoryId() != null ? categoryNames.get(transaction.categoryId()) : null;
+            values[7] = transaction.manualEntry();
+            return values;
+        }
+    }
+}
@@ -1,54 +1,219 @@
 package com.jay.home.finmanapp.service;
 
+import com.jay.home.finmanapp.cache.TransactionColumnCache;
+import com.jay.home.finmanapp.cache.TransactionColumns;
+import com.jay.home.finmanapp.concurrent.SingleFlight;
+import com.jay.home.finmanapp.datasource.Workload;
+import com.jay.home.finmanapp.datasource.WorkloadType;
 import com.jay.home.finmanapp.model.Account;
 import com.jay.home.finmanapp.model.Bill;
+import com.jay.home.finmanapp.model.Budget;
 import com.jay.home.finmanapp.model.Category;
 import com.jay.home.finmanapp.model.User;
 import com.jay.home.finmanapp.repository.BillRepository;
+import com.jay.home.finmanapp.repository.TransactionRepositoryCustom;
+import com.jay.home.finmanapp.util.BudgetPeriods;
+import com.jay.home.finmanapp.util.Money;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Service computing spending insights.
+ *
+ * Transaction aggregates run over the user's {@link TransactionColumns}, which the
+ * {@link TransactionColumnCache} keeps in memory for recently active users, rather than over
+ * transaction entities loaded for each request.
+ */
 @Service
+@Workload(WorkloadType.ANALYTICS)
 public class InsightService {
     
     private final BillRepository billRepository;
     private final UserService userService;
+    private final AccountService accountService;
+    private final CategoryService categoryService;
+    private final TransactionColumnCache transactionColumnCache;
+    private final BudgetService budgetService;
     
     @Autowired
-    public InsightService(BillRepository billRepository, UserService userService) {
+    public InsightService(BillRepository billRepository, UserService userService, AccountService accountService,
+                          CategoryService categoryService, TransactionColumnCache transactionColumnCache,
+                          BudgetService budgetService) {
         this.billRepository = billRepository;
         this.userService = userService;
+        this.accountService = accountService;
+        this.categoryService = categoryService;
+        this.transactionColumnCache = transactionColumnCache;
+        this.budgetService = budgetService;
     }
 
+    /**
+     * Spending per category in a date range, largest first
+     * @return One map per category with its ID, name (null when uncategorized), amount and share of the total
+     */
+    @SingleFlight("insight.spendingByCategory")
     public List<Map<String, Object>> getSpendingByCategory(List<Account> accounts, LocalDate startDate, LocalDate endDate) {
-        // Implement the logic to get spending by category
-        return null;
+        List<Map<String, Object>> result = new ArrayList<>();
+        if (accounts.isEmpty()) {
+            return result;
+        }
+        TransactionColumns columns = columns(accounts, startDate);
+        Map<Long, Long> spending = columns.sumOutflowsByCategory(columns.accountMask(accountIds(accounts)), startDate, endDate);
+        long total = spending.values().stream().mapToLong(Long::longValue).reduce(0, Money::add);
+        Map<Long, Category> categories = categoriesById();
+        spending.forEach((categoryId, cents) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            Category category = categoryId != null ? categories.get(categoryId) : null;
+            entry.put("categoryId", categoryId);
+            entry.put("categoryName", category != null ? category.getName() : null);
+            entry.put("amount", Money.toDecimal(cents));
+            entry.put("percentage", Money.percentage(cents, total));
+            result.add(entry);
+        });
+        return result;
     }
 
+    /**
+     * Spending per period (DAILY, WEEKLY or MONTHLY) in a date range
+     * @return One map per period with its first day and the amount spent
+     */
+    @SingleFlight("insight.spendingTrend")
     public List<Map<String, Object>> getSpendingTrend(List<Account> accounts, LocalDate startDate, LocalDate endDate, String period) {
-        // Implement the logic to get spending trend
-        return null;
+        return trend(accounts, null, startDate, endDate, period);
     }
 
+    /**
+     * Spending of one category per period (DAILY, WEEKLY or MONTHLY) in a date range
+     * @return One map per period with its first day and the amount spent
+     */
+    @SingleFlight("insight.categoryTrend")
     public List<Map<String, Object>> getCategoryTrend(List<Account> accounts, Category category, LocalDate startDate, LocalDate endDate, String period) {
-        // Implement the logic to get category trend
-        return null;
+        return trend(accounts, category.getId(), startDate, endDate, period);
+    }
+
+    private List<Map<String, Object>> trend(List<Account> accounts, Long categoryId, LocalDate startDate,
+                                            LocalDate endDate, String period) {
+        List<LocalDate> periodStarts = periodStarts(startDate, endDate, period);
+        List<Map<String, Object>> result = new ArrayList<>();
+        long[] spending = new long[periodStarts.size()];
+        if (!accounts.isEmpty()) {
+            TransactionColumns columns = columns(accounts, startDate);
+            spending = columns.sumOutflowsByPeriod(columns.accountMask(accountIds(accounts)), categoryId,
+                    periodStarts, endDate);
+        }
+        for (int i = 0; i < periodStarts.size(); i++) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("periodStart", periodStarts.get(i));
+            entry.put("amount", Money.toDecimal(spending[i]));
+            result.add(entry);
+        }
+        return result;
     }
 
+    /**
+     * First day of each period of a date range; the first period starts on the first day of
+     * the range, the following ones on a day, a Monday or the first day of a month
+     */
+    static List<LocalDate> periodStarts(LocalDate startDate, LocalDate endDate, String period) {
+        Function<LocalDate, LocalDate> next = switch (period) {
+            case "DAILY" -> date -> date.plusDays(1);
+            case "WEEKLY" -> date -> date.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+            case "MONTHLY" -> date -> date.with(TemporalAdjusters.firstDayOfNextMonth());
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Unsupported period: " + period + " (expected daily, weekly or monthly)");
+        };
+        List<LocalDate> starts = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = next.apply(date)) {
+            starts.add(date);
+        }
+        return starts;
+    }
+
+    /**
+     * Spending against each budget in every one of its periods that overlaps a date range.
+     * The periods of a budget come from {@link BudgetPeriods#windows}, and their spending from
+     * a single pass that buckets the user's transactions by period.
+     * @return One map per budget with its ID, name, category ID, period and amount, and the
+     *         list of its periods with their first and last day, amount spent, remaining
+     *         amount and percentage used
+     */
+    @SingleFlight("insight.budgetPerformance")
     public List<Map<String, Object>> getBudgetPerformance(User user, LocalDate startDate, LocalDate endDate) {
-        // Implement the logic to get budget performance
-        return null;
+        List<Map<String, Object>> result = new ArrayList<>();
+        List<Account> accounts = accountService.getUserAccounts(user);
+        TransactionColumns columns = transactionColumnCache.get(user.getId(), startDate.atStartOfDay());
+        boolean[] accountMask = columns.accountMask(accountIds(accounts));
+        for (Budget budget : budgetService.getBudgetsByUser(user)) {
+            List<TransactionRepositoryCustom.Window> windows = BudgetPeriods.windows(budget, startDate, endDate);
+            if (windows.isEmpty()) {
+                continue;
+            }
+            List<LocalDate> periodStarts = windows.stream().map(window -> window.start().toLocalDate()).toList();
+            Long categoryId = budget.getCategory() != null ? budget.getCategory().getId() : null;
+            long[] spending = columns.sumOutflowsByPeriod(accountMask, categoryId, periodStarts,
+                    windows.get(windows.size() - 1).end().toLocalDate());
+            long amount = Money.toCents(budget.getAmount());
+
+            List<Map<String, Object>> periods = new ArrayList<>();
+            for (int i = 0; i < windows.size(); i++) {
+                Map<String, Object> period = new LinkedHashMap<>();
+                period.put("periodStart", windows.get(i).start().toLocalDate());
+                period.put("periodEnd", windows.get(i).end().toLocalDate());
+                period.put("spent", Money.toDecimal(spending[i]));
+                period.put("remaining", Money.toDecimal(Money.subtract(amount, spending[i])));
+                period.put("percentageUsed", Money.percentage(spending[i], amount));
+                periods.add(period);
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("budgetId", budget.getId());
+            entry.put("budgetName", budget.getName());
+            entry.put("categoryId", categoryId);
+            entry.put("period", budget.getPeriod());
+            entry.put("budgetAmount", Money.toDecimal(amount));
+            entry.put("periods", periods);
+            result.add(entry);
+        }
+        return result;
     }
 
+    /**
+     * Income, expenses and spending per category of one calendar month
+     */
+    @SingleFlight("insight.monthlySummary")
     public Map<String, Object> getMonthlySummary(User user, int year, int month) {
-        // Implement the logic to get monthly summary
-        return null;
+        LocalDate start = LocalDate.of(year, month, 1);
+        LocalDate end = start.with(TemporalAdjusters.lastDayOfMonth());
+        List<Account> accounts = accountService.getUserAccounts(user);
+        long[] flows = {0, 0, 0};
+        if (!accounts.isEmpty()) {
+            TransactionColumns columns = columns(accounts, start);
+            flows = columns.sumFlows(columns.accountMask(accountIds(accounts)), start, end);
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("year", year);
+        summary.put("month", month);
+        summary.put("income", Money.toDecimal(flows[0]));
+        summary.put("expenses", Money.toDecimal(flows[1]));
+        summary.put("net", Money.toDecimal(Money.subtract(flows[0], flows[1])));
+        summary.put("transactionCount", flows[2]);
+        summary.put("spendingByCategory", getSpendingByCategory(accounts, start, end));
+        return summary;
     }
 
     public List<Map<String, Object>> generateBudgetSuggestions(User user) {
@@ -56,47 +221,52 @@ public class InsightService {
         return null;
     }
 
+    @SingleFlight("insight.topMerchants")
     public List<Map<String, Object>> getTopMerchants(List<Account> accounts, LocalDate startDate, LocalDate endDate, int limit) {
         // Implement the logic to get top merchants
         return null;
     }
     
+    @SingleFlight("insight.billsVsIncome")
     public Map<String, Object> getBillsVsIncomeInsight(Long userId) {
         User user = userService.getUserById(userId);
         Map<String, Object> result = new HashMap<>();
         
-        // Get monthly income
-        BigDecimal monthlyIncome = user.getMonthlyIncome();
-        if (monthlyIncome == null) {
-            monthlyIncome = BigDecimal.ZERO;
-        }
-        
-        // Get total bill amount
-        Double totalBillsAmount = billRepository.getTotalUnpaidBillsAmount(userId);
-        BigDecimal billsTotal = totalBillsAmount != null 
-            ? BigDecimal.valueOf(totalBillsAmount) 
-            : BigDecimal.ZERO;
+        // Get monthly income (zero when not set) and total bill amount, in cents
+        long monthlyIncome = Money.toCents(user.getMonthlyIncome());
+        long billsTotal = Money.toCents(billRepository.getTotalUnpaidBillsAmount(userId));
         
         // Calculate remaining income after bills
-        BigDecimal remainingIncome = monthlyIncome.subtract(billsTotal);
+        long remainingIncome = Money.subtract(monthlyIncome, billsTotal);
         
         // Calculate percentage of income spent on bills
-        BigDecimal billPercentage = monthlyIncome.compareTo(BigDecimal.ZERO) > 0
-            ? billsTotal.multiply(BigDecimal.valueOf(100)).divide(monthlyIncome, 2, java.math.RoundingMode.HALF_UP)
-            : BigDecimal.ZERO;
+        BigDecimal billPercentage = Money.percentage(billsTotal, monthlyIncome);
             
         // Get upcoming bills (due in next 7 days)
         int currentDay = LocalDate.now().getDayOfMonth();
         int nextWeekDay = currentDay + 7;
         List<Bill> upcomingBills = billRepository.findDueBills(userId, nextWeekDay);
             
-        result.put("monthlyIncome", monthlyIncome);
-        result.put("totalBills", billsTotal);
-        result.put("remainingIncome", remainingIncome);
+        result.put("monthlyIncome", Money.toDecimal(monthlyIncome));
+        result.put("totalBills", Money.toDecimal(billsTotal));
+        result.put("remainingIncome", Money.toDecimal(remainingIncome));
         result.put("billPercentage", billPercentage);
         result.put("upcomingBills", upcomingBills);
         result.put("paydayDay", user.getPaydayDay());
         
         return result;
     }
+
+    private TransactionColumns columns(List<Account> accounts, LocalDate startDate) {
+        return transactionColumnCache.get(accounts.get(0).getUser().getId(), startDate.atStartOfDay());
+    }
+
+    private static Set<Long> accountIds(List<Account> accounts) {
+        return accounts.stream().map(Account::getId).collect(Collectors.toSet());
+    }
+
+    private Map<Long, Category> categoriesById() {
+        return categoryService.getAllCategories().stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+    }
 }
@@ -1,7 +1,6 @@
 package com.jay.home.finmanapp.service;
 
 import io.opentracing.Span;
-import io.opentracing.Tracer;
 import io.opentracing.util.GlobalTracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,139 +9,344 @@ import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service for structured logging with trace correlation.
- * Provides logging methods that automatically include trace and span IDs
+ * Provides logging methods that include the trace and span IDs of the active span
  * for correlation in APM tools.
+ *
+ * Every method checks whether its level is enabled before doing anything else, so a
+ * disabled statement costs one level check. The fixed-arity overloads (up to two arguments)
+ * avoid the varargs array, making disabled statements allocation-free. No spans are created:
+ * the IDs of the already active span are copied into the MDC for the duration of the
+ * log call only.
+ *
+ * Instances are immutable and cached per class; obtain them with {@link #forClass(Class)}.
  */
 @Service
 public class LoggingService {
+    private static final String TRACE_ID = "trace.id";
+    private static final String SPAN_ID = "span.id";
+
+    private static final Map<Class<?>, LoggingService> INSTANCES = new ConcurrentHashMap<>();
+
     private final Logger logger;
-    
+
     /**
      * Constructor that uses the calling class name as the logger name.
      */
     public LoggingService() {
-        // Get the caller class to use as the logger name
-        StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-        String callerClassName = stackTrace[2].getClassName();
-        this.logger = LoggerFactory.getLogger(callerClassName);
+        // Only the direct caller is resolved; the rest of the stack is never materialized
+        Class<?> caller = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE).getCallerClass();
+        this.logger = LoggerFactory.getLogger(caller);
     }
-    
+
     /**
      * Constructor that accepts a specific class for the logger name.
-     * 
+     * Prefer {@link #forClass(Class)}, which reuses instances.
+     *
      * @param clazz the class to use for the logger name
      */
     public LoggingService(Class<?> clazz) {
         this.logger = LoggerFactory.getLogger(clazz);
     }
-    
+
+    /**
+     * Returns the cached logging service for a class.
+     *
+     * @param clazz the class to use for the logger name
+     * @return the shared LoggingService for that class
+     */
+    public static LoggingService forClass(Class<?> clazz) {
+        return INSTANCES.computeIfAbsent(clazz, LoggingService::new);
+    }
+
     /**
      * Log an informational message with correlation IDs.
-     * 
+     *
+     * @param message the message to log
+     */
+    public void info(String message) {
+        if (logger.isInfoEnabled()) {
+            boolean correlated = putTraceAndSpanIds();
+            try {
+                logger.info(message);
+            } finally {
+                clearTraceAndSpanIds(correlated);
+            }
+        }
+    }
+
+    /**
+     * Log an informational message with one argument and correlation IDs.
+     *
+     * @param message the message to log
+     * @param arg argument for the message format string
+     */
+    public void info(String message, Object arg) {
+        if (logger.isInfoEnabled()) {
+            boolean correlated = putTraceAndSpanIds();
+            try {
+                logger.info(message, arg);
+            } finally {
+                clearTraceAndSpanIds(correlated);
+            }
+        }
+    }
+
+    /**
+     * Log an informational message with two arguments and correlation IDs.
+     *
+     * @param message the message to log
+     * @param arg1 first argument for the message format string
+     * @param arg2 second argument for the message format string
+     */
+    public void info(String message, Object arg1, Object arg2) {
+        if (logger.isInfoEnabled()) {
+            boolean correlated = putTraceAndSpanIds();
+            try {
+                logger.info(message, arg1, arg2);
+            } finally {
+                clearTraceAndSpanIds(correlated);
+            }
+        }
+    }
+
+    /**
+     * Log an informational message with correlation IDs.
+     *
      * @param message the message to log
      * @param args arguments for the message format string
      */
     public void info(String message, Object... args) {
-        Span span = GlobalTracer.get().buildSpan("logging.info").start();
-        try {
-            setTraceAndSpanIds();
-            logger.info(message, args);
-        } finally {
-            span.finish();
+        if (logger.isInfoEnabled()) {
+            boolean correlated = putTraceAndSpanIds();
+            try {
+                logger.info(message, args);
+            } finally {
+                clearTraceAndSpanIds(correlated);
+            }
+        }
+    }
+
+    /**
+     * Log a warning message with correlation IDs.
+     *
+     * @param message the message to log
+     */
+    public void warn(String message) {
+        if (logger.isWarnEnabled()) {
+            boolean correlated = putTraceAndSpanIds();
+            try {
+                logger.warn(message);
+            } finally {
+                clearTraceAndSpanIds(correlated);
+            }
+        }
+    }
+
+    /**
+     * Log a warning message with one argument and correlation IDs.
+     *
+     * @param message the message to log
+     * @param arg argument for the message format string
+     */
+    public void warn(String message, Object arg) {
+        if (logger.isWarnEnabled()) {
+            boolean correlated = putTraceAndSpanIds();
+            try {
+                logger.warn(message, arg);
+            } finally {
+                clearTraceAndSpanIds(correlated);
+            }
+        }
+    }
+
+    /**
+     * Log a warning message with two arguments and correlation IDs.
+     *
+     * @param message the message to log
+     * @param arg1 first argument for the message format string
+     * @param arg2 second argument for the message format string
+     */
+    public void warn(String message, Object arg1, Object arg2) {
+        if (logger.isWarnEnabled()) {
+            boolean correlated = putTraceAndSpanIds();
+            try {
+                logger.warn(message, arg1, arg2);
+            } finally {
+                clearTraceAndSpanIds(correlated);
+            }
         }
     }
-    
+
     /**
      * Log a warning message with correlation IDs.
-     * 
+     *
      * @param message the message to log
      * @param args arguments for the message format string
      */
     public void warn(String message, Object... args) {
-        Span span = GlobalTracer.get().buildSpan("logging.warn").start();
-        try {
-            setTraceAndSpanIds();
-            logger.warn(message, args);
-        } finally {
-            span.finish();
+        if (logger.isWarnEnabled()) {
+            boolean correlated = putTraceAndSpanIds();
+            try {
+                logger.warn(message, args);
+            } finally {
+                clearTraceAndSpanIds(correlated);
+            }
         }
     }
-    
+
     /**
      * Log an error message with correlation IDs.
-     * 
+     *
      * @param message the message to log
      * @param args arguments for the message format string
      */
     public void error(String message, Object... args) {
-        Span span = GlobalTracer.get().buildSpan("logging.error").start();
-        try {
-            setTraceAndSpanIds();
-            logger.error(message, args);
-        } finally {
-            span.finish();
+        if (logger.isErrorEnabled()) {
+            boolean correlated = putTraceAndSpanIds();
+            try {
+                logger.error(message, args);
+            } finally {
+                clearTraceAndSpanIds(correlated);
+            }
         }
     }
-    
+
     /**
      * Log an error message with an exception and correlation IDs.
-     * 
+     * The exception is also recorded on the active span, if there is one.
+     *
      * @param message the message to log
      * @param throwable the exception to log
      */
     public void error(String message, Throwable throwable) {
-        Span span = GlobalTracer.get().buildSpan("logging.error.exception").start();
-        try {
-            setTraceAndSpanIds();
-            
-            // Add error information to the current span
+        Span span = GlobalTracer.get().activeSpan();
+        if (span != null) {
             span.setTag("error", true);
-            
+
             Map<String, Object> errorLogs = new HashMap<>();
             errorLogs.put("event", "error");
             errorLogs.put("error.object", throwable);
             errorLogs.put("error.message", throwable.getMessage());
             errorLogs.put("error.kind", throwable.getClass().getName());
-            
+
             span.log(errorLogs);
-            
-            logger.error(message, throwable);
-        } finally {
-            span.finish();
+        }
+
+        if (logger.isErrorEnabled()) {
+            boolean correlated = putTraceAndSpanIds();
+            try {
+                logger.error(message, throwable);
+            } finally {
+                clearTraceAndSpanIds(correlated);
+            }
         }
     }
-    
+
     /**
      * Log a debug message with correlation IDs.
-     * 
+     *
+     * @param message the message to log
+     */
+    public void debug(String message) {
+        if (logger.isDebugEnabled()) {
+            boolean correlated = putTraceAndSpanIds();
+            try {
+                logger.debug(message);
+            } finally {
+                clearTraceAndSpanIds(correlated);
+            }
+        }
+    }
+
+    /**
+     * Log a debug message with one argument and correlation IDs.
+     *
+     * @param message the message to log
+     * @param arg argument for the message format string
+     */
+    public void debug(String message, Object arg) {
+        if (logger.isDebugEnabled()) {
+            boolean correlated = putTraceAndSpanIds();
+            try {
+                logger.debug(message, arg);
+            } finally {
+                clearTraceAndSpanIds(correlated);
+            }
+        }
+    }
+
+    /**
+     * Log a debug message with two arguments and correlation IDs.
+     *
+     * @param message the message to log
+     * @param arg1 first argument for the message format string
+     * @param arg2 second argument for the message format string
+     */
+    public void debug(String message, Object arg1, Object arg2) {
+        if (logger.isDebugEnabled()) {
+            boolean correlated = putTraceAndSpanIds();
+            try {
+                logger.debug(message, arg1, arg2);
+            } finally {
+                clearTraceAndSpanIds(correlated);
+            }
+        }
+    }
+
+    /**
+     * Log a debug message with correlation IDs.
+     *
      * @param message the message to log
      * @param args arguments for the message format string
      */
     public void debug(String message, Object... args) {
-        Span span = GlobalTracer.get().buildSpan("logging.debug").start();
-        try {
-            setTraceAndSpanIds();
-            logger.debug(message, args);
-        } finally {
-            span.finish();
+        if (logger.isDebugEnabled()) {
+            boolean correlated = putTraceAndSpanIds();
+            try {
+                logger.debug(message, args);
+            } finally {
+                clearTraceAndSpanIds(correlated);
+            }
         }
     }
-    
+
     /**
-     * Sets the trace and span IDs from the active span in the MDC context.
+     * @return true if debug logging is enabled, for callers that need to guard
+     *         expensive argument computation
+     */
+    public boolean isDebugEnabled() {
+        return logger.isDebugEnabled();
+    }
+
+    /**
+     * Copies the trace and span IDs of the active span into the MDC.
      * This enables correlation between logs and traces.
+     *
+     * @return true if IDs were set and must be cleared after logging
      */
-    private void setTraceAndSpanIds() {
-        Tracer tracer = GlobalTracer.get();
-        Span span = tracer.activeSpan();
-        
+    private boolean putTraceAndSpanIds() {
+        Span span = GlobalTracer.get().activeSpan();
+
         if (span != null && span.context() != null) {
             // Store generic trace IDs that will be picked up by any APM tool
-            MDC.put("trace.id", span.context().toTraceId());
-            MDC.put("span.id", span.context().toSpanId());
+            MDC.put(TRACE_ID, span.context().toTraceId());
+            MDC.put(SPAN_ID, span.context().toSpanId());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes the IDs again, so they never leak onto unrelated log lines of a pooled thread.
+     */
+    private void clearTraceAndSpanIds(boolean correlated) {
+        if (correlated) {
+            MDC.remove(TRACE_ID);
+            MDC.remove(SPAN_ID);
         }
     }
-}
\ No newline at end of file
+}
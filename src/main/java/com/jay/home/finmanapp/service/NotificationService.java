@@ -8,8 +8,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Service
@@ -18,6 +20,16 @@ public class NotificationService {
     private final NotificationRepository notificationRepository;
     private final JavaMailSender mailSender;
 
+    /**
+     * Counts the notifications the user has not read yet.
+     *
+     * @param user The user whose notifications to count
+     * @return The number of unread notifications
+     */
+    @Transactional(readOnly = true)
+    public long countUnreadNotifications(User user) {
+        return notificationRepository.countByUserAndIsReadFalse(user);
+    }
 
     public void sendBudgetWarning(User user, Budget budget, BigDecimal currentSpending, BigDecimal percentageUsed) {
         String categoryName = budget.getCategory() != null ? budget.getCategory().getName() : "all categories";
@@ -30,7 +42,34 @@ public class NotificationService {
                 budget.getPeriod().toLowerCase(),
                 categoryName
         );
+        sendNotification(user, budget, "Budget Alert: " + budget.getName(), message);
+    }
+
+    /**
+     * Warns a user, before the budget's warning threshold is reached, that the budget is
+     * forecast to overrun by the end of its period.
+     *
+     * @param projectedSpending The spending forecast at the end of the period
+     * @param projectedPercentage The forecast spending as a ratio of the budget amount
+     * @param periodEnd Last day of the budget's current period
+     */
+    public void sendBudgetForecastWarning(User user, Budget budget, BigDecimal projectedSpending,
+                                          BigDecimal projectedPercentage, LocalDate periodEnd) {
+        String categoryName = budget.getCategory() != null ? budget.getCategory().getName() : "all categories";
+
+        String message = String.format(
+                "Heads up: at this rate you'll spend %.2f, %.0f%% of your %.2f %s budget for %s, by %s.",
+                projectedSpending,
+                projectedPercentage.multiply(BigDecimal.valueOf(100)),
+                budget.getAmount(),
+                budget.getPeriod().toLowerCase(),
+                categoryName,
+                periodEnd
+        );
+        sendNotification(user, budget, "Budget Forecast: " + budget.getName(), message);
+    }
 
+    private void sendNotification(User user, Budget budget, String subject, String message) {
         // Create notification record
         Notification notification = new Notification();
         notification.setUser(user);
@@ -43,7 +82,7 @@ public class NotificationService {
         // Send email
         SimpleMailMessage email = new SimpleMailMessage();
         email.setTo(user.getEmail());
-        email.setSubject("Budget Alert: " + budget.getName());
+        email.setSubject(subject);
         email.setText(message);
         mailSender.send(email);
     }
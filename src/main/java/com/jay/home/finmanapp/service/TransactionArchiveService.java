@@ -0,0 +1,187 @@
+package com.jay.home.finmanapp.service;
+
+import com.jay.home.finmanapp.archive.ArchiveManifest;
+import com.jay.home.finmanapp.archive.ArchivedTransaction;
+import com.jay.home.finmanapp.archive.TransactionArchive;
+import com.jay.home.finmanapp.datasource.Workload;
+import com.jay.home.finmanapp.datasource.WorkloadType;
+import com.jay.home.finmanapp.model.User;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Service that moves old transactions out of the database into the {@link TransactionArchive}.
+ *
+ * The current month and the {@code app.archive.min-age-months} months before it stay in the
+ * database. For each older month of a user with transactions left, the rows are written to
+ * the month's segment, the segment is added to the user's manifest, and only then are the
+ * rows deleted, by ID, in one database transaction. Rows inserted into
+ * the month meanwhile stay in the database until the next run. Should the deletion fail, the
+ * rows are both archived and live until the next run archives them again in place of
+ * themselves; transaction lists skip the archived copy meanwhile, spending totals count both.
+ *
+ * Archival is off unless {@code app.archive.enabled} is set, as the archive directory must
+ * then be on durable storage shared by every instance of the application. Every instance
+ * schedules the run; on PostgreSQL, a session advisory lock lets only one of them archive at a
+ * time, and the others skip their run. The lock holds one batch-pool connection for the
+ * length of the run and is released with it should the instance die.
+ */
+@Service
+public class TransactionArchiveService {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionArchiveService.class);
+
+    private static final String FIRST_DATE_SQL = "SELECT MIN(t.date) FROM transactions t "
+            + "JOIN accounts a ON a.id = t.account_id WHERE a.user_id = ? AND t.date < ?";
+    private static final String MONTH_SQL = "SELECT t.id, t.account_id, t.transaction_id, t.description, t.amount, "
+            + "t.date, t.category_id, t.is_manual_entry FROM transactions t JOIN accounts a ON a.id = t.account_id "
+            + "WHERE a.user_id = ? AND t.date >= ? AND t.date < ?";
+    private static final String DELETE_SQL = "DELETE FROM transactions WHERE id = ?";
+    private static final int DELETE_BATCH_SIZE = 1000;
+    /**
+     * Key of the PostgreSQL advisory lock held while archiving.
+     */
+    static final long ARCHIVE_LOCK_KEY = 0x66696e6d_61726368L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionArchive transactionArchive;
+    private final UserService userService;
+    private final boolean enabled;
+    private final int minAgeMonths;
+
+    @Autowired
+    public TransactionArchiveService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                     TransactionArchive transactionArchive, UserService userService,
+                                     @Value("${app.archive.enabled:false}") boolean enabled,
+                                     @Value("${app.archive.min-age-months:24}") int minAgeMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionArchive = transactionArchive;
+        this.userService = userService;
+        this.enabled = enabled;
+        this.minAgeMonths = minAgeMonths;
+    }
+
+    /**
+     * Archives the closed months of every user that are old enough.
+     *
+     * @return The number of transactions archived
+     */
+    @Workload(WorkloadType.BATCH)
+    public long archiveClosedMonths() {
+        if (!enabled) {
+            return 0;
+        }
+        Long archived = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            boolean postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+            if (postgres && !advisoryLock(connection, "pg_try_advisory_lock")) {
+                logger.info("Not archiving: another instance is archiving");
+                return 0L;
+            }
+            try {
+                return archiveAllUsers();
+            } finally {
+                if (postgres) {
+                    advisoryLock(connection, "pg_advisory_unlock");
+                }
+            }
+        });
+        return archived != null ? archived : 0;
+    }
+
+    private long archiveAllUsers() {
+        YearMonth before = YearMonth.now().minusMonths(minAgeMonths);
+        long archived = 0;
+        for (User user : userService.getAllUsers()) {
+            try {
+                archived += archiveUser(user.getId(), before);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Could not archive the transactions of user {}", user.getId(), e);
+            }
+        }
+        if (archived > 0) {
+            logger.info("Archived {} transactions older than {}", archived, before);
+        }
+        return archived;
+    }
+
+    /**
+     * Archives a user's transactions of the months before a month.
+     *
+     * @param userId The ID of the user
+     * @param before The first month kept in the database
+     * @return The number of transactions archived
+     */
+    @Workload(WorkloadType.BATCH)
+    public long archiveUser(Long userId, YearMonth before) throws IOException {
+        LocalDateTime firstDate = jdbcTemplate.queryForObject(FIRST_DATE_SQL, LocalDateTime.class,
+                userId, Timestamp.valueOf(before.atDay(1).atStartOfDay()));
+        if (firstDate == null) {
+            return 0;
+        }
+        long archived = 0;
+        for (YearMonth month = YearMonth.from(firstDate); month.isBefore(before); month = month.plusMonths(1)) {
+            archived += archiveMonth(userId, month);
+        }
+        return archived;
+    }
+
+    private static boolean advisoryLock(Connection connection, String function) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(?)")) {
+            statement.setLong(1, ARCHIVE_LOCK_KEY);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private int archiveMonth(Long userId, YearMonth month) throws IOException {
+        List<ArchivedTransaction> transactions;
+        try {
+            transactions = jdbcTemplate.query(MONTH_SQL, (resultSet, rowNum) -> new ArchivedTransaction(
+                    resultSet.getLong("id"),
+                    resultSet.getLong("account_id"),
+                    resultSet.getString("transaction_id"),
+                    resultSet.getString("description"),
+                    ArchivedTransaction.toCents(resultSet.getBigDecimal("amount")),
+                    resultSet.getTimestamp("date").toLocalDateTime(),
+                    resultSet.getObject("category_id", Long.class),
+                    resultSet.getBoolean("is_manual_entry")), userId, Timestamp.valueOf(month.atDay(1).atStartOfDay()),
+                    Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+        } catch (ArithmeticException e) {
+            logger.warn("Not archiving {} of user {}: an amount has a fraction of a cent", month, userId);
+            return 0;
+        }
+        if (transactions.isEmpty()) {
+            return 0;
+        }
+
+        ArchiveManifest.Segment segment = transactionArchive.archive(userId, month, transactions);
+        List<Long> ids = transactions.stream().map(ArchivedTransaction::id).toList();
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(DELETE_SQL, ids, DELETE_BATCH_SIZE,
+                (statement, id) -> statement.setLong(1, id)));
+
+        Metrics.counter("finmanapp.archive.rows").increment(transactions.size());
+        logger.info("Archived {} transactions of {} for user {} ({} in segment)",
+                transactions.size(), month, userId, segment.rows());
+        return transactions.size();
+    }
+}
@@ -0,0 +1,266 @@
+package com.jay.home.finmanapp.service;
+
+import com.jay.home.finmanapp.archive.ArchiveManifest;
+import com.jay.home.finmanapp.archive.ArchivedTransaction;
+import com.jay.home.finmanapp.archive.TransactionArchive;
+import com.jay.home.finmanapp.datasource.Workload;
+import com.jay.home.finmanapp.datasource.WorkloadType;
+import com.jay.home.finmanapp.event.TransactionsChangedEvent;
+import com.jay.home.finmanapp.importer.ImportFormat;
+import com.jay.home.finmanapp.importer.ImportProgress;
+import com.jay.home.finmanapp.importer.ImportedTransaction;
+import com.jay.home.finmanapp.importer.InvalidImportRowException;
+import com.jay.home.finmanapp.importer.TransactionReader;
+import com.jay.home.finmanapp.model.Account;
+import com.jay.home.finmanapp.model.Category;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service that imports transactions from CSV, OFX and QFX files.
+ *
+ * The file is read as a stream, one row at a time, and written in JDBC batches of
+ * {@code app.import.batch-size} rows, each committed on its own, so heap use does not depend
+ * on the size of the file and a failed import keeps the batches written before the failure.
+ * A row whose {@code (account_id, transaction_id)} already exists is skipped, which makes
+ * importing an overlapping or the same file again harmless. That includes rows of archived
+ * months (see {@link TransactionArchive}), which are checked against the external IDs of the
+ * archived month, read once per import, rather than brought back into the live table. Category names in the file are
+ * matched, ignoring case, against the shared categories held by the read-model cache.
+ *
+ * The {@code NOT EXISTS} check is not atomic. On PostgreSQL the insert therefore also ends with
+ * {@code ON CONFLICT (account_id, transaction_id, date) DO NOTHING}, so imports or syncs of the
+ * same rows running at once, on any instance, skip each other's rows instead of failing the
+ * batch on the unique index. That index includes the partition key {@code date}: a row written
+ * concurrently under the same external ID but with a different date is still inserted twice.
+ *
+ * A user runs one import at a time on each instance; its progress can be read while it runs.
+ */
+@Service
+public class TransactionImportService {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionImportService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO transactions (account_id, transaction_id, description, amount, date, category_id, is_manual_entry) "
+                    + "SELECT ?, ?, ?, ?, ?, ?, FALSE "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM transactions WHERE account_id = ? AND transaction_id = ?)";
+    private static final String POSTGRES_INSERT_SQL =
+            INSERT_SQL + " ON CONFLICT (account_id, transaction_id, date) DO NOTHING";
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final long LOG_INTERVAL_ROWS = 100_000;
+
+    private final CategoryService categoryService;
+    private final DataVersionService dataVersionService;
+    private final TransactionArchive transactionArchive;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, ImportProgress> latestImports = new ConcurrentHashMap<>();
+
+    @Value("${app.import.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Autowired
+    public TransactionImportService(CategoryService categoryService, DataVersionService dataVersionService,
+                                    TransactionArchive transactionArchive, ApplicationEventPublisher eventPublisher,
+                                    JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.categoryService = categoryService;
+        this.dataVersionService = dataVersionService;
+        this.transactionArchive = transactionArchive;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Imports the transactions of a file into an account.
+     *
+     * @param account The account to import into; the caller has checked that the user owns it
+     * @param format Format of the file
+     * @param input The file contents; read to the end but not closed
+     * @return The outcome of the import
+     * @throws ResponseStatusException With {@code 409 Conflict} if the user is already running an import
+     * @throws IOException If the file cannot be read or is not of the given format
+     */
+    @Workload(WorkloadType.BATCH)
+    public ImportProgress importTransactions(Account account, ImportFormat format, InputStream input)
+            throws IOException {
+        Long userId = account.getUser().getId();
+        ImportProgress progress = begin(userId, account.getId(), format);
+        logger.info("Importing {} transactions into account {} for user {}", format, account.getId(), userId);
+        try {
+            String insertSql = insertSql();
+            Map<String, Long> categoryIds = categoryIdsByName();
+            ArchiveManifest archive = transactionArchive.manifest(userId);
+            Map<YearMonth, Set<String>> archivedIds = new HashMap<>();
+            TransactionReader reader = format.open(new InputStreamReader(input, StandardCharsets.UTF_8));
+            List<Object[]> batch = new ArrayList<>(batchSize);
+            while (true) {
+                ImportedTransaction row;
+                try {
+                    row = reader.next();
+                } catch (InvalidImportRowException e) {
+                    progress.rowRejected(e.getMessage());
+                    continue;
+                }
+                if (row == null) {
+                    break;
+                }
+                progress.rowRead();
+                if (isArchived(account, row, archive, archivedIds)) {
+                    progress.duplicateSkipped();
+                    continue;
+                }
+                batch.add(toParameters(account.getId(), row, categoryIds));
+                if (batch.size() >= batchSize) {
+                    write(insertSql, batch, progress);
+                }
+            }
+            write(insertSql, batch, progress);
+            progress.completed();
+        } catch (IOException | RuntimeException e) {
+            progress.failed(e.getMessage());
+            throw e;
+        } finally {
+            if (progress.getInserted() > 0) {
+                dataVersionService.bump(userId);
+                eventPublisher.publishEvent(new TransactionsChangedEvent(userId, progress.getInserted()));
+            }
+            Metrics.counter("finmanapp.import.rows", "format", format.name().toLowerCase(Locale.ROOT),
+                    "outcome", "inserted").increment(progress.getInserted());
+            Metrics.counter("finmanapp.import.rows", "format", format.name().toLowerCase(Locale.ROOT),
+                    "outcome", "duplicate").increment(progress.getDuplicates());
+            Metrics.counter("finmanapp.import.rows", "format", format.name().toLowerCase(Locale.ROOT),
+                    "outcome", "rejected").increment(progress.getRejected());
+            logger.info("Import into account {} {}: {} rows read, {} inserted, {} duplicates, {} rejected",
+                    account.getId(), progress.getState(), progress.getRowsRead(), progress.getInserted(),
+                    progress.getDuplicates(), progress.getRejected());
+        }
+        return progress;
+    }
+
+    /**
+     * Gets the progress of the user's running import, or the outcome of the last one.
+     *
+     * @param userId The ID of the user
+     * @return An Optional containing the progress, or empty if the user has not imported yet
+     */
+    public Optional<ImportProgress> getLatestImport(Long userId) {
+        return Optional.ofNullable(latestImports.get(userId));
+    }
+
+    private ImportProgress begin(Long userId, Long accountId, ImportFormat format) {
+        return latestImports.compute(userId, (id, previous) -> {
+            if (previous != null && previous.isRunning()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "An import is already running");
+            }
+            return new ImportProgress(accountId, format);
+        });
+    }
+
+    /**
+     * @return The insert statement for the database: only PostgreSQL has the unique index to resolve conflicts on
+     */
+    private String insertSql() {
+        Boolean postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+        return Boolean.TRUE.equals(postgres) ? POSTGRES_INSERT_SQL : INSERT_SQL;
+    }
+
+    private Map<String, Long> categoryIdsByName() {
+        Map<String, Long> categoryIds = new HashMap<>();
+        for (Category category : categoryService.getAllCategories()) {
+            categoryIds.put(category.getName().toLowerCase(Locale.ROOT), category.getId());
+        }
+        return categoryIds;
+    }
+
+    /**
+     * @param archivedIds The external IDs of the account's archived transactions, by month, filled as months are needed
+     * @return Whether the row is in the archive
+     */
+    private boolean isArchived(Account account, ImportedTransaction row, ArchiveManifest archive,
+                               Map<YearMonth, Set<String>> archivedIds) {
+        YearMonth month = YearMonth.from(row.date());
+        Set<String> ids = archivedIds.get(month);
+        if (ids == null) {
+            ids = new HashSet<>();
+            for (ArchiveManifest.Segment segment : archive.segments()) {
+                if (segment.yearMonth().equals(month)) {
+                    for (ArchivedTransaction transaction : transactionArchive.find(List.of(account),
+                            segment.firstDate(), segment.lastDate())) {
+                        ids.add(transaction.transactionId());
+                    }
+                }
+            }
+            archivedIds.put(month, ids);
+        }
+        return ids.contains(truncate(row.transactionId()));
+    }
+
+    private static Object[] toParameters(Long accountId, ImportedTransaction row, Map<String, Long> categoryIds) {
+        String transactionId = truncate(row.transactionId());
+        Long categoryId = row.category() != null ? categoryIds.get(row.category().toLowerCase(Locale.ROOT)) : null;
+        return new Object[] {
+                accountId, transactionId, truncate(row.description()), row.amount(),
+                Timestamp.valueOf(row.date()), categoryId, accountId, transactionId
+        };
+    }
+
+    private static String truncate(String value) {
+        return value.length() > MAX_TEXT_LENGTH ? value.substring(0, MAX_TEXT_LENGTH) : value;
+    }
+
+    /**
+     * Writes and commits a batch, then clears it. Rows of the batch that already exist,
+     * including repeats within the batch, report an update count of 0.
+     */
+    private void write(String insertSql, List<Object[]> batch, ImportProgress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(insertSql, batch));
+        int inserted = 0;
+        for (int count : counts) {
+            // Only a positive count means inserted: Statement.SUCCESS_NO_INFO (-2) does not tell
+            if (count > 0) {
+                inserted++;
+            }
+        }
+        long before = progress.getRowsRead() - batch.size();
+        progress.batchWritten(batch.size(), inserted);
+        batch.clear();
+        if (progress.getRowsRead() / LOG_INTERVAL_ROWS > before / LOG_INTERVAL_ROWS) {
+            logger.info("Import into account {}: {} rows read, {} inserted, {} duplicates, {} rejected",
+                    progress.getAccountId(), progress.getRowsRead(), progress.getInserted(),
+                    progress.getDuplicates(), progress.getRejected());
+        }
+    }
+}
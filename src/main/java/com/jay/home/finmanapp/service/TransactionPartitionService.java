@@ -0,0 +1,96 @@
+package com.jay.home.finmanapp.service;
+
+import com.jay.home.finmanapp.datasource.Workload;
+import com.jay.home.finmanapp.datasource.WorkloadType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service that maintains the monthly partitions of the transactions table.
+ *
+ * On PostgreSQL, migration V7 partitions transactions by month on {@code date}. A row whose
+ * month has no partition lands in the default partition, and a month cannot get its own
+ * partition afterwards while the default partition holds rows of it; so the partitions of
+ * the current month and the next {@code app.transactions.partitions.months-ahead} months are
+ * created in advance. Elsewhere, such as on H2 or a schema created by Hibernate, the table is
+ * not partitioned and this service does nothing.
+ */
+@Service
+public class TransactionPartitionService {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionPartitionService.class);
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+
+    @Autowired
+    public TransactionPartitionService(JdbcTemplate jdbcTemplate,
+                                       @Value("${app.transactions.partitions.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+    }
+
+    /**
+     * Creates the missing partitions from the current month to {@code months-ahead} months ahead.
+     *
+     * @return The names of the partitions created
+     */
+    @Workload(WorkloadType.BATCH)
+    public List<String> createUpcomingPartitions() {
+        List<String> created = new ArrayList<>();
+        if (!isPartitioned()) {
+            return created;
+        }
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++, month = month.plusMonths(1)) {
+            String name = partitionName(month);
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name))) {
+                continue;
+            }
+            try {
+                jdbcTemplate.execute(createPartitionSql(month));
+                created.add(name);
+                logger.info("Created transactions partition {}", name);
+            } catch (DataAccessException e) {
+                // Typically rows of the month already in the default partition; they stay there
+                logger.warn("Could not create transactions partition {}: {}", name, e.getMessage());
+            }
+        }
+        return created;
+    }
+
+    /**
+     * @return Whether transactions is a partitioned PostgreSQL table
+     */
+    public boolean isPartitioned() {
+        Boolean postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+        if (!Boolean.TRUE.equals(postgres)) {
+            return false;
+        }
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid "
+                        + "WHERE c.relname = 'transactions' AND pg_table_is_visible(c.oid)", Integer.class);
+        return count != null && count > 0;
+    }
+
+    static String partitionName(YearMonth month) {
+        return "transactions_" + month.format(PARTITION_SUFFIX);
+    }
+
+    static String createPartitionSql(YearMonth month) {
+        return "CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF transactions "
+                + "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+}
@@ -1,18 +1,31 @@
 package com.jay.home.finmanapp.service;
 
+import com.jay.home.finmanapp.archive.ArchivedTransaction;
+import com.jay.home.finmanapp.archive.TransactionArchive;
+import com.jay.home.finmanapp.event.TransactionsChangedEvent;
 import com.jay.home.finmanapp.model.Account;
 import com.jay.home.finmanapp.model.Category;
 import com.jay.home.finmanapp.model.Transaction;
 import com.jay.home.finmanapp.model.User;
 import com.jay.home.finmanapp.repository.TransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class TransactionService {
@@ -20,16 +33,76 @@ public class TransactionService {
     @Autowired
     private AccountService accountService;
     
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private DataVersionService dataVersionService;
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private TransactionArchive transactionArchive;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    /**
+     * Get the transactions of a category on accounts within an inclusive date range,
+     * including archived transactions
+     */
     public List<Transaction> getTransactionsByAccountsAndCategoryAndDateBetween(
             List<Account> accounts, Category category, LocalDateTime startDate, LocalDateTime endDate) {
-        // Implementation placeholder
-        return List.of();
+        List<Transaction> transactions = transactionRepository.findByAccountInAndCategoryAndDateBetween(
+                accounts, category, startDate, endDate);
+        List<ArchivedTransaction> archived = transactionArchive.find(accounts, startDate, endDate).stream()
+                .filter(transaction -> category.getId().equals(transaction.categoryId()))
+                .toList();
+        return withArchived(transactions, archived, accounts);
     }
     
+    /**
+     * Get the transactions on accounts within an inclusive date range, including archived transactions
+     */
     public List<Transaction> getTransactionsByAccountsAndDateBetween(
             List<Account> accounts, LocalDateTime startDate, LocalDateTime endDate) {
-        // Implementation placeholder
-        return List.of();
+        List<Transaction> transactions = transactionRepository.findByAccountInAndDateBetween(
+                accounts, startDate, endDate);
+        return withArchived(transactions, transactionArchive.find(accounts, startDate, endDate), accounts);
+    }
+    
+    /**
+     * Adds archived transactions to transactions read from the database, most recent first.
+     * An archived transaction that is also still in the database, which happens while it is
+     * being archived, is skipped.
+     */
+    private List<Transaction> withArchived(List<Transaction> transactions, List<ArchivedTransaction> archived,
+                                           List<Account> accounts) {
+        if (archived.isEmpty()) {
+            return transactions;
+        }
+        Set<String> live = new HashSet<>();
+        transactions.forEach(transaction ->
+                live.add(transaction.getAccount().getId() + ":" + transaction.getTransactionId()));
+        Map<Long, Account> accountsById = accounts.stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity(), (first, second) -> first));
+        Map<Long, Category> categoriesById = categoryService.getAllCategories().stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        
+        List<Transaction> merged = new ArrayList<>(transactions);
+        for (ArchivedTransaction transaction : archived) {
+            if (live.contains(transaction.accountId() + ":" + transaction.transactionId())) {
+                continue;
+            }
+            merged.add(new Transaction(transaction.id(), accountsById.get(transaction.accountId()),
+                    transaction.transactionId(), transaction.description(), transaction.amount(),
+                    transaction.date(),
+                    transaction.categoryId() != null ? categoriesById.get(transaction.categoryId()) : null,
+                    transaction.manualEntry()));
+        }
+        merged.sort(Comparator.comparing(Transaction::getDate).reversed());
+        return merged;
     }
     
     /**
@@ -51,24 +124,74 @@ public class TransactionService {
         return new Transaction();
     }
     
+    /**
+     * Get a transaction on one of the user's accounts
+     * @param id The transaction ID
+     * @param userId The ID of the user who must own the transaction's account
+     * @return The transaction, or empty if it does not exist or belongs to another user
+     */
+    public Optional<Transaction> findUserTransaction(Long id, Long userId) {
+        return transactionRepository.findByIdAndAccountUserId(id, userId);
+    }
+    
+    /**
+     * Records a transaction entered by the user
+     * @return The saved transaction
+     */
+    @Transactional
     public Transaction addManualTransaction(
             Account account, String description, BigDecimal amount, 
             LocalDateTime date, Category category) {
-        // Implementation placeholder
-        return new Transaction();
+        Transaction transaction = new Transaction();
+        transaction.setAccount(account);
+        transaction.setTransactionId("manual-" + UUID.randomUUID());
+        transaction.setDescription(description);
+        transaction.setAmount(amount);
+        transaction.setDate(date);
+        transaction.setCategory(category);
+        transaction.setManualEntry(true);
+        
+        Transaction savedTransaction = transactionRepository.save(transaction);
+        transactionsChanged(account, 1);
+        return savedTransaction;
     }
     
+    @Transactional
     public Transaction updateTransaction(Transaction transaction) {
-        // Implementation placeholder
-        return transaction;
+        Transaction savedTransaction = transactionRepository.save(transaction);
+        transactionsChanged(transaction.getAccount(), 1);
+        return savedTransaction;
     }
     
-    public void deleteTransaction(Long id) {
-        // Implementation placeholder
+    /**
+     * Deletes a transaction already authorized by {@link #findUserTransaction}
+     */
+    @Transactional
+    public void deleteTransaction(Transaction transaction) {
+        transactionRepository.delete(transaction);
+        transactionsChanged(transaction.getAccount(), 1);
     }
     
+    /**
+     * Not implemented yet: {@link com.jay.home.finmanapp.PlaidClient} is still a mock, so nothing is
+     * synced, no data version is bumped and no budget evaluation is triggered. An implementation
+     * must save the synced transactions and then call {@code transactionsChanged} in the same
+     * transaction, as the statement import does.
+     */
     public int syncTransactionsForAccount(Account account) {
         // Implementation placeholder
         return 0;
     }
+    
+    /**
+     * Marks the owner's data as changed so cached transaction lists are revalidated, and
+     * publishes the change so the owner's budgets are evaluated once it commits. Only called
+     * after the change has been written, in the same transaction.
+     */
+    private void transactionsChanged(Account account, int count) {
+        if (account != null && account.getUser() != null) {
+            dataVersionService.bump(account.getUser().getId());
+            eventPublisher.publishEvent(new TransactionsChangedEvent(account.getUser().getId(), count));
+        }
+    }
 }
\ No newline at end of file
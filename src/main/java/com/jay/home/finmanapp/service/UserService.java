@@ -111,7 +111,10 @@ public class UserService implements UserDetailsService {
             user.setPaydayDay(paydayDay);
         }
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        // Remaining income and bills-vs-income responses depend on these values
+        userRepository.incrementDataVersion(id);
+        return savedUser;
     }
 
     @Transactional
@@ -135,9 +138,29 @@ public class UserService implements UserDetailsService {
         userRepository.deleteById(id);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Checks a password against the user's stored hash. A hash made with a lower cost than
+     * the configured BCrypt strength is replaced on success, since the raw password is only
+     * available at this point. Only the password column is updated, and only if the hash is
+     * still the one checked (see {@link UserRepository#replacePassword}).
+     * Not transactional, so no connection is held while the password is hashed.
+     *
+     * @param user The user whose password to check
+     * @param rawPassword The password as entered
+     * @return true if the password matches
+     */
     public boolean verifyPassword(User user, String rawPassword) {
-        return passwordEncoder.matches(rawPassword, user.getPassword());
+        if (!passwordEncoder.matches(rawPassword, user.getPassword())) {
+            return false;
+        }
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            String upgraded = passwordEncoder.encode(rawPassword);
+            if (userRepository.replacePassword(user.getId(), user.getPassword(), upgraded) == 1) {
+                user.setPassword(upgraded);
+                logger.info("Upgraded password hash of user {}", user.getId());
+            }
+        }
+        return true;
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,107 @@
+package com.jay.home.finmanapp.sql;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The SQL statements of one HTTP request: the timeout they run with and the ones currently executing.
+ *
+ * {@link StatementGuardListener} registers each statement with the scope bound to the executing
+ * thread, so the request can be abandoned from any other thread with {@link #cancel(String)},
+ * which calls {@link Statement#cancel()} on every statement still running. Like the SQL
+ * statement counter, the binding is an inheritable thread-local, so statements on threads started
+ * by the request are covered too.
+ *
+ * Scopes are bound and unbound by {@link QueryScopeInterceptor}; code outside a request runs
+ * without one and is unaffected.
+ */
+public final class QueryScope {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryScope.class);
+    private static final InheritableThreadLocal<QueryScope> CURRENT = new InheritableThreadLocal<>();
+
+    private final int timeoutSeconds;
+    private final Set<Statement> running = ConcurrentHashMap.newKeySet();
+    private volatile String cancelReason;
+
+    /**
+     * @param timeoutSeconds Timeout per statement in seconds, or 0 for none
+     */
+    public QueryScope(int timeoutSeconds) {
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    /**
+     * @return The scope bound to the current thread, or null if there is none
+     */
+    public static QueryScope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds a scope to the current thread and the threads it starts.
+     *
+     * @param scope The scope to bind
+     */
+    public static void attach(QueryScope scope) {
+        CURRENT.set(scope);
+    }
+
+    /**
+     * Unbinds the scope from the current thread.
+     */
+    public static void detach() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Cancels every statement of this scope that is still executing.
+     * Only the first reason is kept; it is reported on the cancelled statements' metrics.
+     *
+     * @param reason Why the request was abandoned, for example {@code client_abort}
+     * @return Number of statements that were cancelled
+     */
+    public int cancel(String reason) {
+        if (cancelReason == null) {
+            cancelReason = reason;
+        }
+        int cancelled = 0;
+        for (Statement statement : running) {
+            try {
+                statement.cancel();
+                cancelled++;
+            } catch (SQLException e) {
+                // The statement finished or its connection was closed in the meantime
+                logger.debug("Could not cancel statement: {}", e.getMessage());
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * @return Timeout per statement in seconds, or 0 for none
+     */
+    public int getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+
+    /**
+     * @return The reason passed to the first {@link #cancel(String)} call, or null if the scope was not cancelled
+     */
+    public String getCancelReason() {
+        return cancelReason;
+    }
+
+    void register(Statement statement) {
+        running.add(statement);
+    }
+
+    void unregister(Statement statement) {
+        running.remove(statement);
+    }
+}
@@ -0,0 +1,127 @@
+package com.jay.home.finmanapp.sql;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.util.DisconnectedClientHelper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Opens a {@link QueryScope} for every handled request and cancels its statements when the
+ * request is abandoned.
+ *
+ * The statement timeout comes from {@link StatementTimeout} on the handler method or its
+ * controller, or else the configured default. For handlers returning a {@link Callable}, the
+ * scope (and the request's SQL statement count) follow the request onto the async thread, and
+ * the statements still running are cancelled when the async request times out
+ * ({@code async_timeout}) or the container reports an error, typically a client that went away
+ * ({@code client_abort}). Synchronous handlers are only protected by the timeout, since the
+ * container cannot report a disconnect while the request thread is blocked in the driver.
+ */
+public class QueryScopeInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+    public static final String ASYNC_TIMEOUT = "async_timeout";
+    public static final String CLIENT_ABORT = "client_abort";
+    public static final String ERROR = "error";
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryScopeInterceptor.class);
+    private static final String SCOPE_ATTRIBUTE = QueryScopeInterceptor.class.getName() + ".scope";
+    private static final String STATS_ATTRIBUTE = QueryScopeInterceptor.class.getName() + ".stats";
+
+    private final int defaultTimeoutSeconds;
+
+    /**
+     * @param defaultTimeoutSeconds Statement timeout in seconds for handlers without {@link StatementTimeout}
+     */
+    public QueryScopeInterceptor(int defaultTimeoutSeconds) {
+        this.defaultTimeoutSeconds = defaultTimeoutSeconds;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryScope scope = new QueryScope(timeoutFor(handler));
+        QueryScope.attach(scope);
+        request.setAttribute(SCOPE_ATTRIBUTE, scope);
+        SqlStatementStats stats = SqlStatementCounter.current();
+        if (stats != null) {
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // The request thread goes back to the pool; the scope moves to the async thread
+        QueryScope.detach();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        QueryScope.detach();
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        QueryScope scope = (QueryScope) request.getAttribute(SCOPE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (scope != null) {
+            QueryScope.attach(scope);
+        }
+        SqlStatementStats stats =
+                (SqlStatementStats) request.getAttribute(STATS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (stats != null) {
+            SqlStatementCounter.resume(stats);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        QueryScope.detach();
+        SqlStatementCounter.suspend();
+    }
+
+    @Override
+    public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+        cancel(request, ASYNC_TIMEOUT);
+        return RESULT_NONE;
+    }
+
+    @Override
+    public <T> Object handleError(NativeWebRequest request, Callable<T> task, Throwable t) {
+        cancel(request, DisconnectedClientHelper.isClientDisconnectedException(t) ? CLIENT_ABORT : ERROR);
+        return RESULT_NONE;
+    }
+
+    private void cancel(NativeWebRequest request, String reason) {
+        QueryScope scope = (QueryScope) request.getAttribute(SCOPE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (scope != null) {
+            int cancelled = scope.cancel(reason);
+            if (cancelled > 0) {
+                logger.info("Cancelled {} running SQL statement(s) of {} ({})",
+                        cancelled, request.getDescription(false), reason);
+            }
+        }
+    }
+
+    private int timeoutFor(Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            StatementTimeout timeout = AnnotatedElementUtils.findMergedAnnotation(
+                    handlerMethod.getMethod(), StatementTimeout.class);
+            if (timeout == null) {
+                timeout = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), StatementTimeout.class);
+            }
+            if (timeout != null) {
+                return timeout.value();
+            }
+        }
+        return defaultTimeoutSeconds;
+    }
+}
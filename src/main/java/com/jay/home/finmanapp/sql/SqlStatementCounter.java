@@ -0,0 +1,88 @@
+package com.jay.home.finmanapp.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Datasource-proxy listener that attributes every executed SQL statement to the
+ * {@link SqlStatementStats} of the current unit of work.
+ *
+ * A unit of work is opened with {@link #begin()} and closed with {@link #end()}, normally by
+ * {@link SqlStatementFilter} around each HTTP request. The stats are held in an inheritable
+ * thread-local, so statements run on threads started by the request (such as the dashboard's
+ * virtual threads) are counted too. Statements outside a unit of work, for example from
+ * scheduled jobs, are ignored.
+ */
+public class SqlStatementCounter implements QueryExecutionListener {
+
+    private static final InheritableThreadLocal<SqlStatementStats> CURRENT = new InheritableThreadLocal<>();
+
+    /**
+     * Starts counting statements on the current thread and the threads it starts.
+     * An already open unit of work keeps counting and becomes the parent of the new one.
+     *
+     * @return The stats that will collect the statements
+     */
+    public static SqlStatementStats begin() {
+        SqlStatementStats stats = new SqlStatementStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * @return The stats of the current unit of work, or null if none is open
+     */
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Closes the innermost unit of work on the current thread, reopening its parent, if any.
+     */
+    public static void end() {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats != null && stats.getParent() != null) {
+            CURRENT.set(stats.getParent());
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Continues counting into an open unit of work on another thread, such as the thread
+     * completing an async request. Undo with {@link #suspend()}.
+     *
+     * @param stats The stats of the unit of work to continue
+     */
+    public static void resume(SqlStatementStats stats) {
+        CURRENT.set(stats);
+    }
+
+    /**
+     * Stops counting on the current thread without closing the unit of work.
+     */
+    public static void suspend() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats == null) {
+            return;
+        }
+        // A JDBC batch is one round trip, so it counts once
+        long elapsed = execInfo.getElapsedTime();
+        for (QueryInfo query : queryInfoList) {
+            stats.record(query.getQuery(), elapsed);
+            elapsed = 0;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.jay.home.finmanapp.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements each HTTP request executes.
+ *
+ * When a request executes more statements than the budget, a warning is logged with the
+ * statements it repeated most, which points straight at N+1 queries. Optionally the count and
+ * the total statement time are returned in the {@code X-SQL-Statement-Count} and
+ * {@code X-SQL-Time-Ms} response headers; this is meant for development only.
+ * Requests that complete asynchronously are reported once, at the end of the async dispatch.
+ */
+public class SqlStatementFilter extends OncePerRequestFilter {
+    public static final String STATEMENT_COUNT_HEADER = "X-SQL-Statement-Count";
+    public static final String STATEMENT_TIME_HEADER = "X-SQL-Time-Ms";
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementFilter.class);
+    private static final int REPORTED_STATEMENTS = 3;
+    private static final String STATS_ATTRIBUTE = SqlStatementFilter.class.getName() + ".stats";
+
+    private final int statementBudget;
+    private final boolean exposeHeaders;
+    private final DistributionSummary statementsPerRequest = DistributionSummary
+            .builder("finmanapp.sql.statements")
+            .description("SQL statements executed per HTTP request")
+            .register(Metrics.globalRegistry);
+
+    /**
+     * @param statementBudget Number of statements a request may execute before a warning is logged
+     * @param exposeHeaders Whether to add the statement count and time headers to responses
+     */
+    public SqlStatementFilter(int statementBudget, boolean exposeHeaders) {
+        this.statementBudget = statementBudget;
+        this.exposeHeaders = exposeHeaders;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = (SqlStatementStats) request.getAttribute(STATS_ATTRIBUTE);
+        if (stats != null && isAsyncDispatch(request)) {
+            SqlStatementCounter.resume(stats);
+        } else {
+            stats = SqlStatementCounter.begin();
+        }
+        HttpServletResponse target = exposeHeaders ? new StatsHeaderResponse(response, stats) : response;
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            if (isAsyncStarted(request)) {
+                // The request completes in an async dispatch, which reports the statements of both parts
+                request.setAttribute(STATS_ATTRIBUTE, stats);
+                SqlStatementCounter.end();
+            } else {
+                SqlStatementCounter.end();
+                if (target instanceof StatsHeaderResponse headerResponse) {
+                    headerResponse.writeHeaders();
+                }
+                report(request, stats);
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private void report(HttpServletRequest request, SqlStatementStats stats) {
+        int count = stats.getStatementCount();
+        statementsPerRequest.record(count);
+        if (count <= statementBudget) {
+            return;
+        }
+        StringBuilder repeated = new StringBuilder();
+        for (Map.Entry<String, Integer> entry : stats.getRepeatedStatements(REPORTED_STATEMENTS)) {
+            repeated.append(System.lineSeparator())
+                    .append("  ").append(entry.getValue()).append("x ").append(entry.getKey());
+        }
+        logger.warn("{} {} executed {} SQL statements in {} ms (budget {}); most repeated:{}",
+                request.getMethod(), request.getRequestURI(), count, stats.getElapsedMillis(),
+                statementBudget, repeated.length() > 0 ? repeated : " none");
+    }
+
+    /**
+     * Adds the headers just before the response is committed, since they cannot be set afterwards.
+     * Statements executed after that point are not included in the header values.
+     */
+    private static final class StatsHeaderResponse extends OnCommittedResponseWrapper {
+        private final SqlStatementStats stats;
+        private boolean written;
+
+        StatsHeaderResponse(HttpServletResponse response, SqlStatementStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders();
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(STATEMENT_COUNT_HEADER, String.valueOf(stats.getStatementCount()));
+            setHeader(STATEMENT_TIME_HEADER, String.valueOf(stats.getElapsedMillis()));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.jay.home.finmanapp.sql;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SQL statements executed within one unit of work, usually one HTTP request.
+ *
+ * Thread-safe, because requests such as the dashboard run their reads on several threads.
+ * Statements are counted by their SQL text; prepared statements keep their {@code ?}
+ * placeholders, so the same query with different parameters counts as one repeated statement.
+ *
+ * Units of work can be nested, for example a test counting the statements of a request; every
+ * statement recorded here is recorded on the enclosing stats as well.
+ */
+public class SqlStatementStats {
+    private final SqlStatementStats parent;
+    private final LongAdder statementCount = new LongAdder();
+    private final AtomicLong elapsedMillis = new AtomicLong();
+    private final Map<String, AtomicInteger> countsBySql = new ConcurrentHashMap<>();
+
+    /**
+     * @param parent Stats of the enclosing unit of work, or null
+     */
+    public SqlStatementStats(SqlStatementStats parent) {
+        this.parent = parent;
+    }
+
+    SqlStatementStats getParent() {
+        return parent;
+    }
+
+    /**
+     * Records one executed statement.
+     *
+     * @param sql The SQL text
+     * @param elapsed Execution time in milliseconds
+     */
+    public void record(String sql, long elapsed) {
+        statementCount.increment();
+        elapsedMillis.addAndGet(elapsed);
+        countsBySql.computeIfAbsent(sql, key -> new AtomicInteger()).incrementAndGet();
+        if (parent != null) {
+            parent.record(sql, elapsed);
+        }
+    }
+
+    public int getStatementCount() {
+        return statementCount.intValue();
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis.get();
+    }
+
+    /**
+     * Returns the statements executed more than once, most repeated first.
+     * A statement repeated many times within one request is the typical sign of an N+1 query.
+     *
+     * @param limit Maximum number of statements to return
+     * @return Repeated SQL texts with their execution counts
+     */
+    public List<Map.Entry<String, Integer>> getRepeatedStatements(int limit) {
+        return countsBySql.entrySet().stream()
+                .filter(entry -> entry.getValue().get() > 1)
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().get()))
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .toList();
+    }
+}
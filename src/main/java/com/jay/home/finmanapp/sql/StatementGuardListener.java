@@ -0,0 +1,71 @@
+package com.jay.home.finmanapp.sql;
+
+import io.micrometer.core.instrument.Metrics;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Datasource-proxy listener that applies the {@link QueryScope} of the current request to each statement.
+ *
+ * Before a statement executes, it gets the scope's timeout and is registered so the scope can
+ * cancel it; afterwards it is unregistered again. Statements that end because they were cancelled
+ * or timed out are counted in {@code finmanapp.sql.cancelled}, tagged with the reason: the one
+ * given to {@link QueryScope#cancel(String)}, or {@code timeout} when the driver or the database
+ * gave up on its own. The latter includes the server-side timeouts of statements outside a request.
+ */
+public class StatementGuardListener implements QueryExecutionListener {
+    public static final String TIMEOUT = "timeout";
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementGuardListener.class);
+    /**
+     * SQLSTATE for a statement cancelled by the user or by a timeout, shared by PostgreSQL and H2.
+     */
+    private static final String QUERY_CANCELED = "57014";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        QueryScope scope = QueryScope.current();
+        if (scope == null) {
+            return;
+        }
+        Statement statement = execInfo.getStatement();
+        int timeout = scope.getTimeoutSeconds();
+        if (timeout > 0) {
+            try {
+                int current = statement.getQueryTimeout();
+                if (current == 0 || current > timeout) {
+                    statement.setQueryTimeout(timeout);
+                }
+            } catch (SQLException e) {
+                logger.debug("Could not set statement timeout: {}", e.getMessage());
+            }
+        }
+        scope.register(statement);
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        QueryScope scope = QueryScope.current();
+        if (scope != null) {
+            scope.unregister(execInfo.getStatement());
+        }
+        if (isCancellation(execInfo.getThrowable())) {
+            String reason = scope != null && scope.getCancelReason() != null ? scope.getCancelReason() : TIMEOUT;
+            Metrics.counter("finmanapp.sql.cancelled", "reason", reason).increment();
+            logger.warn("SQL statement cancelled ({}) after {} ms", reason, execInfo.getElapsedTime());
+        }
+    }
+
+    static boolean isCancellation(Throwable throwable) {
+        return throwable instanceof SQLTimeoutException
+                || (throwable instanceof SQLException e && QUERY_CANCELED.equals(e.getSQLState()));
+    }
+}
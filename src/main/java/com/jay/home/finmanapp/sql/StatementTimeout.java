@@ -0,0 +1,27 @@
+package com.jay.home.finmanapp.sql;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Overrides the default SQL statement timeout for a controller method or all methods of a controller.
+ *
+ * The timeout applies to each statement the request executes, not to the request as a whole,
+ * and is enforced by the driver through {@link java.sql.Statement#setQueryTimeout(int)}.
+ * A statement that already carries a shorter timeout, for example from a JPA query hint, keeps it.
+ *
+ * @see QueryScopeInterceptor
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface StatementTimeout {
+
+    /**
+     * @return Timeout per statement in seconds; 0 disables the timeout
+     */
+    int value();
+}
@@ -0,0 +1,65 @@
+package com.jay.home.finmanapp.tracing;
+
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+/**
+ * Pointcut selecting the methods {@link TracingInterceptor} applies to.
+ *
+ * Only public methods of classes in one of the allowlisted packages (or their subpackages)
+ * are traced. Methods inherited from {@link Object} and trivial accessors (a getter or setter
+ * backed by a field of the same name) are skipped, since a span would cost more than the call.
+ * Matching is static, so Spring evaluates it once per method rather than on every call.
+ */
+public class TracedMethodPointcut extends StaticMethodMatcherPointcut {
+    private final List<String> packages;
+
+    /**
+     * @param packages Package names whose classes should be traced
+     */
+    public TracedMethodPointcut(List<String> packages) {
+        this.packages = packages.stream()
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .toList();
+        setClassFilter(this::isAllowed);
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return Modifier.isPublic(method.getModifiers())
+                && method.getDeclaringClass() != Object.class
+                && isAllowed(method.getDeclaringClass())
+                && !isTrivialAccessor(method);
+    }
+
+    private boolean isAllowed(Class<?> type) {
+        String packageName = type.getPackageName();
+        for (String allowed : packages) {
+            if (packageName.equals(allowed) || packageName.startsWith(allowed + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean isTrivialAccessor(Method method) {
+        String name = method.getName();
+        String property;
+        if (name.startsWith("get") && name.length() > 3 && method.getParameterCount() == 0) {
+            property = name.substring(3);
+        } else if (name.startsWith("is") && name.length() > 2 && method.getParameterCount() == 0) {
+            property = name.substring(2);
+        } else if (name.startsWith("set") && name.length() > 3 && method.getParameterCount() == 1) {
+            property = name.substring(3);
+        } else {
+            return false;
+        }
+        String field = Character.toLowerCase(property.charAt(0)) + property.substring(1);
+        return ReflectionUtils.findField(method.getDeclaringClass(), field) != null;
+    }
+}
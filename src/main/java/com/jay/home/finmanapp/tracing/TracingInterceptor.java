@@ -0,0 +1,100 @@
+package com.jay.home.finmanapp.tracing;
+
+import io.opentracing.Scope;
+import io.opentracing.Span;
+import io.opentracing.Tracer;
+import io.opentracing.log.Fields;
+import io.opentracing.tag.Tags;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Around-interceptor that wraps controller and service calls in OpenTracing spans.
+ *
+ * Each span is activated for the duration of the call, so nested calls become its children,
+ * and is always finished, also when the call throws. Exceptions are tagged with
+ * {@code error=true} and logged on the span before being rethrown.
+ *
+ * Sampling is head-based. A call that already has an active span (for example the request
+ * span created by the Datadog agent) is always traced, so a sampled trace stays complete.
+ * A call without one starts a new trace with probability {@code sampleRate}. When that
+ * decision is negative, the whole call tree underneath is skipped as well.
+ */
+public class TracingInterceptor implements MethodInterceptor {
+
+    /**
+     * Marks threads running inside a root call that was not sampled.
+     */
+    private static final ThreadLocal<Boolean> SAMPLED_OUT = new ThreadLocal<>();
+
+    private final Tracer tracer;
+    private final double sampleRate;
+    private final Map<Method, String[]> names = new ConcurrentHashMap<>();
+
+    /**
+     * @param tracer Tracer to create spans with
+     * @param sampleRate Probability, between 0 and 1, of tracing a call that has no active parent span
+     */
+    public TracingInterceptor(Tracer tracer, double sampleRate) {
+        this.tracer = tracer;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (SAMPLED_OUT.get() != null) {
+            return invocation.proceed();
+        }
+        if (tracer.activeSpan() == null && !sample()) {
+            SAMPLED_OUT.set(Boolean.TRUE);
+            try {
+                return invocation.proceed();
+            } finally {
+                SAMPLED_OUT.remove();
+            }
+        }
+
+        // [operation, component, class, method], computed once per method
+        String[] name = names.computeIfAbsent(invocation.getMethod(), TracingInterceptor::describe);
+        Span span = tracer.buildSpan(name[0])
+                .withTag("component", name[1])
+                .withTag("class", name[2])
+                .withTag("method", name[3])
+                .start();
+        try (Scope ignored = tracer.activateSpan(span)) {
+            return invocation.proceed();
+        } catch (Throwable t) {
+            Tags.ERROR.set(span, true);
+            span.log(Map.of(
+                    Fields.EVENT, "error",
+                    Fields.ERROR_OBJECT, t,
+                    Fields.MESSAGE, String.valueOf(t.getMessage())));
+            throw t;
+        } finally {
+            span.finish();
+        }
+    }
+
+    private boolean sample() {
+        return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * Operation names keep the previous {@code component.Class.method} format,
+     * where the component is the last segment of the package name.
+     */
+    private static String[] describe(Method method) {
+        Class<?> type = method.getDeclaringClass();
+        String packageName = type.getPackageName();
+        String component = packageName.substring(packageName.lastIndexOf('.') + 1);
+        String className = type.getSimpleName();
+        return new String[] {
+                component + "." + className + "." + method.getName(), component, className, method.getName()
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package com.jay.home.finmanapp.util;
+
+import com.jay.home.finmanapp.model.Budget;
+import com.jay.home.finmanapp.repository.TransactionRepositoryCustom.Window;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class computing the periods of budgets.
+ *
+ * DAILY, WEEKLY, MONTHLY, QUARTERLY and ANNUALLY budgets recur over calendar days, weeks
+ * starting on Monday, months, quarters and years. A budget with any other period covers its
+ * own start and end dates once, or the last 30 days when it has no start date.
+ *
+ * Methods take the current time as an argument instead of reading the clock, so callers read
+ * their injected {@link java.time.Clock} once and every budget of a request sees the same time.
+ */
+public class BudgetPeriods {
+
+    /**
+     * Computes the window of a budget's current period, from its first instant until {@code now}.
+     * Like {@link #windows}, recurring periods are clipped to the budget's own start and end dates.
+     * Custom periods run until the end of the budget's end date, or until {@code now} without one.
+     */
+    public static Window current(Budget budget, LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+        if (!isRecurring(budget)) {
+            LocalDateTime start = budget.getStartDate() != null
+                    ? budget.getStartDate().atStartOfDay() : now.minusDays(30);
+            LocalDateTime end = budget.getEndDate() != null ? budget.getEndDate().atTime(LocalTime.MAX) : now;
+            return new Window(start, end);
+        }
+        LocalDate start = periodStart(budget.getPeriod(), today);
+        if (budget.getStartDate() != null && budget.getStartDate().isAfter(start)) {
+            start = budget.getStartDate();
+        }
+        LocalDateTime end = budget.getEndDate() != null && budget.getEndDate().isBefore(today)
+                ? budget.getEndDate().atTime(LocalTime.MAX) : now;
+        return new Window(start.atStartOfDay(), end);
+    }
+
+    /**
+     * Computes the last day of a budget's current period, clipped to the budget's end date.
+     *
+     * @return The last day, or {@code null} for a custom period without an end date
+     */
+    public static LocalDate currentEnd(Budget budget, LocalDate today) {
+        if (!isRecurring(budget)) {
+            return budget.getEndDate();
+        }
+        LocalDate end = nextPeriodStart(budget.getPeriod(), today).minusDays(1);
+        return budget.getEndDate() != null && budget.getEndDate().isBefore(end) ? budget.getEndDate() : end;
+    }
+
+    /**
+     * Computes, in one pass, the windows of every period of a budget that overlaps a range of
+     * days. Windows are clipped to the range and to the budget's own start and end dates, and
+     * follow each other without gap: each ends the instant before the next one starts.
+     *
+     * @param from First day of the range
+     * @param to Last day of the range
+     * @return The windows, oldest first; empty if the budget is not active during the range
+     */
+    public static List<Window> windows(Budget budget, LocalDate from, LocalDate to) {
+        LocalDate first = budget.getStartDate() != null && budget.getStartDate().isAfter(from)
+                ? budget.getStartDate() : from;
+        LocalDate last = budget.getEndDate() != null && budget.getEndDate().isBefore(to) ? budget.getEndDate() : to;
+        List<Window> windows = new ArrayList<>();
+        if (first.isAfter(last)) {
+            return windows;
+        }
+        if (!isRecurring(budget)) {
+            windows.add(new Window(first.atStartOfDay(), last.atTime(LocalTime.MAX)));
+            return windows;
+        }
+        for (LocalDate start = first; !start.isAfter(last); ) {
+            LocalDate next = nextPeriodStart(budget.getPeriod(), start);
+            LocalDate end = next.minusDays(1).isBefore(last) ? next.minusDays(1) : last;
+            windows.add(new Window(start.atStartOfDay(), end.atTime(LocalTime.MAX)));
+            start = next;
+        }
+        return windows;
+    }
+
+    /**
+     * @return Whether the budget's period is one of the recurring calendar periods
+     */
+    public static boolean isRecurring(Budget budget) {
+        String period = budget.getPeriod();
+        return "DAILY".equals(period) || "WEEKLY".equals(period) || "MONTHLY".equals(period)
+                || "QUARTERLY".equals(period) || "ANNUALLY".equals(period);
+    }
+
+    private static LocalDate periodStart(String period, LocalDate date) {
+        return switch (period) {
+            case "DAILY" -> date;
+            case "WEEKLY" -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case "MONTHLY" -> date.withDayOfMonth(1);
+            case "QUARTERLY" -> date.withDayOfMonth(1).withMonth((date.getMonthValue() - 1) / 3 * 3 + 1);
+            case "ANNUALLY" -> date.withDayOfYear(1);
+            default -> throw new IllegalArgumentException("Not a recurring period: " + period);
+        };
+    }
+
+    private static LocalDate nextPeriodStart(String period, LocalDate date) {
+        LocalDate start = periodStart(period, date);
+        return switch (period) {
+            case "DAILY" -> start.plusDays(1);
+            case "WEEKLY" -> start.plusWeeks(1);
+            case "MONTHLY" -> start.plusMonths(1);
+            case "QUARTERLY" -> start.plusMonths(3);
+            default -> start.plusYears(1);
+        };
+    }
+}
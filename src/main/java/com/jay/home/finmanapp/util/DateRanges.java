@@ -0,0 +1,31 @@
+package com.jay.home.finmanapp.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Utility class for validating the date ranges that clients pass to query endpoints.
+ * Unbounded ranges turn into full scans of a user's history, so the span is capped server-side.
+ */
+public class DateRanges {
+
+    /**
+     * Rejects a range that is reversed or longer than the allowed span with {@code 400 Bad Request}.
+     *
+     * @param startDate first day of the range, inclusive
+     * @param endDate last day of the range, inclusive
+     * @param maxDays maximum number of days between the two dates
+     */
+    public static void requireValid(LocalDate startDate, LocalDate endDate, int maxDays) {
+        if (startDate.isAfter(endDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "startDate must not be after endDate");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) > maxDays) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Date range must not exceed " + maxDays + " days");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.jay.home.finmanapp.util;
+
+import com.jay.home.finmanapp.model.Account;
+import com.jay.home.finmanapp.model.Bill;
+import com.jay.home.finmanapp.model.Budget;
+import com.jay.home.finmanapp.model.Category;
+import com.jay.home.finmanapp.model.Transaction;
+import com.jay.home.finmanapp.model.User;
+
+import java.util.Collection;
+
+/**
+ * Utility class for turning method arguments into stable string keys.
+ * Shared by the interceptors that key method invocations (single-flight, read-model cache).
+ */
+public class InvocationKeys {
+
+    /**
+     * Appends a method argument to a key.
+     * Entities have no value-based toString, so they are keyed by type and ID;
+     * collections are expanded element by element.
+     *
+     * @param key the key being built
+     * @param arg the argument to append
+     */
+    public static void appendArgument(StringBuilder key, Object arg) {
+        if (arg instanceof User user) {
+            key.append("User#").append(user.getId());
+        } else if (arg instanceof Account account) {
+            key.append("Account#").append(account.getId());
+        } else if (arg instanceof Budget budget) {
+            key.append("Budget#").append(budget.getId());
+        } else if (arg instanceof Bill bill) {
+            key.append("Bill#").append(bill.getId());
+        } else if (arg instanceof Category category) {
+            key.append("Category#").append(category.getId());
+        } else if (arg instanceof Transaction transaction) {
+            key.append("Transaction#").append(transaction.getId());
+        } else if (arg instanceof Collection<?> collection) {
+            key.append('[');
+            boolean first = true;
+            for (Object element : collection) {
+                if (!first) {
+                    key.append(',');
+                }
+                appendArgument(key, element);
+                first = false;
+            }
+            key.append(']');
+        } else {
+            key.append(arg);
+        }
+    }
+}
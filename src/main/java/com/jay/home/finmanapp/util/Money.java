@@ -0,0 +1,120 @@
+package com.jay.home.finmanapp.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Utility class for arithmetic on amounts held as {@code long} cents.
+ *
+ * Every amount of the application is entered and shown with two decimals, so totals over many
+ * transactions or bills can be kept as cents in primitive longs: exact, without an object
+ * allocated per element as in {@code BigDecimal} or {@code Double} reductions. Amounts are
+ * converted to cents once, when read, and back to {@code BigDecimal} once, when returned.
+ *
+ * Additions fail with an {@link ArithmeticException} rather than wrap around on overflow, and
+ * divisions round as the given {@link RoundingMode}, like {@link BigDecimal#divide}.
+ */
+public class Money {
+
+    /**
+     * Basis points in a whole, the unit of {@link #basisPoints}.
+     */
+    public static final long BASIS_POINTS = 10_000;
+
+    /**
+     * Converts an amount to cents; a fraction of a cent is rounded half-even.
+     *
+     * @param amount The amount, or {@code null} for zero
+     * @throws ArithmeticException if the amount does not fit in a {@code long} of cents
+     */
+    public static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    /**
+     * @return The amount of a number of cents, with a scale of 2
+     */
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * @throws ArithmeticException if the sum overflows
+     */
+    public static long add(long cents, long more) {
+        return Math.addExact(cents, more);
+    }
+
+    /**
+     * @throws ArithmeticException if the difference overflows
+     */
+    public static long subtract(long cents, long less) {
+        return Math.subtractExact(cents, less);
+    }
+
+    /**
+     * @throws ArithmeticException if the sum overflows
+     */
+    public static long sum(long[] cents) {
+        long total = 0;
+        for (long amount : cents) {
+            total = Math.addExact(total, amount);
+        }
+        return total;
+    }
+
+    /**
+     * Divides, rounding the quotient as {@link BigDecimal#divide(BigDecimal, RoundingMode)} would.
+     *
+     * @throws ArithmeticException if the divisor is zero, if the quotient overflows, or if
+     *         rounding is needed with {@link RoundingMode#UNNECESSARY}
+     */
+    public static long divide(long dividend, long divisor, RoundingMode rounding) {
+        long quotient = Math.divideExact(dividend, divisor);
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        // +1 when the exact quotient is positive, -1 when negative; the truncated quotient is
+        // rounded away from zero by adding it
+        long away = ((dividend ^ divisor) >> 63) | 1;
+        long remainderMagnitude = Math.abs(remainder);
+        int half = Long.compare(remainderMagnitude, Math.abs(divisor) - remainderMagnitude);
+        return switch (rounding) {
+            case DOWN -> quotient;
+            case UP -> quotient + away;
+            case FLOOR -> away < 0 ? quotient - 1 : quotient;
+            case CEILING -> away > 0 ? quotient + 1 : quotient;
+            case HALF_UP -> half >= 0 ? quotient + away : quotient;
+            case HALF_DOWN -> half > 0 ? quotient + away : quotient;
+            case HALF_EVEN -> half > 0 || (half == 0 && (quotient & 1) != 0) ? quotient + away : quotient;
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+        };
+    }
+
+    /**
+     * Computes the share of a whole that a part is, in basis points (hundredths of a percent),
+     * rounded half-up.
+     *
+     * @return The share, or 0 if the whole is not positive
+     * @throws ArithmeticException if the part is too large to be scaled
+     */
+    public static long basisPoints(long part, long whole) {
+        if (whole <= 0) {
+            return 0;
+        }
+        return divide(Math.multiplyExact(part, BASIS_POINTS), whole, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * @return The share of a whole that a part is, as a percentage with a scale of 2 rounded
+     *         half-up, zero if the whole is not positive
+     * @see #basisPoints
+     */
+    public static BigDecimal percentage(long part, long whole) {
+        return BigDecimal.valueOf(basisPoints(part, whole), 2);
+    }
+}
@@ -0,0 +1,3 @@
+-- Per-user data version used to build ETags for conditional GET requests.
+-- Every write to a user's bills, budgets, accounts or transactions increments it.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS data_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,13 @@
+-- Transaction imports skip rows whose (account_id, transaction_id) already exists.
+-- Remove duplicates left by earlier syncs, keeping the oldest row, then enforce uniqueness.
+DELETE FROM transactions t
+USING transactions d
+WHERE t.account_id = d.account_id
+  AND t.transaction_id = d.transaction_id
+  AND t.id > d.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_transactions_account_transaction_id
+    ON transactions (account_id, transaction_id);
+
+-- Lookups by account use the leading column of the new index
+DROP INDEX IF EXISTS idx_account_id;
@@ -0,0 +1,71 @@
+-- Converts transactions into a table range-partitioned by month on date (PostgreSQL 12+).
+-- Queries with a date range only scan the partitions of the months in the range, and old
+-- months can be detached or dropped as a whole instead of deleted row by row.
+--
+-- Monthly partitions are created from the first month with data (at least 24 months back)
+-- up to 3 months ahead; TransactionPartitionService keeps creating the months ahead.
+-- Rows outside every monthly partition go to transactions_default.
+--
+-- A unique index on a partitioned table must contain the partition key, so the primary key
+-- becomes (id, date) and the (account_id, transaction_id) uniqueness of V6 becomes
+-- (account_id, transaction_id, date). IDs still come from the one sequence and stay unique;
+-- the import keeps skipping existing (account_id, transaction_id) pairs itself.
+
+ALTER TABLE transactions RENAME TO transactions_unpartitioned;
+
+-- A sequence of its own, whether the old IDs came from a serial or an identity column
+CREATE SEQUENCE transactions_partitioned_id_seq;
+SELECT setval('transactions_partitioned_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM transactions_unpartitioned;
+
+CREATE TABLE transactions (
+    id BIGINT NOT NULL DEFAULT nextval('transactions_partitioned_id_seq'),
+    account_id BIGINT NOT NULL REFERENCES accounts(id),
+    transaction_id VARCHAR(255) NOT NULL,
+    description VARCHAR(500) NOT NULL,
+    amount DECIMAL(19, 4) NOT NULL,
+    date TIMESTAMP NOT NULL,
+    category_id BIGINT REFERENCES categories(id),
+    is_manual_entry BOOLEAN NOT NULL DEFAULT FALSE,
+    -- Renamed to transactions_pkey once the old table and its primary key are gone
+    CONSTRAINT transactions_partitioned_pkey PRIMARY KEY (id, date)
+) PARTITION BY RANGE (date);
+
+ALTER SEQUENCE transactions_partitioned_id_seq OWNED BY transactions.id;
+
+CREATE TABLE transactions_default PARTITION OF transactions DEFAULT;
+
+DO $$
+DECLARE
+    first_month DATE;
+    last_month DATE := date_trunc('month', CURRENT_DATE + INTERVAL '3 months')::DATE;
+    month DATE;
+BEGIN
+    SELECT LEAST(date_trunc('month', MIN(date))::DATE,
+                 date_trunc('month', CURRENT_DATE - INTERVAL '24 months')::DATE)
+    INTO first_month
+    FROM transactions_unpartitioned;
+    first_month := COALESCE(first_month, date_trunc('month', CURRENT_DATE - INTERVAL '24 months')::DATE);
+
+    month := first_month;
+    WHILE month <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+                       'transactions_' || to_char(month, '"y"YYYY"m"MM'), month, month + INTERVAL '1 month');
+        month := month + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO transactions (id, account_id, transaction_id, description, amount, date, category_id, is_manual_entry)
+SELECT id, account_id, transaction_id, description, amount, date, category_id, is_manual_entry
+FROM transactions_unpartitioned;
+
+DROP TABLE transactions_unpartitioned;
+ALTER SEQUENCE transactions_partitioned_id_seq RENAME TO transactions_id_seq;
+ALTER TABLE transactions RENAME CONSTRAINT transactions_partitioned_pkey TO transactions_pkey;
+
+-- Created after the copy, which is faster than maintaining them row by row.
+-- Each is created on every partition; the account and date index serves the date-range queries.
+CREATE UNIQUE INDEX uk_transactions_account_transaction_id_date ON transactions (account_id, transaction_id, date);
+CREATE INDEX idx_transactions_account_date ON transactions (account_id, date);
+CREATE INDEX idx_category_id ON transactions (category_id);
+
+ANALYZE transactions;
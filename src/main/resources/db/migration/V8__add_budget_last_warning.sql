@@ -0,0 +1,2 @@
+-- Time of the last threshold warning of a budget, so a crossing is reported once per budget period.
+ALTER TABLE budgets ADD COLUMN IF NOT EXISTS last_warning_at TIMESTAMP;
@@ -0,0 +1,2 @@
+-- Time of the last early warning of a budget forecast to overrun, so it is sent once per budget period.
+ALTER TABLE budgets ADD COLUMN IF NOT EXISTS last_forecast_warning_at TIMESTAMP;
@@ -8,7 +8,8 @@ CREATE TABLE IF NOT EXISTS users (
     first_name VARCHAR(255) NOT NULL,
     last_name VARCHAR(255) NOT NULL,
     monthly_income DECIMAL(19,4),
-    payday_day INT
+    payday_day INT,
+    data_version BIGINT NOT NULL DEFAULT 0
 );
 
 -- Categories table
@@ -45,6 +46,8 @@ CREATE TABLE IF NOT EXISTS budgets (
     start_date DATE NOT NULL,
     end_date DATE,
     warning_threshold DECIMAL(5,2) NOT NULL,
+    last_warning_at TIMESTAMP,
+    last_forecast_warning_at TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id),
     FOREIGN KEY (category_id) REFERENCES categories(id)
 );
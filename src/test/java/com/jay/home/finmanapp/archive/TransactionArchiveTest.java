@@ -0,0 +1,112 @@
+package com.jay.home.finmanapp.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jay.home.finmanapp.model.Account;
+import com.jay.home.finmanapp.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransactionArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testSegmentRoundTripsEveryColumn() throws Exception {
+        // Arrange
+        List<ArchivedTransaction> transactions = List.of(
+                transaction(12, 1, "t-12", "Grocery Store", -8527, LocalDateTime.of(2023, 3, 9, 18, 5, 1, 123456000), 4L),
+                new ArchivedTransaction(3, 2, "t-3", "Salary", 250000, LocalDateTime.of(2023, 3, 1, 9, 0), null, true),
+                transaction(7, 1, "t-7", "Grocery Store", -1999, LocalDateTime.of(2023, 3, 5, 12, 30), 4L));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        TransactionSegment.write(transactions, output);
+        TransactionSegment segment = TransactionSegment.wrap(output.toByteArray());
+
+        // Assert
+        assertEquals(3, segment.rows());
+        List<ArchivedTransaction> read = segment.readAll();
+        assertEquals(List.of(transactions.get(1), transactions.get(2), transactions.get(0)), read);
+        assertEquals(new BigDecimal("-85.27"), read.get(2).amount());
+        assertEquals(List.of(transactions.get(2), transactions.get(0)), segment.read(
+                LocalDateTime.of(2023, 3, 2, 0, 0), LocalDateTime.of(2023, 3, 31, 0, 0), Set.of(1L)));
+        assertTrue(segment.read(LocalDateTime.of(2023, 4, 1, 0, 0), null, null).isEmpty());
+    }
+
+    @Test
+    public void testArchiveMergesMonthsAndIsReadBack() throws Exception {
+        // Arrange
+        TransactionArchive archive = new TransactionArchive(directory, new ObjectMapper().findAndRegisterModules());
+        YearMonth march = YearMonth.of(2023, 3);
+        archive.archive(42L, march, List.of(
+                transaction(1, 1, "t-1", "Coffee", -450, LocalDateTime.of(2023, 3, 2, 8, 0), 4L)));
+
+        // Act
+        archive.archive(42L, march, List.of(
+                transaction(1, 1, "t-1", "Coffee", -450, LocalDateTime.of(2023, 3, 2, 8, 0), 4L),
+                transaction(2, 1, "t-2", "Rent", -120000, LocalDateTime.of(2023, 3, 28, 9, 0), null)));
+        archive.archive(42L, YearMonth.of(2023, 4), List.of(
+                transaction(3, 1, "t-3", "Coffee", -500, LocalDateTime.of(2023, 4, 3, 8, 0), 4L)));
+
+        // Assert
+        ArchiveManifest manifest = new TransactionArchive(directory, new ObjectMapper().findAndRegisterModules())
+                .manifest(42L);
+        assertEquals(List.of("2023-03", "2023-04"), manifest.segments().stream().map(ArchiveManifest.Segment::month).toList());
+        assertEquals(2, manifest.segments().get(0).rows());
+        assertTrue(Files.exists(directory.resolve("user-42").resolve("2023-03.seg")));
+
+        Account account = account(1L, 42L);
+        List<ArchivedTransaction> found = archive.find(List.of(account),
+                LocalDateTime.of(2023, 3, 15, 0, 0), LocalDateTime.of(2023, 4, 30, 23, 59));
+        assertEquals(List.of("t-2", "t-3"), found.stream().map(ArchivedTransaction::transactionId).toList());
+        assertTrue(archive.find(List.of(account(1L, 7L)), LocalDateTime.of(2023, 1, 1, 0, 0),
+                LocalDateTime.of(2023, 12, 31, 0, 0)).isEmpty());
+    }
+
+    @Test
+    public void testInstancesSharingTheDirectoryKeepEachOthersSegments() throws Exception {
+        // Arrange: two instances of the application, both having read the empty manifest
+        TransactionArchive first = new TransactionArchive(directory, new ObjectMapper().findAndRegisterModules());
+        TransactionArchive second = new TransactionArchive(directory, new ObjectMapper().findAndRegisterModules());
+        assertTrue(first.manifest(42L).segments().isEmpty());
+        assertTrue(second.manifest(42L).segments().isEmpty());
+
+        // Act
+        first.archive(42L, YearMonth.of(2023, 3), List.of(
+                transaction(1, 1, "t-1", "Coffee", -450, LocalDateTime.of(2023, 3, 2, 8, 0), 4L)));
+        second.archive(42L, YearMonth.of(2023, 4), List.of(
+                transaction(2, 1, "t-2", "Coffee", -500, LocalDateTime.of(2023, 4, 3, 8, 0), 4L)));
+
+        // Assert
+        List<String> months = List.of("2023-03", "2023-04");
+        assertEquals(months, first.manifest(42L).segments().stream().map(ArchiveManifest.Segment::month).toList());
+        assertEquals(months, second.manifest(42L).segments().stream().map(ArchiveManifest.Segment::month).toList());
+        assertEquals(2, first.find(42L, LocalDateTime.of(2023, 1, 1, 0, 0), LocalDateTime.of(2023, 12, 31, 0, 0)).size());
+    }
+
+    private static ArchivedTransaction transaction(long id, long accountId, String transactionId, String description,
+                                                   long amountCents, LocalDateTime date, Long categoryId) {
+        return new ArchivedTransaction(id, accountId, transactionId, description, amountCents, date, categoryId, false);
+    }
+
+    private static Account account(Long id, Long userId) {
+        User user = new User();
+        user.setId(userId);
+        Account account = new Account();
+        account.setId(id);
+        account.setUser(user);
+        return account;
+    }
+}
@@ -0,0 +1,108 @@
+package com.jay.home.finmanapp.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.jay.home.finmanapp.controller.TransactionController;
+import com.jay.home.finmanapp.service.LoggingService;
+import io.opentracing.Span;
+import io.opentracing.mock.MockTracer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the debug statements in {@code TransactionController.getUserTransactions}
+ * when debug logging is disabled (the production setting).
+ *
+ * <ul>
+ *   <li>{@code noLogging}: the same argument computation without any logging call</li>
+ *   <li>{@code disabledDebug}: the three debug statements through {@link LoggingService}</li>
+ *   <li>{@code spanPerLine}: the previous behaviour, a span started and finished per statement
+ *       before the level check</li>
+ * </ul>
+ *
+ * The GC profiler reports {@code gc.alloc.rate.norm}; {@code disabledDebug} should allocate 0 B/op.
+ *
+ * Run with:
+ * {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath com.jay.home.finmanapp.benchmark.LoggingServiceBenchmark"}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LoggingServiceBenchmark {
+
+    private final LoggingService loggingService = LoggingService.forClass(TransactionController.class);
+    private final Logger logger = LoggerFactory.getLogger(TransactionController.class);
+    private final MockTracer tracer = new MockTracer();
+    private final String userEmail = "demo@finmanapp.com";
+    private final List<Object> accounts = List.of(new Object(), new Object(), new Object());
+    private final String categoryName = "Food";
+    private int spans;
+
+    @Setup
+    public void setUp() {
+        ((ch.qos.logback.classic.Logger) logger).setLevel(Level.INFO);
+    }
+
+    @Benchmark
+    public void noLogging(Blackhole blackhole) {
+        blackhole.consume(accounts.size());
+        blackhole.consume(userEmail);
+        blackhole.consume(categoryName);
+    }
+
+    @Benchmark
+    public void disabledDebug() {
+        loggingService.debug("Found {} accounts for user {}", accounts.size(), userEmail);
+        loggingService.debug("Retrieving transactions with category filter: {}", categoryName);
+        loggingService.debug("Retrieving transactions without category filter");
+    }
+
+    @Benchmark
+    public void spanPerLine() {
+        legacyDebug("Found {} accounts for user {}", accounts.size(), userEmail);
+        legacyDebug("Retrieving transactions with category filter: {}", categoryName);
+        legacyDebug("Retrieving transactions without category filter");
+    }
+
+    private void legacyDebug(String message, Object... args) {
+        // MockTracer keeps every finished span; drop them regularly so the heap stays flat
+        if (++spans == 30_000) {
+            tracer.reset();
+            spans = 0;
+        }
+        Span span = tracer.buildSpan("logging.debug").start();
+        try {
+            logger.debug(message, args);
+        } finally {
+            span.finish();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LoggingServiceBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
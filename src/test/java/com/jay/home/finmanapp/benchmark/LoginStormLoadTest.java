@@ -0,0 +1,139 @@
+package com.jay.home.finmanapp.benchmark;
+
+import com.jay.home.finmanapp.security.OffloadingPasswordEncoder;
+import com.jay.home.finmanapp.security.PasswordHashingRejectedException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load test of API latency during a login storm, with BCrypt run on the request
+ * threads ("inline") or on the CPU-sized password hashing pool ("offloaded").
+ *
+ * A 200-thread pool stands in for Tomcat. Regular API requests arrive at {@code load.api-rate}
+ * per second and each does a fixed amount of CPU work ({@code load.api-work} SHA-256 rounds over
+ * 4 KB, about a millisecond); logins arrive at {@code load.login-rate} per second and each
+ * verifies a BCrypt hash of cost {@code load.bcrypt-cost}. Latency is measured from the
+ * scheduled arrival time. A run without logins gives the baseline.
+ *
+ * Inline, every login in flight competes with the API requests for the CPU, so API latency
+ * grows with the storm. Offloaded, hashing is confined to one thread per core and the excess
+ * logins are rejected, so API latency stays close to the baseline.
+ *
+ * Run with:
+ * {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath com.jay.home.finmanapp.benchmark.LoginStormLoadTest"}
+ */
+public class LoginStormLoadTest {
+    private static final int API_RATE = Integer.getInteger("load.api-rate", 100);
+    private static final int API_WORK = Integer.getInteger("load.api-work", 40);
+    private static final int LOGIN_RATE = Integer.getInteger("load.login-rate", 20);
+    private static final int BCRYPT_COST = Integer.getInteger("load.bcrypt-cost", 10);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration-s", 10);
+    private static final int QUEUE_CAPACITY = Integer.getInteger("load.queue-capacity", 32);
+    private static final int REQUEST_THREADS = 200;
+
+    private static final byte[] PAYLOAD = new byte[4096];
+
+    public static void main(String[] args) throws Exception {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(BCRYPT_COST);
+        String hash = bcrypt.encode("demo123");
+        System.out.printf("api=%d/s logins=%d/s bcrypt-cost=%d duration=%ds cpus=%d%n",
+                API_RATE, LOGIN_RATE, BCRYPT_COST, DURATION_SECONDS, Runtime.getRuntime().availableProcessors());
+
+        // Warm up the JIT, then measure
+        run("warmup", null, hash, 2, 0, false);
+        run("baseline", null, hash, DURATION_SECONDS, 0, true);
+        run("inline", bcrypt, hash, DURATION_SECONDS, LOGIN_RATE, true);
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor hashingPool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), new ThreadPoolExecutor.AbortPolicy());
+        try {
+            PasswordEncoder offloaded = new OffloadingPasswordEncoder(bcrypt, hashingPool, Duration.ofSeconds(5));
+            run("offloaded", offloaded, hash, DURATION_SECONDS, LOGIN_RATE, true);
+        } finally {
+            hashingPool.shutdown();
+        }
+    }
+
+    private static void run(String mode, PasswordEncoder encoder, String hash, int seconds, int loginRate,
+                            boolean report) throws InterruptedException {
+        int apiRequests = API_RATE * seconds;
+        long[] latencies = new long[apiRequests];
+        AtomicInteger loginsAccepted = new AtomicInteger();
+        AtomicInteger loginsRejected = new AtomicInteger();
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+
+        long apiInterval = TimeUnit.SECONDS.toNanos(1) / API_RATE;
+        long loginInterval = loginRate > 0 ? TimeUnit.SECONDS.toNanos(1) / loginRate : 0;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        int apiIndex = 0;
+        long nextLogin = loginRate > 0 ? start : Long.MAX_VALUE;
+        while (apiIndex < apiRequests) {
+            long nextApi = start + apiIndex * apiInterval;
+            long next = Math.min(nextApi, nextLogin);
+            long delay = next - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            if (nextLogin <= nextApi) {
+                requestThreads.execute(() -> {
+                    try {
+                        encoder.matches("demo123", hash);
+                        loginsAccepted.incrementAndGet();
+                    } catch (PasswordHashingRejectedException e) {
+                        loginsRejected.incrementAndGet();
+                    }
+                });
+                nextLogin += loginInterval;
+                if (nextLogin >= end) {
+                    nextLogin = Long.MAX_VALUE;
+                }
+            } else {
+                int index = apiIndex++;
+                long scheduled = nextApi;
+                requestThreads.execute(() -> {
+                    apiWork();
+                    latencies[index] = System.nanoTime() - scheduled;
+                });
+            }
+        }
+        requestThreads.shutdown();
+        requestThreads.awaitTermination(5, TimeUnit.MINUTES);
+
+        if (report) {
+            Arrays.sort(latencies);
+            System.out.printf("%-9s api p50=%6.1fms p99=%7.1fms max=%7.1fms  logins ok=%d rejected=%d%n",
+                    mode,
+                    latencies[apiRequests / 2] / 1e6,
+                    latencies[(int) (apiRequests * 0.99)] / 1e6,
+                    latencies[apiRequests - 1] / 1e6,
+                    loginsAccepted.get(),
+                    loginsRejected.get());
+        }
+    }
+
+    private static void apiWork() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (int i = 0; i < API_WORK; i++) {
+                digest.update(PAYLOAD);
+            }
+            digest.digest();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.jay.home.finmanapp.benchmark;
+
+import com.jay.home.finmanapp.util.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reductions over transaction amounts with {@link Money} cents versus boxed {@code BigDecimal}
+ * and {@code Double} values.
+ *
+ * <ul>
+ *   <li>{@code *Total}: the sum of all amounts, as in {@code BillService.getMonthlyBillsTotal}
+ *       before it was summed by the database</li>
+ *   <li>{@code *ByCategory}: totals per category name, as in {@code AIService.buildBudgetPrompt}</li>
+ * </ul>
+ *
+ * Run with:
+ * {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath com.jay.home.finmanapp.benchmark.MoneyBenchmark"}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+    private static final int CATEGORIES = 20;
+
+    @Param({"1000", "100000"})
+    private int rows;
+
+    private List<BigDecimal> amounts;
+    private long[] cents;
+    private String[] categories;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        amounts = new ArrayList<>(rows);
+        cents = new long[rows];
+        categories = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            BigDecimal amount = BigDecimal.valueOf(-random.nextInt(50_000), 2);
+            amounts.add(amount);
+            cents[i] = Money.toCents(amount);
+            categories[i] = ("Category " + random.nextInt(CATEGORIES)).intern();
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalTotal() {
+        return amounts.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public long centsTotal() {
+        return Money.sum(cents);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> bigDecimalByCategory() {
+        Map<String, BigDecimal> totals = new HashMap<>();
+        for (int i = 0; i < rows; i++) {
+            totals.merge(categories[i], amounts.get(i), BigDecimal::add);
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public Map<String, Double> doubleByCategory() {
+        Map<String, Double> totals = new HashMap<>();
+        for (int i = 0; i < rows; i++) {
+            totals.put(categories[i], totals.getOrDefault(categories[i], 0.0) + amounts.get(i).doubleValue());
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public Map<String, long[]> centsByCategory() {
+        Map<String, long[]> totals = new HashMap<>();
+        for (int i = 0; i < rows; i++) {
+            long[] total = totals.computeIfAbsent(categories[i], c -> new long[1]);
+            total[0] = Money.add(total[0], cents[i]);
+        }
+        return totals;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MoneyBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
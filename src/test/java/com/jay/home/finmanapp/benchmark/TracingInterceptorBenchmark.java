@@ -0,0 +1,91 @@
+package com.jay.home.finmanapp.benchmark;
+
+import com.jay.home.finmanapp.tracing.TracedMethodPointcut;
+import com.jay.home.finmanapp.tracing.TracingInterceptor;
+import io.opentracing.mock.MockTracer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call overhead of {@link TracingInterceptor} on a proxied service method.
+ *
+ * <ul>
+ *   <li>{@code off}: proxy without the tracing advisor ({@code app.tracing.enabled=false})</li>
+ *   <li>{@code sampled}: tracing advisor with {@code app.tracing.sample-rate=0.1}</li>
+ *   <li>{@code on}: tracing advisor with every call traced</li>
+ * </ul>
+ *
+ * Run with:
+ * {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath com.jay.home.finmanapp.benchmark.TracingInterceptorBenchmark"}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TracingInterceptorBenchmark {
+
+    public static class LedgerService {
+        public long add(long a, long b) {
+            return a + b;
+        }
+    }
+
+    @Param({"off", "sampled", "on"})
+    public String tracing;
+
+    private final MockTracer tracer = new MockTracer();
+    private LedgerService service;
+    private long value;
+    private int calls;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ProxyFactory factory = new ProxyFactory(new LedgerService());
+        factory.setProxyTargetClass(true);
+        if (!tracing.equals("off")) {
+            double sampleRate = tracing.equals("on") ? 1.0 : 0.1;
+            factory.addAdvisor(new DefaultPointcutAdvisor(
+                    new TracedMethodPointcut(List.of("com.jay.home.finmanapp.benchmark")),
+                    new TracingInterceptor(tracer, sampleRate)));
+        }
+        service = (LedgerService) factory.getProxy();
+    }
+
+    @Benchmark
+    public long call() {
+        // MockTracer keeps every finished span; drop them regularly so the heap stays flat
+        if (++calls == 10_000) {
+            tracer.reset();
+            calls = 0;
+        }
+        value = service.add(value, 1);
+        return value;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TracingInterceptorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
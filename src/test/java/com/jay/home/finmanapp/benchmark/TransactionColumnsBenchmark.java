@@ -0,0 +1,206 @@
+package com.jay.home.finmanapp.benchmark;
+
+import com.jay.home.finmanapp.cache.TransactionColumns;
+import com.jay.home.finmanapp.model.Category;
+import com.jay.home.finmanapp.model.Transaction;
+import com.jay.home.finmanapp.repository.TransactionRepositoryCustom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Budget spending of one user (outflows per category over a daily, a weekly and a monthly
+ * window, the work of {@code BudgetService.getCurrentSpending}) computed three ways over the
+ * same 13 months of transactions:
+ *
+ * <ul>
+ *   <li>{@code sqlAggregate}: one grouped query with a conditional SUM per window, run by an
+ *       in-memory H2 database, which leaves out the network round trip to PostgreSQL</li>
+ *   <li>{@code entities}: the same totals reduced in Java over loaded {@link Transaction}
+ *       entities with {@code BigDecimal} amounts and {@code LocalDateTime} dates</li>
+ *   <li>{@code columns}: {@link TransactionColumns}, as cached by {@code TransactionColumnCache}</li>
+ * </ul>
+ *
+ * Run with:
+ * {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath com.jay.home.finmanapp.benchmark.TransactionColumnsBenchmark"}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TransactionColumnsBenchmark {
+    private static final int CATEGORIES = 20;
+    private static final long[] ACCOUNTS = {11, 12, 13};
+
+    @Param({"5000", "50000"})
+    private int rows;
+
+    private final LocalDateTime now = LocalDateTime.of(2025, 6, 18, 15, 30);
+    private final List<TransactionRepositoryCustom.Window> windows = List.of(
+            new TransactionRepositoryCustom.Window(now.toLocalDate().atStartOfDay(), now),
+            new TransactionRepositoryCustom.Window(LocalDate.of(2025, 6, 16).atStartOfDay(), now),
+            new TransactionRepositoryCustom.Window(LocalDate.of(2025, 6, 1).atStartOfDay(), now));
+
+    private List<Transaction> entities;
+    private TransactionColumns columns;
+    private boolean[] accountMask;
+    private Connection connection;
+    private PreparedStatement query;
+    private long calls;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Random random = new Random(42);
+        LocalDateTime from = LocalDate.of(2024, 6, 1).atStartOfDay();
+        long seconds = Duration.between(from, now).getSeconds();
+        List<Category> categories = new ArrayList<>();
+        for (long id = 1; id <= CATEGORIES; id++) {
+            Category category = new Category();
+            category.setId(id);
+            categories.add(category);
+        }
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:columns;MODE=PostgreSQL", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE transactions (account_id BIGINT NOT NULL, amount DECIMAL(19, 4) NOT NULL, "
+                    + "date TIMESTAMP NOT NULL, category_id BIGINT)");
+            statement.execute("CREATE INDEX idx_transactions_account_date ON transactions (account_id, date)");
+        }
+
+        entities = new ArrayList<>(rows);
+        TransactionColumns.Builder builder = new TransactionColumns.Builder(from);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO transactions VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                long accountId = ACCOUNTS[random.nextInt(ACCOUNTS.length)];
+                BigDecimal amount = BigDecimal.valueOf(random.nextInt(10) == 0 ? 250_000 : -random.nextInt(20_000), 2);
+                LocalDateTime date = from.plusSeconds((long) (random.nextDouble() * seconds));
+                Category category = random.nextInt(10) == 0 ? null : categories.get(random.nextInt(CATEGORIES));
+
+                Transaction transaction = new Transaction();
+                transaction.setAmount(amount);
+                transaction.setDate(date);
+                transaction.setCategory(category);
+                entities.add(transaction);
+                builder.add(date, amount, accountId, category != null ? category.getId() : null);
+
+                insert.setLong(1, accountId);
+                insert.setBigDecimal(2, amount);
+                insert.setTimestamp(3, Timestamp.valueOf(date));
+                insert.setObject(4, category != null ? category.getId() : null);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        columns = builder.build();
+        accountMask = columns.accountMask(Set.of(11L, 12L, 13L));
+
+        StringBuilder sql = new StringBuilder("SELECT category_id");
+        for (int i = 0; i < windows.size(); i++) {
+            sql.append(", SUM(CASE WHEN date >= ? AND date <= ? THEN -amount ELSE 0 END)");
+        }
+        sql.append(" FROM transactions WHERE account_id IN (11, 12, 13) AND amount < 0 AND date >= ? AND date <= ?")
+                .append(" GROUP BY category_id");
+        query = connection.prepareStatement(sql.toString());
+        int parameter = 1;
+        for (TransactionRepositoryCustom.Window window : windows) {
+            query.setTimestamp(parameter++, Timestamp.valueOf(window.start()));
+            query.setTimestamp(parameter++, Timestamp.valueOf(window.end()));
+        }
+        query.setTimestamp(parameter++, Timestamp.valueOf(windows.get(2).start()));
+        query.setTimestamp(parameter, Timestamp.valueOf(now));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public Map<Long, BigDecimal[]> sqlAggregate() throws SQLException {
+        // A new end instant for every call, so H2 does not answer from its cache of the previous result
+        query.setTimestamp(windows.size() * 2 + 2, Timestamp.valueOf(now.plusNanos(++calls % 1000 * 1000)));
+        Map<Long, BigDecimal[]> totals = new HashMap<>();
+        try (ResultSet resultSet = query.executeQuery()) {
+            while (resultSet.next()) {
+                BigDecimal[] perWindow = new BigDecimal[windows.size()];
+                for (int i = 0; i < perWindow.length; i++) {
+                    perWindow[i] = resultSet.getBigDecimal(i + 2);
+                }
+                totals.put(resultSet.getObject(1, Long.class), perWindow);
+            }
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public Map<Long, BigDecimal[]> entities() {
+        Map<Long, BigDecimal[]> totals = new HashMap<>();
+        for (Transaction transaction : entities) {
+            if (transaction.getAmount().signum() >= 0) {
+                continue;
+            }
+            for (int i = 0; i < windows.size(); i++) {
+                TransactionRepositoryCustom.Window window = windows.get(i);
+                if (!transaction.getDate().isBefore(window.start()) && !transaction.getDate().isAfter(window.end())) {
+                    Long category = transaction.getCategory() != null ? transaction.getCategory().getId() : null;
+                    BigDecimal[] perWindow = totals.computeIfAbsent(category, c -> {
+                        BigDecimal[] zeros = new BigDecimal[windows.size()];
+                        Arrays.fill(zeros, BigDecimal.ZERO);
+                        return zeros;
+                    });
+                    perWindow[i] = perWindow[i].subtract(transaction.getAmount());
+                }
+            }
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public Map<Long, BigDecimal[]> columns() {
+        return columns.sumOutflowsByCategoryAndWindow(accountMask, windows);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TransactionColumnsBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,120 @@
+package com.jay.home.finmanapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jay.home.finmanapp.archive.TransactionArchive;
+import com.jay.home.finmanapp.importer.ImportFormat;
+import com.jay.home.finmanapp.importer.ImportProgress;
+import com.jay.home.finmanapp.model.Account;
+import com.jay.home.finmanapp.model.User;
+import com.jay.home.finmanapp.service.CategoryService;
+import com.jay.home.finmanapp.service.DataVersionService;
+import com.jay.home.finmanapp.service.TransactionImportService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Imports a generated CSV file of {@code load.rows} rows (1M by default) into a file-backed H2
+ * database and reports the throughput and the peak heap used.
+ *
+ * The file is generated while it is read, so neither side ever holds it in memory and the
+ * import should complete within a heap that does not grow with {@code load.rows}. Run with a
+ * small heap to check, e.g. {@code -Xmx64m}:
+ * {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-Xmx64m -cp %classpath com.jay.home.finmanapp.benchmark.TransactionImportLoadTest"}
+ */
+public class TransactionImportLoadTest {
+    private static final int ROWS = Integer.getInteger("load.rows", 1_000_000);
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Files.createTempDirectory("import-load");
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:file:" + directory.resolve("db") + ";CACHE_SIZE=8192", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE transactions (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "account_id BIGINT NOT NULL, transaction_id VARCHAR(255) NOT NULL, "
+                + "description VARCHAR(255) NOT NULL, amount DECIMAL(19, 4) NOT NULL, date TIMESTAMP NOT NULL, "
+                + "category_id BIGINT, is_manual_entry BOOLEAN NOT NULL, "
+                + "CONSTRAINT uk_transactions_account_transaction_id UNIQUE (account_id, transaction_id))");
+
+        CategoryService categoryService = mock(CategoryService.class);
+        when(categoryService.getAllCategories()).thenReturn(List.of());
+        TransactionImportService importService = new TransactionImportService(categoryService,
+                mock(DataVersionService.class), new TransactionArchive(directory.resolve("archive"), new ObjectMapper()),
+                event -> { }, jdbcTemplate, new DataSourceTransactionManager(dataSource));
+        User user = new User();
+        user.setId(1L);
+        Account account = new Account();
+        account.setId(1L);
+        account.setUser(user);
+
+        System.gc();
+        resetPeakHeap();
+        long started = System.nanoTime();
+        ImportProgress progress = importService.importTransactions(account, ImportFormat.CSV, new GeneratedCsv(ROWS));
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        System.out.printf("rows=%d inserted=%d in %.1fs (%.0f rows/s), peak heap %.1f MB of %.1f MB max%n",
+                progress.getRowsRead(), progress.getInserted(), seconds, progress.getRowsRead() / seconds,
+                peakHeap() / 1e6, Runtime.getRuntime().maxMemory() / 1e6);
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * CSV file whose rows are generated as they are read.
+     */
+    private static final class GeneratedCsv extends InputStream {
+        private final int rows;
+        private int row = -1;
+        private byte[] line = "Date,Description,Amount,Transaction ID\n".getBytes(StandardCharsets.UTF_8);
+        private int position;
+
+        GeneratedCsv(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length) {
+                if (++row >= rows) {
+                    return -1;
+                }
+                line = String.format("2024-%02d-%02d,Merchant %d,-%d.%02d,t%d%n",
+                        row % 12 + 1, row % 28 + 1, row % 500, row % 200, row % 100, row)
+                        .getBytes(StandardCharsets.UTF_8);
+                position = 0;
+            }
+            return line[position++];
+        }
+    }
+}
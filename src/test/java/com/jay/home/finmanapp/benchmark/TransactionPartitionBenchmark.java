@@ -0,0 +1,149 @@
+package com.jay.home.finmanapp.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Compares the date-range queries of {@code TransactionRepository} on an unpartitioned and a
+ * monthly partitioned copy of the transactions table, and the removal of a month of old data.
+ *
+ * Needs a PostgreSQL 12+ database to write to; the two tables ({@code bench_transactions_flat}
+ * and {@code bench_transactions_part}) are created from scratch with {@code bench.rows} rows
+ * (50M by default) spread over {@code bench.months} months and {@code bench.accounts}
+ * accounts, both indexed on {@code (account_id, date)} like the application's table. For each
+ * query shape it prints the median of {@code bench.runs} executions and the plan of the last
+ * one, in which the partitioned table should only scan the partitions of the queried month.
+ *
+ * Run with:
+ * {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-Dbench.url=jdbc:postgresql://localhost:5432/finmanapp -Dbench.user=postgres
+ * -Dbench.password=postgres -cp %classpath com.jay.home.finmanapp.benchmark.TransactionPartitionBenchmark"}
+ */
+public class TransactionPartitionBenchmark {
+    private static final String URL = System.getProperty("bench.url", "jdbc:postgresql://localhost:5432/finmanapp");
+    private static final String USER = System.getProperty("bench.user", "postgres");
+    private static final String PASSWORD = System.getProperty("bench.password", "postgres");
+    private static final long ROWS = Long.getLong("bench.rows", 50_000_000L);
+    private static final int MONTHS = Integer.getInteger("bench.months", 60);
+    private static final int ACCOUNTS = Integer.getInteger("bench.accounts", 10_000);
+    private static final int RUNS = Integer.getInteger("bench.runs", 50);
+
+    private static final LocalDate FIRST_MONTH = LocalDate.now().withDayOfMonth(1).minusMonths(MONTHS - 1);
+
+    /**
+     * findByAccountInAndDateBetween
+     */
+    private static final String RANGE_QUERY = "SELECT id, account_id, transaction_id, description, amount, date, "
+            + "category_id, is_manual_entry FROM %s WHERE account_id IN (?, ?, ?) AND date BETWEEN ? AND ?";
+    /**
+     * Spending of a category over a date range
+     */
+    private static final String SUM_QUERY = "SELECT SUM(amount) FROM %s "
+            + "WHERE account_id IN (?, ?, ?) AND category_id = ? AND date BETWEEN ? AND ?";
+
+    public static void main(String[] args) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, USER, PASSWORD)) {
+            System.out.printf("rows=%d months=%d accounts=%d runs=%d%n", ROWS, MONTHS, ACCOUNTS, RUNS);
+            load(connection);
+            LocalDate month = FIRST_MONTH.plusMonths(MONTHS - 2);
+            for (String table : new String[] {"bench_transactions_flat", "bench_transactions_part"}) {
+                measure(connection, table, "range", String.format(RANGE_QUERY, table), month, false);
+                measure(connection, table, "sum", String.format(SUM_QUERY, table), month, true);
+            }
+            dropOldestMonth(connection);
+        }
+    }
+
+    private static void load(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_transactions_flat, bench_transactions_part");
+            String columns = "(id BIGINT NOT NULL, account_id BIGINT NOT NULL, transaction_id VARCHAR(255) NOT NULL, "
+                    + "description VARCHAR(500) NOT NULL, amount DECIMAL(19, 4) NOT NULL, date TIMESTAMP NOT NULL, "
+                    + "category_id BIGINT, is_manual_entry BOOLEAN NOT NULL DEFAULT FALSE";
+            statement.execute("CREATE TABLE bench_transactions_flat " + columns + ", PRIMARY KEY (id))");
+            statement.execute("CREATE TABLE bench_transactions_part " + columns + ", PRIMARY KEY (id, date)) "
+                    + "PARTITION BY RANGE (date)");
+            for (int i = 0; i < MONTHS; i++) {
+                LocalDate month = FIRST_MONTH.plusMonths(i);
+                statement.execute(String.format("CREATE TABLE bench_transactions_part_%d PARTITION OF "
+                        + "bench_transactions_part FOR VALUES FROM ('%s') TO ('%s')", i, month, month.plusMonths(1)));
+            }
+
+            long started = System.nanoTime();
+            long seconds = (long) MONTHS * 30 * 86_400;
+            statement.execute(String.format("INSERT INTO bench_transactions_flat SELECT g, g %% %d, 't' || g, "
+                    + "'Merchant ' || (g %% 500), -((g %% 20000) / 100.0), "
+                    + "TIMESTAMP '%s' + (g * 7919 %% %d) * INTERVAL '1 second', g %% 20, FALSE "
+                    + "FROM generate_series(1, %d) g", ACCOUNTS, FIRST_MONTH, seconds, ROWS));
+            statement.execute("INSERT INTO bench_transactions_part SELECT * FROM bench_transactions_flat");
+            statement.execute("CREATE INDEX ON bench_transactions_flat (account_id, date)");
+            statement.execute("CREATE INDEX ON bench_transactions_part (account_id, date)");
+            statement.execute("VACUUM ANALYZE bench_transactions_flat");
+            statement.execute("VACUUM ANALYZE bench_transactions_part");
+            System.out.printf("loaded in %.0fs%n", (System.nanoTime() - started) / 1e9);
+        }
+    }
+
+    private static void measure(Connection connection, String table, String name, String sql, LocalDate month,
+                                boolean withCategory) throws SQLException {
+        long[] nanos = new long[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                bind(statement, run, month, withCategory);
+                long started = System.nanoTime();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        // Read every row, like the repository does
+                    }
+                }
+                nanos[run] = System.nanoTime() - started;
+            }
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-24s %-5s p50=%7.2fms p95=%7.2fms%n", table, name,
+                nanos[RUNS / 2] / 1e6, nanos[(int) (RUNS * 0.95)] / 1e6);
+
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS, COSTS OFF) " + sql)) {
+            bind(statement, 0, month, withCategory);
+            try (ResultSet plan = statement.executeQuery()) {
+                while (plan.next()) {
+                    System.out.println("    " + plan.getString(1));
+                }
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement statement, int run, LocalDate month, boolean withCategory)
+            throws SQLException {
+        int parameter = 1;
+        for (int i = 0; i < 3; i++) {
+            statement.setLong(parameter++, (run * 3L + i) * 37 % ACCOUNTS);
+        }
+        if (withCategory) {
+            statement.setLong(parameter++, run % 20);
+        }
+        statement.setTimestamp(parameter++, Timestamp.valueOf(month.atStartOfDay()));
+        statement.setTimestamp(parameter, Timestamp.valueOf(month.plusMonths(1).atStartOfDay().minusNanos(1000)));
+    }
+
+    private static void dropOldestMonth(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            long started = System.nanoTime();
+            statement.execute(String.format("DELETE FROM bench_transactions_flat WHERE date < '%s'",
+                    FIRST_MONTH.plusMonths(1)));
+            double deleteMillis = (System.nanoTime() - started) / 1e6;
+            started = System.nanoTime();
+            statement.execute("DROP TABLE bench_transactions_part_0");
+            double dropMillis = (System.nanoTime() - started) / 1e6;
+            System.out.printf("remove oldest month: flat DELETE %.0fms, partitioned DROP %.0fms%n",
+                    deleteMillis, dropMillis);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.jay.home.finmanapp.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load test comparing request execution on a 200-thread platform pool (Tomcat's
+ * default) with one virtual thread per request, when a 5-connection Hikari pool is the bottleneck.
+ *
+ * Each simulated request blocks {@code load.io-ms} without a connection (the HTTP call to the
+ * model or SMTP), then holds a pooled connection for {@code load.db-ms} (query plus network
+ * round trip). Requests arrive at a fixed rate, and latency is measured from the scheduled
+ * arrival time, so queueing in either the executor or the pool is included.
+ *
+ * The pool serves at most {@code 5 / db-ms} requests per second, so with the defaults it
+ * saturates at 625 requests per second. The rate can be raised past that to see how each mode
+ * degrades: the platform pool queues requests in front of the executor, while virtual threads
+ * all queue on the connection pool and eventually hit its connection timeout.
+ *
+ * Run with:
+ * {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-Dload.rate=600 -cp %classpath com.jay.home.finmanapp.benchmark.VirtualThreadLoadTest"}
+ */
+public class VirtualThreadLoadTest {
+    private static final int POOL_SIZE = Integer.getInteger("load.pool-size", 5);
+    private static final int RATE = Integer.getInteger("load.rate", 600);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration-s", 10);
+    private static final int IO_MILLIS = Integer.getInteger("load.io-ms", 30);
+    private static final int DB_MILLIS = Integer.getInteger("load.db-ms", 8);
+    private static final int CONNECTION_TIMEOUT_MILLIS = Integer.getInteger("load.connection-timeout-ms", 2000);
+    private static final int PLATFORM_THREADS = 200;
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("rate=%d/s duration=%ds pool=%d io=%dms db=%dms%n",
+                RATE, DURATION_SECONDS, POOL_SIZE, IO_MILLIS, DB_MILLIS);
+        for (String mode : List.of("platform", "virtual")) {
+            try (HikariDataSource dataSource = dataSource()) {
+                // Warm up the pool and JIT, then measure
+                run(mode, dataSource, 2, false);
+                run(mode, dataSource, DURATION_SECONDS, true);
+            }
+        }
+    }
+
+    private static void run(String mode, HikariDataSource dataSource, int seconds, boolean report)
+            throws InterruptedException {
+        int requests = RATE * seconds;
+        long[] latencies = new long[requests];
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = mode.equals("virtual")
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / RATE;
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            long scheduled = start + i * interval;
+            long delay = scheduled - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            int index = i;
+            executor.execute(() -> {
+                if (!handleRequest(dataSource)) {
+                    failures.incrementAndGet();
+                }
+                latencies[index] = System.nanoTime() - scheduled;
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+
+        if (report) {
+            Arrays.sort(latencies);
+            System.out.printf("%-8s throughput=%7.1f/s p50=%6.1fms p99=%7.1fms max=%7.1fms failed=%d%n",
+                    mode,
+                    requests / (elapsed / 1e9),
+                    latencies[requests / 2] / 1e6,
+                    latencies[(int) (requests * 0.99)] / 1e6,
+                    latencies[requests - 1] / 1e6,
+                    failures.get());
+        }
+    }
+
+    private static boolean handleRequest(HikariDataSource dataSource) {
+        try {
+            Thread.sleep(IO_MILLIS);
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("SELECT 1");
+                Thread.sleep(DB_MILLIS);
+            }
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static HikariDataSource dataSource() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setMinimumIdle(POOL_SIZE);
+        config.setConnectionTimeout(CONNECTION_TIMEOUT_MILLIS);
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,89 @@
+package com.jay.home.finmanapp.cache;
+
+import com.jay.home.finmanapp.service.DataVersionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReadModelCacheInterceptorTest {
+
+    public static class IncomeService {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @ReadModel("test.remainingIncome")
+        public BigDecimal getRemainingIncome(Long userId) {
+            return BigDecimal.valueOf(calls.incrementAndGet());
+        }
+    }
+
+    private DataVersionService dataVersionService;
+    private IncomeService target;
+
+    @BeforeEach
+    public void setUp() {
+        dataVersionService = mock(DataVersionService.class);
+        target = new IncomeService();
+    }
+
+    @Test
+    public void testRepeatedReadIsServedFromCache() {
+        // Arrange
+        when(dataVersionService.currentVersion(1L)).thenReturn(Optional.of(4L));
+        IncomeService service = proxy(new ReadModelCache(new ConcurrentMapCacheManager(), null));
+
+        // Act
+        BigDecimal first = service.getRemainingIncome(1L);
+        BigDecimal second = service.getRemainingIncome(1L);
+
+        // Assert
+        assertEquals(first, second);
+        assertEquals(1, target.calls.get());
+    }
+
+    @Test
+    public void testVersionBumpInvalidates() {
+        // Arrange
+        when(dataVersionService.currentVersion(1L)).thenReturn(Optional.of(4L), Optional.of(5L));
+        IncomeService service = proxy(new ReadModelCache(new ConcurrentMapCacheManager(), null));
+
+        // Act
+        BigDecimal beforeWrite = service.getRemainingIncome(1L);
+        BigDecimal afterWrite = service.getRemainingIncome(1L);
+
+        // Assert
+        assertNotEquals(beforeWrite, afterWrite);
+        assertEquals(2, target.calls.get());
+    }
+
+    @Test
+    public void testSharedTierIsReusedByAnotherNode() {
+        // Arrange
+        when(dataVersionService.currentVersion(1L)).thenReturn(Optional.of(4L));
+        ConcurrentMapCacheManager shared = new ConcurrentMapCacheManager();
+        IncomeService nodeA = proxy(new ReadModelCache(new ConcurrentMapCacheManager(), shared));
+        IncomeService nodeB = proxy(new ReadModelCache(new ConcurrentMapCacheManager(), shared));
+
+        // Act
+        BigDecimal fromA = nodeA.getRemainingIncome(1L);
+        BigDecimal fromB = nodeB.getRemainingIncome(1L);
+
+        // Assert
+        assertEquals(fromA, fromB);
+        assertEquals(1, target.calls.get());
+    }
+
+    private IncomeService proxy(ReadModelCache cache) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(new ReadModelCacheInterceptor(cache, dataVersionService));
+        return (IncomeService) factory.getProxy();
+    }
+}
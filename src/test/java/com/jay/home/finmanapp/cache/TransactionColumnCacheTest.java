@@ -0,0 +1,115 @@
+package com.jay.home.finmanapp.cache;
+
+import com.jay.home.finmanapp.archive.TransactionArchive;
+import com.jay.home.finmanapp.repository.TransactionRepositoryCustom;
+import com.jay.home.finmanapp.service.DataVersionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TransactionColumnCacheTest {
+    private static final LocalDate TODAY = LocalDate.of(2025, 8, 14);
+    private static final LocalDate MONTH = TODAY.withDayOfMonth(1).minusMonths(1);
+
+    private JdbcTemplate jdbcTemplate;
+    private DataVersionService dataVersionService;
+    private TransactionColumnCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:columns-" + System.nanoTime() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE accounts (id BIGINT PRIMARY KEY, user_id BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE transactions (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, account_id BIGINT NOT NULL, "
+                + "transaction_id VARCHAR(255) NOT NULL, amount DECIMAL(19, 4) NOT NULL, date TIMESTAMP NOT NULL, "
+                + "category_id BIGINT)");
+        jdbcTemplate.update("INSERT INTO accounts VALUES (1, 42), (2, 42), (3, 7)");
+
+        TransactionArchive archive = mock(TransactionArchive.class);
+        when(archive.find(anyLong(), any(), any())).thenReturn(List.of());
+        dataVersionService = mock(DataVersionService.class);
+        when(dataVersionService.currentVersion(42L)).thenReturn(Optional.of(1L));
+        Clock clock = Clock.fixed(TODAY.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC);
+        cache = new TransactionColumnCache(jdbcTemplate, archive, dataVersionService, clock, 13,
+                DataSize.ofMegabytes(1), Duration.ofMinutes(5));
+    }
+
+    @Test
+    public void testColumnsAggregateOutflowsAndFlows() {
+        // Arrange
+        insert(1, "-85.27", MONTH.atTime(18, 5), 4L);
+        insert(1, "-12.50", MONTH.plusDays(3).atTime(9, 0), 4L);
+        insert(2, "-1200.00", MONTH.plusDays(10).atTime(9, 0), null);
+        insert(2, "3000.00", MONTH.plusDays(10).atTime(10, 0), null);
+        insert(3, "-99.99", MONTH.atTime(12, 0), 4L);
+
+        // Act
+        TransactionColumns columns = cache.get(42L, MONTH.atStartOfDay());
+        boolean[] all = columns.accountMask(Set.of(1L, 2L));
+        Map<Long, BigDecimal[]> totals = columns.sumOutflowsByCategoryAndWindow(all, List.of(
+                new TransactionRepositoryCustom.Window(MONTH.atStartOfDay(), MONTH.plusDays(5).atStartOfDay()),
+                new TransactionRepositoryCustom.Window(MONTH.atStartOfDay(), MONTH.plusDays(20).atStartOfDay())));
+
+        // Assert
+        assertEquals(4, columns.size());
+        assertArrayEquals(new BigDecimal[] {new BigDecimal("97.77"), new BigDecimal("97.77")}, totals.get(4L));
+        assertArrayEquals(new BigDecimal[] {new BigDecimal("0.00"), new BigDecimal("1200.00")}, totals.get(null));
+        assertArrayEquals(new long[] {300000, 129777, 4}, columns.sumFlows(all, MONTH, MONTH.plusDays(20)));
+        assertArrayEquals(new long[] {8527, 1250 + 120000},
+                columns.sumOutflowsByPeriod(all, null, List.of(MONTH, MONTH.plusDays(1)), MONTH.plusDays(20)));
+        assertArrayEquals(new long[] {8527, 1250},
+                columns.sumOutflowsByPeriod(columns.accountMask(Set.of(1L)), 4L,
+                        List.of(MONTH.minusDays(1), MONTH.plusDays(1)), MONTH.plusDays(20)));
+        assertEquals(Arrays.asList(null, 4L), new ArrayList<>(columns.sumOutflowsByCategory(all, MONTH, MONTH.plusDays(20)).keySet()));
+    }
+
+    @Test
+    public void testColumnsAreReloadedWhenTheDataVersionChanges() {
+        // Arrange
+        insert(1, "-10.00", MONTH.atTime(8, 0), 4L);
+        TransactionColumns first = cache.get(42L, MONTH.atStartOfDay());
+
+        // Act
+        TransactionColumns again = cache.get(42L, MONTH.atStartOfDay());
+        insert(1, "-20.00", MONTH.atTime(9, 0), 4L);
+        when(dataVersionService.currentVersion(42L)).thenReturn(Optional.of(2L));
+        TransactionColumns reloaded = cache.get(42L, MONTH.atStartOfDay());
+        TransactionColumns older = cache.get(42L, LocalDateTime.of(2000, 1, 1, 0, 0));
+        // Thirteen months before the clock's month, not the system's
+        TransactionColumns oldestCached = cache.get(42L, LocalDateTime.of(2024, 7, 1, 0, 0));
+
+        // Assert
+        assertSame(first, again);
+        assertNotSame(first, reloaded);
+        assertEquals(2, reloaded.size());
+        assertSame(reloaded, cache.get(42L, MONTH.atStartOfDay()));
+        assertSame(reloaded, oldestCached);
+        assertTrue(older.covers(LocalDateTime.of(2000, 1, 1, 0, 0)));
+        assertFalse(reloaded.covers(LocalDateTime.of(2000, 1, 1, 0, 0)));
+    }
+
+    private void insert(long accountId, String amount, LocalDateTime date, Long categoryId) {
+        jdbcTemplate.update("INSERT INTO transactions (account_id, transaction_id, amount, date, category_id) "
+                        + "VALUES (?, ?, ?, ?, ?)", accountId, "t-" + System.nanoTime(), new BigDecimal(amount),
+                Timestamp.valueOf(date), categoryId);
+    }
+}
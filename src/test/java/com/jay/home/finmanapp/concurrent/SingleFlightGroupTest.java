@@ -0,0 +1,90 @@
+package com.jay.home.finmanapp.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightGroupTest {
+
+    @Test
+    public void testConcurrentDuplicateCallsShareOneExecution() throws Exception {
+        // Arrange
+        AtomicInteger executions = new AtomicInteger();
+        AtomicInteger coalesced = new AtomicInteger();
+        SingleFlightGroup group = new SingleFlightGroup(new SingleFlightGroup.Listener() {
+            @Override
+            public void onExecuted(String key) {
+                executions.incrementAndGet();
+            }
+
+            @Override
+            public void onCoalesced(String key) {
+                coalesced.incrementAndGet();
+            }
+        });
+        CompletableFuture<String> leaderResult = new CompletableFuture<>();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // Act
+            Future<CompletableFuture<String>> leader = executor.submit(() -> group.execute("insights|a@b.c", () -> {
+                leaderStarted.countDown();
+                return leaderResult;
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            CompletableFuture<String> follower1 = group.execute("insights|a@b.c", () -> CompletableFuture.completedFuture("other"));
+            CompletableFuture<String> follower2 = group.execute("insights|a@b.c", () -> CompletableFuture.completedFuture("other"));
+            leaderResult.complete("shared");
+
+            // Assert
+            assertEquals("shared", leader.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS));
+            assertEquals("shared", follower1.get(5, TimeUnit.SECONDS));
+            assertEquals("shared", follower2.get(5, TimeUnit.SECONDS));
+            assertEquals(1, executions.get());
+            assertEquals(2, coalesced.get());
+            assertEquals(0, group.inFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCompletedFlightIsNotReused() {
+        // Arrange
+        SingleFlightGroup group = new SingleFlightGroup();
+        AtomicInteger executions = new AtomicInteger();
+
+        // Act
+        group.execute("sync|1", () -> CompletableFuture.completedFuture(executions.incrementAndGet())).join();
+        int second = group.<Integer>execute("sync|1", () -> CompletableFuture.completedFuture(executions.incrementAndGet())).join();
+
+        // Assert
+        assertEquals(2, second);
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void testFailureIsSharedAndKeyReleased() {
+        // Arrange
+        SingleFlightGroup group = new SingleFlightGroup();
+
+        // Act
+        CompletableFuture<Object> failed = group.execute("ai|1", () -> {
+            throw new IllegalStateException("model unavailable");
+        });
+
+        // Assert
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals(0, group.inFlightCount());
+    }
+}
@@ -0,0 +1,84 @@
+package com.jay.home.finmanapp.config;
+
+import com.jay.home.finmanapp.service.DataVersionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ConditionalGetInterceptorTest {
+
+    private static final String ETAG = "W/\"7-3-20000\"";
+
+    private DataVersionService dataVersionService;
+    private ConditionalGetInterceptor interceptor;
+
+    @BeforeEach
+    public void setUp() {
+        dataVersionService = mock(DataVersionService.class);
+        interceptor = new ConditionalGetInterceptor(dataVersionService);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user@finmanapp.com", null, List.of()));
+        when(dataVersionService.currentETag("user@finmanapp.com")).thenReturn(Optional.of(ETAG));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testMatchingIfNoneMatchReturnsNotModified() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/budgets");
+        request.addHeader("If-None-Match", "\"7-3-20000\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        boolean proceed = interceptor.preHandle(request, response, new Object());
+
+        // Assert
+        assertFalse(proceed);
+        assertEquals(304, response.getStatus());
+        assertEquals(ETAG, response.getHeader("ETag"));
+    }
+
+    @Test
+    public void testStaleIfNoneMatchProceedsWithCurrentETag() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/budgets");
+        request.addHeader("If-None-Match", "W/\"7-2-20000\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        boolean proceed = interceptor.preHandle(request, response, new Object());
+
+        // Assert
+        assertTrue(proceed);
+        assertEquals(200, response.getStatus());
+        assertEquals(ETAG, response.getHeader("ETag"));
+    }
+
+    @Test
+    public void testWritesAreNotIntercepted() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/budgets");
+        request.addHeader("If-None-Match", ETAG);
+
+        // Act
+        boolean proceed = interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+
+        // Assert
+        assertTrue(proceed);
+        verifyNoInteractions(dataVersionService);
+    }
+}
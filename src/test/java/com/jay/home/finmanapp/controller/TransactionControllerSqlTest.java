@@ -0,0 +1,130 @@
+package com.jay.home.finmanapp.controller;
+
+import com.jay.home.finmanapp.model.Account;
+import com.jay.home.finmanapp.model.Transaction;
+import com.jay.home.finmanapp.model.User;
+import com.jay.home.finmanapp.repository.AccountRepository;
+import com.jay.home.finmanapp.repository.TransactionRepository;
+import com.jay.home.finmanapp.repository.UserRepository;
+import com.jay.home.finmanapp.security.JwtUtils;
+import com.jay.home.finmanapp.sql.MaxSqlStatements;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets of the transaction endpoints, measured through the whole request: the JWT
+ * filter, the ownership check and the write.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+public class TransactionControllerSqlTest {
+    private static final String UPDATE = "{\"description\":\"Coffee beans\",\"amount\":-12.50}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User owner;
+    private User other;
+    private Account account;
+    private Transaction transaction;
+
+    @BeforeEach
+    public void setUp() {
+        owner = saveUser("sql-owner@finmanapp.com");
+        other = saveUser("sql-other@finmanapp.com");
+
+        account = new Account();
+        account.setUser(owner);
+        account.setName("Checking");
+        account.setType("CHECKING");
+        account.setBalance(BigDecimal.ZERO);
+        account.setAccountId("acc-sql");
+        account.setAccessToken("token");
+        account.setInstitutionId("ins-1");
+        account.setInstitutionName("Bank");
+        account.setLastSynced(LocalDateTime.now());
+        account = accountRepository.save(account);
+
+        transaction = new Transaction();
+        transaction.setAccount(account);
+        transaction.setTransactionId("manual-sql");
+        transaction.setDescription("Coffee");
+        transaction.setAmount(new BigDecimal("-3.50"));
+        transaction.setDate(LocalDateTime.of(2025, 8, 14, 9, 0));
+        transaction.setManualEntry(true);
+        transaction = transactionRepository.save(transaction);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        transactionRepository.deleteById(transaction.getId());
+        accountRepository.deleteById(account.getId());
+        userRepository.deleteById(owner.getId());
+        userRepository.deleteById(other.getId());
+    }
+
+    @Test
+    @MaxSqlStatements(6)
+    public void testUpdateOwnTransaction() throws Exception {
+        // Act & Assert
+        mockMvc.perform(put("/api/transactions/{id}", transaction.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtils.generateToken(owner.getEmail()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Coffee beans"));
+    }
+
+    @Test
+    // Three for the request, one for the assertion
+    @MaxSqlStatements(4)
+    public void testUpdateOfAnotherUsersTransactionIsNotFound() throws Exception {
+        // Act
+        mockMvc.perform(put("/api/transactions/{id}", transaction.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtils.generateToken(other.getEmail()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATE))
+                .andExpect(status().isNotFound());
+
+        // Assert
+        assertEquals("Coffee", transactionRepository.findById(transaction.getId()).orElseThrow().getDescription());
+    }
+
+    private User saveUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        return userRepository.save(user);
+    }
+}
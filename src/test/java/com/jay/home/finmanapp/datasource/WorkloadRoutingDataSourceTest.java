@@ -0,0 +1,89 @@
+package com.jay.home.finmanapp.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class WorkloadRoutingDataSourceTest {
+
+    @Workload(WorkloadType.ANALYTICS)
+    public static class ReportService {
+        final WorkloadRoutingDataSource dataSource;
+        ReportService batch;
+
+        public ReportService(WorkloadRoutingDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        public Connection aggregate() throws Exception {
+            return dataSource.getConnection();
+        }
+
+        @Workload(WorkloadType.BATCH)
+        public Connection sweep() throws Exception {
+            return dataSource.getConnection();
+        }
+
+        @Workload(WorkloadType.BATCH)
+        public Connection sweepThenAggregate() throws Exception {
+            batch.aggregate();
+            return dataSource.getConnection();
+        }
+    }
+
+    private final Connection interactiveConnection = mock(Connection.class);
+    private final Connection batchConnection = mock(Connection.class);
+    private final Connection analyticsConnection = mock(Connection.class);
+    private WorkloadRoutingDataSource dataSource;
+    private ReportService service;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        dataSource = new WorkloadRoutingDataSource();
+        dataSource.setTargetDataSources(Map.of(
+                WorkloadType.INTERACTIVE, pool(interactiveConnection),
+                WorkloadType.BATCH, pool(batchConnection),
+                WorkloadType.ANALYTICS, pool(analyticsConnection)));
+        dataSource.afterPropertiesSet();
+
+        ProxyFactory factory = new ProxyFactory(new ReportService(dataSource));
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(new WorkloadInterceptor());
+        service = (ReportService) factory.getProxy();
+        ((ReportService) factory.getTargetSource().getTarget()).batch = service;
+    }
+
+    @Test
+    public void testUnannotatedCallerUsesInteractivePool() throws Exception {
+        assertSame(interactiveConnection, dataSource.getConnection());
+    }
+
+    @Test
+    public void testClassAnnotationRoutesToItsPool() throws Exception {
+        assertSame(analyticsConnection, service.aggregate());
+        assertEquals(WorkloadType.INTERACTIVE, WorkloadRoutingDataSource.currentWorkload());
+    }
+
+    @Test
+    public void testMethodAnnotationOverridesClass() throws Exception {
+        assertSame(batchConnection, service.sweep());
+    }
+
+    @Test
+    public void testOuterWorkloadIsRestoredAfterNestedCall() throws Exception {
+        assertSame(batchConnection, service.sweepThenAggregate());
+    }
+
+    private static DataSource pool(Connection connection) throws Exception {
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenReturn(connection);
+        return pool;
+    }
+}
@@ -0,0 +1,110 @@
+package com.jay.home.finmanapp.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransactionReaderTest {
+
+    @Test
+    public void testCsvColumnsAreMatchedByHeader() throws IOException {
+        // Arrange
+        String csv = "Posted Date,Payee,Category,Debit,Credit,Reference\r\n"
+                + "03/31/2024,\"Whole Foods, Inc.\",food,85.27,,ref-1\r\n"
+                + "\r\n"
+                + "04/01/2024,\"Salary \"\"April\"\"\",,,\"$3,000.00\",ref-2\r\n";
+        TransactionReader reader = new CsvTransactionReader(new StringReader(csv));
+
+        // Act
+        ImportedTransaction first = reader.next();
+        ImportedTransaction second = reader.next();
+
+        // Assert
+        assertEquals(new ImportedTransaction("ref-1", LocalDateTime.of(2024, 3, 31, 0, 0),
+                new BigDecimal("-85.27"), "Whole Foods, Inc.", "food"), first);
+        assertEquals(new ImportedTransaction("ref-2", LocalDateTime.of(2024, 4, 1, 0, 0),
+                new BigDecimal("3000.00"), "Salary \"April\"", null), second);
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testCsvBadRowIsSkippedAndMissingIdIsDerived() throws IOException {
+        // Arrange
+        String csv = "Date,Description,Amount\n"
+                + "yesterday,Coffee,-3.50\n"
+                + "2024-03-31,Coffee,(3.50)\n";
+        TransactionReader reader = new CsvTransactionReader(new StringReader(csv));
+        TransactionReader again = new CsvTransactionReader(new StringReader(csv));
+        assertThrows(InvalidImportRowException.class, again::next);
+
+        // Act
+        InvalidImportRowException error = assertThrows(InvalidImportRowException.class, reader::next);
+        ImportedTransaction coffee = reader.next();
+
+        // Assert
+        assertTrue(error.getMessage().startsWith("Row 1:"));
+        assertEquals(new BigDecimal("-3.50"), coffee.amount());
+        assertTrue(coffee.transactionId().startsWith("csv-"));
+        assertEquals(coffee.transactionId(), again.next().transactionId());
+    }
+
+    @Test
+    public void testCsvWithoutAmountColumnIsRejected() {
+        // Arrange
+        TransactionReader reader = new CsvTransactionReader(new StringReader("Date,Description\n2024-03-31,Coffee\n"));
+
+        // Act, Assert
+        assertThrows(IOException.class, reader::next);
+    }
+
+    @Test
+    public void testOfxSgmlTransactionsAreRead() throws IOException {
+        // Arrange
+        String ofx = "OFXHEADER:100\nDATA:OFXSGML\nVERSION:102\n\n"
+                + "<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><CURDEF>USD<BANKTRANLIST>\n"
+                + "<DTSTART>20240301\n"
+                + "<STMTTRN>\n<TRNTYPE>DEBIT\n<DTPOSTED>20240331120000.000[-5:EST]\n<TRNAMT>-85.27\n"
+                + "<FITID>2024033101\n<NAME>Whole Foods &amp; Co\n</STMTTRN>\n"
+                + "<STMTTRN>\n<TRNTYPE>CREDIT\n<DTPOSTED>20240401\n<TRNAMT>3000.00\n"
+                + "<FITID>2024040101\n<MEMO>Salary\n</STMTTRN>\n"
+                + "</BANKTRANLIST><LEDGERBAL><BALAMT>2914.73</LEDGERBAL></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>\n";
+        TransactionReader reader = new OfxTransactionReader(new StringReader(ofx));
+
+        // Act
+        ImportedTransaction first = reader.next();
+        ImportedTransaction second = reader.next();
+
+        // Assert
+        assertEquals(new ImportedTransaction("2024033101", LocalDateTime.of(2024, 3, 31, 12, 0),
+                new BigDecimal("-85.27"), "Whole Foods & Co", null), first);
+        assertEquals(new ImportedTransaction("2024040101", LocalDateTime.of(2024, 4, 1, 0, 0),
+                new BigDecimal("3000.00"), "Salary", null), second);
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testOfxXmlTransactionsAreRead() throws IOException {
+        // Arrange
+        String ofx = "<?xml version=\"1.0\"?><?OFX OFXHEADER=\"200\" VERSION=\"220\"?>"
+                + "<OFX><BANKTRANLIST><STMTTRN><TRNTYPE>DEBIT</TRNTYPE><DTPOSTED>20240331</DTPOSTED>"
+                + "<TRNAMT>-12.50</TRNAMT><FITID>x1</FITID><NAME>Cinema</NAME></STMTTRN>"
+                + "<STMTTRN><DTPOSTED>20240331</DTPOSTED><FITID>x2</FITID><NAME>No amount</NAME></STMTTRN>"
+                + "</BANKTRANLIST></OFX>";
+        TransactionReader reader = new OfxTransactionReader(new StringReader(ofx));
+
+        // Act
+        ImportedTransaction cinema = reader.next();
+
+        // Assert
+        assertEquals("x1", cinema.transactionId());
+        assertEquals(new BigDecimal("-12.50"), cinema.amount());
+        assertEquals("Cinema", cinema.description());
+        assertThrows(InvalidImportRowException.class, reader::next);
+        assertNull(reader.next());
+    }
+}
@@ -0,0 +1,100 @@
+package com.jay.home.finmanapp.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlightRecordingEndpointTest {
+
+    private FlightRecordingEndpoint endpoint;
+
+    @BeforeEach
+    public void setUp() {
+        endpoint = new FlightRecordingEndpoint("default", Duration.ofMinutes(5), DataSize.ofMegabytes(50));
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        endpoint.close();
+    }
+
+    @Test
+    public void testRecordingContainsApplicationEvents() throws Exception {
+        // Arrange
+        endpoint.start(null);
+
+        // Act
+        BillResetEvent event = new BillResetEvent();
+        event.begin();
+        event.userId = 7;
+        event.paidBills = 3;
+        event.resetBills = 2;
+        event.commit();
+        endpoint.stop();
+        Resource download = endpoint.download(FlightRecordingEndpoint.FILE_NAME);
+
+        // Assert
+        List<RecordedEvent> resets = RecordingFile.readAllEvents(download.getFile().toPath()).stream()
+                .filter(recorded -> recorded.getEventType().getName().equals("com.jay.home.finmanapp.BillReset"))
+                .toList();
+        assertEquals(1, resets.size());
+        assertEquals(7, resets.get(0).getLong("userId"));
+        assertEquals(2, resets.get(0).getInt("resetBills"));
+    }
+
+    @Test
+    public void testRecordingLeavesOutEnvironmentAndSystemProperties() throws Exception {
+        // Arrange
+        FlightRecordingEndpoint profiling = new FlightRecordingEndpoint("profile", Duration.ofMinutes(5),
+                DataSize.ofMegabytes(50));
+        try {
+            profiling.start(null);
+
+            // Act
+            profiling.stop();
+            Resource download = profiling.download(FlightRecordingEndpoint.FILE_NAME);
+
+            // Assert
+            List<String> recorded = RecordingFile.readAllEvents(download.getFile().toPath()).stream()
+                    .map(event -> event.getEventType().getName())
+                    .distinct()
+                    .toList();
+            assertFalse(recorded.isEmpty());
+            for (String secret : FlightRecordingEndpoint.SECRET_EVENTS) {
+                assertFalse(recorded.contains(secret), secret);
+            }
+        } finally {
+            profiling.close();
+        }
+    }
+
+    @Test
+    public void testSecondStartIsRejectedWhileRunning() throws Exception {
+        // Arrange
+        endpoint.start(60L);
+
+        // Act
+        WebEndpointResponse<?> second = endpoint.start(60L);
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT.value(), second.getStatus());
+        assertEquals(Duration.ofSeconds(60), endpoint.status().get("duration"));
+    }
+
+    @Test
+    public void testNothingToDownloadBeforeStart() throws Exception {
+        assertNull(endpoint.download(FlightRecordingEndpoint.FILE_NAME));
+        assertEquals("NONE", endpoint.status().get("state"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.jay.home.finmanapp.jfr;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Access rules of the management endpoints, on a management port of their own as in production.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "management.server.port=0",
+        // A database of its own: data.sql would seed the h2 profile's shared one twice
+        "spring.datasource.url=jdbc:h2:mem:flight-recording-security;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "app.management.username=ops",
+        "app.management.password=recording-secret"
+})
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("h2")
+public class FlightRecordingSecurityTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    public void testFlightRecordingNeedsManagementCredentials() {
+        // Act & Assert
+        assertEquals(HttpStatus.UNAUTHORIZED, restTemplate.getForEntity(
+                url("/actuator/flightrecording"), String.class).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, restTemplate.getForEntity(
+                url("/actuator/flightrecording/recording.jfr"), String.class).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, restTemplate.withBasicAuth("ops", "wrong").getForEntity(
+                url("/actuator/flightrecording"), String.class).getStatusCode());
+        assertEquals(HttpStatus.OK, restTemplate.withBasicAuth("ops", "recording-secret").getForEntity(
+                url("/actuator/flightrecording"), String.class).getStatusCode());
+    }
+
+    @Test
+    public void testHealthAndPrometheusStayOpen() {
+        // Act & Assert
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity(
+                url("/actuator/health"), String.class).getStatusCode());
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity(
+                url("/actuator/prometheus"), String.class).getStatusCode());
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + managementPort + path;
+    }
+}
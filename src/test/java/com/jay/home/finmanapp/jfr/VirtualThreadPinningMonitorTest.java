@@ -0,0 +1,69 @@
+package com.jay.home.finmanapp.jfr;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VirtualThreadPinningMonitorTest {
+
+    private final Object lock = new Object();
+    private SimpleMeterRegistry meterRegistry;
+    private VirtualThreadPinningMonitor monitor;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10));
+        monitor.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    public void testPinningIsCountedPerApplicationFrame() throws Exception {
+        // Act
+        Thread.ofVirtual().start(this::sleepWhileHoldingMonitor).join();
+
+        // Assert
+        Counter pinned = awaitCounter();
+        assertNotNull(pinned, "pinning was not reported");
+        assertEquals("VirtualThreadPinningMonitorTest.sleepWhileHoldingMonitor", pinned.getId().getTag("frame"));
+        double pinnedMillis = meterRegistry.get("finmanapp.virtualthreads.pinned.duration").timer()
+                .totalTime(TimeUnit.MILLISECONDS);
+        assertTrue(pinnedMillis >= 10);
+    }
+
+    private void sleepWhileHoldingMonitor() {
+        synchronized (lock) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Events are delivered by the stream about once per second.
+     */
+    private Counter awaitCounter() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Counter counter = meterRegistry.find("finmanapp.virtualthreads.pinned").counter();
+            if (counter != null) {
+                return counter;
+            }
+            Thread.sleep(100);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,154 @@
+package com.jay.home.finmanapp.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import org.apache.catalina.filters.RemoteIpFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitFilterTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testBucketAllowsBurstThenRefillsEvenly() {
+        // Arrange
+        LocalRateLimitBackend backend = new LocalRateLimitBackend(Duration.ofHours(1), 100, nanoTime::get);
+        Duration period = Duration.ofMinutes(1);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Duration.ZERO, backend.tryConsume("ai:user:a", 3, period));
+        }
+        Duration wait = backend.tryConsume("ai:user:a", 3, period);
+        nanoTime.addAndGet(Duration.ofSeconds(20).toNanos());
+        Duration afterRefill = backend.tryConsume("ai:user:a", 3, period);
+
+        // Assert
+        assertEquals(Duration.ofSeconds(20), wait);
+        assertEquals(Duration.ZERO, afterRefill);
+        assertEquals(Duration.ZERO, backend.tryConsume("ai:user:b", 3, period));
+    }
+
+    @Test
+    public void testExhaustedBucketIsRejectedWithRetryAfter() throws Exception {
+        // Arrange
+        RateLimitFilter filter = filter(1, Duration.ofMinutes(1), 10);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("demo@finmanapp.com", null, List.of()));
+
+        // Act
+        MockHttpServletResponse first = perform(filter, "POST", "/api/accounts/7/sync", new MockFilterChain());
+        MockHttpServletResponse second = perform(filter, "POST", "/api/accounts/7/sync", new MockFilterChain());
+
+        // Assert
+        assertEquals(200, first.getStatus());
+        assertEquals(429, second.getStatus());
+        assertEquals("60", second.getHeader("Retry-After"));
+    }
+
+    @Test
+    public void testConcurrencyLimitRejectsWhileRequestRuns() throws Exception {
+        // Arrange
+        RateLimitFilter filter = filter(100, Duration.ofMinutes(1), 1);
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        FilterChain slowChain = (request, response) ->
+                nested[0] = perform(filter, "GET", "/api/insights/ai/spending-habits", new MockFilterChain());
+
+        // Act
+        MockHttpServletResponse outer = perform(filter, "GET", "/api/insights/ai/financial-insights", slowChain);
+        MockHttpServletResponse after = perform(filter, "GET", "/api/insights/ai/financial-insights", new MockFilterChain());
+
+        // Assert
+        assertEquals(200, outer.getStatus());
+        assertEquals(429, nested[0].getStatus());
+        assertEquals("1", nested[0].getHeader("Retry-After"));
+        assertEquals(200, after.getStatus());
+    }
+
+    @Test
+    public void testLoginsBehindTheRouterAreLimitedPerForwardedClient() throws Exception {
+        // Arrange: Tomcat's X-Forwarded-For handling, as enabled by server.forward-headers-strategy=native
+        RateLimitFilter filter = filter(2, Duration.ofMinutes(1), 10);
+        RemoteIpFilter remoteIp = new RemoteIpFilter();
+        remoteIp.init(new MockFilterConfig());
+        String router = "10.1.2.3";
+
+        // Act
+        for (int i = 0; i < 2; i++) {
+            assertEquals(200, login(remoteIp, filter, router, "203.0.113.7").getStatus());
+        }
+        MockHttpServletResponse limited = login(remoteIp, filter, router, "203.0.113.7");
+        // A client cannot escape its bucket by prepending an address; the router appends the real one
+        MockHttpServletResponse spoofed = login(remoteIp, filter, router, "198.51.100.1, 203.0.113.7");
+        MockHttpServletResponse otherClient = login(remoteIp, filter, router, "203.0.113.8");
+
+        // Assert
+        assertEquals(429, limited.getStatus());
+        assertEquals(429, spoofed.getStatus());
+        assertEquals(200, otherClient.getStatus());
+    }
+
+    @Test
+    public void testOtherEndpointsAreNotLimited() throws Exception {
+        // Arrange
+        RateLimitFilter filter = filter(1, Duration.ofMinutes(1), 1);
+
+        // Act, Assert
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, perform(filter, "GET", "/api/transactions", new MockFilterChain()).getStatus());
+        }
+    }
+
+    private RateLimitFilter filter(long capacity, Duration period, int maxConcurrent) {
+        Map<EndpointClass, RateLimitSettings> settings = new EnumMap<>(EndpointClass.class);
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            RateLimitSettings limits = new RateLimitSettings();
+            limits.setCapacity(capacity);
+            limits.setPeriod(period);
+            limits.setMaxConcurrent(maxConcurrent);
+            settings.put(endpointClass, limits);
+        }
+        return new RateLimitFilter(new LocalRateLimitBackend(Duration.ofHours(1), 100, nanoTime::get), settings);
+    }
+
+    private static MockHttpServletResponse login(RemoteIpFilter remoteIp, RateLimitFilter filter,
+                                                 String remoteAddr, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        remoteIp.doFilter(request, response, (forwarded, forwardedResponse) ->
+                filter.doFilter(forwarded, forwardedResponse, new MockFilterChain()));
+        return response;
+    }
+
+    private static MockHttpServletResponse perform(RateLimitFilter filter, String method, String uri, FilterChain chain) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,104 @@
+package com.jay.home.finmanapp.repository;
+
+import com.jay.home.finmanapp.model.Budget;
+import com.jay.home.finmanapp.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false"
+})
+public class BudgetRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    private User user;
+    private Budget budget;
+
+    @BeforeEach
+    public void setUp() {
+        user = new User();
+        user.setEmail("budgets@finmanapp.com");
+        user.setPassword("secret");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        entityManager.persist(user);
+
+        budget = new Budget();
+        budget.setUser(user);
+        budget.setName("Food");
+        budget.setAmount(new BigDecimal("500.00"));
+        budget.setPeriod("MONTHLY");
+        budget.setStartDate(LocalDate.of(2025, 1, 1));
+        budget.setEndDate(LocalDate.of(2025, 12, 31));
+        budget.setWarningThreshold(new BigDecimal("80.00"));
+        entityManager.persist(budget);
+        entityManager.flush();
+    }
+
+    @Test
+    public void testWarningIsMarkedOncePerPeriod() {
+        // Arrange
+        LocalDateTime march = LocalDateTime.of(2025, 3, 1, 0, 0);
+        LocalDateTime april = LocalDateTime.of(2025, 4, 1, 0, 0);
+
+        // Act
+        int first = budgetRepository.markWarned(budget.getId(), march, march.plusDays(10));
+        int again = budgetRepository.markWarned(budget.getId(), march, march.plusDays(20));
+        int nextPeriod = budgetRepository.markWarned(budget.getId(), april, april.plusDays(2));
+        entityManager.clear();
+
+        // Assert
+        assertEquals(1, first);
+        assertEquals(0, again);
+        assertEquals(1, nextPeriod);
+        assertEquals(april.plusDays(2), budgetRepository.findById(budget.getId()).orElseThrow().getLastWarningAt());
+    }
+
+    @Test
+    public void testForecastWarningIsMarkedIndependently() {
+        // Arrange
+        LocalDateTime march = LocalDateTime.of(2025, 3, 1, 0, 0);
+        budgetRepository.markWarned(budget.getId(), march, march.plusDays(20));
+
+        // Act
+        int first = budgetRepository.markForecastWarned(budget.getId(), march, march.plusDays(5));
+        int again = budgetRepository.markForecastWarned(budget.getId(), march, march.plusDays(6));
+        entityManager.clear();
+
+        // Assert
+        assertEquals(1, first);
+        assertEquals(0, again);
+        Budget marked = budgetRepository.findById(budget.getId()).orElseThrow();
+        assertEquals(march.plusDays(5), marked.getLastForecastWarningAt());
+        assertEquals(march.plusDays(20), marked.getLastWarningAt());
+    }
+
+    @Test
+    public void testFindUserIdsWithActiveBudgets() {
+        // Act
+        List<Long> active = budgetRepository.findUserIdsWithActiveBudgets(LocalDate.of(2025, 6, 1));
+        List<Long> expired = budgetRepository.findUserIdsWithActiveBudgets(LocalDate.of(2026, 6, 1));
+
+        // Assert
+        assertEquals(List.of(user.getId()), active);
+        assertTrue(expired.isEmpty());
+    }
+}
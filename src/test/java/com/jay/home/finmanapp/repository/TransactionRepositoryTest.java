@@ -0,0 +1,100 @@
+package com.jay.home.finmanapp.repository;
+
+import com.jay.home.finmanapp.model.Account;
+import com.jay.home.finmanapp.model.Category;
+import com.jay.home.finmanapp.model.Transaction;
+import com.jay.home.finmanapp.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false"
+})
+public class TransactionRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Account account;
+    private Category food;
+    private int transactionCount;
+
+    @BeforeEach
+    public void setUp() {
+        User user = new User();
+        user.setEmail("spending@finmanapp.com");
+        user.setPassword("secret");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        entityManager.persist(user);
+
+        account = new Account();
+        account.setUser(user);
+        account.setName("Checking");
+        account.setType("CHECKING");
+        account.setBalance(BigDecimal.ZERO);
+        account.setAccountId("acc-1");
+        account.setAccessToken("token");
+        account.setInstitutionId("ins-1");
+        account.setInstitutionName("Bank");
+        account.setLastSynced(LocalDateTime.now());
+        entityManager.persist(account);
+
+        food = new Category();
+        food.setName("Food");
+        entityManager.persist(food);
+    }
+
+    @Test
+    public void testFindByIdAndAccountUserIdOnlyReturnsOwnTransactions() {
+        // Arrange
+        User other = new User();
+        other.setEmail("other@finmanapp.com");
+        other.setPassword("secret");
+        other.setFirstName("Other");
+        other.setLastName("User");
+        entityManager.persist(other);
+        Transaction transaction = persist("Groceries", "-40.00", LocalDateTime.now(), food);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        Optional<Transaction> own = transactionRepository.findByIdAndAccountUserId(
+                transaction.getId(), account.getUser().getId());
+        Optional<Transaction> foreign = transactionRepository.findByIdAndAccountUserId(
+                transaction.getId(), other.getId());
+
+        // Assert
+        assertTrue(own.isPresent());
+        assertEquals(account.getId(), own.get().getAccount().getId());
+        assertTrue(foreign.isEmpty());
+    }
+
+    private Transaction persist(String description, String amount, LocalDateTime date, Category category) {
+        Transaction transaction = new Transaction();
+        transaction.setAccount(account);
+        // Unique per account, like the IDs of an institution
+        transaction.setTransactionId(description + "-" + ++transactionCount);
+        transaction.setDescription(description);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setDate(date);
+        transaction.setCategory(category);
+        entityManager.persist(transaction);
+        return transaction;
+    }
+}
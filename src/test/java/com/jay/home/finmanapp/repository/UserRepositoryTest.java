@@ -0,0 +1,53 @@
+package com.jay.home.finmanapp.repository;
+
+import com.jay.home.finmanapp.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false"
+})
+public class UserRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void testReplacePasswordOnlyWritesUnchangedHash() {
+        // Arrange
+        User user = new User();
+        user.setEmail("rehash@finmanapp.com");
+        user.setPassword("old-hash");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        entityManager.persist(user);
+        entityManager.flush();
+        // A concurrent change to another column, committed after the user was read
+        entityManager.getEntityManager()
+                .createQuery("UPDATE User u SET u.firstName = 'Renamed' WHERE u.id = :id")
+                .setParameter("id", user.getId())
+                .executeUpdate();
+
+        // Act
+        int replaced = userRepository.replacePassword(user.getId(), "old-hash", "new-hash");
+        int stale = userRepository.replacePassword(user.getId(), "old-hash", "other-hash");
+        entityManager.clear();
+
+        // Assert
+        assertEquals(1, replaced);
+        assertEquals(0, stale);
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        assertEquals("new-hash", stored.getPassword());
+        assertEquals("Renamed", stored.getFirstName());
+    }
+}
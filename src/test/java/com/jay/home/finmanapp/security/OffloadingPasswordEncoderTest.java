@@ -0,0 +1,96 @@
+package com.jay.home.finmanapp.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffloadingPasswordEncoderTest {
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.AbortPolicy());
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testHashingRunsOnThePool() {
+        // Arrange
+        OffloadingPasswordEncoder encoder =
+                new OffloadingPasswordEncoder(new BCryptPasswordEncoder(4), executor, Duration.ofSeconds(5));
+
+        // Act
+        String hash = encoder.encode("demo123");
+
+        // Assert
+        assertTrue(encoder.matches("demo123", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertEquals(3, executor.getTaskCount());
+    }
+
+    @Test
+    public void testSaturatedPoolRejectsImmediately() {
+        // Arrange
+        OffloadingPasswordEncoder encoder =
+                new OffloadingPasswordEncoder(new BCryptPasswordEncoder(4), executor, Duration.ofSeconds(5));
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+        executor.execute(() -> awaitQuietly(release));
+
+        // Act
+        long started = System.nanoTime();
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("demo123"));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        release.countDown();
+
+        // Assert
+        assertTrue(elapsedMillis < 1000, "Rejection took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    public void testQueuedTaskIsAbandonedAfterMaxWait() {
+        // Arrange
+        OffloadingPasswordEncoder encoder =
+                new OffloadingPasswordEncoder(new BCryptPasswordEncoder(4), executor, Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+
+        // Act, Assert
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("demo123"));
+        release.countDown();
+    }
+
+    @Test
+    public void testLowerCostHashNeedsUpgrade() {
+        // Arrange
+        String legacyHash = new BCryptPasswordEncoder(4).encode("demo123");
+        OffloadingPasswordEncoder encoder =
+                new OffloadingPasswordEncoder(new BCryptPasswordEncoder(5), executor, Duration.ofSeconds(5));
+
+        // Act
+        boolean legacyNeedsUpgrade = encoder.upgradeEncoding(legacyHash);
+        boolean currentNeedsUpgrade = encoder.upgradeEncoding(encoder.encode("demo123"));
+
+        // Assert
+        assertTrue(legacyNeedsUpgrade);
+        assertFalse(currentNeedsUpgrade);
+        assertTrue(encoder.matches("demo123", legacyHash));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.jay.home.finmanapp.service;
+
+import com.jay.home.finmanapp.event.TransactionsChangedEvent;
+import com.jay.home.finmanapp.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class BudgetEvaluationQueueTest {
+    private UserService userService;
+    private BudgetService budgetService;
+    private BudgetEvaluationQueue queue;
+
+    @BeforeEach
+    public void setUp() {
+        userService = mock(UserService.class);
+        budgetService = mock(BudgetService.class);
+        when(userService.getUserById(anyLong())).thenAnswer(invocation -> {
+            User user = new User();
+            user.setId(invocation.getArgument(0));
+            return user;
+        });
+        queue = new BudgetEvaluationQueue(userService, budgetService);
+    }
+
+    @Test
+    public void testChangesOfAUserAreEvaluatedOnce() {
+        // Arrange
+        for (int i = 0; i < 500; i++) {
+            queue.onTransactionsChanged(new TransactionsChangedEvent(1L, 1));
+        }
+        queue.onTransactionsChanged(new TransactionsChangedEvent(2L, 500));
+        queue.enqueue(List.of(1L, 2L));
+
+        // Act
+        int evaluated = queue.evaluatePending();
+
+        // Assert
+        assertEquals(2, evaluated);
+        verify(budgetService, times(2)).checkBudgetThresholds(any());
+        assertEquals(0, queue.size());
+        assertEquals(0, queue.evaluatePending());
+    }
+
+    @Test
+    public void testFailedAndRequeuedUsers() {
+        // Arrange
+        queue.enqueue(List.of(1L, 2L));
+        doAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            if (user.getId() == 1L) {
+                // A change committed while the user is being evaluated
+                queue.onTransactionsChanged(new TransactionsChangedEvent(1L, 1));
+                throw new IllegalStateException("Mail server down");
+            }
+            return null;
+        }).when(budgetService).checkBudgetThresholds(any());
+
+        // Act
+        int first = queue.evaluatePending();
+        int second = queue.evaluatePending();
+
+        // Assert
+        assertEquals(1, first);
+        assertEquals(0, second);
+        verify(budgetService, times(3)).checkBudgetThresholds(any());
+    }
+}
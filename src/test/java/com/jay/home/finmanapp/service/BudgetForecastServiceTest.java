@@ -0,0 +1,128 @@
+package com.jay.home.finmanapp.service;
+
+import com.jay.home.finmanapp.cache.SpendingRates;
+import com.jay.home.finmanapp.cache.TransactionColumnCache;
+import com.jay.home.finmanapp.cache.TransactionColumns;
+import com.jay.home.finmanapp.model.Account;
+import com.jay.home.finmanapp.model.Budget;
+import com.jay.home.finmanapp.model.Category;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class BudgetForecastServiceTest {
+    // A Thursday; August 2025 has 21 weekdays and 10 weekend days
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 8, 14, 12, 0);
+
+    private TransactionColumnCache transactionColumnCache;
+    private BudgetForecastService budgetForecastService;
+    private Account account;
+    private Budget budget;
+
+    @BeforeEach
+    public void setUp() {
+        account = new Account();
+        account.setId(1L);
+        Category food = new Category();
+        food.setId(4L);
+        budget = new Budget();
+        budget.setId(9L);
+        budget.setCategory(food);
+        budget.setAmount(new BigDecimal("400.00"));
+        budget.setPeriod("MONTHLY");
+
+        // Every weekday costs 10.00 and every weekend day 30.00, for four weeks up to yesterday
+        TransactionColumns.Builder builder = new TransactionColumns.Builder(LocalDate.of(2025, 7, 1).atStartOfDay());
+        for (LocalDate day = LocalDate.of(2025, 7, 17); day.isBefore(NOW.toLocalDate()); day = day.plusDays(1)) {
+            boolean weekend = day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY;
+            builder.add(day.atTime(12, 0), new BigDecimal(weekend ? "-30.00" : "-10.00"), 1L, 4L);
+        }
+        transactionColumnCache = mock(TransactionColumnCache.class);
+        when(transactionColumnCache.get(eq(42L), any())).thenReturn(builder.build());
+        DataVersionService dataVersionService = mock(DataVersionService.class);
+        when(dataVersionService.currentVersion(42L)).thenReturn(Optional.of(3L));
+        budgetForecastService = new BudgetForecastService(transactionColumnCache, dataVersionService, 28);
+    }
+
+    @Test
+    public void testSpendingRatesAreComputedOncePerVersion() {
+        // Act
+        SpendingRates rates = budgetForecastService.getSpendingRates(42L, List.of(account), NOW.toLocalDate());
+        SpendingRates again = budgetForecastService.getSpendingRates(42L, List.of(account), NOW.toLocalDate());
+
+        // Assert
+        assertSame(rates, again);
+        verify(transactionColumnCache, times(1)).get(eq(42L), any());
+        assertEquals(28, rates.days());
+        assertEquals(new SpendingRates.DailyRate(1000, 0, 3000, 0), rates.category(4L));
+        assertEquals(SpendingRates.DailyRate.ZERO, rates.category(5L));
+    }
+
+    @Test
+    public void testForecastAtHistoricalPace() {
+        // Arrange: 9 weekdays, 4 weekend days and half of today
+        SpendingRates rates = budgetForecastService.getSpendingRates(42L, List.of(account), NOW.toLocalDate());
+
+        // Act
+        BudgetForecastService.Forecast forecast = budgetForecastService.forecast(budget, 21_500, rates, NOW);
+
+        // Assert
+        assertEquals(new BudgetForecastService.Forecast(LocalDate.of(2025, 8, 31), 51_000, 51_000, 51_000), forecast);
+    }
+
+    @Test
+    public void testForecastFollowsFasterPace() {
+        // Arrange
+        SpendingRates rates = budgetForecastService.getSpendingRates(42L, List.of(account), NOW.toLocalDate());
+
+        // Act: twice the expected spending so far, shrunk towards history by a week of it
+        BudgetForecastService.Forecast forecast = budgetForecastService.forecast(budget, 43_000, rates, NOW);
+
+        // Assert
+        assertEquals(Math.round(43_000 + 29_500 * (43_000 + 11_000) / (21_500.0 + 11_000)), forecast.projectedCents());
+    }
+
+    @Test
+    public void testForecastWithoutHistoryExtrapolatesPeriod() {
+        // Arrange
+        SpendingRates rates = new TransactionColumns.Builder(LocalDate.of(2025, 7, 1).atStartOfDay()).build()
+                .spendingRates(new boolean[0], LocalDate.of(2025, 7, 17), LocalDate.of(2025, 8, 13));
+
+        // Act: 13.5 days elapsed, 17.5 days to go
+        BudgetForecastService.Forecast forecast = budgetForecastService.forecast(budget, 13_500, rates, NOW);
+
+        // Assert
+        assertEquals(31_000, forecast.projectedCents());
+        assertEquals(13_500, forecast.lowCents());
+        assertEquals(48_500, forecast.highCents());
+    }
+
+    @Test
+    public void testNoForecastWithoutPeriodEnd() {
+        // Arrange
+        budget.setPeriod("CUSTOM");
+        budget.setStartDate(LocalDate.of(2025, 8, 1));
+        SpendingRates rates = budgetForecastService.getSpendingRates(42L, List.of(account), NOW.toLocalDate());
+
+        // Assert
+        assertNull(budgetForecastService.forecast(budget, 10_000, rates, NOW));
+    }
+
+    @Test
+    public void testWeekendDays() {
+        // Assert
+        assertEquals(10, BudgetForecastService.weekendDays(LocalDate.of(2025, 8, 1), LocalDate.of(2025, 9, 1)));
+        assertEquals(2, BudgetForecastService.weekendDays(LocalDate.of(2025, 8, 16), LocalDate.of(2025, 8, 18)));
+        assertEquals(1, BudgetForecastService.weekendDays(LocalDate.of(2025, 8, 17), LocalDate.of(2025, 8, 20)));
+        assertEquals(0, BudgetForecastService.weekendDays(LocalDate.of(2025, 8, 18), LocalDate.of(2025, 8, 18)));
+    }
+}
@@ -0,0 +1,68 @@
+package com.jay.home.finmanapp.service;
+
+import com.jay.home.finmanapp.cache.SpendingRates;
+import com.jay.home.finmanapp.cache.TransactionColumnCache;
+import com.jay.home.finmanapp.model.Account;
+import com.jay.home.finmanapp.model.Budget;
+import com.jay.home.finmanapp.model.User;
+import com.jay.home.finmanapp.repository.AccountRepository;
+import com.jay.home.finmanapp.repository.BudgetRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BudgetServiceTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 8, 14, 12, 0);
+
+    @Test
+    public void testFailedForecastOnlyDropsItsOwnBudget() {
+        // Arrange
+        User user = new User();
+        user.setId(42L);
+        Account account = new Account();
+        account.setId(1L);
+        account.setUser(user);
+        Budget failing = budget(7L, user);
+        Budget forecast = budget(8L, user);
+
+        TransactionColumnCache transactionColumnCache = mock(TransactionColumnCache.class);
+        when(transactionColumnCache.sumOutflowCentsByCategoryAndWindow(any(), any())).thenReturn(Map.of());
+        BudgetForecastService budgetForecastService = mock(BudgetForecastService.class);
+        SpendingRates rates = mock(SpendingRates.class);
+        when(budgetForecastService.getSpendingRates(eq(42L), any(), eq(NOW.toLocalDate()))).thenReturn(rates);
+        when(budgetForecastService.forecast(failing, 0L, rates, NOW)).thenThrow(new IllegalStateException("boom"));
+        when(budgetForecastService.forecast(forecast, 0L, rates, NOW)).thenReturn(
+                new BudgetForecastService.Forecast(LocalDate.of(2025, 8, 31), 12_000, 10_000, 14_000));
+        BudgetService budgetService = new BudgetService(mock(BudgetRepository.class), mock(NotificationService.class),
+                mock(DataVersionService.class), mock(AccountRepository.class), transactionColumnCache,
+                budgetForecastService, Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+
+        // Act
+        List<Map<String, Object>> summaries = budgetService.getSpendingSummaries(List.of(failing, forecast), List.of(account));
+
+        // Assert
+        assertNull(summaries.get(0).get("projectedSpending"));
+        assertEquals(new BigDecimal("120.00"), summaries.get(1).get("projectedSpending"));
+        assertEquals(new BigDecimal("120.00"), summaries.get(1).get("projectedPercentage"));
+    }
+
+    private static Budget budget(Long id, User user) {
+        Budget budget = new Budget();
+        budget.setId(id);
+        budget.setUser(user);
+        budget.setName("Budget " + id);
+        budget.setAmount(new BigDecimal("100.00"));
+        budget.setPeriod("MONTHLY");
+        return budget;
+    }
+}
@@ -0,0 +1,55 @@
+package com.jay.home.finmanapp.service;
+
+import com.jay.home.finmanapp.mapper.BillMapper;
+import com.jay.home.finmanapp.model.User;
+import com.jay.home.finmanapp.sql.QueryScope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DashboardServiceTest {
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    public void tearDown() {
+        QueryScope.detach();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testLateSectionStatementsAreCancelled() {
+        // Arrange
+        User user = new User();
+        user.setId(42L);
+        AccountService accountService = mock(AccountService.class);
+        when(accountService.getTotalCashBalance(user)).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return BigDecimal.ZERO;
+        });
+        DashboardService dashboardService = new DashboardService(accountService, mock(BudgetService.class),
+                mock(BillService.class), mock(InsightService.class), mock(NotificationService.class),
+                mock(BillMapper.class), mock(PlatformTransactionManager.class), executor);
+        ReflectionTestUtils.setField(dashboardService, "deadlineMs", 200L);
+        ReflectionTestUtils.setField(dashboardService, "maxParallelReads", 3);
+        QueryScope scope = new QueryScope(0);
+        QueryScope.attach(scope);
+
+        // Act
+        Map<String, Object> dashboard = dashboardService.getDashboard(user);
+
+        // Assert
+        assertEquals(true, dashboard.get("partial"));
+        assertEquals(List.of("totalCash"), dashboard.get("timedOut"));
+        assertEquals(DashboardService.DEADLINE_EXCEEDED, scope.getCancelReason());
+    }
+}
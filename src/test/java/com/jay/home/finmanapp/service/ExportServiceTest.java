@@ -0,0 +1,207 @@
+package com.jay.home.finmanapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jay.home.finmanapp.archive.ArchivedTransaction;
+import com.jay.home.finmanapp.archive.TransactionArchive;
+import com.jay.home.finmanapp.export.ExportDataset;
+import com.jay.home.finmanapp.export.ExportFormat;
+import com.jay.home.finmanapp.model.Account;
+import com.jay.home.finmanapp.model.Category;
+import com.jay.home.finmanapp.model.Transaction;
+import com.jay.home.finmanapp.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false"
+})
+public class ExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path directory;
+
+    private TransactionArchive archive;
+    private ExportService exportService;
+    private User user;
+    private Account account;
+    private Category food;
+
+    @BeforeEach
+    public void setUp() {
+        user = persistUser("export@finmanapp.com");
+        User other = persistUser("other@finmanapp.com");
+        account = persistAccount(user);
+        Account otherAccount = persistAccount(other);
+
+        food = new Category();
+        food.setName("Food");
+        entityManager.persist(food);
+
+        persistTransaction(account, "t1", "Whole Foods, \"organic\"", "-85.27", food);
+        persistTransaction(account, "t2", "Salary", "3000.00", null);
+        persistTransaction(otherAccount, "t3", "Not mine", "-1.00", null);
+        entityManager.flush();
+
+        archive = new TransactionArchive(directory, new ObjectMapper().findAndRegisterModules());
+        exportService = new ExportService(archive, dataSource, transactionManager, 1);
+    }
+
+    @Test
+    public void testCsvContainsOnlyTheUsersRows() throws Exception {
+        // Arrange
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long rows = exportService.export(user.getId(), ExportFormat.CSV, ExportDataset.TRANSACTIONS, output);
+
+        // Assert
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(2, rows);
+        assertEquals(3, lines.length);
+        assertEquals("id,account_id,transaction_id,date,description,amount,category,is_manual_entry", lines[0]);
+        assertTrue(lines[1].contains(",t1,2024-03-31T00:00,\"Whole Foods, \"\"organic\"\"\",-85.27,Food,false"),
+                lines[1]);
+        assertTrue(lines[2].contains(",t2,"));
+    }
+
+    @Test
+    public void testCsvMergesArchivedMonthsInDateOrder() throws Exception {
+        // Arrange: February is archived; t1 of March is archived and still live, as during archival
+        Long transactionId = entityManager.getEntityManager()
+                .createQuery("SELECT t.id FROM Transaction t WHERE t.transactionId = 't1'", Long.class)
+                .getSingleResult();
+        archive.archive(user.getId(), YearMonth.of(2024, 2), List.of(
+                archived(90L, "a1", LocalDateTime.of(2024, 2, 3, 0, 0), food.getId()),
+                archived(91L, "a2", LocalDateTime.of(2024, 2, 20, 0, 0), null)));
+        archive.archive(user.getId(), YearMonth.of(2024, 3), List.of(
+                archived(transactionId, "t1", LocalDateTime.of(2024, 3, 31, 0, 0), food.getId())));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long rows = exportService.export(user.getId(), ExportFormat.CSV, ExportDataset.TRANSACTIONS, output);
+
+        // Assert
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(4, rows);
+        assertEquals(5, lines.length);
+        assertEquals("90," + account.getId() + ",a1,2024-02-03T00:00,Archived,-1.00,Food,false", lines[1]);
+        assertTrue(lines[2].startsWith("91,"), lines[2]);
+        assertTrue(lines[3].contains(",t1,"), lines[3]);
+        assertTrue(lines[4].contains(",t2,"), lines[4]);
+    }
+
+    @Test
+    public void testNdjsonTagsRowsWithTheirDataset() throws Exception {
+        // Arrange
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        // Act
+        long rows = exportService.export(user.getId(), ExportFormat.NDJSON, ExportDataset.TRANSACTIONS, output);
+
+        // Assert
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        assertEquals(3, rows);
+        assertEquals(3, lines.size());
+        assertEquals("accounts", lines.get(0).get("dataset").asText());
+        assertFalse(lines.get(0).has("access_token"));
+        assertEquals("transactions", lines.get(1).get("dataset").asText());
+        assertEquals(0, new BigDecimal("-85.27").compareTo(lines.get(1).get("amount").decimalValue()));
+        assertTrue(lines.get(1).get("category").isTextual());
+        assertTrue(lines.get(2).get("category").isNull());
+    }
+
+    @Test
+    public void testZipHoldsEveryDatasetInBothFormats() throws Exception {
+        // Arrange
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        exportService.export(user.getId(), ExportFormat.ZIP, ExportDataset.TRANSACTIONS, output);
+
+        // Assert
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.add(entry.getName());
+            }
+        }
+        assertEquals(ExportDataset.values().length * 2, entries.size());
+        assertTrue(entries.contains("transactions.csv"));
+        assertTrue(entries.contains("notifications.ndjson"));
+    }
+
+    private ArchivedTransaction archived(long id, String transactionId, LocalDateTime date, Long categoryId) {
+        return new ArchivedTransaction(id, account.getId(), transactionId, "Archived", -100, date, categoryId, false);
+    }
+
+    private User persistUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        return entityManager.persist(user);
+    }
+
+    private Account persistAccount(User owner) {
+        Account account = new Account();
+        account.setUser(owner);
+        account.setName("Checking");
+        account.setType("CHECKING");
+        account.setBalance(BigDecimal.ZERO);
+        account.setAccountId("acc-" + owner.getEmail());
+        account.setAccessToken("token");
+        account.setInstitutionId("ins-1");
+        account.setInstitutionName("Bank");
+        account.setLastSynced(LocalDateTime.now());
+        return entityManager.persist(account);
+    }
+
+    private void persistTransaction(Account account, String id, String description, String amount, Category category) {
+        Transaction transaction = new Transaction();
+        transaction.setAccount(account);
+        transaction.setTransactionId(id);
+        transaction.setDescription(description);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setDate(LocalDateTime.of(2024, 3, 31, 0, 0).plusDays(id.equals("t2") ? 1 : 0));
+        transaction.setCategory(category);
+        entityManager.persist(transaction);
+    }
+}
@@ -0,0 +1,76 @@
+package com.jay.home.finmanapp.service;
+
+import com.jay.home.finmanapp.cache.TransactionColumnCache;
+import com.jay.home.finmanapp.cache.TransactionColumns;
+import com.jay.home.finmanapp.model.Account;
+import com.jay.home.finmanapp.model.Budget;
+import com.jay.home.finmanapp.model.Category;
+import com.jay.home.finmanapp.model.User;
+import com.jay.home.finmanapp.repository.BillRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class InsightServiceTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBudgetPerformancePerPeriod() {
+        // Arrange
+        User user = new User();
+        user.setId(42L);
+        Account account = new Account();
+        account.setId(1L);
+        account.setUser(user);
+        Category food = new Category();
+        food.setId(4L);
+
+        Budget budget = new Budget();
+        budget.setId(9L);
+        budget.setName("Food");
+        budget.setCategory(food);
+        budget.setAmount(new BigDecimal("100.00"));
+        budget.setPeriod("MONTHLY");
+        budget.setStartDate(LocalDate.of(2025, 1, 1));
+        budget.setEndDate(LocalDate.of(2025, 12, 31));
+
+        TransactionColumns columns = new TransactionColumns.Builder(LocalDate.of(2025, 1, 1).atStartOfDay())
+                .add(LocalDate.of(2025, 3, 5).atTime(12, 0), new BigDecimal("-80.00"), 1L, 4L)
+                .add(LocalDate.of(2025, 3, 31).atTime(23, 59), new BigDecimal("-40.00"), 1L, 4L)
+                .add(LocalDate.of(2025, 4, 2).atTime(9, 0), new BigDecimal("-25.50"), 1L, 4L)
+                .add(LocalDate.of(2025, 4, 3).atTime(9, 0), new BigDecimal("-99.00"), 1L, null)
+                .add(LocalDate.of(2025, 5, 1).atTime(9, 0), new BigDecimal("2000.00"), 1L, 4L)
+                .build();
+
+        AccountService accountService = mock(AccountService.class);
+        when(accountService.getUserAccounts(user)).thenReturn(List.of(account));
+        BudgetService budgetService = mock(BudgetService.class);
+        when(budgetService.getBudgetsByUser(user)).thenReturn(List.of(budget));
+        TransactionColumnCache transactionColumnCache = mock(TransactionColumnCache.class);
+        when(transactionColumnCache.get(eq(42L), any())).thenReturn(columns);
+        InsightService insightService = new InsightService(mock(BillRepository.class), mock(UserService.class),
+                accountService, mock(CategoryService.class), transactionColumnCache, budgetService);
+
+        // Act
+        List<Map<String, Object>> performance = insightService.getBudgetPerformance(user,
+                LocalDate.of(2025, 3, 10), LocalDate.of(2025, 5, 20));
+
+        // Assert
+        assertEquals(1, performance.size());
+        List<Map<String, Object>> periods = (List<Map<String, Object>>) performance.get(0).get("periods");
+        assertEquals(List.of(LocalDate.of(2025, 3, 10), LocalDate.of(2025, 4, 1), LocalDate.of(2025, 5, 1)),
+                periods.stream().map(period -> period.get("periodStart")).toList());
+        assertEquals(LocalDate.of(2025, 5, 20), periods.get(2).get("periodEnd"));
+        assertEquals(new BigDecimal("40.00"), periods.get(0).get("spent"));
+        assertEquals(new BigDecimal("25.50"), periods.get(1).get("spent"));
+        assertEquals(new BigDecimal("74.50"), periods.get(1).get("remaining"));
+        assertEquals(new BigDecimal("25.50"), periods.get(1).get("percentageUsed"));
+        assertEquals(new BigDecimal("0.00"), periods.get(2).get("spent"));
+    }
+}
@@ -0,0 +1,116 @@
+package com.jay.home.finmanapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jay.home.finmanapp.archive.ArchiveManifest;
+import com.jay.home.finmanapp.archive.ArchivedTransaction;
+import com.jay.home.finmanapp.archive.TransactionArchive;
+import com.jay.home.finmanapp.model.Account;
+import com.jay.home.finmanapp.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false"
+})
+public class TransactionArchiveServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionArchive archive;
+    private TransactionArchiveService archiveService;
+    private Account account;
+
+    @BeforeEach
+    public void setUp() {
+        User user = new User();
+        user.setEmail("archive@finmanapp.com");
+        user.setPassword("secret");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        entityManager.persist(user);
+
+        account = new Account();
+        account.setUser(user);
+        account.setName("Checking");
+        account.setType("CHECKING");
+        account.setBalance(BigDecimal.ZERO);
+        account.setAccountId("acc-1");
+        account.setAccessToken("token");
+        account.setInstitutionId("ins-1");
+        account.setInstitutionName("Bank");
+        account.setLastSynced(LocalDateTime.now());
+        entityManager.persist(account);
+        entityManager.flush();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        archive = new TransactionArchive(directory, new ObjectMapper().findAndRegisterModules());
+        archiveService = new TransactionArchiveService(jdbcTemplate, transactionManager, archive,
+                mock(UserService.class), true, 24);
+    }
+
+    @Test
+    public void testOldMonthsMoveFromTheDatabaseToTheArchive() throws Exception {
+        // Arrange
+        insert("t1", "-85.27", LocalDateTime.of(2023, 3, 9, 18, 5, 1, 123456000));
+        insert("t2", "3000.00", LocalDateTime.of(2023, 3, 31, 9, 0));
+        insert("t3", "-12.50", LocalDateTime.of(2023, 5, 2, 20, 0));
+        insert("t4", "-4.50", LocalDateTime.of(2024, 1, 1, 8, 0));
+        Long userId = account.getUser().getId();
+
+        // Act
+        long archived = archiveService.archiveUser(userId, YearMonth.of(2024, 1));
+        long again = archiveService.archiveUser(userId, YearMonth.of(2024, 1));
+
+        // Assert
+        assertEquals(3, archived);
+        assertEquals(0, again);
+        assertEquals(List.of("t4"), jdbcTemplate.queryForList(
+                "SELECT transaction_id FROM transactions WHERE account_id = ?", String.class, account.getId()));
+        assertEquals(List.of("2023-03", "2023-05"),
+                archive.manifest(userId).segments().stream().map(ArchiveManifest.Segment::month).toList());
+
+        List<ArchivedTransaction> found = archive.find(List.of(account),
+                LocalDateTime.of(2023, 1, 1, 0, 0), LocalDateTime.of(2023, 12, 31, 0, 0));
+        assertEquals(List.of("t1", "t2", "t3"), found.stream().map(ArchivedTransaction::transactionId).toList());
+        assertEquals(new BigDecimal("-85.27"), found.get(0).amount());
+        assertEquals(LocalDateTime.of(2023, 3, 9, 18, 5, 1, 123456000), found.get(0).date());
+    }
+
+    private void insert(String transactionId, String amount, LocalDateTime date) {
+        jdbcTemplate.update("INSERT INTO transactions (account_id, transaction_id, description, amount, date, "
+                        + "is_manual_entry) VALUES (?, ?, ?, ?, ?, FALSE)",
+                account.getId(), transactionId, "Transaction " + transactionId, new BigDecimal(amount),
+                Timestamp.valueOf(date));
+    }
+}
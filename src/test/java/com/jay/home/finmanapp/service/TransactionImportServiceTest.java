@@ -0,0 +1,168 @@
+package com.jay.home.finmanapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jay.home.finmanapp.archive.ArchivedTransaction;
+import com.jay.home.finmanapp.archive.TransactionArchive;
+import com.jay.home.finmanapp.event.TransactionsChangedEvent;
+import com.jay.home.finmanapp.importer.ImportFormat;
+import com.jay.home.finmanapp.importer.ImportProgress;
+import com.jay.home.finmanapp.model.Account;
+import com.jay.home.finmanapp.model.Category;
+import com.jay.home.finmanapp.model.User;
+import com.jay.home.finmanapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false"
+})
+public class TransactionImportServiceTest {
+    private static final String CSV = "Date,Description,Amount,Category,Transaction ID\n"
+            + "2024-03-31,Whole Foods,-85.27,FOOD,t1\n"
+            + "2024-03-31,Paycheck,3000.00,,t2\n"
+            + "not a date,Broken,-1.00,,t3\n"
+            + "2024-04-01,Cinema,-12.50,Entertainment,t4\n"
+            + "2024-04-01,Cinema again,-12.50,,t4\n";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @TempDir
+    private Path directory;
+
+    private final List<Object> events = new ArrayList<>();
+    private JdbcTemplate jdbcTemplate;
+    private TransactionArchive archive;
+    private TransactionImportService importService;
+    private Account account;
+    private Category food;
+
+    @BeforeEach
+    public void setUp() {
+        User user = new User();
+        user.setEmail("import@finmanapp.com");
+        user.setPassword("secret");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        entityManager.persist(user);
+
+        account = new Account();
+        account.setUser(user);
+        account.setName("Checking");
+        account.setType("CHECKING");
+        account.setBalance(BigDecimal.ZERO);
+        account.setAccountId("acc-1");
+        account.setAccessToken("token");
+        account.setInstitutionId("ins-1");
+        account.setInstitutionName("Bank");
+        account.setLastSynced(LocalDateTime.now());
+        entityManager.persist(account);
+
+        food = new Category();
+        food.setName("Food");
+        entityManager.persist(food);
+        entityManager.flush();
+
+        CategoryService categoryService = mock(CategoryService.class);
+        when(categoryService.getAllCategories()).thenReturn(List.of(food));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        archive = new TransactionArchive(directory, new ObjectMapper().findAndRegisterModules());
+        importService = new TransactionImportService(categoryService, new DataVersionService(userRepository),
+                archive, events::add, jdbcTemplate, transactionManager);
+        ReflectionTestUtils.setField(importService, "batchSize", 2);
+    }
+
+    @Test
+    public void testRowsAreInsertedInBatchesAndDuplicatesSkipped() throws Exception {
+        // Act
+        ImportProgress first = importService.importTransactions(account, ImportFormat.CSV, stream(CSV));
+        ImportProgress second = importService.importTransactions(account, ImportFormat.CSV, stream(CSV));
+
+        // Assert
+        assertEquals(ImportProgress.State.COMPLETED, first.getState());
+        assertEquals(5, first.getRowsRead());
+        assertEquals(3, first.getInserted());
+        assertEquals(1, first.getDuplicates());
+        assertEquals(1, first.getRejected());
+        assertEquals(1, first.getErrors().size());
+        assertEquals(0, second.getInserted());
+        assertEquals(4, second.getDuplicates());
+        assertSame(second, importService.getLatestImport(account.getUser().getId()).orElseThrow());
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE account_id = ?", Integer.class, account.getId()));
+        assertEquals(food.getId(), jdbcTemplate.queryForObject(
+                "SELECT category_id FROM transactions WHERE transaction_id = 't1'", Long.class));
+        assertNull(jdbcTemplate.queryForObject(
+                "SELECT category_id FROM transactions WHERE transaction_id = 't4'", Long.class));
+    }
+
+    @Test
+    public void testImportBumpsDataVersionAndPublishesOneEvent() throws Exception {
+        // Arrange
+        Long userId = account.getUser().getId();
+        long before = userRepository.findDataVersionById(userId).orElseThrow();
+
+        // Act
+        importService.importTransactions(account, ImportFormat.CSV, stream(CSV));
+        entityManager.clear();
+
+        // Assert
+        assertEquals(before + 1, userRepository.findDataVersionById(userId).orElseThrow());
+        assertEquals(List.of(new TransactionsChangedEvent(userId, 3)), events);
+    }
+
+    @Test
+    public void testArchivedRowsAreDuplicates() throws Exception {
+        // Arrange: March 2024 is archived with t1, the live table no longer holds it
+        archive.archive(account.getUser().getId(), YearMonth.of(2024, 3), List.of(new ArchivedTransaction(
+                100L, account.getId(), "t1", "Whole Foods", -8527, LocalDateTime.of(2024, 3, 31, 0, 0),
+                food.getId(), false)));
+
+        // Act
+        ImportProgress progress = importService.importTransactions(account, ImportFormat.CSV, stream(CSV));
+
+        // Assert
+        assertEquals(2, progress.getInserted());
+        assertEquals(2, progress.getDuplicates());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE transaction_id = 't1'", Integer.class));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,36 @@
+package com.jay.home.finmanapp.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransactionPartitionServiceTest {
+
+    @Test
+    public void testPartitionCoversOneCalendarMonth() {
+        // Act
+        String sql = TransactionPartitionService.createPartitionSql(YearMonth.of(2024, 12));
+
+        // Assert
+        assertEquals("transactions_y2024m12", TransactionPartitionService.partitionName(YearMonth.of(2024, 12)));
+        assertEquals("CREATE TABLE IF NOT EXISTS transactions_y2024m12 PARTITION OF transactions "
+                + "FOR VALUES FROM ('2024-12-01') TO ('2025-01-01')", sql);
+    }
+
+    @Test
+    public void testNothingIsCreatedOnH2() {
+        // Arrange
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(
+                new DriverManagerDataSource("jdbc:h2:mem:partitions;MODE=PostgreSQL", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE transactions (id BIGINT PRIMARY KEY, date TIMESTAMP NOT NULL)");
+        TransactionPartitionService service = new TransactionPartitionService(jdbcTemplate, 3);
+
+        // Act, Assert
+        assertFalse(service.isPartitioned());
+        assertTrue(service.createUpcomingPartitions().isEmpty());
+    }
+}
@@ -0,0 +1,81 @@
+package com.jay.home.finmanapp.service;
+
+import com.jay.home.finmanapp.event.TransactionsChangedEvent;
+import com.jay.home.finmanapp.model.Account;
+import com.jay.home.finmanapp.model.Transaction;
+import com.jay.home.finmanapp.model.User;
+import com.jay.home.finmanapp.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TransactionServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private DataVersionService dataVersionService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private TransactionService transactionService;
+
+    private Account account;
+
+    @BeforeEach
+    public void setUp() {
+        User user = new User();
+        user.setId(42L);
+        account = new Account();
+        account.setId(1L);
+        account.setUser(user);
+    }
+
+    @Test
+    public void testManualTransactionIsSavedBeforeVersionBump() {
+        // Arrange
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Transaction transaction = transactionService.addManualTransaction(account, "Coffee",
+                new BigDecimal("-3.50"), LocalDateTime.of(2025, 8, 14, 9, 0), null);
+
+        // Assert
+        assertTrue(transaction.isManualEntry());
+        assertTrue(transaction.getTransactionId().startsWith("manual-"));
+        InOrder order = inOrder(transactionRepository, dataVersionService, eventPublisher);
+        order.verify(transactionRepository).save(transaction);
+        order.verify(dataVersionService).bump(42L);
+        order.verify(eventPublisher).publishEvent(new TransactionsChangedEvent(42L, 1));
+    }
+
+    @Test
+    public void testFailedDeleteDoesNotBumpVersion() {
+        // Arrange
+        Transaction transaction = new Transaction();
+        transaction.setAccount(account);
+        doThrow(new IllegalStateException("database down")).when(transactionRepository).delete(transaction);
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> transactionService.deleteTransaction(transaction));
+
+        // Assert
+        verifyNoInteractions(dataVersionService, eventPublisher);
+    }
+}
@@ -0,0 +1,23 @@
+package com.jay.home.finmanapp.sql;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails a test when it executes more SQL statements than allowed.
+ * Statements run in {@code @BeforeEach} methods are not counted. With MockMvc the request is
+ * executed on the test thread, so the limit applies to the endpoint under test.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(SqlStatementCountExtension.class)
+public @interface MaxSqlStatements {
+    /**
+     * @return Maximum number of statements the test may execute
+     */
+    int value();
+}
@@ -0,0 +1,69 @@
+package com.jay.home.finmanapp.sql;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * JUnit extension that counts the SQL statements each test executes.
+ *
+ * The limit comes from {@link MaxSqlStatements} on the test method or class. Tests can also
+ * declare a {@link SqlStatementStats} parameter to make their own assertions. Statements are
+ * only counted when the data source is proxied, i.e. when {@code SqlMonitoringConfig} is part
+ * of the test context.
+ */
+public class SqlStatementCountExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback,
+        ParameterResolver {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(SqlStatementCountExtension.class);
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == SqlStatementStats.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        // Parameters are resolved before the test executes, so the stats are opened here
+        return stats(extensionContext);
+    }
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        stats(context);
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlStatementStats stats = context.getStore(NAMESPACE).remove(SqlStatementStats.class, SqlStatementStats.class);
+        SqlStatementCounter.end();
+
+        Optional<MaxSqlStatements> limit = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), MaxSqlStatements.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), MaxSqlStatements.class));
+        if (stats == null || limit.isEmpty() || stats.getStatementCount() <= limit.get().value()) {
+            return;
+        }
+        StringBuilder message = new StringBuilder()
+                .append("Expected at most ").append(limit.get().value())
+                .append(" SQL statements but ").append(stats.getStatementCount()).append(" were executed");
+        for (Map.Entry<String, Integer> entry : stats.getRepeatedStatements(5)) {
+            message.append(System.lineSeparator())
+                    .append("  ").append(entry.getValue()).append("x ").append(entry.getKey());
+        }
+        fail(message.toString());
+    }
+
+    private SqlStatementStats stats(ExtensionContext context) {
+        return context.getStore(NAMESPACE)
+                .getOrComputeIfAbsent(SqlStatementStats.class, type -> SqlStatementCounter.begin(), SqlStatementStats.class);
+    }
+}
@@ -0,0 +1,100 @@
+package com.jay.home.finmanapp.sql;
+
+import com.jay.home.finmanapp.config.SqlMonitoringConfig;
+import com.jay.home.finmanapp.model.Account;
+import com.jay.home.finmanapp.model.Category;
+import com.jay.home.finmanapp.model.Transaction;
+import com.jay.home.finmanapp.model.User;
+import com.jay.home.finmanapp.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(SqlMonitoringConfig.class)
+@ExtendWith(SqlStatementCountExtension.class)
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false"
+})
+public class SqlStatementCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Account account;
+
+    @BeforeEach
+    public void setUp() {
+        User user = new User();
+        user.setEmail("sql@finmanapp.com");
+        user.setPassword("secret");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        entityManager.persist(user);
+
+        account = new Account();
+        account.setUser(user);
+        account.setName("Checking");
+        account.setType("CHECKING");
+        account.setBalance(BigDecimal.ZERO);
+        account.setAccountId("acc-1");
+        account.setAccessToken("token");
+        account.setInstitutionId("ins-1");
+        account.setInstitutionName("Bank");
+        account.setLastSynced(LocalDateTime.now());
+        entityManager.persist(account);
+
+        Category food = new Category();
+        food.setName("Food");
+        entityManager.persist(food);
+
+        for (int i = 0; i < 3; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setAccount(account);
+            transaction.setCategory(food);
+            transaction.setTransactionId("txn-" + i);
+            transaction.setDescription("Groceries " + i);
+            transaction.setAmount(new BigDecimal("-10.00"));
+            transaction.setDate(LocalDateTime.now().minusDays(i));
+            entityManager.persist(transaction);
+        }
+        // Inserts must not be counted against the test
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @MaxSqlStatements(1)
+    public void testDateRangeIsOneStatement() {
+        LocalDateTime now = LocalDateTime.now();
+        transactionRepository.findByAccountInAndDateBetween(List.of(account), now.minusDays(30), now.plusDays(1));
+    }
+
+    @Test
+    public void testRepeatedStatementsAreReported(SqlStatementStats stats) {
+        // Act
+        for (int i = 0; i < 3; i++) {
+            transactionRepository.findByAccount(account);
+        }
+
+        // Assert
+        assertEquals(3, stats.getStatementCount());
+        assertEquals(1, stats.getRepeatedStatements(5).size());
+        assertEquals(3, stats.getRepeatedStatements(5).get(0).getValue());
+    }
+}
@@ -0,0 +1,106 @@
+package com.jay.home.finmanapp.sql;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatementGuardListenerTest {
+
+    // Cross join of two large ranges; H2 checks for cancellation while iterating
+    private static final String SLOW_QUERY =
+            "SELECT COUNT(*) FROM SYSTEM_RANGE(1, 1000000) a, SYSTEM_RANGE(1, 1000000) b";
+
+    private SimpleMeterRegistry registry;
+    private DataSource dataSource;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:statement-guard;DB_CLOSE_DELAY=-1");
+        dataSource = ProxyDataSourceBuilder.create("test", h2)
+                .listener(new StatementGuardListener())
+                .build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        QueryScope.detach();
+        Metrics.removeRegistry(registry);
+    }
+
+    @Test
+    public void testScopeTimeoutIsAppliedAndCounted() throws SQLException {
+        // Arrange
+        QueryScope.attach(new QueryScope(1));
+
+        // Act
+        long started = System.nanoTime();
+        SQLException thrown;
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            thrown = assertThrows(SQLException.class, () -> statement.executeQuery(SLOW_QUERY));
+        }
+        long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started);
+
+        // Assert
+        assertTrue(StatementGuardListener.isCancellation(thrown));
+        assertTrue(elapsedSeconds < 10, "Statement ran for " + elapsedSeconds + " s despite its 1 s timeout");
+        assertEquals(1.0, registry.counter("finmanapp.sql.cancelled", "reason", StatementGuardListener.TIMEOUT).count());
+    }
+
+    @Test
+    public void testCancelStopsRunningStatementFromAnotherThread() throws Exception {
+        // Arrange
+        QueryScope scope = new QueryScope(0);
+        QueryScope.attach(scope);
+
+        // Act
+        CompletableFuture<Integer> cancelled = CompletableFuture.supplyAsync(() -> {
+            int count = 0;
+            for (int attempt = 0; attempt < 100 && count == 0; attempt++) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                count = scope.cancel(QueryScopeInterceptor.CLIENT_ABORT);
+            }
+            return count;
+        });
+        SQLException thrown;
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            thrown = assertThrows(SQLException.class, () -> statement.executeQuery(SLOW_QUERY));
+        }
+
+        // Assert
+        assertEquals(1, cancelled.get(5, TimeUnit.SECONDS));
+        assertTrue(StatementGuardListener.isCancellation(thrown));
+        assertEquals(1.0, registry.counter("finmanapp.sql.cancelled", "reason", QueryScopeInterceptor.CLIENT_ABORT).count());
+    }
+
+    @Test
+    public void testStatementsOutsideScopeRunWithoutTimeout() throws SQLException {
+        // Arrange, Act
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT 1").close();
+
+            // Assert
+            assertEquals(0, statement.getQueryTimeout());
+        }
+    }
+}
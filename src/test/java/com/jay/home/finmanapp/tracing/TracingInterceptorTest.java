@@ -0,0 +1,107 @@
+package com.jay.home.finmanapp.tracing;
+
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TracingInterceptorTest {
+
+    public static class LedgerService {
+        private String name = "ledger";
+        private LedgerService self;
+
+        public String getName() {
+            return name;
+        }
+
+        public int total(int a, int b) {
+            return self.add(a, b);
+        }
+
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        public void fail() {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+    private MockTracer tracer;
+
+    @BeforeEach
+    public void setUp() {
+        tracer = new MockTracer();
+    }
+
+    @Test
+    public void testSpansAreFinishedAndNested() {
+        // Arrange
+        LedgerService service = proxy(1.0);
+
+        // Act
+        service.total(1, 2);
+
+        // Assert
+        List<MockSpan> spans = tracer.finishedSpans();
+        assertEquals(2, spans.size());
+        MockSpan child = spans.get(0);
+        MockSpan parent = spans.get(1);
+        assertEquals("tracing.LedgerService.add", child.operationName());
+        assertEquals("tracing.LedgerService.total", parent.operationName());
+        assertEquals(parent.context().spanId(), child.parentId());
+        assertNull(tracer.activeSpan());
+    }
+
+    @Test
+    public void testErrorsAreRecorded() {
+        // Arrange
+        LedgerService service = proxy(1.0);
+
+        // Act
+        assertThrows(IllegalStateException.class, service::fail);
+
+        // Assert
+        MockSpan span = tracer.finishedSpans().get(0);
+        assertEquals(true, span.tags().get("error"));
+        assertEquals("boom", span.logEntries().get(0).fields().get("message"));
+    }
+
+    @Test
+    public void testUnsampledRootSkipsWholeCallTree() {
+        // Arrange
+        LedgerService service = proxy(0.0);
+
+        // Act
+        int result = service.total(1, 2);
+
+        // Assert
+        assertEquals(3, result);
+        assertTrue(tracer.finishedSpans().isEmpty());
+    }
+
+    @Test
+    public void testTrivialAccessorsAreNotTraced() throws Exception {
+        assertTrue(TracedMethodPointcut.isTrivialAccessor(LedgerService.class.getMethod("getName")));
+        assertFalse(TracedMethodPointcut.isTrivialAccessor(LedgerService.class.getMethod("add", int.class, int.class)));
+    }
+
+    private LedgerService proxy(double sampleRate) {
+        LedgerService target = new LedgerService();
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvisor(new DefaultPointcutAdvisor(
+                new TracedMethodPointcut(List.of("com.jay.home.finmanapp.tracing")),
+                new TracingInterceptor(tracer, sampleRate)));
+        LedgerService proxy = (LedgerService) factory.getProxy();
+        target.self = proxy;
+        return proxy;
+    }
+}
@@ -0,0 +1,96 @@
+package com.jay.home.finmanapp.util;
+
+import com.jay.home.finmanapp.model.Budget;
+import com.jay.home.finmanapp.repository.TransactionRepositoryCustom.Window;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BudgetPeriodsTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 8, 14, 15, 30);
+
+    @Test
+    public void testCurrentWindowOfEveryPeriod() {
+        // Assert
+        assertEquals(new Window(LocalDateTime.of(2025, 8, 14, 0, 0), NOW), BudgetPeriods.current(budget("DAILY"), NOW));
+        assertEquals(new Window(LocalDateTime.of(2025, 8, 11, 0, 0), NOW), BudgetPeriods.current(budget("WEEKLY"), NOW));
+        assertEquals(new Window(LocalDateTime.of(2025, 8, 1, 0, 0), NOW), BudgetPeriods.current(budget("MONTHLY"), NOW));
+        assertEquals(new Window(LocalDateTime.of(2025, 7, 1, 0, 0), NOW), BudgetPeriods.current(budget("QUARTERLY"), NOW));
+        assertEquals(new Window(LocalDateTime.of(2025, 1, 1, 0, 0), NOW), BudgetPeriods.current(budget("ANNUALLY"), NOW));
+        assertEquals(new Window(LocalDateTime.of(2024, 11, 1, 0, 0), LocalDateTime.of(2025, 12, 31, 0, 0).with(LocalTime.MAX)),
+                BudgetPeriods.current(budget("CUSTOM"), NOW));
+    }
+
+    @Test
+    public void testCurrentWindowIsClippedToTheBudgetDates() {
+        // Arrange
+        Budget startsMidMonth = budget("MONTHLY");
+        startsMidMonth.setStartDate(LocalDate.of(2025, 8, 11));
+        Budget endsMidMonth = budget("MONTHLY");
+        endsMidMonth.setEndDate(LocalDate.of(2025, 8, 20));
+        Budget endedEarlier = budget("MONTHLY");
+        endedEarlier.setEndDate(LocalDate.of(2025, 8, 10));
+
+        // Act
+        Window current = BudgetPeriods.current(startsMidMonth, NOW);
+        List<Window> windows = BudgetPeriods.windows(startsMidMonth, LocalDate.of(2025, 8, 1), NOW.toLocalDate());
+
+        // Assert
+        assertEquals(new Window(LocalDateTime.of(2025, 8, 11, 0, 0), NOW), current);
+        assertEquals(windows.get(0).start(), current.start());
+        assertEquals(LocalDate.of(2025, 8, 31), BudgetPeriods.currentEnd(startsMidMonth, NOW.toLocalDate()));
+        assertEquals(LocalDate.of(2025, 8, 20), BudgetPeriods.currentEnd(endsMidMonth, NOW.toLocalDate()));
+        assertEquals(new Window(LocalDateTime.of(2025, 8, 1, 0, 0), LocalDate.of(2025, 8, 10).atTime(LocalTime.MAX)),
+                BudgetPeriods.current(endedEarlier, NOW));
+    }
+
+    @Test
+    public void testWindowsAreClippedAndContiguous() {
+        // Arrange
+        Budget monthly = budget("MONTHLY");
+
+        // Act
+        List<Window> windows = BudgetPeriods.windows(monthly, LocalDate.of(2024, 9, 15), LocalDate.of(2025, 2, 10));
+
+        // Assert
+        assertEquals(4, windows.size());
+        assertEquals(LocalDateTime.of(2024, 11, 1, 0, 0), windows.get(0).start());
+        assertEquals(LocalDateTime.of(2024, 12, 1, 0, 0), windows.get(1).start());
+        assertEquals(LocalDate.of(2025, 1, 31).atTime(LocalTime.MAX), windows.get(2).end());
+        assertEquals(new Window(LocalDateTime.of(2025, 2, 1, 0, 0), LocalDate.of(2025, 2, 10).atTime(LocalTime.MAX)),
+                windows.get(3));
+        for (int i = 1; i < windows.size(); i++) {
+            assertEquals(windows.get(i - 1).end().plusNanos(1), windows.get(i).start());
+        }
+    }
+
+    @Test
+    public void testWindowsOfOtherPeriods() {
+        // Act
+        List<Window> weekly = BudgetPeriods.windows(budget("WEEKLY"), LocalDate.of(2025, 8, 6), LocalDate.of(2025, 8, 20));
+        List<Window> quarterly = BudgetPeriods.windows(budget("QUARTERLY"), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31));
+        List<Window> custom = BudgetPeriods.windows(budget("CUSTOM"), LocalDate.of(2025, 1, 1), LocalDate.of(2026, 6, 30));
+        List<Window> before = BudgetPeriods.windows(budget("DAILY"), LocalDate.of(2024, 1, 1), LocalDate.of(2024, 10, 31));
+
+        // Assert
+        assertEquals(List.of(LocalDate.of(2025, 8, 6), LocalDate.of(2025, 8, 11), LocalDate.of(2025, 8, 18)),
+                weekly.stream().map(window -> window.start().toLocalDate()).toList());
+        assertEquals(List.of(1, 4, 7, 10), quarterly.stream().map(window -> window.start().getMonthValue()).toList());
+        assertEquals(List.of(new Window(LocalDateTime.of(2025, 1, 1, 0, 0), LocalDate.of(2025, 12, 31).atTime(LocalTime.MAX))),
+                custom);
+        assertTrue(before.isEmpty());
+    }
+
+    private static Budget budget(String period) {
+        Budget budget = new Budget();
+        budget.setPeriod(period);
+        budget.setStartDate(LocalDate.of(2024, 11, 1));
+        budget.setEndDate(LocalDate.of(2025, 12, 31));
+        return budget;
+    }
+}
@@ -0,0 +1,68 @@
+package com.jay.home.finmanapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    @Test
+    public void testDivideRoundsLikeBigDecimal() {
+        // Arrange
+        long[] dividends = {0, 1, 5, 7, 10, 15, 25, 26, -1, -5, -7, -15, -25, -26, 1001, -1001};
+        long[] divisors = {1, 2, 3, 4, 10, -2, -3, -10};
+
+        for (long dividend : dividends) {
+            for (long divisor : divisors) {
+                for (RoundingMode rounding : RoundingMode.values()) {
+                    // Act
+                    BigDecimal expected;
+                    try {
+                        expected = BigDecimal.valueOf(dividend).divide(BigDecimal.valueOf(divisor), 0, rounding);
+                    } catch (ArithmeticException e) {
+                        assertThrows(ArithmeticException.class, () -> Money.divide(dividend, divisor, rounding));
+                        continue;
+                    }
+
+                    // Assert
+                    assertEquals(expected.longValueExact(), Money.divide(dividend, divisor, rounding),
+                            dividend + " / " + divisor + " " + rounding);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testConversionsAndPercentages() {
+        // Arrange
+        BigDecimal amount = new BigDecimal("1234.565");
+
+        // Act
+        long cents = Money.toCents(amount);
+
+        // Assert
+        assertEquals(123456, cents);
+        assertEquals(0, Money.toCents(null));
+        assertEquals(new BigDecimal("1234.56"), Money.toDecimal(cents));
+        assertEquals(new BigDecimal("33.33"), Money.percentage(1, 3));
+        assertEquals(6667, Money.basisPoints(2, 3));
+        assertEquals(new BigDecimal("0.00"), Money.percentage(500, 0));
+        assertEquals(new BigDecimal("-12.50"), Money.percentage(-1, 8));
+        assertEquals(0, Money.sum(new long[0]));
+        assertEquals(15, Money.sum(new long[] {10, -5, 10}));
+    }
+
+    @Test
+    public void testOverflowFailsInsteadOfWrapping() {
+        // Assert
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Money.subtract(Long.MIN_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Money.sum(new long[] {Long.MAX_VALUE, 1}));
+        assertThrows(ArithmeticException.class, () -> Money.divide(Long.MIN_VALUE, -1, RoundingMode.DOWN));
+        assertThrows(ArithmeticException.class, () -> Money.basisPoints(Long.MAX_VALUE / 100, 1));
+        assertThrows(ArithmeticException.class, () -> Money.toCents(new BigDecimal("1e30")));
+    }
+}